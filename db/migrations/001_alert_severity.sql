@@ -0,0 +1,5 @@
+-- Adds alert severity to databases created before the Severity column existed
+-- New databases get the column from schema.sql and must not run this script
+-- Alerts already stored get the normal severity, the same default new alerts get
+ALTER TABLE alert_details
+    ADD COLUMN Severity TINYINT NOT NULL DEFAULT 1 CHECK (Severity BETWEEN 0 AND 3) AFTER Status; -- 0 low, 1 normal, 2 high, 3 critical
@@ -0,0 +1,23 @@
+-- Adds the id_sequences table IdAllocator reserves ID blocks from, for databases created before it existed
+-- Each row starts after the highest ID already in its table, so the first block reserved never reuses an ID
+-- Safe to run again: a row that already exists is only ever moved forward
+CREATE TABLE IF NOT EXISTS id_sequences (
+    Name VARCHAR(50) PRIMARY KEY,
+    Next_id INT NOT NULL
+);
+
+INSERT INTO id_sequences (Name, Next_id)
+SELECT 'alert_details', IFNULL(MAX(Alert_id), 0) + 1 FROM alert_details
+ON DUPLICATE KEY UPDATE Next_id = GREATEST(Next_id, VALUES(Next_id));
+
+INSERT INTO id_sequences (Name, Next_id)
+SELECT 'user_details', IFNULL(MAX(User_id), 0) + 1 FROM user_details
+ON DUPLICATE KEY UPDATE Next_id = GREATEST(Next_id, VALUES(Next_id));
+
+INSERT INTO id_sequences (Name, Next_id)
+SELECT 'responder_details', IFNULL(MAX(Responder_id), 0) + 1 FROM responder_details
+ON DUPLICATE KEY UPDATE Next_id = GREATEST(Next_id, VALUES(Next_id));
+
+INSERT INTO id_sequences (Name, Next_id)
+SELECT 'admin_details', IFNULL(MAX(Admin_id), 0) + 1 FROM admin_details
+ON DUPLICATE KEY UPDATE Next_id = GREATEST(Next_id, VALUES(Next_id));
@@ -0,0 +1,5 @@
+-- Gives alert_status_history.Changed_at microsecond precision in databases created with second precision
+-- Changed_at is part of the key, so without this two transitions of one alert within the same second collide
+-- Stored rows keep their whole-second values
+ALTER TABLE alert_status_history
+    MODIFY Changed_at TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
@@ -56,6 +56,7 @@ CREATE TABLE alert_details (
     User_id INT NOT NULL,
     Responder_id INT,
     Status VARCHAR(20) DEFAULT 'Active' CHECK (Status IN ('Active', 'Assigned', 'Waiting', 'Resolved')),
+    Severity TINYINT NOT NULL DEFAULT 1 CHECK (Severity BETWEEN 0 AND 3), -- 0 low, 1 normal, 2 high, 3 critical; added to existing databases by migrations/001_alert_severity.sql
     Alert_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     X_coordinate DECIMAL(9,6),
     Y_coordinate DECIMAL(9,6),
@@ -71,7 +72,7 @@ CREATE TABLE alert_status_history (
     Previous_status VARCHAR(20),
     Current_status VARCHAR(20) NOT NULL,
     Responder_id INT,
-    Changed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    Changed_at TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP(6), -- Microsecond precision so back-to-back transitions of one alert do not collide on the key; existing databases: migrations/003_history_microseconds.sql
     FOREIGN KEY (Alert_id) REFERENCES alert_details(Alert_id) ON DELETE CASCADE,
     FOREIGN KEY (Responder_id) REFERENCES responder_details(Responder_id) ON DELETE SET NULL,
     PRIMARY KEY (Alert_id, Changed_at)
@@ -118,3 +119,14 @@ CREATE TABLE responder_update_logs (
     FOREIGN KEY (Responder_id) REFERENCES responder_details(Responder_id) ON UPDATE CASCADE
 );
 
+
+-- =====================
+-- ID Sequences Table
+-- =====================
+-- One row per table; IdAllocator moves Next_id forward a block at a time
+-- Rows are seeded from the table's current MAX(id) the first time an allocator reserves a block
+-- Existing databases get the table and seed rows from migrations/002_id_sequences.sql
+CREATE TABLE id_sequences (
+    Name VARCHAR(50) PRIMARY KEY,
+    Next_id INT NOT NULL
+);
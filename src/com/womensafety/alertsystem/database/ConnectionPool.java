@@ -0,0 +1,405 @@
+package com.womensafety.alertsystem.database;
+
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Shared JDBC connection pool used by every manager, model and service class
+// Keeps physical MySQL connections open between calls so callers never pay the TCP and auth handshake
+// Connections handed out are proxies: calling close() returns the connection to the pool instead of closing it
+// Leak reports name the caller that borrowed the connection; walking the stack costs more than the rest of a borrow, so
+// only a sample of borrows records it. A caller that holds a leaked connection usually does so on every call, so it
+// still shows up in the reports. Connections borrowed with getLongLivedConnection are never reported or reclaimed
+public class ConnectionPool {
+    private static ConnectionPool instance; // Lazily created application-wide pool
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final int minIdle;
+
+    private final Semaphore permits; // One permit per connection that may be borrowed at the same time
+    private final LinkedBlockingDeque<PooledConnection> idle; // Idle connections, most recently returned first
+    private final Set<PooledConnection> active; // Connections currently borrowed by callers
+    private final ScheduledExecutorService housekeeper; // Background thread for idle eviction and leak detection
+
+    // Pool metrics
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong reclaimedCount = new AtomicLong();
+
+    private volatile boolean shutdown = false;
+
+    // Constructor creates a pool for the given database and pre-opens the minimum idle connections
+    public ConnectionPool(String url, String user, String password, int maxSize, int minIdle) {
+        if (maxSize <= 0)
+            throw new IllegalArgumentException("Pool size must be positive");
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.minIdle = Math.min(minIdle, maxSize);
+        this.permits = new Semaphore(maxSize, true);
+        this.idle = new LinkedBlockingDeque<>();
+        this.active = ConcurrentHashMap.newKeySet();
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "db-pool-housekeeper");
+            t.setDaemon(true); // Never keep the JVM alive just for pool maintenance
+            return t;
+        });
+        this.housekeeper.scheduleWithFixedDelay(this::housekeep,
+                Constants.DB_POOL_HOUSEKEEPING_INTERVAL, Constants.DB_POOL_HOUSEKEEPING_INTERVAL, TimeUnit.MILLISECONDS);
+
+        fillMinimumIdle();
+    }
+
+    // Gets the application-wide pool, creating it from Constants on first use
+    public static synchronized ConnectionPool getInstance() {
+        if (instance == null) {
+            instance = new ConnectionPool(Constants.DB_URL, Constants.DB_USER, Constants.DB_PASSWORD,
+                    Constants.DB_POOL_MAX_SIZE, Constants.DB_POOL_MIN_IDLE);
+        }
+        return instance;
+    }
+
+    // Borrows a connection from the application-wide pool
+    // Returns: pooled connection that must be closed by the caller to return it
+    public static Connection getConnection() throws SQLException {
+        return getInstance().borrow(false);
+    }
+
+    // Borrows a connection from the application-wide pool for work that may legitimately hold it for minutes, such
+    // as streaming a whole table; it is exempt from leak reports and from reclaiming
+    // Returns: pooled connection that must be closed by the caller to return it
+    public static Connection getLongLivedConnection() throws SQLException {
+        return getInstance().borrow(true);
+    }
+
+    // Borrows a connection, waiting up to the configured timeout if the pool is exhausted
+    // Returns: validated connection proxy
+    public Connection borrow() throws SQLException {
+        return borrow(false);
+    }
+
+    // Borrows a connection, waiting up to the configured timeout if the pool is exhausted
+    // Parameters: longLived - true to exempt the connection from leak reports and reclaiming
+    // Returns: validated connection proxy
+    public Connection borrow(boolean longLived) throws SQLException {
+        if (shutdown)
+            throw new SQLException("Connection pool has been shut down");
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(Constants.DB_POOL_BORROW_TIMEOUT, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLException("Timed out after " + Constants.DB_POOL_BORROW_TIMEOUT
+                        + " ms waiting for a database connection (active: " + active.size() + ", max: " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = null;
+            PooledConnection candidate;
+            while ((candidate = idle.pollFirst()) != null) {
+                if (isUsable(candidate)) {
+                    pooled = candidate;
+                    break;
+                }
+                validationFailureCount.incrementAndGet();
+                closePhysically(candidate);
+            }
+            if (pooled == null) {
+                pooled = createConnection();
+            }
+
+            pooled.markBorrowed(longLived, !longLived && Constants.DB_POOL_LEAK_DETECTION_THRESHOLD > 0
+                    && borrowCount.get() % Constants.DB_POOL_BORROW_SITE_SAMPLE == 0);
+            active.add(pooled);
+            recordWait(System.nanoTime() - start);
+            return pooled.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release(); // Give the slot back if we failed to hand out a connection
+            throw e;
+        }
+    }
+
+    // Returns a borrowed connection to the idle list after resetting its session state
+    private void release(PooledConnection pooled) {
+        if (!active.remove(pooled)) {
+            return; // Already reclaimed by leak detection
+        }
+        pooled.closeOpenStatements();
+
+        boolean reusable = !shutdown;
+        try {
+            if (reusable && pooled.raw.isClosed()) {
+                reusable = false;
+            }
+            if (reusable && !pooled.raw.getAutoCommit()) {
+                pooled.raw.rollback(); // Never leak an unfinished transaction to the next borrower
+                pooled.raw.setAutoCommit(true);
+            }
+        } catch (SQLException e) {
+            reusable = false;
+        }
+
+        if (reusable) {
+            pooled.lastReturned = System.currentTimeMillis();
+            idle.offerFirst(pooled);
+        } else {
+            closePhysically(pooled);
+        }
+        permits.release();
+    }
+
+    // Checks whether an idle connection can be handed out, validating it unless it was used very recently
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.raw.isClosed())
+                return false;
+            if (System.currentTimeMillis() - pooled.lastReturned < Constants.DB_POOL_VALIDATION_BYPASS)
+                return true;
+            return pooled.raw.isValid(Constants.DB_POOL_VALIDATION_TIMEOUT);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // Opens a new physical connection to the database
+    private PooledConnection createConnection() throws SQLException {
+        Connection raw = DriverManager.getConnection(url, user, password);
+        createdCount.incrementAndGet();
+        return new PooledConnection(raw);
+    }
+
+    // Pre-opens connections until the minimum idle count is reached
+    private void fillMinimumIdle() {
+        while (!shutdown && idle.size() < minIdle && idle.size() + active.size() < maxSize) {
+            try {
+                idle.offerLast(createConnection());
+            } catch (SQLException e) {
+                SystemLogger.warning("Connection pool could not pre-open connections: " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Periodic maintenance: evicts idle connections, reports leaks and reclaims abandoned connections
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+
+            // Evict connections idle for too long, but keep the minimum warm
+            Iterator<PooledConnection> it = idle.descendingIterator(); // Oldest returned first
+            while (it.hasNext() && idle.size() > minIdle) {
+                PooledConnection pooled = it.next();
+                if (now - pooled.lastReturned > Constants.DB_POOL_IDLE_TIMEOUT && idle.remove(pooled)) {
+                    evictedCount.incrementAndGet();
+                    closePhysically(pooled);
+                }
+            }
+
+            // Report connections held for too long and reclaim ones that were clearly abandoned
+            for (PooledConnection pooled : active) {
+                if (pooled.longLived)
+                    continue; // Held on purpose, such as a warm-start stream
+                long heldFor = now - pooled.borrowedAt;
+                if (heldFor > Constants.DB_POOL_ABANDONED_TIMEOUT) {
+                    if (active.remove(pooled)) {
+                        reclaimedCount.incrementAndGet();
+                        SystemLogger.warning("Reclaiming abandoned database connection held for " + heldFor / 1000
+                                + "s, borrowed at " + pooled.describeBorrowSite());
+                        pooled.closeOpenStatements();
+                        closePhysically(pooled);
+                        permits.release();
+                    }
+                } else if (Constants.DB_POOL_LEAK_DETECTION_THRESHOLD > 0
+                        && heldFor > Constants.DB_POOL_LEAK_DETECTION_THRESHOLD && !pooled.leakReported) {
+                    pooled.leakReported = true;
+                    leakCount.incrementAndGet();
+                    SystemLogger.warning("Possible database connection leak: held for " + heldFor / 1000
+                            + "s, borrowed at " + pooled.describeBorrowSite());
+                }
+            }
+
+            fillMinimumIdle();
+        } catch (RuntimeException e) {
+            SystemLogger.error("Connection pool housekeeping failed: " + e.getMessage());
+        }
+    }
+
+    // Records borrow wait time for metrics
+    private void recordWait(long waitNanos) {
+        borrowCount.incrementAndGet();
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    // Closes the underlying physical connection, ignoring errors
+    private void closePhysically(PooledConnection pooled) {
+        try {
+            pooled.raw.close();
+        } catch (SQLException ignored) {
+            // Connection is being discarded anyway
+        }
+    }
+
+    // Closes every idle connection and stops the housekeeping thread
+    public void shutdown() {
+        shutdown = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            closePhysically(pooled);
+        }
+        SystemLogger.info("Connection pool shut down. " + getStatistics());
+    }
+
+    // Gets the number of connections currently borrowed
+    public int getActiveCount() {
+        return active.size();
+    }
+    // Gets the number of open connections waiting in the pool
+    public int getIdleCount() {
+        return idle.size();
+    }
+    // Gets the number of threads currently waiting for a connection
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+    // Gets the total number of successful borrows
+    public long getBorrowCount() {
+        return borrowCount.get();
+    }
+    // Gets the average time callers waited for a connection, in milliseconds
+    public double getAverageWaitMillis() {
+        long borrows = borrowCount.get();
+        return borrows == 0 ? 0.0 : totalWaitNanos.get() / (double) borrows / 1_000_000.0;
+    }
+    // Gets the longest time a caller waited for a connection, in milliseconds
+    public double getMaxWaitMillis() {
+        return maxWaitNanos.get() / 1_000_000.0;
+    }
+
+    // Returns a one-line summary of pool metrics
+    public String getStatistics() {
+        return String.format("Pool[active=%d, idle=%d, waiting=%d, max=%d, borrows=%d, avgWait=%.3fms, maxWait=%.3fms, "
+                        + "timeouts=%d, created=%d, evicted=%d, validationFailures=%d, leaks=%d, reclaimed=%d]",
+                getActiveCount(), getIdleCount(), getWaitingCount(), maxSize, getBorrowCount(),
+                getAverageWaitMillis(), getMaxWaitMillis(), timeoutCount.get(), createdCount.get(),
+                evictedCount.get(), validationFailureCount.get(), leakCount.get(), reclaimedCount.get());
+    }
+
+    // A physical connection plus the bookkeeping the pool needs for it
+    private class PooledConnection implements InvocationHandler {
+        private final Connection raw;
+        private final Connection proxy;
+        private final List<Statement> openStatements = new ArrayList<>(); // Statements to close when the connection is returned
+        private volatile long borrowedAt;
+        private volatile long lastReturned;
+        private volatile boolean leakReported;
+        private volatile String borrowSite; // Caller that borrowed the connection, or null if this borrow was not sampled
+        private volatile boolean longLived; // Exempt from leak reports and reclaiming while borrowed
+        private volatile boolean returned = true;
+
+        PooledConnection(Connection raw) {
+            this.raw = raw;
+            this.lastReturned = System.currentTimeMillis();
+            this.proxy = (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, this);
+        }
+
+        // Records when the connection was borrowed, and by whom if this borrow is sampled, for leak detection
+        void markBorrowed(boolean longLived, boolean recordSite) {
+            borrowedAt = System.currentTimeMillis();
+            leakReported = false;
+            this.longLived = longLived;
+            returned = false;
+            borrowSite = recordSite ? findBorrowSite() : null;
+        }
+
+        // Gets the borrow site for a leak report
+        String describeBorrowSite() {
+            String site = borrowSite;
+            return site != null ? site : "an unsampled call site";
+        }
+
+        // Closes any statements the borrower left open
+        void closeOpenStatements() {
+            synchronized (openStatements) {
+                for (Statement st : openStatements) {
+                    try {
+                        st.close();
+                    } catch (SQLException ignored) {
+                        // Statement is being discarded anyway
+                    }
+                }
+                openStatements.clear();
+            }
+        }
+
+        // Intercepts close() so the connection goes back to the pool, and tracks created statements
+        @Override
+        public Object invoke(Object proxyObj, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!returned) {
+                        returned = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned || raw.isClosed();
+                case "equals":
+                    return proxyObj == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxyObj);
+                case "toString":
+                    return "Pooled" + raw;
+                default:
+                    if (returned)
+                        throw new SQLException("Connection has already been returned to the pool");
+            }
+
+            try {
+                Object result = method.invoke(raw, args);
+                if (result instanceof Statement) {
+                    synchronized (openStatements) {
+                        openStatements.add((Statement) result);
+                    }
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        // Finds the first stack frame outside the pool to report where a connection was borrowed
+        private String findBorrowSite() {
+            return StackWalker.getInstance().walk(frames -> frames
+                    .filter(f -> !f.getClassName().startsWith(ConnectionPool.class.getName()))
+                    .findFirst()
+                    .map(f -> f.getClassName() + "." + f.getMethodName() + ":" + f.getLineNumber())
+                    .orElse("unknown"));
+        }
+    }
+}
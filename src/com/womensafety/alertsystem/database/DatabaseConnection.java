@@ -4,18 +4,17 @@ import java.sql.*;
 // Database connection class
 class DatabaseConnection{
     public static void main(String[] args) throws Exception{
-        // Database connection parameters
-        String dburl="jdbc:mysql://localhost:3306/WomenSafetyDB"; 
-        String dbuser="root";
-        String dbpass=""; 
-
-        Connection con=DriverManager.getConnection(dburl,dbuser,dbpass);
+        // Borrow a connection from the shared pool (configured in Constants)
+        Connection con=ConnectionPool.getConnection();
 
         // Check if connection was successful
-        if(con!=null){
+        if(con!=null && con.isValid(2)){
             System.out.println("Connection is successful.");
         }else{
             System.out.println("Connection failed.");
         }
+        con.close(); // Return connection to the pool
+        System.out.println(ConnectionPool.getInstance().getStatistics());
+        ConnectionPool.getInstance().shutdown();
     }
 }
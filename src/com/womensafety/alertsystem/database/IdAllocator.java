@@ -0,0 +1,121 @@
+package com.womensafety.alertsystem.database;
+
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.sql.*;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Block-based ID allocator backed by the id_sequences table
+// Each process reserves a block of IDs with one atomic update of the sequence row and then hands them out from an
+// in-memory counter, so generating an ID needs no database trip and no lock; two threads or two JVMs always get
+// disjoint blocks. IDs left unused in a block when the process stops are skipped, so IDs may have gaps
+public class IdAllocator {
+    private static final Map<String, IdAllocator> allocators = new ConcurrentHashMap<>(); // One allocator per table
+
+    // Seeds the sequence row from the table's current maximum the first time it is used
+    private static final String SEED_SQL = "INSERT IGNORE INTO id_sequences (Name, Next_id) SELECT ?, IFNULL(MAX(%s), 0) + 1 FROM %s";
+    // Reserves a block; LAST_INSERT_ID(expr) makes the new high value readable on this connection without a second lock
+    private static final String RESERVE_SQL = "UPDATE id_sequences SET Next_id = LAST_INSERT_ID(Next_id + ?) WHERE Name = ?";
+    private static final String HIGH_SQL = "SELECT LAST_INSERT_ID() AS high";
+
+    private final String table;
+    private final String idColumn;
+    private final int blockSize;
+    private volatile Block current = new Block(0, 0); // Empty block forces a reservation on first use
+
+    // Metrics
+    private final AtomicInteger reservations = new AtomicInteger();
+
+    // Constructor creates an allocator for the given table and ID column
+    public IdAllocator(String table, String idColumn, int blockSize) {
+        if (blockSize <= 0)
+            throw new IllegalArgumentException("Block size must be positive");
+        this.table = table;
+        this.idColumn = idColumn;
+        this.blockSize = blockSize;
+    }
+
+    // Gets the shared allocator for a table, creating it with the configured block size on first use
+    public static IdAllocator forTable(String table, String idColumn) {
+        return allocators.computeIfAbsent(table, t -> new IdAllocator(t, idColumn, Constants.ID_BLOCK_SIZE));
+    }
+
+    // Gets the next unused ID
+    // Returns: ID that no other thread or process will be given
+    // Throws: SQLException if a new block is needed and cannot be reserved
+    public int nextId() throws SQLException {
+        while (true) {
+            Block block = current;
+            int id = block.next.getAndIncrement();
+            if (id < block.limit)
+                return id;
+            refill(block);
+        }
+    }
+
+    // Replaces an exhausted block; only the first thread to see it exhausted goes to the database
+    private synchronized void refill(Block exhausted) throws SQLException {
+        if (current != exhausted)
+            return; // Another thread already reserved a new block
+        int high = reserveBlock();
+        current = new Block(high - blockSize, high);
+        reservations.incrementAndGet();
+        SystemLogger.info("Reserved " + table + " IDs " + (high - blockSize) + " to " + (high - 1));
+    }
+
+    // Moves the sequence row forward by one block
+    // The three statements are sent separately on one connection in one transaction; the shared URL does not allow
+    // several statements in one call
+    // Returns: first ID after the reserved block
+    private int reserveBlock() throws SQLException {
+        try (Connection con = ConnectionPool.getConnection()) {
+            con.setAutoCommit(false); // The pool rolls back and restores auto-commit if this connection is returned mid-transaction
+            try {
+                try (PreparedStatement pst = con.prepareStatement(String.format(SEED_SQL, idColumn, table))) {
+                    pst.setString(1, table);
+                    pst.executeUpdate();
+                }
+                try (PreparedStatement pst = con.prepareStatement(RESERVE_SQL)) {
+                    pst.setInt(1, blockSize);
+                    pst.setString(2, table);
+                    if (pst.executeUpdate() != 1)
+                        throw new SQLException("No sequence row for " + table);
+                }
+                int high;
+                try (PreparedStatement pst = con.prepareStatement(HIGH_SQL);
+                     ResultSet rs = pst.executeQuery()) {
+                    if (!rs.next())
+                        throw new SQLException("No block reserved for " + table);
+                    high = rs.getInt("high");
+                }
+                con.commit();
+                return high;
+            } catch (SQLException e) {
+                try {
+                    con.rollback();
+                } catch (SQLException ignored) {
+                    // Connection is broken; the server discards the open transaction when it closes
+                }
+                throw e;
+            }
+        }
+    }
+
+    // Gets the number of blocks this allocator has reserved
+    public int getReservationCount() {
+        return reservations.get();
+    }
+
+    // A reserved range of IDs: next is handed out first, limit is exclusive
+    private static class Block {
+        final AtomicInteger next;
+        final int limit;
+
+        Block(int first, int limit) {
+            this.next = new AtomicInteger(first);
+            this.limit = limit;
+        }
+    }
+}
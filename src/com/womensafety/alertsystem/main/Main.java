@@ -51,6 +51,7 @@
 // Main class for the Women's Safety Alert System application
 package com.womensafety.alertsystem.main;
 
+import com.womensafety.alertsystem.database.ConnectionPool;
 import com.womensafety.alertsystem.model.*;
 import com.womensafety.alertsystem.model.Person;
 import com.womensafety.alertsystem.manager.*;
@@ -69,8 +70,9 @@ class Main {
     private static AdminManager adminManager = new AdminManager();
     private static LocationManager locationManager = new LocationManager();
     private static Dispatcher dispatcher = new Dispatcher(locationManager, userManager, responderManager);
+    private static LocationIngestor locationIngestor = new LocationIngestor(locationManager); // Applies streamed responder positions
+    private static LocationGateway locationGateway = new LocationGateway(locationIngestor); // Receives positions from responder devices
     // Start threads for background tasks related to alerts and responder status
-    private static AlertLoopThread alertLoopThread = new AlertLoopThread(dispatcher);
     private static Thread responderStatusCheckerThread = new Thread(new ResponderStatusChecker(locationManager));
     private static HashMap<Integer, Alert> alertMap = new HashMap<>(); // Map to track alerts by user ID
     private static User currentUser = null; // Currently logged-in user
@@ -80,6 +82,13 @@ class Main {
     public static void main(String[] args) throws Exception {
         System.out.println(Constants.CYAN + "\nStarting Women's Safety Alert System...." + Constants.RESET);
         AdminManager adminManager = new AdminManager();
+        try {
+            new WarmStartLoader(locationManager, userManager).run(); // Fill the zone index and entity caches before dispatch starts
+        } catch (RuntimeException e) {
+            SystemLogger.error("Warm start failed, loading on demand instead: " + e); // Startup continues with empty caches
+        }
+        dispatcher.startWorkers(); // One worker per zone dispatches waiting alerts as soon as responders free up
+        locationGateway.start(); // Stream responder GPS positions into the ingestor
         boolean running = true;
         
         // Main application loop - continues until user chooses to exit
@@ -95,10 +104,14 @@ class Main {
         if (responderStatusCheckerThread.isAlive()) {
             responderStatusCheckerThread.interrupt();
         }
-        if (alertLoopThread.isAlive()) {
-            alertLoopThread.stopThread();
-        }
+        dispatcher.shutdown(); // Stop the zone dispatch workers
+        locationGateway.shutdown(); // Stop receiving positions before the ingestor drains
+        locationIngestor.shutdown(); // Apply and save the last reported positions
+        GroupCommitWriter.getInstance().shutdown(); // Flush queued transitions before the pool closes
+        ConnectionPool.getInstance().shutdown(); // Close pooled database connections
         SystemLogger.info("System shutting down.");
+        EscalationLogger.shutdown(); // Write out queued escalation events and force the journal to disk
+        SystemLogger.shutdown(); // Write out queued log messages last, after every component has logged its shutdown
     }
 
     // Displays the login menu and handles user authentication flow
@@ -108,6 +121,7 @@ class Main {
 
     // Displays the main role selection menu and handles user role choice
     private static boolean showRoleSelectionMenu(AdminManager adminManager) {
+        SystemLogger.flush(); // Print pending log messages before the menu
         System.out.println("\n" + "=".repeat(50));
         System.out.println(Constants.MAGENTA_ITALIC_BOLD + "            Safety Alert System Menu            " + Constants.RESET);
         System.out.println("=".repeat(50));
@@ -137,6 +151,7 @@ class Main {
     private static boolean showUserMenu() {
         boolean runUser = true; // Control variable for the user menu loop
         while (runUser) {
+            SystemLogger.flush(); // Print pending log messages before the menu
             System.out.println("\n" + "=".repeat(50));
             System.out.println(Constants.BLUE + " USER MENU " + Constants.RESET);
             System.out.println("=".repeat(50));
@@ -216,6 +231,7 @@ class Main {
     private static boolean showResponderMenu() {
         boolean runResponder = true; // Control variable for the responder menu loop
         while (runResponder) {
+            SystemLogger.flush(); // Print pending log messages before the menu
             System.out.println("\n" + "=".repeat(50));
             System.out.println(Constants.BLUE + " RESPONDER MENU " + Constants.RESET);
             System.out.println("=".repeat(50));
@@ -318,6 +334,7 @@ class Main {
     private static boolean showAdminMenu(AdminManager adminManager) {
         boolean runAdmin = true; // Control variable for the admin menu loop
         while (runAdmin) {
+            SystemLogger.flush(); // Print pending log messages before the menu
             System.out.println("\n" + "=".repeat(50)); // Menu header formatting
             System.out.println(Constants.BLUE + " ADMIN MENU " + Constants.RESET);
             System.out.println("=".repeat(50));
@@ -510,14 +527,14 @@ class Main {
 
         // Validate and collect zone information with specific allowed values
         while (true) {
-            System.out.print("Zone (North/South/East/West): ");
+            System.out.print("Zone (" + String.join("/", ZoneRegistry.getInstance().getZoneNames()) + "): ");
             userZone=sc.nextLine().trim().toLowerCase();
 
-            // Validate zone against predefined pattern (north/south/east/west)
-            if(Pattern.matches(Constants.ZONE_PATTERN, userZone)) {
+            // Validate zone against the zone registry
+            if(ZoneRegistry.getInstance().isKnownZone(userZone)) {
                 break; // Exit loop when valid zone is provided
             } else {
-                SystemLogger.error("Invalid zone. It must be North, South, East, or West.");
+                SystemLogger.error("Invalid zone. It must be one of: " + String.join(", ", ZoneRegistry.getInstance().getZoneNames()) + ".");
                 System.out.println("");
             }
         }
@@ -648,13 +665,13 @@ class Main {
 
         // Validate and collect zone information with specific allowed values
         while (true) {
-            System.out.print("Zone (North/South/East/West): ");
+            System.out.print("Zone (" + String.join("/", ZoneRegistry.getInstance().getZoneNames()) + "): ");
             respZone=sc.nextLine().trim().toLowerCase();
-            // Validate zone against predefined pattern (north/south/east/west)
-            if(Pattern.matches(Constants.ZONE_PATTERN, respZone)) {
+            // Validate zone against the zone registry
+            if(ZoneRegistry.getInstance().isKnownZone(respZone)) {
                 break; // Exit loop when valid zone is provided
             } else {
-                SystemLogger.error("Invalid zone. It must be North, South, East, or West.");
+                SystemLogger.error("Invalid zone. It must be one of: " + String.join(", ", ZoneRegistry.getInstance().getZoneNames()) + ".");
                 System.out.println("");
             }
         }
@@ -864,11 +881,7 @@ class Main {
     // Check if a user has any active alerts (active, assigned, or waiting status)
     private static boolean hasActiveAlert(int userId) {
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             // Query to count active alerts for the user across multiple statuses
             String query = "SELECT COUNT(*) as count FROM alert_details WHERE User_id = ? AND Status IN (?, ?, ?)";
@@ -900,11 +913,7 @@ class Main {
     // Retrieve the most recent active alert for a specific user from database
     private static Alert getUserActiveAlert(int userId) {
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             // Complex query joining alert, user, and responder tables to get complete alert information
             String query = "SELECT a.*, u.Name as user_name, u.Phone_no as user_phone, u.Email as user_email, " +
@@ -940,6 +949,7 @@ class Main {
                 );
                 user.setX(rs.getDouble("user_x"));
                 user.setY(rs.getDouble("user_y"));
+                user = userManager.internUser(user); // Reuse the cached instance instead of a second copy
 
                 Responder responder = null;
                 // Only create responder object if responder_id is not 0 (alert has been assigned)
@@ -955,6 +965,7 @@ class Main {
                     );
                     responder.setX(rs.getDouble("resp_x"));
                     responder.setY(rs.getDouble("resp_y"));
+                    responder = responderManager.internResponder(responder);
                 }
 
                 // Create complete Alert object with all related data
@@ -965,6 +976,7 @@ class Main {
                     rs.getString("Status"),
                     responder
                 );
+                alert.setSeverity(rs.getInt("Severity"));
                 
                 rs.close();
                 pst.close();
@@ -984,58 +996,6 @@ class Main {
         return null; // Return null if no active alert found
     }
 
-    // Update database with responder assignment details including distance calculation
-    private static void updateAssignmentInDatabase(Alert alert, Responder responder, double distance) {
-        try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Update alert status and assign responder in alert_details table
-            String updateAlertSQL = "UPDATE alert_details SET Status = ?, Responder_id = ? WHERE Alert_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateAlertSQL)) {
-                pst.setString(1, Constants.STATUS_ASSIGNED);
-                pst.setInt(2, responder.getId());
-                pst.setInt(3, alert.getAlertId());
-                pst.executeUpdate();
-            }
-            
-            // Create dispatch record with calculated distance in dispatches table
-            String dispatchSQL = "INSERT INTO dispatches (Alert_id, Responder_id, Distance_km) VALUES (?, ?, ?)";
-            try (PreparedStatement pst = con.prepareStatement(dispatchSQL)) {
-                pst.setInt(1, alert.getAlertId());
-                pst.setInt(2, responder.getId());
-                pst.setDouble(3, distance * 111.32); // Convert degrees to kilometers (approx 111.32 km per degree)
-                pst.executeUpdate();
-            }
-            
-            // Update responder availability status to false (busy)
-            String updateResponderSQL = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateResponderSQL)) {
-                pst.setBoolean(1, false);
-                pst.setInt(2, responder.getId());
-                pst.executeUpdate();
-            }
-            
-            // Log status change in alert_status_history for audit trail
-            String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pst = con.prepareStatement(historySQL)) {
-                pst.setInt(1, alert.getAlertId());
-                pst.setString(2, Constants.STATUS_ACTIVE);
-                pst.setString(3, Constants.STATUS_ASSIGNED);
-                pst.setInt(4, responder.getId());
-                pst.executeUpdate();
-            }
-            
-            con.close();
-            SystemLogger.info("Database updated successfully for automatic assignment.");
-            
-        } catch (Exception e) {
-            SystemLogger.error("Database error during automatic assignment: " + e.getMessage());
-        }
-    }
-
     // Handle raising an alert by the user
     private static void handleRaiseAlert() {
         try {
@@ -1053,23 +1013,21 @@ class Main {
             }
 
             Alert alert = new Alert(currentUser);
+            alert.setSeverity(askSeverity()); // Orders the alert in its zone's dispatch queue
             SystemLogger.info("Searching for available responder in " + currentUser.getZone() + " zone...");
             
             // Let the dispatcher handle saving to database - this will also add to queue
             dispatcher.addAlert(alert);
             
-            // Only process the specific alert that was just created, not all pending alerts
-            // This prevents duplicate processing of existing alerts in the queue
-            dispatcher.processNextAlert();
+            // Only process the next alert of the user's zone shard, not all pending alerts
+            // Other zones are left to their own dispatch workers
+            dispatcher.processNextAlert(currentUser.getZone());
             
             SystemLogger.info("Please stay safe and keep your phone accessible.");
             
             if (!responderStatusCheckerThread.isAlive()) {
                 responderStatusCheckerThread.start();
             }
-            if (!alertLoopThread.isAlive()) {
-                alertLoopThread.start();
-            }
             
         } catch (SecurityException e) {
             SystemLogger.error("Access denied: " + e.getMessage());
@@ -1078,6 +1036,23 @@ class Main {
         }
     }
 
+    // Asks the user how urgent their situation is
+    // Returns: severity constant for the alert
+    private static int askSeverity() {
+        System.out.println("How urgent is your situation?");
+        System.out.println("1. I am in immediate danger");
+        System.out.println("2. I am being threatened or followed");
+        System.out.println("3. I feel unsafe");
+        System.out.println("4. I want someone to check on me");
+        int choice = getValidChoice(1, 4);
+        return switch (choice) {
+            case 1 -> Constants.SEVERITY_CRITICAL;
+            case 2 -> Constants.SEVERITY_HIGH;
+            case 3 -> Constants.SEVERITY_NORMAL;
+            default -> Constants.SEVERITY_LOW;
+        };
+    }
+
     // Handle completing an alert
     private static void handleCompleteAlert() {
         try {
@@ -1237,19 +1212,20 @@ class Main {
                     System.out.println(""); 
                     while(true){ // Zone validation loop
                         System.out.print("Current Zone: " + currentUser.getZone()); // Show current zone
-                        System.out.print("\nNew Zone (North/South/East/West): ");
+                        System.out.print("\nNew Zone (" + String.join("/", ZoneRegistry.getInstance().getZoneNames()) + "): ");
                         String newZone = sc.nextLine().trim().toLowerCase();
 
-                        if (newZone.isEmpty() || !Pattern.matches(Constants.ZONE_PATTERN, newZone)) { // Validate zone format
-                            SystemLogger.error("Update cancelled - Invalid zone. It must be North, South, East, or West."); // Log validation error
+                        if (newZone.isEmpty() || !ZoneRegistry.getInstance().isKnownZone(newZone)) { // Validate zone format
+                            SystemLogger.error("Update cancelled - Invalid zone. It must be one of: " + String.join(", ", ZoneRegistry.getInstance().getZoneNames()) + "."); // Log validation error
                             System.out.println("");
                         } else {
                             String oldZone = currentUser.getZone();
                             double oldX = currentUser.getX();
                             double oldY = currentUser.getY();
                             
-                            currentUser.setZone(newZone); // Update local user object with new zone
                             double[] coords = CoordinateGenerator.generateZoneBasedCoordinates(newZone); // Generate new coordinates for the zone
+                            newZone = ZoneRegistry.getInstance().resolveZone(coords[1], coords[0], newZone); // Store the registered spelling, not the typed one
+                            currentUser.setZone(newZone); // Update local user object with new zone
                             currentUser.setX(coords[1]);
                             currentUser.setY(coords[0]);
                             
@@ -1378,10 +1354,11 @@ class Main {
                     // Zone update section - most complex due to coordinate management
                     System.out.print("Zone [" + currentUser.getZone() + "]: ");
                     String allZone = sc.nextLine().trim().toLowerCase();
-                    if (!allZone.isEmpty() && Pattern.matches(Constants.ZONE_PATTERN, allZone)) { 
+                    if (!allZone.isEmpty() && ZoneRegistry.getInstance().isKnownZone(allZone)) { 
                         String zoneOld = currentUser.getZone();
-                        currentUser.setZone(allZone);
                         double[] coords = CoordinateGenerator.generateZoneBasedCoordinates(allZone);
+                        allZone = ZoneRegistry.getInstance().resolveZone(coords[1], coords[0], allZone); // Store the registered spelling, not the typed one
+                        currentUser.setZone(allZone);
                         currentUser.setX(coords[1]);
                         currentUser.setY(coords[0]);
                         
@@ -1570,12 +1547,12 @@ class Main {
                     while(true){
                         System.out.println("");
                         System.out.print("Current Zone: " + currentResponder.getZone());
-                        System.out.print("\nNew Zone (North/South/East/West): ");
+                        System.out.print("\nNew Zone (" + String.join("/", ZoneRegistry.getInstance().getZoneNames()) + "): ");
                         String newZone = sc.nextLine().trim().toLowerCase();
                         
                         // Validate zone format using predefined pattern
-                        if (newZone.isEmpty() || !Pattern.matches(Constants.ZONE_PATTERN, newZone)) {
-                            SystemLogger.error("Update cancelled - Invalid zone. It must be North, South, East, or West.");
+                        if (newZone.isEmpty() || !ZoneRegistry.getInstance().isKnownZone(newZone)) {
+                            SystemLogger.error("Update cancelled - Invalid zone. It must be one of: " + String.join(", ", ZoneRegistry.getInstance().getZoneNames()) + ".");
                             System.out.println("");
                         } else {
                             // Store old values for comprehensive rollback if needed
@@ -1587,8 +1564,9 @@ class Main {
                             locationManager.removeResponder(currentResponder.getId());
                             
                             // Update zone and generate new coordinates based on the selected zone
-                            currentResponder.setZone(newZone);
                             double[] coords = CoordinateGenerator.generateZoneBasedCoordinates(newZone);
+                            newZone = ZoneRegistry.getInstance().resolveZone(coords[1], coords[0], newZone); // Store the registered spelling, not the typed one
+                            currentResponder.setZone(newZone);
                             currentResponder.setX(coords[1]);
                             currentResponder.setY(coords[0]);
                             
@@ -1631,15 +1609,14 @@ class Main {
                             // Store old value for potential rollback
                             boolean oldAvailability = currentResponder.isAvailable();
                             boolean availability = Boolean.parseBoolean(newAvailability);
-                            currentResponder.setAvailable(availability);
 
                             // Update database with string representation of boolean
+                            // Memory is updated only afterwards: going available wakes waiting alerts, whose claim must see the new value
                             if (responderManager.updateResponderInDatabase(currentResponder.getId(), "availability", 
                                 String.valueOf(oldAvailability), String.valueOf(availability))) {
+                                locationManager.setAvailability(currentResponder, availability);
                                 SystemLogger.success("Availability updated from " + oldAvailability + " to " + availability);
                             } else {
-                                // Rollback on database failure
-                                currentResponder.setAvailable(oldAvailability);
                                 SystemLogger.error("Failed to update database. Changes reverted.");
                             }
                             break; // Exit availability validation loop
@@ -1753,12 +1730,13 @@ class Main {
                     // Zone update section - most complex due to coordinate and location manager coordination
                     System.out.print("Zone [" + currentResponder.getZone() + "]: ");
                     String allZone = sc.nextLine().trim().toLowerCase(); 
-                    if (!allZone.isEmpty() && Pattern.matches(Constants.ZONE_PATTERN, allZone)) { 
+                    if (!allZone.isEmpty() && ZoneRegistry.getInstance().isKnownZone(allZone)) { 
                         String zoneOld = currentResponder.getZone();
                         locationManager.removeResponder(currentResponder.getId());
 
-                        currentResponder.setZone(allZone);
                         double[] coords = CoordinateGenerator.generateZoneBasedCoordinates(allZone);
+                        allZone = ZoneRegistry.getInstance().resolveZone(coords[1], coords[0], allZone); // Store the registered spelling, not the typed one
+                        currentResponder.setZone(allZone);
                         currentResponder.setX(coords[1]);
                         currentResponder.setY(coords[0]);
 
@@ -1780,11 +1758,12 @@ class Main {
                     if (!allAvailability.isEmpty() && (allAvailability.equals("true") || allAvailability.equals("false"))) {
                         boolean availabilityOld = currentResponder.isAvailable();
                         boolean newAvail = Boolean.parseBoolean(allAvailability); 
-                        currentResponder.setAvailable(newAvail);
 
-                        if (!responderManager.updateResponderInDatabase(currentResponder.getId(), "availability",String.valueOf(availabilityOld), String.valueOf(newAvail))) {
+                        // Database first, so waiting alerts woken by the change can claim this responder
+                        if (responderManager.updateResponderInDatabase(currentResponder.getId(), "availability",String.valueOf(availabilityOld), String.valueOf(newAvail))) {
+                            locationManager.setAvailability(currentResponder, newAvail);
+                        } else {
                             updateSuccess = false;
-                            currentResponder.setAvailable(availabilityOld);
                         }
                     }
 
@@ -1819,16 +1798,10 @@ class Main {
 
     // Checks if a user has any active alerts in the database (assigned or waiting status)
     private static boolean hasActiveAlertFromDB(int userId) {
-        try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-
-            // SQL query to count active alerts for the user with specific statuses
-            String sql = "SELECT COUNT(*) FROM alert_details WHERE User_id = ? AND Status IN (?, ?)";
-            PreparedStatement pst=con.prepareStatement(sql);
+        // SQL query to count active alerts for the user with specific statuses
+        String sql = "SELECT COUNT(*) FROM alert_details WHERE User_id = ? AND Status IN (?, ?)";
+        try (Connection con = ConnectionPool.getConnection(); // Returned to the pool even on early return
+             PreparedStatement pst = con.prepareStatement(sql)) {
 
             pst.setInt(1, userId);
             pst.setString(2, Constants.STATUS_ASSIGNED);
@@ -1,9 +1,14 @@
 package com.womensafety.alertsystem.manager;
 
+import com.womensafety.alertsystem.database.ConnectionPool;
+import com.womensafety.alertsystem.database.IdAllocator;
 import com.womensafety.alertsystem.model.*;
 import com.womensafety.alertsystem.security.RBACManager;
+import com.womensafety.alertsystem.service.GroupCommitWriter;
+import com.womensafety.alertsystem.util.EscalationJournal;
 import com.womensafety.alertsystem.util.SystemLogger;
 import java.sql.*;
+import java.util.Map;
 
 // Manages admin creation, authentication, system statistics, and validation
 public class AdminManager {
@@ -11,19 +16,9 @@ public class AdminManager {
     // Creates a new admin user in the system
     public Admin createAdmin(String name, String phone, String email, String password) {
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Get next admin ID
-            String getIdQuery = "SELECT MAX(Admin_id) as max_id FROM admin_details"; // Query to get max admin ID
-            PreparedStatement getIdPst = con.prepareStatement(getIdQuery);
-            ResultSet rs = getIdPst.executeQuery();
-            int adminId = 1; // Default admin ID
-            if (rs.next()) {
-                adminId = rs.getInt("max_id") + 1; // Increment max ID for new admin
-            }
+            int adminId = IdAllocator.forTable("admin_details", "Admin_id").nextId(); // Next ID from the reserved block
+
+            Connection con = ConnectionPool.getConnection();
             
             String sql = "INSERT INTO admin_details (Admin_id, Name, Phone_no, Email, Password, Role) VALUES (?, ?, ?, ?, ?, ?)"; // Insert query
             PreparedStatement pst = con.prepareStatement(sql);
@@ -36,8 +31,6 @@ public class AdminManager {
             
             int result = pst.executeUpdate();
             
-            rs.close();
-            getIdPst.close();
             pst.close();
             con.close();
             
@@ -55,10 +48,7 @@ public class AdminManager {
     // Authenticates admin login credentials
     public Admin authenticateAdminLogin(int adminId, String password) {
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             String query = "SELECT * FROM admin_details WHERE Admin_id = ? AND Password = ?"; // Authentication query
             PreparedStatement pst = con.prepareStatement(query);
@@ -96,10 +86,7 @@ public class AdminManager {
     // Displays system statistics including user count, responder count, and alert status
     public void displaySystemStatistics() {
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             // Get user count
             String userQuery = "SELECT COUNT(*) as count FROM user_details"; // User count query
@@ -127,6 +114,34 @@ public class AdminManager {
             while (alertRs.next()) {
                 System.out.println("- " + alertRs.getString("Status") + ": " + alertRs.getInt("count")); // Print each alert status count
             }
+
+            ConnectionPool pool = ConnectionPool.getInstance();
+            System.out.println("\nDatabase Connection Pool:");
+            System.out.println("- Active: " + pool.getActiveCount() + " | Idle: " + pool.getIdleCount() + " | Waiting: " + pool.getWaitingCount()); // Print pool occupancy
+            System.out.println("- Borrows: " + pool.getBorrowCount() + String.format(" | Avg wait: %.3f ms | Max wait: %.3f ms",
+                    pool.getAverageWaitMillis(), pool.getMaxWaitMillis())); // Print pool wait times
+
+            GroupCommitWriter writer = GroupCommitWriter.getInstance();
+            System.out.println("\nGroup Commit Writer:");
+            System.out.println("- Queued: " + writer.getQueueDepth() + " | Batches: " + writer.getBatchCount()
+                    + String.format(" | Avg batch: %.1f rows | Max batch: %d rows", writer.getAverageBatchSize(), writer.getMaxBatchSize())); // Print batch sizes
+            System.out.println(String.format("- Avg flush: %.3f ms | Max flush: %.3f ms | Avg commit latency: %.3f ms",
+                    writer.getAverageFlushMillis(), writer.getMaxFlushMillis(), writer.getAverageCommitLatencyMillis())); // Print flush latency
+
+            System.out.println("\nEntity Cache:");
+            System.out.println("- Users: " + EntityCache.users().getStatistics()); // Print user cache hit ratio
+            System.out.println("- Responders: " + EntityCache.responders().getStatistics()); // Print responder cache hit ratio
+
+            System.out.println("\nLogger:");
+            System.out.println("- " + SystemLogger.getStatistics()); // Print log writer backlog and drops
+
+            EscalationJournal journal = EscalationJournal.getInstance();
+            long now = System.currentTimeMillis();
+            System.out.println("\nEscalations:");
+            System.out.println("- Total: " + journal.size() + " | Last hour: " + journal.count(now - 3_600_000L, now + 1)); // Print journal counts
+            for (Map.Entry<String, Long> zone : journal.countByZone(now - 3_600_000L, now + 1).entrySet()) {
+                System.out.println("- " + zone.getKey() + ": " + zone.getValue() + " in the last hour"); // Print each zone's recent escalations
+            }
             
             userRs.close(); 
             userPst.close();
@@ -143,12 +158,8 @@ public class AdminManager {
 
     // Checks if a phone number already exists in the admin database
     public boolean isPhoneExists(String phone) {
-        String dbUrl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-        String dbUser = "root";
-        String dbPass = "";
-
         String query = "SELECT COUNT(*) FROM admin_details WHERE Phone_no = ?"; // Phone existence query
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass);
+        try (Connection conn = ConnectionPool.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, phone);
             ResultSet rs = stmt.executeQuery();
@@ -0,0 +1,295 @@
+package com.womensafety.alertsystem.manager;
+
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.Constants;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+// In-memory index of available responders per zone
+// Each zone keeps its available responders in a dense PositionStore; a responder's slot in it is tracked by ID, so
+// marking a responder available or busy and picking a random available responder are all O(1)
+// The index is updated on every availability change, so dispatching never has to scan or sort the zone in MySQL
+// Available responders are also filed in a per-zone SpatialGrid, so nearest queries search outward from the user and
+// only look at responders near them
+// Every zone has its own lock, so dispatch workers of different zones never block each other
+public class AvailabilityIndex {
+    private final Map<String, ZoneSlots> zones = new ConcurrentHashMap<>(); // Lower-case zone name to its available responders
+    private final Map<Integer, Responder> responders = new ConcurrentHashMap<>(); // Every indexed responder by ID
+
+    // Adds a responder or replaces the indexed copy with the same ID
+    public void put(Responder responder) {
+        remove(responder.getId());
+        responders.put(responder.getId(), responder);
+        if (responder.isAvailable()) {
+            ZoneSlots slots = zoneFor(responder.getZone());
+            synchronized (slots) {
+                slots.add(responder);
+            }
+        }
+    }
+
+    // Removes a responder from the index
+    public void remove(int responderId) {
+        Responder old = responders.remove(responderId);
+        if (old != null) {
+            ZoneSlots slots = zoneFor(old.getZone());
+            synchronized (slots) {
+                slots.remove(responderId);
+            }
+        }
+    }
+
+    // Updates a responder's availability and moves it in or out of its zone's available set
+    // Returns: indexed responder, or null if the ID is not indexed
+    public Responder setAvailable(int responderId, boolean available) {
+        Responder responder = responders.get(responderId);
+        if (responder == null)
+            return null;
+        ZoneSlots slots = zoneFor(responder.getZone());
+        synchronized (slots) {
+            responder.setAvailable(available);
+            if (available) {
+                slots.add(responder);
+            } else {
+                slots.remove(responderId);
+            }
+        }
+        return responder;
+    }
+
+    // Moves an indexed responder to new coordinates and refiles it in its zone's grid
+    // Returns: indexed responder, or null if the ID is not indexed
+    public Responder updatePosition(int responderId, double x, double y) {
+        Responder responder = responders.get(responderId);
+        if (responder == null)
+            return null;
+        ZoneSlots slots = zoneFor(responder.getZone());
+        synchronized (slots) {
+            responder.setX(x);
+            responder.setY(y);
+            if (responder.isAvailable()) {
+                slots.add(responder); // Replaces the stored position and the entry filed under the old cell
+            }
+        }
+        return responder;
+    }
+
+    // Moves many indexed responders at once, grouped by zone
+    // Each zone's lock is taken once per chunk of Constants.LOCATION_APPLY_LOCK_BATCH responders, so a large batch
+    // never holds a zone long enough to stall the dispatch reads queued behind it
+    // Returns: moved responders; IDs that are not indexed are skipped
+    public List<Responder> updatePositions(int[] responderIds, double[] xs, double[] ys, int count) {
+        Map<ZoneSlots, List<Integer>> byZone = new HashMap<>(); // Zone slots to positions in the input arrays
+        List<Responder> moved = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Responder responder = responders.get(responderIds[i]);
+            if (responder != null) {
+                byZone.computeIfAbsent(zoneFor(responder.getZone()), z -> new ArrayList<>()).add(i);
+            }
+        }
+        for (Map.Entry<ZoneSlots, List<Integer>> entry : byZone.entrySet()) {
+            ZoneSlots slots = entry.getKey();
+            List<Integer> indices = entry.getValue();
+            for (int from = 0; from < indices.size(); from += Constants.LOCATION_APPLY_LOCK_BATCH) {
+                int to = Math.min(indices.size(), from + Constants.LOCATION_APPLY_LOCK_BATCH);
+                synchronized (slots) {
+                    for (int j = from; j < to; j++) {
+                        int i = indices.get(j);
+                        Responder responder = responders.get(responderIds[i]);
+                        if (responder == null)
+                            continue; // Removed since it was grouped
+                        responder.setX(xs[i]);
+                        responder.setY(ys[i]);
+                        if (responder.isAvailable()) {
+                            slots.add(responder);
+                        }
+                        moved.add(responder);
+                    }
+                }
+            }
+        }
+        return moved;
+    }
+
+    // Gets the indexed responder with the given ID
+    // Returns: responder or null if not indexed
+    public Responder get(int responderId) {
+        return responders.get(responderId);
+    }
+
+    // Picks a random available responder in a zone
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: responder or null if the zone has no other available responder
+    public Responder pickRandom(String zone, int excludeResponderId) {
+        ZoneSlots slots = zones.get(key(zone));
+        if (slots == null)
+            return null;
+        synchronized (slots) {
+            return slots.pickRandom(excludeResponderId);
+        }
+    }
+
+    // Picks a random available responder and marks it busy in the same step
+    // Two threads in this process can never reserve the same responder; other processes are fenced by the database claim
+    // Returns: reserved responder or null if the zone has no other available responder
+    public Responder reserveRandom(String zone, int excludeResponderId) {
+        ZoneSlots slots = zones.get(key(zone));
+        if (slots == null)
+            return null;
+        synchronized (slots) {
+            Responder responder = slots.pickRandom(excludeResponderId);
+            if (responder != null) {
+                responder.setAvailable(false);
+                slots.remove(responder.getId());
+            }
+            return responder;
+        }
+    }
+
+    // Marks a specific responder busy if it is still available
+    // Returns: true if this call reserved the responder, false if it is not indexed or already busy
+    public boolean reserve(int responderId) {
+        Responder responder = responders.get(responderId);
+        if (responder == null)
+            return false;
+        ZoneSlots slots = zoneFor(responder.getZone());
+        synchronized (slots) {
+            if (!responder.isAvailable())
+                return false;
+            responder.setAvailable(false);
+            slots.remove(responderId);
+            return true;
+        }
+    }
+
+    // Gets a copy of the available responders of a zone
+    public List<Responder> getAvailable(String zone) {
+        ZoneSlots slots = zones.get(key(zone));
+        if (slots == null)
+            return new ArrayList<>();
+        synchronized (slots) {
+            return slots.store.toList();
+        }
+    }
+
+    // Finds the available responder in a zone closest to the given point
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: nearest responder or null if the zone has no other available responder
+    public Responder findNearest(String zone, double x, double y, int excludeResponderId) {
+        ZoneSlots slots = zones.get(key(zone));
+        if (slots == null)
+            return null;
+        synchronized (slots) {
+            return slots.findNearest(x, y, excludeResponderId);
+        }
+    }
+
+    // Finds the k available responders in a zone closest to the given point
+    // This is the nearest search used by dispatch: it reads the same structures every availability change and move
+    // keeps up to date, under the zone's own lock, so it never waits for another zone or for a rebuild
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: up to k responders, nearest first
+    public List<Responder> findNearest(String zone, double x, double y, int k, int excludeResponderId) {
+        ZoneSlots slots = zones.get(key(zone));
+        if (slots == null)
+            return new ArrayList<>();
+        synchronized (slots) {
+            return slots.findNearest(x, y, k, excludeResponderId);
+        }
+    }
+
+    // Finds every available responder in a zone within a radius of the given point
+    // Parameters: radiusKm - search radius in kilometres
+    // Returns: responders within the radius, in no particular order
+    public List<Responder> findWithinRadius(String zone, double x, double y, double radiusKm) {
+        ZoneSlots slots = zones.get(key(zone));
+        if (slots == null)
+            return new ArrayList<>();
+        synchronized (slots) {
+            return slots.store.withinRadius(x, y, radiusKm);
+        }
+    }
+
+    // Finds every available responder within a radius of the given point, in any zone
+    // Zones whose available responders all lie outside the radius are skipped after a bounding box check
+    // Returns: responders within the radius, in no particular order
+    public List<Responder> findWithinRadiusAllZones(double x, double y, double radiusKm) {
+        List<Responder> found = new ArrayList<>();
+        for (ZoneSlots slots : zones.values()) {
+            synchronized (slots) {
+                if (slots.store.mayHaveWithin(x, y, radiusKm)) {
+                    found.addAll(slots.store.withinRadius(x, y, radiusKm));
+                }
+            }
+        }
+        return found;
+    }
+
+    // Gets the number of available responders in a zone
+    public int getAvailableCount(String zone) {
+        ZoneSlots slots = zones.get(key(zone));
+        if (slots == null)
+            return 0;
+        synchronized (slots) {
+            return slots.size();
+        }
+    }
+
+    // Gets the slots of a zone, creating them on first use
+    private ZoneSlots zoneFor(String zone) {
+        return zones.computeIfAbsent(key(zone), k -> new ZoneSlots());
+    }
+
+    // Normalizes zone names so lookups are case-insensitive
+    private static String key(String zone) {
+        return zone == null ? "" : zone.trim().toLowerCase();
+    }
+
+    // Position store and spatial grid of the available responders of one zone; callers hold the instance lock
+    private static class ZoneSlots {
+        final PositionStore store = new PositionStore(); // Dense primitive arrays for O(1) random picks and scans
+        final SpatialGrid grid = new SpatialGrid(Constants.SPATIAL_GRID_CELL_SIZE); // Same responders by position
+
+        int size() {
+            return store.size();
+        }
+
+        Responder pickRandom(int excludeResponderId) {
+            int size = store.size();
+            if (size == 0)
+                return null;
+            int index = ThreadLocalRandom.current().nextInt(size);
+            if (store.idAt(index) == excludeResponderId) {
+                if (size == 1)
+                    return null;
+                index = (index + 1) % size; // Any other slot is just as random
+            }
+            return store.get(index);
+        }
+
+        Responder findNearest(double x, double y, int excludeResponderId) {
+            if (store.size() > Constants.SPATIAL_GRID_LINEAR_SCAN_MAX)
+                return grid.findNearest(x, y, excludeResponderId);
+            int slot = store.nearestSlot(x, y, excludeResponderId); // Few responders: a plain scan beats walking empty cells
+            return slot == -1 ? null : store.get(slot);
+        }
+
+        List<Responder> findNearest(double x, double y, int k, int excludeResponderId) {
+            if (store.size() > Constants.SPATIAL_GRID_LINEAR_SCAN_MAX)
+                return grid.findNearest(x, y, k, excludeResponderId);
+            return store.nearest(x, y, k, excludeResponderId);
+        }
+
+        // Adds a responder, or refreshes the instance and position of one already available
+        void add(Responder responder) {
+            store.add(responder);
+            grid.add(responder);
+        }
+
+        void remove(int responderId) {
+            store.remove(responderId);
+            grid.remove(responderId);
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package com.womensafety.alertsystem.manager;
+
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.util.Constants;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+// Bounded identity map for entities loaded from the database, with W-TinyLFU eviction
+// New entries enter a small LRU window; entries leaving the window compete for a place in the main area, a segmented
+// LRU of a probation and a protected segment, and only get in if they have been used more often than the entry they
+// would push out. Use counts come from a compact count-min sketch that is halved periodically, so a burst of one-off
+// logins cannot flush the entities that are used all the time
+// An evicted entity that is still referenced elsewhere (by an alert, the availability index or the logged-in session)
+// stays reachable through a weak reference, so a later lookup returns that same instance instead of a second copy
+// All operations are synchronized on the cache
+public class EntityCache<K, V> {
+    private static EntityCache<Integer, User> users;
+    private static EntityCache<Integer, Responder> responders;
+
+    private final int windowCapacity;
+    private final int protectedCapacity;
+    private final int mainCapacity;
+    private final Map<K, Node<K, V>> nodes = new HashMap<>();
+    private final Node<K, V> window = new Node<>(null, null); // Sentinels of the three LRU lists; head.next is the eldest
+    private final Node<K, V> probation = new Node<>(null, null);
+    private final Node<K, V> protectedSegment = new Node<>(null, null);
+    private int windowSize = 0, probationSize = 0, protectedSize = 0;
+    private final FrequencySketch sketch;
+    private final Map<K, KeyedReference<K, V>> evicted = new HashMap<>(); // Evicted entities that may still be in use
+    private final ReferenceQueue<V> collected = new ReferenceQueue<>();
+
+    // Cache metrics
+    private long hitCount = 0;
+    private long missCount = 0;
+    private long evictionCount = 0;
+
+    // Gets the shared user cache
+    public static synchronized EntityCache<Integer, User> users() {
+        if (users == null) {
+            users = new EntityCache<>(Constants.USER_CACHE_CAPACITY);
+        }
+        return users;
+    }
+
+    // Gets the shared responder cache
+    public static synchronized EntityCache<Integer, Responder> responders() {
+        if (responders == null) {
+            responders = new EntityCache<>(Constants.RESPONDER_CACHE_CAPACITY);
+        }
+        return responders;
+    }
+
+    // Constructor creates an empty cache holding at most capacity entities strongly
+    public EntityCache(int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        windowCapacity = Math.max(1, capacity / 100); // 1% window, as in W-TinyLFU
+        mainCapacity = Math.max(1, capacity - windowCapacity);
+        protectedCapacity = Math.max(1, mainCapacity * 4 / 5);
+        sketch = new FrequencySketch(capacity);
+    }
+
+    // Looks up an entity
+    // Returns: cached instance or null on a miss
+    public synchronized V get(K key) {
+        sketch.increment(key);
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            hitCount++;
+            onAccess(node);
+            return node.value;
+        }
+        V alive = reclaim(key);
+        if (alive != null) {
+            hitCount++;
+            return alive;
+        }
+        missCount++;
+        return null;
+    }
+
+    // Looks up an entity without counting a use or changing its eviction order
+    // Returns: cached instance or null
+    public synchronized V peek(K key) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null)
+            return node.value;
+        KeyedReference<K, V> ref = evicted.get(key);
+        return ref == null ? null : ref.get();
+    }
+
+    // Returns the canonical instance for a key, caching the given one if there is none yet
+    // Callers that build an entity from a database row pass it through here and use the result from then on
+    // Counts as a use for eviction but not as a lookup in the hit ratio, which only get() measures
+    // Returns: instance already known for the key, or value itself
+    public synchronized V intern(K key, V value) {
+        sketch.increment(key);
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            onAccess(node);
+            return node.value;
+        }
+        V alive = reclaim(key);
+        if (alive != null)
+            return alive;
+        insert(key, value);
+        return value;
+    }
+
+    // Caches an entity, replacing any instance known for the key
+    public synchronized void put(K key, V value) {
+        Node<K, V> node = nodes.get(key);
+        if (node != null) {
+            node.value = value;
+            onAccess(node);
+            return;
+        }
+        evicted.remove(key);
+        insert(key, value);
+    }
+
+    // Removes an entity, for example after its database insert failed
+    public synchronized void invalidate(K key) {
+        Node<K, V> node = nodes.remove(key);
+        if (node != null) {
+            unlink(node);
+        }
+        evicted.remove(key);
+    }
+
+    // Gets the number of entities held strongly
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    // Gets a snapshot of the entities held strongly
+    public synchronized List<V> values() {
+        List<V> values = new ArrayList<>(nodes.size());
+        for (Node<K, V> node : nodes.values()) {
+            values.add(node.value);
+        }
+        return values;
+    }
+
+    // Gets the number of lookups that found an instance
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+    // Gets the number of lookups that found nothing
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+    // Gets the number of entities evicted from the bounded area
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+    // Gets the share of lookups that found an instance
+    public synchronized double getHitRatio() {
+        long lookups = hitCount + missCount;
+        return lookups == 0 ? 0.0 : hitCount / (double) lookups;
+    }
+
+    // Returns a one-line summary of cache metrics
+    public synchronized String getStatistics() {
+        return String.format("EntityCache[size=%d, hits=%d, misses=%d, hitRatio=%.1f%%, evictions=%d, weaklyHeld=%d]",
+                nodes.size(), hitCount, missCount, getHitRatio() * 100, evictionCount, evicted.size());
+    }
+
+    // Moves an entity back into the cache if it was evicted but is still referenced elsewhere
+    private V reclaim(K key) {
+        KeyedReference<K, V> ref = evicted.remove(key);
+        V value = ref == null ? null : ref.get();
+        if (value != null) {
+            insert(key, value);
+        }
+        return value;
+    }
+
+    // Adds a new entity to the window and settles any overflow
+    private void insert(K key, V value) {
+        Node<K, V> node = new Node<>(key, value);
+        nodes.put(key, node);
+        node.segment = window;
+        append(window, node);
+        windowSize++;
+        if (windowSize > windowCapacity) {
+            Node<K, V> candidate = window.next; // Eldest window entry moves on to the main area
+            unlink(candidate);
+            candidate.segment = probation;
+            append(probation, candidate);
+            probationSize++;
+            if (probationSize + protectedSize > mainCapacity) {
+                Node<K, V> victim = probation.next;
+                if (victim == candidate) { // The candidate is the only probation entry: evict the eldest protected one
+                    victim = protectedSegment.next;
+                }
+                // TinyLFU admission: the candidate stays only if it is used more often than the entry it displaces
+                evict(sketch.frequency(candidate.key) > sketch.frequency(victim.key) ? victim : candidate);
+            }
+        }
+    }
+
+    // Promotes an entity on a hit, following the segmented LRU rules
+    private void onAccess(Node<K, V> node) {
+        if (node.segment == probation) {
+            unlink(node);
+            node.segment = protectedSegment;
+            append(protectedSegment, node);
+            protectedSize++;
+            if (protectedSize > protectedCapacity) { // Overflow falls back to probation for another chance
+                Node<K, V> demoted = protectedSegment.next;
+                unlink(demoted);
+                demoted.segment = probation;
+                append(probation, demoted);
+                probationSize++;
+            }
+        } else { // Window and protected entries just become the most recent of their list
+            unlink(node);
+            append(node.segment, node);
+            if (node.segment == window) windowSize++; else protectedSize++;
+        }
+    }
+
+    // Drops an entity from the bounded area, keeping a weak reference in case it is still in use
+    private void evict(Node<K, V> node) {
+        unlink(node);
+        nodes.remove(node.key);
+        evictionCount++;
+        for (Object stale; (stale = collected.poll()) != null; ) {
+            KeyedReference<?, ?> ref = (KeyedReference<?, ?>) stale;
+            evicted.remove(ref.key, ref);
+        }
+        evicted.put(node.key, new KeyedReference<>(node.key, node.value, collected));
+    }
+
+    // Appends a node as the most recent entry of a list
+    private static <K, V> void append(Node<K, V> head, Node<K, V> node) {
+        node.prev = head.prev;
+        node.next = head;
+        head.prev.next = node;
+        head.prev = node;
+    }
+
+    // Removes a node from its list and updates that list's size
+    private void unlink(Node<K, V> node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        if (node.segment == window) windowSize--;
+        else if (node.segment == probation) probationSize--;
+        else if (node.segment == protectedSegment) protectedSize--;
+    }
+
+    // Entry in one of the LRU lists; a sentinel links to itself
+    private static class Node<K, V> {
+        final K key;
+        V value;
+        Node<K, V> segment; // Sentinel of the list the node is in
+        Node<K, V> prev = this, next = this;
+
+        Node(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    // Weak reference that remembers its key, so collected entries can be removed from the evicted map
+    private static class KeyedReference<K, V> extends WeakReference<V> {
+        final K key;
+
+        KeyedReference(K key, V value, ReferenceQueue<V> queue) {
+            super(value, queue);
+            this.key = key;
+        }
+    }
+
+    // Count-min sketch of 4-bit counters, four per key, halved after every 10 * capacity increments
+    private static class FrequencySketch {
+        private final long[] table; // Sixteen 4-bit counters per long
+        private final int mask;
+        private final int sampleSize;
+        private int additions = 0;
+
+        FrequencySketch(int capacity) {
+            int counters = Integer.highestOneBit(Math.max(16, capacity) * 4 - 1) << 1; // Power of two, at least 4 per entry
+            table = new long[counters / 16];
+            mask = counters - 1;
+            sampleSize = 10 * capacity;
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int min = 15;
+            for (int i = 0; i < 4; i++) {
+                min = Math.min(min, counter(index(hash, i)));
+            }
+            return min;
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = index(hash, i);
+                if (counter(index) < 15) {
+                    table[index >>> 4] += 1L << ((index & 15) << 2);
+                    added = true;
+                }
+            }
+            if (added && ++additions >= sampleSize) {
+                for (int i = 0; i < table.length; i++) {
+                    table[i] = (table[i] >>> 1) & 0x7777777777777777L; // Halve every counter at once
+                }
+                additions /= 2;
+            }
+        }
+
+        private int counter(int index) {
+            return (int) (table[index >>> 4] >>> ((index & 15) << 2)) & 15;
+        }
+
+        // Picks the counter of one row for a hash
+        private int index(int hash, int row) {
+            int h = (hash + row * 0x9E3779B9) * 0x85EBCA6B;
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private static int spread(int hash) {
+            hash *= 0x27D4EB2F;
+            return hash ^ (hash >>> 15);
+        }
+    }
+}
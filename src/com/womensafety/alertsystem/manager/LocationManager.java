@@ -1,19 +1,45 @@
 package com.womensafety.alertsystem.manager;
 
+import com.womensafety.alertsystem.database.ConnectionPool;
 import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.GeoDistance;
 import com.womensafety.alertsystem.util.SystemLogger;
+import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
 
 // LocationManager class handles responder location and zone management
 // Manages responder distribution across zones and provides location-based services
 public class LocationManager {
-    private HashMap<String, List<Responder>> zoneMap; // Maps zone names to lists of responders
-    private Random random; // Random generator for selecting random responders
+    private Map<String, List<Responder>> zoneMap; // Maps zone names to lists of responders; lists are copy-on-write so readers never lock
+    private AvailabilityIndex availabilityIndex; // Available responders per zone for O(1) dispatch lookups
+    private final List<Consumer<String>> availabilityListeners = new CopyOnWriteArrayList<>(); // Told the zone of every responder that becomes available
 
-    // Constructor initializes the zone map and random generator
+    // Constructor initializes an empty zone map and availability index
+    // WarmStartLoader fills both from the database at startup
     public LocationManager() {
-        zoneMap = new HashMap<>(); // Initialize empty zone map
-        random = new Random(); // Initialize random number generator
+        zoneMap = new ConcurrentHashMap<>(); // Initialize empty zone map
+        availabilityIndex = new AvailabilityIndex(); // Initialize empty availability index
+    }
+
+    // Adds responders read from the database by the WarmStartLoader
+    // Each one is registered in the responder cache first, so the index holds the same instance as every other lookup
+    // Zone lists are copy-on-write, so each zone's share of the chunk is appended in one copy
+    // Returns: number of responders added
+    public synchronized int addLoadedResponders(List<Responder> responders) {
+        Map<String, List<Responder>> byZone = new HashMap<>();
+        for (Responder responder : responders) {
+            Responder shared = EntityCache.responders().intern(responder.getId(), responder);
+            byZone.computeIfAbsent(shared.getZone(), z -> new ArrayList<>()).add(shared);
+            availabilityIndex.put(shared);
+        }
+        for (Map.Entry<String, List<Responder>> entry : byZone.entrySet()) {
+            zoneMap.computeIfAbsent(entry.getKey(), z -> new CopyOnWriteArrayList<>()).addAll(entry.getValue());
+        }
+        return responders.size();
     }
 
     // Adds a responder to their designated zone
@@ -22,22 +48,49 @@ public class LocationManager {
             SystemLogger.error("Invalid responder or zone."); // Log error for invalid input
             return; // Exit if responder or zone is invalid
         }
-        String zone = responder.getZone(); // Get the responder's zone
+        removeFromZones(responder.getId()); // Replace any copy loaded earlier
+        addToZone(responder);
+        SystemLogger.success("Responder added to zone: " + responder.getZone()); // Log successful addition
+        if (responder.isAvailable()) {
+            fireAvailable(responder.getZone()); // New or moved responder can take waiting alerts
+        }
+    }
+
+    // Registers a listener that is called with the zone whenever a responder in it becomes available
+    public void addAvailabilityListener(Consumer<String> listener) {
+        availabilityListeners.add(listener);
+    }
 
-        if (!zoneMap.containsKey(zone)) {
-            zoneMap.put(zone, new ArrayList<>()); // Create new list if zone doesn't exist
+    // Notifies every availability listener that a responder in the zone became available
+    private void fireAvailable(String zone) {
+        for (Consumer<String> listener : availabilityListeners) {
+            try {
+                listener.accept(zone);
+            } catch (RuntimeException e) {
+                SystemLogger.error("Availability listener failed: " + e.getMessage());
+            }
         }
+    }
 
-        zoneMap.get(zone).add(responder); // Add responder to their zone's list
-        SystemLogger.success("Responder added to zone: " + zone); // Log successful addition
+    // Puts a responder in its zone's list and in the availability index
+    private synchronized void addToZone(Responder responder) {
+        String zone = responder.getZone(); // Get the responder's zone
+
+        zoneMap.computeIfAbsent(zone, z -> new CopyOnWriteArrayList<>()).add(responder); // Add responder to their zone's list
+        availabilityIndex.put(responder); // Index the responder if available
     }
 
-    // Removes a responder by ID from all zones
-    public void removeResponder(int id) {
-        for (String zone : zoneMap.keySet()) {
-            List<Responder> responders = zoneMap.get(zone);
+    // Removes a responder from every zone list and from the availability index
+    private synchronized void removeFromZones(int id) {
+        for (List<Responder> responders : zoneMap.values()) {
             responders.removeIf(r -> r.getId() == id); // Remove responder with matching ID
         }
+        availabilityIndex.remove(id);
+    }
+
+    // Removes a responder by ID from all zones
+    public void removeResponder(int id) {
+        removeFromZones(id);
         SystemLogger.info("Responder with ID " + id + " removed."); // Log removal
     }
 
@@ -54,44 +107,204 @@ public class LocationManager {
         return new ArrayList<>(); // Return empty list if zone not found
     }
 
-    // Finds a random available responder in the specified zone
-    // Returns: Random available responder or null if none found
-    public Responder findRandomAvailableResponderInZone(String zone) {
-        List<Responder> responders = getRespondersInZone(zone); // Get responders in zone
-        List<Responder> availableResponders = new ArrayList<>(); // List for available responders
+    // Moves a responder to new coordinates and refiles it in the spatial index
+    // Must be used for every coordinate change of an indexed responder so nearest queries stay accurate
+    public void updateResponderCoordinates(int responderId, double x, double y) {
+        if (availabilityIndex.updatePosition(responderId, x, y) == null) {
+            SystemLogger.warning("Responder ID " + responderId + " is not indexed; coordinates not updated.");
+        }
+    }
+
+    // Moves many responders at once, as applied by the LocationIngestor
+    // Each responder is moved in place in its zone's position store and grid, under that zone's lock one chunk at a
+    // time, so dispatch lookups in other zones never wait
+    // Returns: number of responders moved; IDs that are not indexed are skipped
+    public int updateResponderCoordinates(int[] responderIds, double[] xs, double[] ys, int count) {
+        return availabilityIndex.updatePositions(responderIds, xs, ys, count).size();
+    }
+
+    // Updates a responder's availability in memory and in the availability index
+    // Must be used for every availability change so dispatch lookups stay accurate
+    public void setAvailability(Responder responder, boolean available) {
+        responder.setAvailable(available); // Update the caller's copy
+        availabilityIndex.setAvailable(responder.getId(), available); // Update the indexed copy and zone slots
+        if (available) {
+            fireAvailable(responder.getZone());
+        }
+    }
+
+    // Updates the availability of an indexed responder by ID, for callers that hold no Responder instance
+    public void setAvailability(int responderId, boolean available) {
+        Responder indexed = availabilityIndex.setAvailable(responderId, available);
+        if (available && indexed != null) {
+            fireAvailable(indexed.getZone());
+        }
+    }
 
-        for (Responder r : responders) {
-            if (r.isAvailable()) {
-                availableResponders.add(r); // Add available responders to list
+    // Claims an available responder in a zone for one assignment
+    // The candidate is reserved in the availability index first, then claimed in the database with a compare-and-set
+    // update; if another dispatcher instance got there first the candidate stays busy here too and the next one is
+    // tried, until the zone has no candidate left, so null is only returned when no responder in the zone is free
+    // Parameters: excludeResponderId - responder that must not be claimed, or -1 for none
+    // Returns: claimed responder, already marked unavailable everywhere, or null if none could be claimed
+    public Responder claimAvailableResponder(String zone, int excludeResponderId) {
+        while (true) {
+            Responder candidate = availabilityIndex.reserveRandom(zone, excludeResponderId);
+            if (candidate == null)
+                return null; // No available responder left in the zone
+
+            try {
+                if (claimInDatabase(candidate.getId())) {
+                    return candidate;
+                }
+                // Busy in the database: another instance claimed it, so it stays unavailable here too
+                SystemLogger.info("Responder ID " + candidate.getId() + " was claimed by another dispatcher, trying next candidate.");
+            } catch (SQLException e) {
+                availabilityIndex.setAvailable(candidate.getId(), true); // Claim state unknown: put it back
+                SystemLogger.error("Error claiming responder ID " + candidate.getId() + ": " + e.getMessage());
+                return null;
             }
         }
+    }
 
-        if (!availableResponders.isEmpty()) {
-            int randomIndex = random.nextInt(availableResponders.size()); // Get random index
-            return availableResponders.get(randomIndex); // Return random available responder
+    // Claims one specific responder, as chosen by a batch assignment
+    // Returns: true if the responder was claimed, false if it became busy here or in another dispatcher instance
+    public boolean claimResponder(Responder responder) {
+        if (!availabilityIndex.reserve(responder.getId()))
+            return false; // Taken by another thread since the batch was planned
+        try {
+            if (claimInDatabase(responder.getId())) {
+                return true;
+            }
+            SystemLogger.info("Responder ID " + responder.getId() + " was claimed by another dispatcher.");
+        } catch (SQLException e) {
+            availabilityIndex.setAvailable(responder.getId(), true); // Claim state unknown: put it back
+            SystemLogger.error("Error claiming responder ID " + responder.getId() + ": " + e.getMessage());
         }
+        return false;
+    }
 
-        return null; // Return null if no available responders
+    // Claims the nearest available responder in any zone, searching outward from a point in growing radii
+    // Used when the home zone has no free responder: each round doubles the radius up to maxDistanceKm and tries the
+    // responders found nearest first, so a responder just across a zone border is found in the first rounds
+    // Parameters: excludeResponderId - responder that must not be claimed, or -1 for none
+    // Returns: claimed responder or null if none within maxDistanceKm could be claimed
+    public Responder claimNearestAcrossZones(double x, double y, double maxDistanceKm, int excludeResponderId) {
+        double scale = GeoDistance.longitudeScale(y);
+        double radius = Math.min(Constants.CROSS_ZONE_INITIAL_RADIUS_KM, maxDistanceKm);
+        while (true) {
+            List<Responder> found = availabilityIndex.findWithinRadiusAllZones(x, y, radius);
+            found.sort(Comparator.comparingDouble(r -> GeoDistance.squaredDegrees(x, y, r.getX(), r.getY(), scale)));
+            for (Responder candidate : found) {
+                if (candidate.getId() != excludeResponderId && claimResponder(candidate)) {
+                    return candidate;
+                }
+            }
+            if (radius >= maxDistanceKm)
+                return null;
+            radius = Math.min(radius * 2, maxDistanceKm);
+        }
     }
 
-    // Finds the nearest available responder to given coordinates in a zone
-    // Returns: Nearest available responder or null if none found
-    public Responder findNearestAvailableResponder(double userX, double userY, String zone) {
-        List<Responder> responders = getRespondersInZone(zone); // Get responders in zone
-        Responder nearest = null; // Track nearest responder
-        double minDistance = Double.MAX_VALUE; // Track minimum distance
-
-        for (Responder r : responders){
-            if (r.isAvailable()){ // Only consider available responders
-                // Calculate Euclidean distance between user and responder
-                double dist = Math.sqrt(Math.pow(userX - r.getX(), 2) + Math.pow(userY - r.getY(), 2));
-                if(dist < minDistance){ // Update if this responder is closer
-                    minDistance = dist;
-                    nearest = r;
+    // Releases a claimed responder whose assignment could not be committed
+    // Query: Marks the responder available again in the database
+    public void releaseClaim(Responder responder) {
+        try (Connection con = ConnectionPool.getConnection();
+             PreparedStatement pst = con.prepareStatement("UPDATE responder_details SET Availability = true WHERE Responder_id = ?")) {
+            pst.setInt(1, responder.getId());
+            pst.executeUpdate();
+            setAvailability(responder, true); // Also wakes alerts waiting in its zone
+        } catch (SQLException e) {
+            // Leave it busy locally; the next availability sync restores it from the database
+            SystemLogger.error("Error releasing responder ID " + responder.getId() + ": " + e.getMessage());
+        }
+    }
+
+    // Marks a responder busy only if it is still available in the database
+    // Query: Compare-and-set update on the responder's availability
+    // Returns: true if this call claimed the responder, false if it was already busy
+    private boolean claimInDatabase(int responderId) throws SQLException {
+        try (Connection con = ConnectionPool.getConnection();
+             PreparedStatement pst = con.prepareStatement(
+                     "UPDATE responder_details SET Availability = false WHERE Responder_id = ? AND Availability = true")) {
+            pst.setInt(1, responderId);
+            return pst.executeUpdate() == 1; // Zero rows means someone else holds the responder
+        }
+    }
+
+    // Reloads every responder's availability from the database into the availability index
+    // Picks up claims and releases made by other dispatcher instances
+    // Query: Selects the ID and availability of all responders
+    public void syncAvailabilityFromDatabase() {
+        try (Connection con = ConnectionPool.getConnection();
+             PreparedStatement pst = con.prepareStatement("SELECT Responder_id, Availability FROM responder_details");
+             ResultSet rs = pst.executeQuery()) {
+            int changed = 0;
+            while (rs.next()) {
+                int id = rs.getInt("Responder_id");
+                boolean available = rs.getBoolean("Availability");
+                Responder indexed = availabilityIndex.get(id);
+                if (indexed != null && indexed.isAvailable() != available) {
+                    availabilityIndex.setAvailable(id, available);
+                    if (available) {
+                        fireAvailable(indexed.getZone()); // Freed by another dispatcher instance
+                    }
+                    changed++;
                 }
             }
+            if (changed > 0) {
+                SystemLogger.info("Availability sync updated " + changed + " responder(s) from the database.");
+            }
+        } catch (SQLException e) {
+            SystemLogger.error("Error syncing responder availability: " + e.getMessage());
         }
-        return nearest; // Return nearest available responder
+    }
+
+    // Finds a random available responder in the specified zone
+    // Returns: Random available responder or null if none found
+    public Responder findRandomAvailableResponderInZone(String zone) {
+        return availabilityIndex.pickRandom(zone, -1);
+    }
+
+    // Finds a random available responder in the specified zone other than the given one
+    // Returns: Random available responder or null if none found
+    public Responder findRandomAvailableResponderInZone(String zone, int excludeResponderId) {
+        return availabilityIndex.pickRandom(zone, excludeResponderId);
+    }
+
+    // Finds the nearest available responder to given coordinates in a zone
+    // Returns: Nearest available responder or null if none found
+    public Responder findNearestAvailableResponder(double userX, double userY, String zone) {
+        return availabilityIndex.findNearest(zone, userX, userY, -1);
+    }
+
+    // Finds the k nearest available responders to given coordinates in a zone
+    // Served by the availability index's grid, which moves and availability changes update in place
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: up to k responders, nearest first
+    public List<Responder> findNearestAvailableResponders(double userX, double userY, String zone, int k, int excludeResponderId) {
+        return availabilityIndex.findNearest(zone, userX, userY, k, excludeResponderId);
+    }
+
+    // Finds every available responder within a radius of given coordinates in a zone
+    // Parameters: radiusKm - search radius in kilometres
+    // Returns: responders within the radius, nearest first
+    public List<Responder> findAvailableRespondersWithin(double userX, double userY, String zone, double radiusKm) {
+        List<Responder> found = availabilityIndex.findWithinRadius(zone, userX, userY, radiusKm);
+        double scale = GeoDistance.longitudeScale(userY);
+        found.sort(Comparator.comparingDouble(r -> GeoDistance.squaredDegrees(userX, userY, r.getX(), r.getY(), scale)));
+        return found;
+    }
+
+    // Gets the available responders in a zone
+    // Returns: copy of the indexed responders that are currently available
+    public List<Responder> getAvailableResponders(String zone) {
+        return availabilityIndex.getAvailable(zone);
+    }
+
+    // Gets the number of available responders in a zone
+    public int getAvailableCount(String zone) {
+        return availabilityIndex.getAvailableCount(zone);
     }
 
     // Gets all responders from all zones
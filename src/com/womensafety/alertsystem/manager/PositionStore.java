@@ -0,0 +1,159 @@
+package com.womensafety.alertsystem.manager;
+
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.util.*;
+
+// Structure-of-arrays store of responder positions
+// IDs, longitudes and latitudes live in parallel primitive arrays, so a brute-force scan reads three contiguous
+// arrays instead of following a pointer to every Responder on the heap; the Responder objects are only touched for
+// the entries a scan returns. Slots are kept dense by moving the last entry into a freed slot
+// The scans are scalar loops left to the JIT to vectorise. PositionStoreBenchmark measures them at 1.5x to 5.7x the
+// speed of the List<Responder> loop, growing with the zone size: faster, but not the order of magnitude first aimed for
+// Not thread-safe: AvailabilityIndex guards each zone's store with the zone lock
+public class PositionStore {
+    private int[] ids = new int[16];
+    private double[] xs = new double[16]; // Longitudes
+    private double[] ys = new double[16]; // Latitudes
+    private Responder[] refs = new Responder[16];
+    private int size = 0;
+    private final Map<Integer, Integer> slotOf = new HashMap<>(); // Responder ID to its slot
+    private double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE; // Bounds of every position stored since the store was last empty
+    private double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+
+    // Adds a responder at its current position, or replaces the entry with the same ID
+    public void add(Responder responder) {
+        Integer slot = slotOf.get(responder.getId());
+        if (slot == null) {
+            if (size == ids.length) {
+                grow();
+            }
+            slot = size++;
+            slotOf.put(responder.getId(), slot);
+        }
+        ids[slot] = responder.getId();
+        xs[slot] = responder.getX();
+        ys[slot] = responder.getY();
+        refs[slot] = responder;
+        minX = Math.min(minX, xs[slot]);
+        maxX = Math.max(maxX, xs[slot]);
+        minY = Math.min(minY, ys[slot]);
+        maxY = Math.max(maxY, ys[slot]);
+    }
+
+    // Removes a responder by ID
+    public void remove(int responderId) {
+        Integer slot = slotOf.remove(responderId);
+        if (slot == null)
+            return;
+        size--;
+        if (slot != size) {
+            ids[slot] = ids[size];
+            xs[slot] = xs[size];
+            ys[slot] = ys[size];
+            refs[slot] = refs[size];
+            slotOf.put(ids[slot], slot);
+        }
+        refs[size] = null;
+        if (size == 0) { // Bounds only grow while entries come and go; reset them when the store empties
+            minX = minY = Double.MAX_VALUE;
+            maxX = maxY = -Double.MAX_VALUE;
+        }
+    }
+
+    // Gets the number of stored responders
+    public int size() {
+        return size;
+    }
+
+    // Gets the responder in a slot
+    public Responder get(int slot) {
+        return refs[slot];
+    }
+
+    // Gets the ID of the responder in a slot without touching the Responder object
+    public int idAt(int slot) {
+        return ids[slot];
+    }
+
+    // Finds the slot of the stored responder closest to the given point
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: slot index, or -1 if the store holds no other responder
+    public int nearestSlot(double x, double y, int excludeResponderId) {
+        double scale = GeoDistance.longitudeScale(y);
+        int best = -1;
+        double minDistance = Double.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            double dx = (xs[i] - x) * scale;
+            double dy = ys[i] - y;
+            double dist = dx * dx + dy * dy; // Same metric as GeoDistance.squaredDegrees, inlined for the tight loop
+            if (dist < minDistance && ids[i] != excludeResponderId) {
+                minDistance = dist;
+                best = i;
+            }
+        }
+        return best;
+    }
+
+    // Finds the k stored responders closest to the given point
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: up to k responders, nearest first
+    public List<Responder> nearest(double x, double y, int k, int excludeResponderId) {
+        if (k <= 0)
+            return new ArrayList<>();
+        SpatialGrid.Candidates best = new SpatialGrid.Candidates(k);
+        double scale = GeoDistance.longitudeScale(y);
+        for (int i = 0; i < size; i++) {
+            double dx = (xs[i] - x) * scale;
+            double dy = ys[i] - y;
+            double dist = dx * dx + dy * dy;
+            if (dist < best.bound() && ids[i] != excludeResponderId) {
+                best.offer(dist, refs[i]);
+            }
+        }
+        return best.toList();
+    }
+
+    // Finds every stored responder within a radius of a point, using the equirectangular approximation
+    // Parameters: radiusKm - search radius in kilometres
+    // Returns: responders within the radius, in no particular order
+    public List<Responder> withinRadius(double x, double y, double radiusKm) {
+        double scale = GeoDistance.longitudeScale(y);
+        double radius = radiusKm / GeoDistance.KM_PER_DEGREE;
+        double radiusSquared = radius * radius;
+        List<Responder> result = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            double dx = (xs[i] - x) * scale;
+            double dy = ys[i] - y;
+            if (dx * dx + dy * dy <= radiusSquared) {
+                result.add(refs[i]);
+            }
+        }
+        return result;
+    }
+
+    // Checks cheaply whether any stored position may lie within a radius of a point, using the stored bounds
+    // Returns: false only if every stored position is certainly farther away
+    public boolean mayHaveWithin(double x, double y, double radiusKm) {
+        if (size == 0)
+            return false;
+        double nearestX = Math.max(minX, Math.min(maxX, x)); // Closest point of the bounding box
+        double nearestY = Math.max(minY, Math.min(maxY, y));
+        double radius = radiusKm / GeoDistance.KM_PER_DEGREE;
+        return GeoDistance.squaredDegrees(x, y, nearestX, nearestY, GeoDistance.longitudeScale(y)) <= radius * radius;
+    }
+
+    // Gets a copy of the stored responders
+    public List<Responder> toList() {
+        return new ArrayList<>(Arrays.asList(refs).subList(0, size));
+    }
+
+    // Doubles the capacity of every array
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        refs = Arrays.copyOf(refs, capacity);
+    }
+}
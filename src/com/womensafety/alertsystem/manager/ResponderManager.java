@@ -1,90 +1,68 @@
 package com.womensafety.alertsystem.manager; // Manager classes for business logic and operations
 
+import com.womensafety.alertsystem.database.ConnectionPool;
+import com.womensafety.alertsystem.database.IdAllocator;
 import com.womensafety.alertsystem.model.Responder;
 import com.womensafety.alertsystem.security.RBACManager;
+import com.womensafety.alertsystem.util.Logger;
 import com.womensafety.alertsystem.util.SystemLogger;
 import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import com.womensafety.alertsystem.util.ZoneRegistry;
 import com.womensafety.alertsystem.service.AuthenticationHelper;
 import com.womensafety.alertsystem.model.Role;
 import java.sql.*;
-import java.util.HashMap;
-import java.util.Random;
 
 // ResponderManager class handles responder registration, authentication, and management
 // Manages responder data in both memory and database with coordinate generation
 public class ResponderManager{
-    private HashMap<Integer,Responder> resp; // In-memory storage of responders by ID
-    private int nextResponderId; // Next available responder ID
-    private Random random; // Random generator for coordinate generation
+    private static final Logger log = SystemLogger.getLogger(ResponderManager.class); // Responder logging, gated by the manager package threshold
+    private final EntityCache<Integer, Responder> resp; // Shared bounded identity map of responders by ID
+    private final IdAllocator idAllocator; // Block-based allocator for Responder_id values
 
-    // Constructor initializes data structures and loads next responder ID from database
+    // Constructor initializes data structures and the responder ID allocator
     public ResponderManager(){
-        resp = new HashMap<>(); // Initialize empty responder map
-        random = new Random(); // Initialize random number generator
-        initializeNextResponderId(); // Load next ID from database
-    }
-
-    // Initializes the next responder ID by querying the database for maximum ID
-    private void initializeNextResponderId() {
-        try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-
-            String query = "SELECT MAX(Responder_id) as max_id FROM responder_details"; // Query max ID
-            PreparedStatement pst = con.prepareStatement(query);
-            ResultSet rs = pst.executeQuery();
-
-            if (rs.next()) {
-                int maxId = rs.getInt("max_id"); // Get maximum ID from database
-                nextResponderId = maxId + 1; // Set next ID to max + 1
-            } else {
-                nextResponderId = 1; // Default to 1 if no responders exist
-            }
-
-            rs.close();
-            pst.close();
-            con.close();
-
-            SystemLogger.info("Next Responder ID initialized to: " + nextResponderId); // Log initialization
-
-        } catch (Exception e) {
-            SystemLogger.error("Error initializing Responder ID: " + e.getMessage()); // Log error
-            nextResponderId = 1; // Fallback to ID 1 on error
-        }
+        resp = EntityCache.responders(); // Same instances as the availability index
+        idAllocator = IdAllocator.forTable("responder_details", "Responder_id"); // IDs come from reserved blocks, not MAX(id)
     }
 
     // Registers a new responder with the system
     // Returns: Registered Responder object or null if registration fails
     public Responder registerResponder(String Name, String Phone, String Email, String Zone, boolean Available, String Password){
-        Responder newResponder = new Responder(nextResponderId, Name, Phone, Email, Zone, Available, Password); // Create responder object
+        if (!ZoneRegistry.getInstance().isKnownZone(Zone))
+            throw new IllegalArgumentException("Invalid zone. It must be one of: " + String.join(", ", ZoneRegistry.getInstance().getZoneNames()) + ".");
+        int responderId;
+        try {
+            responderId = idAllocator.nextId(); // Served from memory unless the current block is used up
+        } catch (SQLException e) {
+            log.error("Could not allocate responder ID: {}", e.getMessage());
+            return null;
+        }
 
-        double[] coords = generateZoneBasedCoordinates(Zone); // Generate coordinates based on zone
+        Responder newResponder = new Responder(responderId, Name, Phone, Email, Zone, Available, Password); // Create responder object
+
+        double[] coords = CoordinateGenerator.generateZoneBasedCoordinates(Zone); // Generate coordinates based on zone
         newResponder.setX(coords[1]);
         newResponder.setY(coords[0]);
+        Zone = ZoneRegistry.getInstance().resolveZone(coords[1], coords[0], Zone); // Dispatch keys off the zone the point falls in
+        newResponder.setZone(Zone);
 
-        resp.put(nextResponderId, newResponder); // Store responder in memory
+        resp.put(responderId, newResponder); // Store responder in memory
 
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
 
             if(con != null){
-                SystemLogger.success("Database connection established successfully."); // Log connection success
+                log.success("Database connection established successfully."); // Log connection success
             } else {
-                SystemLogger.error("Failed to connect to the database."); // Log connection failure
+                log.error("Failed to connect to the database."); // Log connection failure
                 return null; // Return null on connection failure
             }
 
             String insertResponder = "INSERT INTO responder_details (Responder_id, Name, Phone_no, Email, Zone, Availability, Password, X_coordinate, Y_coordinate) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)"; // Insert query
             PreparedStatement pst = con.prepareStatement(insertResponder);
 
-            pst.setInt(1, nextResponderId);
+            pst.setInt(1, responderId);
             pst.setString(2, Name);
             pst.setString(3, Phone);
             pst.setString(4, Email);
@@ -97,11 +75,10 @@ public class ResponderManager{
             int result = pst.executeUpdate();
 
             if (result > 0) {
-                SystemLogger.success("User saved to database successfully!"); // Log success
-                nextResponderId++; // Increment ID for next responder
+                log.success("User saved to database successfully!"); // Log success
             } else {
-                SystemLogger.error("Failed to save user to database."); // Log failure
-                resp.remove(nextResponderId); // Remove from memory on failure
+                log.error("Failed to save user to database."); // Log failure
+                resp.invalidate(responderId); // Remove from memory on failure
                 return null; // Return null on database failure
             }
 
@@ -109,8 +86,8 @@ public class ResponderManager{
             con.close();
 
         } catch (Exception e) {
-            SystemLogger.error("Database error: " + e.getMessage()); // Log error
-            resp.remove(nextResponderId); // Remove from memory on error
+            log.error("Database error: {}", e.getMessage()); // Log error
+            resp.invalidate(responderId); // Remove from memory on error
             return null; // Return null on exception
         }
 
@@ -128,11 +105,7 @@ public class ResponderManager{
         }
 
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
 
             String query = "SELECT * FROM responder_details WHERE Responder_id = ? AND Password = ?"; // Auth query
             PreparedStatement pst = con.prepareStatement(query);
@@ -153,8 +126,9 @@ public class ResponderManager{
                 Responder dbResponder = new Responder(responderId, name, phone, email, zone, availability, password); // Create responder
                 dbResponder.setX(x);
                 dbResponder.setY(y);
+                dbResponder = resp.intern(responderId, dbResponder); // Reuse the instance the availability index holds
+                dbResponder.setPassword(password); // The database just confirmed it
                 dbResponder.setRole(Role.RESPONDER); // Set responder role
-                resp.put(responderId, dbResponder); // Store in memory
 
                 RBACManager.setCurrentUser(dbResponder); // Set current user in RBAC
 
@@ -170,76 +144,18 @@ public class ResponderManager{
             con.close();
 
         } catch (Exception e) {
-            SystemLogger.error("Database authentication error: " + e.getMessage()); // Log error
+            log.error("Database authentication error: {}", e.getMessage()); // Log error
         }
         return null; // Return null if authentication fails
     }
 
-    // Generates random coordinates within India's boundaries
-    // Returns: Array containing [latitude, longitude]
-    private double[] generateRandomCoordinates() {
-        double lat = Constants.INDIA_MIN_LAT + (Constants.INDIA_MAX_LAT - Constants.INDIA_MIN_LAT) * random.nextDouble(); // Random latitude
-        double lng = Constants.INDIA_MIN_LNG + (Constants.INDIA_MAX_LNG - Constants.INDIA_MIN_LNG) * random.nextDouble(); // Random longitude
-        return new double[]{lat, lng}; // Return coordinates
-    }
-
-    // Generates coordinates based on specified zone within India
-    // Returns: Array containing [latitude, longitude] for the zone
-    private double[] generateZoneBasedCoordinates(String zone) {
-        double baseLat, baseLng; // Base coordinates for the zone
-        double offset = 2.0; // Coordinate offset range
-
-        switch (zone.toLowerCase()) {
-            case "north":
-                baseLat = 28.0;
-                baseLng = 77.0;
-                break;
-            case "south":
-                baseLat = 12.0;
-                baseLng = 78.0;
-                break;
-            case "east":
-                baseLat = 22.0;
-                baseLng = 88.0;
-                break;
-            case "west":
-                baseLat = 19.0;
-                baseLng = 73.0;
-                break;
-            default:
-                return generateRandomCoordinates(); // Fallback to random coordinates
-        }
-        double lat = baseLat + (random.nextDouble() - 0.5) * 2 * offset; // Random latitude within zone
-        double lng = baseLng + (random.nextDouble() - 0.5) * 2 * offset; // Random longitude within zone
-
-        // Ensure coordinates stay within India boundaries
-        lat = Math.max(Constants.INDIA_MIN_LAT, Math.min(Constants.INDIA_MAX_LAT, lat));
-        lng = Math.max(Constants.INDIA_MIN_LNG, Math.min(Constants.INDIA_MAX_LNG, lng));
-
-        return new double[]{lat, lng}; // Return zone-based coordinates
-    }
-
-    // Updates responder coordinates in memory
-    // Returns: true if update successful, false if responder not found
-    public boolean updateResponderCoordinates(int responderId, double x, double y){
-        Responder responder = resp.get(responderId); // Get responder from memory
-        if(responder != null){
-            responder.setX(x);
-            responder.setY(y);
-            SystemLogger.success("Coordinates updated for responder: " + responder.getName()); // Log success
-            return true; // Return success
-        }
-        return false; // Return failure if responder not found
-    }
-
     // Updates responder information in the database for various fields
     // Returns: true if update successful, false if failed
     public boolean updateResponderInDatabase(int responderId, String fieldName, String oldValue, String newValue) {
+        if (fieldName.equalsIgnoreCase("zone"))
+            newValue = ZoneRegistry.getInstance().canonicalName(newValue); // Zones are stored with their registered spelling
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
 
             String updateQuery = "";
             PreparedStatement pst = null;
@@ -261,22 +177,27 @@ public class ResponderManager{
                     updateQuery = "UPDATE responder_details SET Zone = ?, X_coordinate = ?, Y_coordinate = ? WHERE Responder_id = ?"; // Zone update
                     break;
                 case "available":
+                case "availability": // Name used by the responder profile screens
                     updateQuery = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?"; // Availability update
                     break;
                 default:
-                    SystemLogger.error("Invalid field: " + fieldName); // Log invalid field
+                    log.error("Invalid field: {}", fieldName); // Log invalid field
+                    con.close(); // Return the connection to the pool
                     return false; // Return failure
             }
 
             pst = con.prepareStatement(updateQuery);
 
             if (fieldName.equalsIgnoreCase("zone")) {
-                double[] coords = generateZoneBasedCoordinates(newValue);
+                Responder cached = resp.peek(responderId);
+                double[] coords = cached != null
+                    ? new double[] {cached.getY(), cached.getX()} // Save the coordinates the cached responder already moved to
+                    : CoordinateGenerator.generateZoneBasedCoordinates(newValue);
                 pst.setString(1, newValue);
                 pst.setDouble(2, coords[1]);
                 pst.setDouble(3, coords[0]);
                 pst.setInt(4, responderId);
-            } else if (fieldName.equalsIgnoreCase("available")) {
+            } else if (fieldName.equalsIgnoreCase("available") || fieldName.equalsIgnoreCase("availability")) {
                 pst.setBoolean(1, Boolean.parseBoolean(newValue));
                 pst.setInt(2, responderId);
             } else {
@@ -286,7 +207,8 @@ public class ResponderManager{
 
             int result = pst.executeUpdate();
             if (result > 0) {
-                SystemLogger.success("Responder updated successfully in DB for field: " + fieldName); // Log success
+                writeThrough(responderId, fieldName, newValue);
+                log.success("Responder updated successfully in DB for field: {}", fieldName); // Log success
                 pst.close();
                 con.close();
                 return true; // Return success
@@ -295,37 +217,55 @@ public class ResponderManager{
             pst.close();
             con.close();
         } catch (Exception e) {
-            SystemLogger.error("Database update error: " + e.getMessage()); // Log error
+            log.error("Database update error: {}", e.getMessage()); // Log error
         }
         return false; // Return failure
     }
 
+    // Applies a field change that was saved to the database to the cached responder, if it is cached
+    // Availability is left alone: it changes through LocationManager.setAvailability so the index stays in step
+    private void writeThrough(int responderId, String fieldName, String newValue) {
+        Responder responder = resp.peek(responderId);
+        if (responder == null)
+            return;
+        switch (fieldName.toLowerCase()) {
+            case "name": responder.setName(newValue); break;
+            case "phone": responder.setPhone(newValue); break;
+            case "email": responder.setEmail(newValue); break;
+            case "password": responder.setPassword(newValue); break;
+            case "zone": responder.setZone(newValue); break;
+        }
+    }
+
+    // Returns the canonical instance of a responder built from a database row
+    // Returns: responder already in memory with the same ID, or the given responder, which is cached from now on
+    public Responder internResponder(Responder responder) {
+        return resp.intern(responder.getId(), responder);
+    }
+
     // Updates responder password with validation
     // Returns: true if password update successful, false if failed
     public boolean updateResponderPassword(int responderId, String oldPassword, String newPassword) {
         Responder responder = resp.get(responderId); // Get responder from memory
         if (responder == null) {
-            SystemLogger.error("Responder not found."); // Log error
+            log.error("Responder not found."); // Log error
             return false; // Return failure
         }
 
         if (!responder.getPassword().equals(oldPassword)) {
-            SystemLogger.error("Current password is incorrect."); // Log error
+            log.error("Current password is incorrect."); // Log error
             return false; // Return failure
         }
 
         if (!AuthenticationHelper.isValidPassword(newPassword)) {
-            SystemLogger.error("New password must be at least 6 characters long."); // Log error
+            log.error("New password must be at least 6 characters long."); // Log error
             return false; // Return failure
         }
 
         responder.setPassword(newPassword); // Update password in memory
 
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
 
             if (con != null) {
                 String updateQuery = "UPDATE responder_details SET Password = ? WHERE Responder_id = ?"; // Password update query
@@ -336,7 +276,7 @@ public class ResponderManager{
                 int result = pst.executeUpdate();
 
                 if (result > 0) {
-                    SystemLogger.success("Password updated successfully!"); // Log success
+                    log.success("Password updated successfully!"); // Log success
                     pst.close();
                     con.close();
                     return true;
@@ -347,7 +287,7 @@ public class ResponderManager{
             }
 
         } catch (Exception e) {
-            SystemLogger.error("Database update error: " + e.getMessage()); // Log error
+            log.error("Database update error: {}", e.getMessage()); // Log error
             responder.setPassword(oldPassword); // Revert password change on error
         }
         return false; // Return failure
@@ -359,11 +299,7 @@ public class ResponderManager{
         System.out.println("=" .repeat(85));
 
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
 
             String query = "SELECT * FROM responder_details ORDER BY Responder_id"; // Select all responders
             PreparedStatement pst = con.prepareStatement(query);
@@ -410,7 +346,7 @@ public class ResponderManager{
             }
 
             if (!hasResponders) {
-                SystemLogger.info("No responders found in database."); // Log no responders
+                log.info("No responders found in database."); // Log no responders
             } else {
                 System.out.println(Constants.SUCCESS + "Total Responders: " + responderCount + Constants.RESET); // Print total
                 System.out.println(Constants.SUCCESS + "Available: " + availableCount + Constants.RESET + // Print available
@@ -422,11 +358,11 @@ public class ResponderManager{
             con.close();
 
         } catch (Exception e) {
-            SystemLogger.error("Error retrieving responders from database: " + e.getMessage()); // Log error
+            log.error("Error retrieving responders from database: {}", e.getMessage()); // Log error
 
             System.out.println("\nFalling back to in-memory data:"); // Fallback message
-            if(resp.isEmpty()){
-                SystemLogger.info("No responders registered in memory either."); // Log no in-memory responders
+            if(resp.size() == 0){
+                log.info("No responders registered in memory either."); // Log no in-memory responders
             } else {
                 for(Responder responder: resp.values()){
                     System.out.println(responder); // Print responder details
@@ -440,12 +376,8 @@ public class ResponderManager{
     // Checks if a phone number already exists in the responder database
     // Returns: true if phone exists, false otherwise
     public boolean isPhoneExists(String phone) {
-        String dbUrl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-        String dbUser = "root";
-        String dbPass = "";
-
         String query = "SELECT COUNT(*) FROM responder_details WHERE Phone_no = ?"; // Phone existence query
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass); 
+        try (Connection conn = ConnectionPool.getConnection(); 
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, phone);
             ResultSet rs = stmt.executeQuery();
@@ -0,0 +1,204 @@
+package com.womensafety.alertsystem.manager;
+
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.util.*;
+
+// Uniform grid over responder coordinates for nearest-neighbour search
+// Space is cut into square cells of a fixed size and every responder is filed under the cell that holds its position;
+// a nearest query searches the cells around the query point ring by ring and stops as soon as no unsearched ring can
+// hold anything closer, so its cost follows the local density of responders instead of their total number
+// Coordinates are longitude (x) and latitude (y); distances are ranked with GeoDistance.squaredDegrees
+// Not thread-safe: AvailabilityIndex guards each zone's grid with the zone lock
+public class SpatialGrid {
+    private final double cellSize;
+    private final Map<Long, List<Responder>> cells = new HashMap<>(); // Packed cell coordinates to their responders
+    private final Map<Integer, Long> cellOf = new HashMap<>(); // Responder ID to the cell it was filed under
+    private int minCellX = Integer.MAX_VALUE, maxCellX = Integer.MIN_VALUE; // Bounds of every cell used so far
+    private int minCellY = Integer.MAX_VALUE, maxCellY = Integer.MIN_VALUE;
+
+    // Constructor creates an empty grid with the given cell size in coordinate units
+    public SpatialGrid(double cellSize) {
+        if (cellSize <= 0)
+            throw new IllegalArgumentException("Cell size must be positive");
+        this.cellSize = cellSize;
+    }
+
+    // Files a responder under the cell of its current position, replacing any earlier entry with the same ID
+    public void add(Responder responder) {
+        int cx = cellIndex(responder.getX());
+        int cy = cellIndex(responder.getY());
+        long cell = pack(cx, cy);
+        Long current = cellOf.get(responder.getId());
+        if (current != null && current == cell) { // Small GPS moves usually stay in the same cell
+            List<Responder> list = cells.get(cell);
+            for (int i = 0; i < list.size(); i++) {
+                if (list.get(i).getId() == responder.getId()) {
+                    list.set(i, responder);
+                    return;
+                }
+            }
+        }
+        remove(responder.getId());
+        cells.computeIfAbsent(cell, c -> new ArrayList<>()).add(responder);
+        cellOf.put(responder.getId(), cell);
+        minCellX = Math.min(minCellX, cx);
+        maxCellX = Math.max(maxCellX, cx);
+        minCellY = Math.min(minCellY, cy);
+        maxCellY = Math.max(maxCellY, cy);
+    }
+
+    // Removes a responder by ID; uses the cell it was filed under, so it works after its coordinates changed
+    public void remove(int responderId) {
+        Long cell = cellOf.remove(responderId);
+        if (cell == null)
+            return;
+        List<Responder> list = cells.get(cell);
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i).getId() == responderId) {
+                list.set(i, list.get(list.size() - 1)); // Order within a cell does not matter
+                list.remove(list.size() - 1);
+                break;
+            }
+        }
+        if (list.isEmpty()) {
+            cells.remove(cell);
+        }
+    }
+
+    // Gets the number of responders in the grid
+    public int size() {
+        return cellOf.size();
+    }
+
+    // Finds the responder closest to the given point
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: nearest responder or null if the grid holds no other responder
+    public Responder findNearest(double x, double y, int excludeResponderId) {
+        List<Responder> found = findNearest(x, y, 1, excludeResponderId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    // Finds the k responders closest to the given point
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: up to k responders, nearest first
+    public List<Responder> findNearest(double x, double y, int k, int excludeResponderId) {
+        if (k <= 0 || cellOf.isEmpty())
+            return new ArrayList<>();
+        int cx = cellIndex(x);
+        int cy = cellIndex(y);
+        // Beyond this ring every used cell has been searched
+        int maxRing = Math.max(Math.max(cx - minCellX, maxCellX - cx), Math.max(cy - minCellY, maxCellY - cy));
+
+        Candidates best = new Candidates(k);
+        double scale = GeoDistance.longitudeScale(y);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (best.isFull()) {
+                // Any point in this ring is at least (ring - 1) cells plus the gap to the cell edge away; scaling by
+                // the longitude factor (at most 1) keeps the bound valid in both directions
+                double reach = ((ring - 1) * cellSize + edgeGap(x, y, cx, cy)) * scale;
+                if (reach > 0 && reach * reach >= best.bound())
+                    break;
+            }
+            for (int dx = -ring; dx <= ring; dx++) {
+                boolean edgeColumn = dx == -ring || dx == ring;
+                for (int dy = -ring; dy <= ring; dy += edgeColumn ? 1 : 2 * ring) { // Only the cells on the ring
+                    List<Responder> list = cells.get(pack(cx + dx, cy + dy));
+                    if (list != null) {
+                        for (Responder r : list) {
+                            if (r.getId() != excludeResponderId) {
+                                best.offer(GeoDistance.squaredDegrees(x, y, r.getX(), r.getY(), scale), r);
+                            }
+                        }
+                    }
+                    if (ring == 0)
+                        break;
+                }
+            }
+        }
+        return best.toList();
+    }
+
+    // Gets the distance from a point to the nearest edge of its own cell
+    private double edgeGap(double x, double y, int cx, int cy) {
+        double left = x - cx * cellSize;
+        double bottom = y - cy * cellSize;
+        return Math.min(Math.min(left, cellSize - left), Math.min(bottom, cellSize - bottom));
+    }
+
+    // Gets the cell index of one coordinate
+    private int cellIndex(double value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    // Packs two cell indices into one map key
+    private static long pack(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    // Bounded max-heap of the k closest responders seen so far; shared with PositionStore scans
+    static class Candidates {
+        private final double[] dist; // Squared distances, largest at the root
+        private final Responder[] items;
+        private int size = 0;
+
+        Candidates(int k) {
+            dist = new double[k];
+            items = new Responder[k];
+        }
+
+        // Checks whether k responders have been collected
+        boolean isFull() {
+            return size == dist.length;
+        }
+
+        // Squared distance a responder must beat to enter the heap
+        double bound() {
+            return isFull() ? dist[0] : Double.MAX_VALUE;
+        }
+
+        void offer(double d, Responder r) {
+            if (!isFull()) {
+                int c = size++;
+                while (c > 0 && dist[(c - 1) / 2] < d) { // Sift up
+                    int p = (c - 1) / 2;
+                    dist[c] = dist[p];
+                    items[c] = items[p];
+                    c = p;
+                }
+                dist[c] = d;
+                items[c] = r;
+            } else if (d < dist[0]) {
+                int c = 0;
+                while (true) { // Sift the new value down from the root
+                    int child = 2 * c + 1;
+                    if (child >= size)
+                        break;
+                    if (child + 1 < size && dist[child + 1] > dist[child])
+                        child++;
+                    if (dist[child] <= d)
+                        break;
+                    dist[c] = dist[child];
+                    items[c] = items[child];
+                    c = child;
+                }
+                dist[c] = d;
+                items[c] = r;
+            }
+        }
+
+        // Gets the collected responders, nearest first
+        List<Responder> toList() {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> dist[i]));
+            List<Responder> result = new ArrayList<>(size);
+            for (int i : order) {
+                result.add(items[i]);
+            }
+            return result;
+        }
+    }
+}
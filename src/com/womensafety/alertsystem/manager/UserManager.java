@@ -1,91 +1,69 @@
 package com.womensafety.alertsystem.manager;
 
+import com.womensafety.alertsystem.database.ConnectionPool;
+import com.womensafety.alertsystem.database.IdAllocator;
 import com.womensafety.alertsystem.model.User;
 import com.womensafety.alertsystem.security.RBACManager;
+import com.womensafety.alertsystem.util.Logger;
 import com.womensafety.alertsystem.util.SystemLogger;
 import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import com.womensafety.alertsystem.util.ZoneRegistry;
 import com.womensafety.alertsystem.service.AuthenticationHelper;
 import com.womensafety.alertsystem.model.Role;
 import java.sql.*;
-import java.util.HashMap;
 import java.util.Collection;
-import java.util.Random;
 
 // UserManager class handles user registration, authentication, and management
 // Manages user data in both memory and database with coordinate generation
 public class UserManager{
-    private HashMap <Integer,User> users; // In-memory storage of users by ID
-    private int nextUserId; // Next available user ID
-    private Random random; // Random generator for coordinate generation
+    private static final Logger log = SystemLogger.getLogger(UserManager.class); // User logging, gated by the manager package threshold
+    private final EntityCache<Integer, User> users; // Shared bounded identity map of users by ID
+    private final IdAllocator idAllocator; // Block-based allocator for User_id values
 
-    // Constructor initializes data structures and loads next user ID
+    // Constructor initializes data structures and the user ID allocator
     public UserManager(){
-        users = new HashMap<>();
-        random = new Random();
-        initializeNextUserId();
-    }
-
-    // Initializes the next user ID by querying the database for maximum ID
-    private void initializeNextUserId() {
-        try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            String query = "SELECT MAX(User_id) as max_id FROM user_details";
-            PreparedStatement pst = con.prepareStatement(query);
-            ResultSet rs = pst.executeQuery();
-            
-            if (rs.next()) {
-                int maxId = rs.getInt("max_id");
-                nextUserId = maxId + 1;
-            } else {
-                nextUserId = 1;
-            }
-            
-            rs.close();
-            pst.close();
-            con.close();
-            
-            SystemLogger.info("Next User ID initialized to: " + nextUserId);
-            
-        } catch (Exception e) {
-            SystemLogger.error("Error initializing User ID: " + e.getMessage());
-            nextUserId = 1;
-        }
+        users = EntityCache.users();
+        idAllocator = IdAllocator.forTable("user_details", "User_id"); // IDs come from reserved blocks, not MAX(id)
     }
 
     // Registers a new user with the system
     // Returns: Registered User object or null if registration fails
     public User registerUser(String Name, String Phone, String Email, String Location, String Zone, String Password){
-        User newUser = new User(nextUserId, Name, Phone, Email, Location, Zone, Password);
+        if (!ZoneRegistry.getInstance().isKnownZone(Zone))
+            throw new IllegalArgumentException("Invalid zone. It must be one of: " + String.join(", ", ZoneRegistry.getInstance().getZoneNames()) + ".");
+        int userId;
+        try {
+            userId = idAllocator.nextId(); // Served from memory unless the current block is used up
+        } catch (SQLException e) {
+            log.error("Could not allocate user ID: {}", e.getMessage());
+            return null;
+        }
+
+        User newUser = new User(userId, Name, Phone, Email, Location, Zone, Password);
 
-        double[] coords = generateZoneBasedCoordinates(Zone);
+        double[] coords = CoordinateGenerator.generateZoneBasedCoordinates(Zone);
         newUser.setX(coords[1]);
         newUser.setY(coords[0]);
+        Zone = ZoneRegistry.getInstance().resolveZone(coords[1], coords[0], Zone); // Dispatch keys off the zone the point falls in
+        newUser.setZone(Zone);
 
-        users.put(nextUserId, newUser);
+        users.put(userId, newUser);
 
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
 
             if(con != null){
-                SystemLogger.success("Database connection established successfully.");
+                log.success("Database connection established successfully.");
             } else {
-                SystemLogger.error("Failed to connect to the database.");
+                log.error("Failed to connect to the database.");
                 return null;
             }
 
             String insertUser = "INSERT INTO user_details (User_id, Name, Phone_no, Email, Location, Zone, Password, X_coordinate, Y_coordinate) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
             PreparedStatement pst = con.prepareStatement(insertUser);
 
-            pst.setInt(1, nextUserId);
+            pst.setInt(1, userId);
             pst.setString(2, Name);
             pst.setString(3, Phone);
             pst.setString(4, Email);
@@ -98,11 +76,10 @@ public class UserManager{
             int result = pst.executeUpdate();
 
             if (result > 0) {
-                SystemLogger.success("User saved to database successfully!");
-                nextUserId++;
+                log.success("User saved to database successfully!");
             } else {
-                SystemLogger.error("Failed to save user to database.");
-                users.remove(nextUserId);
+                log.error("Failed to save user to database.");
+                users.invalidate(userId);
                 return null;
             }
 
@@ -110,8 +87,8 @@ public class UserManager{
             con.close();
 
         } catch (Exception e) {
-            SystemLogger.error("Database error: " + e.getMessage());
-            users.remove(nextUserId);
+            log.error("Database error: {}", e.getMessage());
+            users.invalidate(userId);
             return null;
         }
 
@@ -129,11 +106,7 @@ public class UserManager{
         }
 
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             String query = "SELECT * FROM user_details WHERE User_id = ? AND Password = ?";
             PreparedStatement pst = con.prepareStatement(query);
@@ -154,8 +127,9 @@ public class UserManager{
                 User dbUser = new User(userId, name, phone, email, location, zone, password);
                 dbUser.setX(x);
                 dbUser.setY(y);
+                dbUser = users.intern(userId, dbUser); // Reuse the instance alerts already hold
+                dbUser.setPassword(password); // The database just confirmed it
                 dbUser.setRole(Role.USER);
-                users.put(userId, dbUser);
 
                 RBACManager.setCurrentUser(dbUser);
                 
@@ -171,55 +145,11 @@ public class UserManager{
             con.close();
             
         } catch (Exception e) {
-            SystemLogger.error("Database authentication error: " + e.getMessage());
+            log.error("Database authentication error: {}", e.getMessage());
         }
         return null;
     }
 
-    // Generates random coordinates within India's boundaries
-    // Returns: Array containing [latitude, longitude]
-    private double[] generateRandomCoordinates() {
-        double lat = Constants.INDIA_MIN_LAT + (Constants.INDIA_MAX_LAT - Constants.INDIA_MIN_LAT) * random.nextDouble();
-        double lng = Constants.INDIA_MIN_LNG + (Constants.INDIA_MAX_LNG - Constants.INDIA_MIN_LNG) * random.nextDouble();
-        return new double[]{lat, lng};
-    }
-
-    // Generates coordinates based on specified zone within India
-    // Returns: Array containing [latitude, longitude] for the zone
-    private double[] generateZoneBasedCoordinates(String zone) {
-        double baseLat, baseLng;
-        double offset = 2.0;
-
-        switch (zone.toLowerCase()) {
-            case "north":
-                baseLat = 28.0;
-                baseLng = 77.0;
-                break;
-            case "south":
-                baseLat = 12.0;
-                baseLng = 78.0;
-                break;
-            case "east":
-                baseLat = 22.0;
-                baseLng = 88.0;
-                break;
-            case "west":
-                baseLat = 19.0;
-                baseLng = 73.0;
-                break;
-            default:
-                return generateRandomCoordinates();
-        }
-
-        double lat = baseLat + (random.nextDouble() - 0.5) * 2 * offset;
-        double lng = baseLng + (random.nextDouble() - 0.5) * 2 * offset;
-
-        lat = Math.max(Constants.INDIA_MIN_LAT, Math.min(Constants.INDIA_MAX_LAT, lat));
-        lng = Math.max(Constants.INDIA_MIN_LNG, Math.min(Constants.INDIA_MAX_LNG, lng));
-
-        return new double[]{lat, lng};
-    }
-
     // Updates user coordinates in memory
     // Returns: true if update successful, false if user not found
     public boolean updateUserCoordinates(int userId, double x, double y){
@@ -227,7 +157,7 @@ public class UserManager{
         if(user != null) {
             user.setX(x);
             user.setY(y);
-            SystemLogger.success("Coordinates updated for user: " + user.getName());
+            log.success("Coordinates updated for user: {}", user.getName());
             return true;
         }
         return false;
@@ -236,11 +166,10 @@ public class UserManager{
     // Updates user information in the database for various fields
     // Returns: true if update successful, false if failed
     public boolean updateUserInDatabase(int userId, String fieldName, String oldValue, String newValue) {
+        if (fieldName.equalsIgnoreCase("zone"))
+            newValue = ZoneRegistry.getInstance().canonicalName(newValue); // Zones are stored with their registered spelling
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             if (con != null) {
                 PreparedStatement ps1 = con.prepareStatement("SET @current_user_id = ?"); // Set session variable for user tracking
@@ -283,7 +212,8 @@ public class UserManager{
                 int result = pst.executeUpdate();
                 
                if (result > 0) {
-                    SystemLogger.success("Database updated successfully for " + fieldName);
+                    writeThrough(userId, fieldName, newValue);
+                    log.success("Database updated successfully for {}", fieldName);
                     pst.close();
                     con.close();
                     return true;
@@ -293,37 +223,54 @@ public class UserManager{
                 con.close();
             }
         } catch (Exception e) {
-            SystemLogger.error("Database update error: " + e.getMessage());
+            log.error("Database update error: {}", e.getMessage());
         }
         return false;
     }
 
+    // Applies a field change that was saved to the database to the cached user, if it is cached
+    private void writeThrough(int userId, String fieldName, String newValue) {
+        User user = users.peek(userId);
+        if (user == null)
+            return;
+        switch (fieldName.toLowerCase()) {
+            case "name": user.setName(newValue); break;
+            case "phone": user.setPhone(newValue); break;
+            case "email": user.setEmail(newValue); break;
+            case "location": user.setLocation(newValue); break;
+            case "zone": user.setZone(newValue); break; // Coordinates were set before they were saved
+        }
+    }
+
+    // Returns the canonical instance of a user built from a database row
+    // Returns: user already in memory with the same ID, or the given user, which is cached from now on
+    public User internUser(User user) {
+        return users.intern(user.getId(), user);
+    }
+
     // Updates user password with validation
     // Returns: true if password update successful, false if failed
     public boolean updateUserPassword(int userId, String oldPassword, String newPassword) {
         User user = users.get(userId);
         if (user == null) {
-            SystemLogger.error("User not found.");
+            log.error("User not found.");
             return false;
         }
         
         if (!user.getPassword().equals(oldPassword)) {
-            SystemLogger.error("Current password is incorrect.");
+            log.error("Current password is incorrect.");
             return false;
         }
         
         if (!AuthenticationHelper.isValidPassword(newPassword)) {
-            SystemLogger.error("New password must be at least 6 characters long.");
+            log.error("New password must be at least 6 characters long.");
             return false;
         }
         
         user.setPassword(newPassword);
         
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             if (con != null) {
                 String updateQuery = "UPDATE user_details SET Password = ? WHERE User_id = ?";
@@ -334,7 +281,7 @@ public class UserManager{
                 int result = pst.executeUpdate();
                 
                 if (result > 0) {
-                    SystemLogger.success("Password updated successfully!");
+                    log.success("Password updated successfully!");
                     pst.close();
                     con.close();
                     return true;
@@ -344,7 +291,7 @@ public class UserManager{
                 con.close();
             }
         } catch (Exception e) {
-            SystemLogger.error("Database update error: " + e.getMessage());
+            log.error("Database update error: {}", e.getMessage());
             user.setPassword(oldPassword);
         }
         return false;
@@ -356,8 +303,8 @@ public class UserManager{
         return users.get(Id);
     }
 
-    // Gets all users from memory
-    // Returns: Collection of all User objects
+    // Gets all users cached in memory
+    // Returns: Collection of all cached User objects
     Collection<User> getAllUsers(){
         return users.values();
     }
@@ -368,11 +315,7 @@ public class UserManager{
         System.out.println("=" .repeat(80));
             
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-                
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
                 
             String query = "SELECT * FROM user_details ORDER BY User_id";
             PreparedStatement pst = con.prepareStatement(query);
@@ -406,7 +349,7 @@ public class UserManager{
             }
                 
             if (!hasUsers) {
-                SystemLogger.info("No users found in database.");
+                log.info("No users found in database.");
             } else {
                 System.out.println(Constants.SUCCESS + "Total Users: " + userCount + Constants.RESET);
             }
@@ -416,11 +359,11 @@ public class UserManager{
             con.close();
                 
         } catch (Exception e) {
-            SystemLogger.error("Error retrieving users from database: " + e.getMessage());
+            log.error("Error retrieving users from database: {}", e.getMessage());
                 
             System.out.println("\nFalling back to in-memory data:");
-            if(users.isEmpty()){
-                SystemLogger.info("No users registered in memory either.");
+            if(users.size() == 0){
+                log.info("No users registered in memory either.");
             } else {
                 for(User user: users.values()){
                     System.out.println(user);
@@ -434,12 +377,8 @@ public class UserManager{
     // Checks if a phone number already exists in the user database
     // Returns: true if phone exists, false otherwise
     public boolean isPhoneExists(String phone) {
-        String dbUrl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-        String dbUser = "root";
-        String dbPass = "";
-
         String query = "SELECT COUNT(*) FROM user_details WHERE Phone_no = ?";
-        try (Connection conn = DriverManager.getConnection(dbUrl, dbUser, dbPass);
+        try (Connection conn = ConnectionPool.getConnection();
              PreparedStatement stmt = conn.prepareStatement(query)) {
             stmt.setString(1, phone);
             ResultSet rs = stmt.executeQuery();
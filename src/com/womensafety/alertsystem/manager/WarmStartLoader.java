@@ -0,0 +1,176 @@
+package com.womensafety.alertsystem.manager;
+
+import com.womensafety.alertsystem.database.ConnectionPool;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.SystemLogger;
+import com.womensafety.alertsystem.util.ZoneRegistry;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Startup loader that fills the in-memory indexes and entity caches before dispatch starts
+// Every responder is loaded into LocationManager's zone index, which also registers it in the responder cache, and
+// every user with an open alert is loaded into the user cache. Each table is split into ID ranges that are read in
+// parallel on separate pooled connections, and every range is streamed row by row so memory use does not depend on
+// the table size; rows are handed to the index in chunks while the partitions are still reading
+public class WarmStartLoader {
+    private final LocationManager locationManager;
+    private final UserManager userManager;
+
+    // Constructor creates a loader for the given managers
+    public WarmStartLoader(LocationManager locationManager, UserManager userManager) {
+        this.locationManager = locationManager;
+        this.userManager = userManager;
+    }
+
+    // Loads responders and active users, logging how long it took
+    // A failed partition is logged and skipped; whatever it missed is loaded on demand later
+    public void run() {
+        long start = System.nanoTime();
+        ExecutorService pool = Executors.newFixedThreadPool(Constants.WARM_START_PARTITIONS, r -> {
+            Thread thread = new Thread(r, "warm-start-loader");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            int responders = loadPartitioned(pool, "responder_details", "Responder_id",
+                "SELECT * FROM responder_details WHERE Responder_id BETWEEN ? AND ?",
+                this::loadResponders);
+            int users = loadPartitioned(pool, "user_details", "User_id",
+                "SELECT u.* FROM user_details u WHERE u.User_id BETWEEN ? AND ? AND EXISTS "
+                    + "(SELECT 1 FROM alert_details a WHERE a.User_id = u.User_id AND a.Status IN ('"
+                    + Constants.STATUS_ACTIVE + "', '" + Constants.STATUS_ASSIGNED + "', '" + Constants.STATUS_WAITING + "'))",
+                this::loadUsers);
+            SystemLogger.info(String.format("Warm start loaded %d responders and %d active users in %d ms.",
+                responders, users, (System.nanoTime() - start) / 1_000_000));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Splits a table into ID ranges, streams every range on its own connection and waits for all of them
+    // Query: Reads the ID bounds of the table, then runs the partition query once per range
+    // Returns: number of rows loaded
+    private int loadPartitioned(ExecutorService pool, String table, String idColumn, String sql, RowLoader loader) {
+        long minId, maxId;
+        try (Connection con = ConnectionPool.getConnection();
+             PreparedStatement pst = con.prepareStatement("SELECT MIN(" + idColumn + "), MAX(" + idColumn + ") FROM " + table);
+             ResultSet rs = pst.executeQuery()) {
+            if (!rs.next() || rs.getObject(1) == null)
+                return 0; // Empty table
+            minId = rs.getLong(1);
+            maxId = rs.getLong(2);
+        } catch (SQLException e) {
+            SystemLogger.error("Warm start could not read " + table + ": " + e.getMessage());
+            return 0;
+        }
+
+        int partitions = Constants.WARM_START_PARTITIONS;
+        long width = (maxId - minId) / partitions + 1;
+        AtomicInteger loaded = new AtomicInteger();
+        List<Future<?>> running = new ArrayList<>();
+        for (int p = 0; p < partitions; p++) {
+            long from = minId + p * width;
+            long to = Math.min(maxId, from + width - 1);
+            if (from > maxId)
+                break;
+            running.add(pool.submit(() -> {
+                // A large partition streams for longer than the pool's abandoned-connection timeout
+                try (Connection con = ConnectionPool.getLongLivedConnection();
+                     PreparedStatement pst = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                    pst.setFetchSize(Integer.MIN_VALUE); // Connector/J streams rows one by one only with this fetch size
+                    pst.setLong(1, from);
+                    pst.setLong(2, to);
+                    try (ResultSet rs = pst.executeQuery()) {
+                        loaded.addAndGet(loader.load(rs));
+                    }
+                } catch (SQLException e) {
+                    SystemLogger.error("Warm start failed for " + table + " IDs " + from + "-" + to + ": " + e.getMessage());
+                }
+            }));
+        }
+        for (Future<?> future : running) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException e) {
+                SystemLogger.error("Warm start partition of " + table + " failed: " + e.getCause());
+            }
+        }
+        return loaded.get();
+    }
+
+    // Builds responders from a streamed result and adds them to the zone index in chunks
+    // Returns: number of responders loaded
+    private int loadResponders(ResultSet rs) throws SQLException {
+        List<Responder> chunk = new ArrayList<>(Constants.WARM_START_CHUNK_SIZE);
+        int count = 0;
+        while (rs.next()) {
+            try {
+                Responder responder = new Responder(
+                    rs.getInt("Responder_id"),
+                    rs.getString("Name"),
+                    rs.getString("Phone_no"),
+                    rs.getString("Email"),
+                    rs.getString("Zone"),
+                    rs.getBoolean("Availability"),
+                    rs.getString("Password")
+                );
+                responder.setX(rs.getDouble("X_coordinate"));
+                responder.setY(rs.getDouble("Y_coordinate"));
+                if (!ZoneRegistry.getInstance().isKnownZone(responder.getZone())) {
+                    SystemLogger.warning("Skipping responder ID " + responder.getId() + " in unknown zone " + responder.getZone());
+                    continue; // Would be indexed under a zone no alert is dispatched in
+                }
+                chunk.add(responder);
+            } catch (IllegalArgumentException e) {
+                SystemLogger.error("Skipping invalid responder ID " + rs.getInt("Responder_id") + ": " + e.getMessage());
+            }
+            if (chunk.size() == Constants.WARM_START_CHUNK_SIZE) {
+                count += locationManager.addLoadedResponders(chunk);
+                chunk.clear();
+            }
+        }
+        return count + locationManager.addLoadedResponders(chunk);
+    }
+
+    // Builds users from a streamed result and registers them in the user cache
+    // Returns: number of users loaded
+    private int loadUsers(ResultSet rs) throws SQLException {
+        int count = 0;
+        while (rs.next()) {
+            try {
+                User user = new User(
+                    rs.getInt("User_id"),
+                    rs.getString("Name"),
+                    rs.getString("Phone_no"),
+                    rs.getString("Email"),
+                    rs.getString("Location"),
+                    rs.getString("Zone"),
+                    rs.getString("Password")
+                );
+                user.setX(rs.getDouble("X_coordinate"));
+                user.setY(rs.getDouble("Y_coordinate"));
+                if (!ZoneRegistry.getInstance().isKnownZone(user.getZone())) {
+                    SystemLogger.warning("Skipping user ID " + user.getId() + " in unknown zone " + user.getZone());
+                    continue; // Loaded on login instead, where the user can pick a valid zone
+                }
+                userManager.internUser(user);
+                count++;
+            } catch (IllegalArgumentException e) {
+                SystemLogger.error("Skipping invalid user ID " + rs.getInt("User_id") + ": " + e.getMessage());
+            }
+        }
+        return count;
+    }
+
+    // Reads every row of one streamed partition
+    private interface RowLoader {
+        int load(ResultSet rs) throws SQLException;
+    }
+}
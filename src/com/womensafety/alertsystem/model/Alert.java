@@ -1,5 +1,8 @@
 package com.womensafety.alertsystem.model;
 
+import com.womensafety.alertsystem.database.ConnectionPool;
+import com.womensafety.alertsystem.database.IdAllocator;
+import com.womensafety.alertsystem.service.AssignmentTransaction;
 import com.womensafety.alertsystem.util.Constants;
 import com.womensafety.alertsystem.util.SystemLogger;
 import java.time.LocalDateTime;
@@ -12,6 +15,8 @@ public class Alert {
     private LocalDateTime timestamp;
     private String status;
     private Responder assignedResponder;
+    private int severity = Constants.SEVERITY_NORMAL; // Dispatch severity, higher is more urgent
+    private int failedAttempts = 0; // Dispatch attempts that found no responder or failed to commit
 
     // Constructor creates a new alert with default Active status
     public Alert(User user) {
@@ -29,89 +34,25 @@ public class Alert {
         this.assignedResponder = assignedResponder;
     }
 
-    // Gets the next available alert ID from the database
-    // Returns: next available alert ID
-    private int getNextAlertIdFromDatabase() {
-        int nextId = 1;
-        try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-
-            String query = "SELECT IFNULL(MAX(Alert_id), 0) AS max_id FROM alert_details";
-            PreparedStatement pst = con.prepareStatement(query);
-            ResultSet rs = pst.executeQuery();
-
-            if (rs.next()) {
-                nextId = rs.getInt("max_id") + 1;
-            }
-
-            rs.close();
-            pst.close();
-            con.close();
-
-            SystemLogger.info("Next Alert ID initialized to: " + nextId);
-
-        } catch (Exception e) {
-            SystemLogger.error("Error getting next alert ID: " + e.getMessage());
-        }
-        return nextId;
-    }
-
     // Saves the alert to the database with status history tracking
+    // The alert row and its first history row are committed together by the group-commit writer, and this call waits
+    // until both are durable, so a true result means the history exists too
     // Returns: true if save successful, false if failed
     public boolean saveToDatabase() {
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Get the next available Alert_id using the same pattern as User/Responder
-            this.alertId = getNextAlertIdFromDatabase();
-            
-            String insertQuery = "INSERT INTO alert_details (Alert_id, User_id, Responder_id, Status, Alert_time, X_coordinate, Y_coordinate) VALUES (?, ?, ?, ?, ?, ?, ?)";
-            PreparedStatement pst = con.prepareStatement(insertQuery);
-            pst.setInt(1, this.alertId);
-            pst.setInt(2, this.user.getId());
-            
-            if (this.assignedResponder != null) {
-                pst.setInt(3, this.assignedResponder.getId());
-            } else {
-                pst.setNull(3, Types.INTEGER);
-            }
-            
-            pst.setString(4, this.status);
-            pst.setTimestamp(5, Timestamp.valueOf(this.timestamp));
-            pst.setDouble(6, this.user.getX());
-            pst.setDouble(7, this.user.getY());
-            
-            int result = pst.executeUpdate();
-            pst.close();
-            
-            if (result > 0) {
-                String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, NULL)";
-                
-                try (PreparedStatement historyPst = con.prepareStatement(historySQL)) {
-                    historyPst.setInt(1, this.alertId);
-                    historyPst.setString(2, "NEW");
-                    historyPst.setString(3, this.status);
-                    historyPst.executeUpdate();
-                    SystemLogger.info("Alert status history initialized for Alert ID: " + this.alertId);
-                } catch (Exception e) {
-                    SystemLogger.warning("Alert saved but failed to create status history: " + e.getMessage());
-                }
-                
-                SystemLogger.success("Alert saved to database successfully!");
-                con.close();
-                return true;
-            }
-            
-            con.close();
-            return false;
-            
+            // Take the next Alert_id from this process's reserved block; no query on the hot path
+            this.alertId = IdAllocator.forTable("alert_details", "Alert_id").nextId();
+
+            Integer responderId = this.assignedResponder != null ? this.assignedResponder.getId() : null;
+            new AssignmentTransaction()
+                    .insertAlert(this.alertId, this.user.getId(), responderId, this.status, this.severity,
+                            Timestamp.valueOf(this.timestamp), this.user.getX(), this.user.getY())
+                    .recordHistory(this.alertId, "NEW", this.status, null)
+                    .commit();
+
+            SystemLogger.success("Alert saved to database successfully!");
+            return true;
+
         } catch (Exception e) {
             SystemLogger.error("Error saving alert to database: " + e.getMessage());
             return false;
@@ -119,65 +60,34 @@ public class Alert {
     }
 
     // Updates the alert in the database and tracks status changes
+    // The update and its history row are committed together, and this call waits until they are durable
     // Returns: true if update successful, false if failed
     public boolean updateInDatabase() {
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-
-            String getCurrentStatusSQL = "SELECT Status FROM alert_details WHERE Alert_id = ?";
             String previousStatus = "NEW";
-            try (PreparedStatement getCurrentPst = con.prepareStatement(getCurrentStatusSQL)) {
+            try (Connection con = ConnectionPool.getConnection();
+                 PreparedStatement getCurrentPst = con.prepareStatement("SELECT Status FROM alert_details WHERE Alert_id = ?")) {
                 getCurrentPst.setInt(1, this.alertId);
-                ResultSet rs = getCurrentPst.executeQuery();
-                if (rs.next()) {
-                    previousStatus = rs.getString("Status");
+                try (ResultSet rs = getCurrentPst.executeQuery()) {
+                    if (rs.next()) {
+                        previousStatus = rs.getString("Status");
+                    }
                 }
-                rs.close();
-            }
-            
-            String updateQuery = "UPDATE alert_details SET Status = ?, Responder_id = ? WHERE Alert_id = ?";
-            PreparedStatement pst = con.prepareStatement(updateQuery);
-            
-            pst.setString(1, this.status);
-            if (this.assignedResponder != null) {
-                pst.setInt(2, this.assignedResponder.getId());
-            } else {
-                pst.setNull(2, Types.INTEGER);
             }
-            pst.setInt(3, this.alertId);
-
-            int result = pst.executeUpdate();
-            
-            pst.close();
-
-            if (result > 0 && previousStatus != null && !previousStatus.equals(this.status)) {
-                String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement historyPst = con.prepareStatement(historySQL)) {
-                    historyPst.setInt(1, this.alertId);
-                    historyPst.setString(2, previousStatus);
-                    historyPst.setString(3, this.status);
 
-                    if (this.assignedResponder != null) {
-                        historyPst.setInt(4, this.assignedResponder.getId());
-                    } else {
-                        historyPst.setNull(4, Types.INTEGER);
-                    }
+            Integer responderId = this.assignedResponder != null ? this.assignedResponder.getId() : null;
+            AssignmentTransaction tx = new AssignmentTransaction().updateAlert(this.alertId, this.status, responderId);
+            boolean changed = previousStatus != null && !previousStatus.equals(this.status);
+            if (changed) {
+                tx.recordHistory(this.alertId, previousStatus, this.status, responderId);
+            }
+            tx.commit(); // Fails if the alert row does not exist
 
-                    historyPst.executeUpdate();
-                    SystemLogger.info("Status history updated: " + previousStatus + " -> " + this.status + " for Alert ID: " + this.alertId);
-                } catch (Exception e) {
-                    SystemLogger.warning("Alert updated but failed to create status history: " + e.getMessage());
-                }
+            if (changed) {
+                SystemLogger.info("Status history recorded: " + previousStatus + " -> " + this.status + " for Alert ID: " + this.alertId);
             }
+            return true;
 
-            con.close();
-            
-            return result > 0;
-            
         } catch (Exception e) {
             SystemLogger.error("Error updating alert in database: " + e.getMessage());
             return false;
@@ -193,6 +103,15 @@ public class Alert {
     public void setResponder(Responder responder){
         this.assignedResponder = responder;
     }
+    // Sets the dispatch severity, clamped to SEVERITY_LOW..SEVERITY_CRITICAL
+    // Only call while the alert is not queued, since it changes its queue position
+    public void setSeverity(int severity){
+        this.severity = Math.max(Constants.SEVERITY_LOW, Math.min(Constants.SEVERITY_CRITICAL, severity));
+    }
+    // Records a dispatch attempt that did not assign a responder; only call while the alert is not queued
+    public void recordFailedAttempt(){
+        this.failedAttempts++;
+    }
 
     
     // Gets the alert ID
@@ -223,6 +142,14 @@ public class Alert {
     public Responder getAssignedResponder(){
         return assignedResponder;
     }
+    // Gets the dispatch severity
+    public int getSeverity(){
+        return severity;
+    }
+    // Gets the number of dispatch attempts that did not assign a responder
+    public int getFailedAttempts(){
+        return failedAttempts;
+    }
 
     // Returns string representation of the alert
     @Override
@@ -1,6 +1,7 @@
 package com.womensafety.alertsystem.model;
 
 import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.ZoneRegistry;
 import java.util.regex.Pattern;
 
 // Inherits from Person class
@@ -27,8 +28,8 @@ public class Responder extends Person{
         if (!Pattern.matches(Constants.EMAIL_PATTERN, Email))
             throw new IllegalArgumentException("Invalid email format.");
 
-        if(!Pattern.matches(Constants.ZONE_PATTERN, Zone))
-            throw new IllegalArgumentException("Invalid zone. It must be North, South, East, or West.");
+        // The zone is not validated here: rows saved before a zone was renamed or removed must still load
+        this.zone = ZoneRegistry.getInstance().canonicalName(Zone); // Registered spelling, whatever case was stored
         if(Password==null || Password.trim().length() < 6)
             throw new IllegalArgumentException("Password must be at least 6 characters long.");
 
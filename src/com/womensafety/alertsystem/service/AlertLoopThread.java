@@ -2,24 +2,38 @@ package com.womensafety.alertsystem.service;
 
 import com.womensafety.alertsystem.util.Constants;
 
-// Thread class for continuously checking and managing unassigned alerts
+// Thread class for continuously checking and managing unassigned alerts of one zone
+// Wakes as soon as a responder in its zone becomes available and retries the zone's waiting alerts;
+// a full pass over the zone still runs every PENDING_ALERT_CHECKER_INTERVAL as a safety net
 public class AlertLoopThread extends Thread{
     private Dispatcher dispatcher;
-    private boolean running = true;
+    private ZoneShard shard; // Zone this worker dispatches for
+    private volatile boolean running = true; // Written by the console thread, read by this one
 
     // Constructor for AlertLoopThread
-    public AlertLoopThread(Dispatcher dispatcher){
+    public AlertLoopThread(Dispatcher dispatcher, ZoneShard shard){
         this.dispatcher = dispatcher;
+        this.shard = shard;
     }
 
     // Main thread execution method
     public void run(){
+        long lastFullPass = System.currentTimeMillis();
+        dispatcher.checkUnassignedAlerts(shard, false); // Initial pass for alerts loaded at startup
         while (running) { // Continue running while flag is true
-            dispatcher.checkUnassignedAlerts(); // Check for unassigned alerts
             try {
-                Thread.sleep(Constants.PENDING_ALERT_CHECKER_INTERVAL); // Sleep for configured interval
+                long untilFullPass = Constants.PENDING_ALERT_CHECKER_INTERVAL - (System.currentTimeMillis() - lastFullPass);
+                if (shard.awaitSignal(Math.max(0, untilFullPass))) { // Sleep until an event or the safety-net pass
+                    dispatcher.checkUnassignedAlerts(shard, true); // Dispatch waiting alerts now that a responder is free
+                }
+                if (System.currentTimeMillis() - lastFullPass >= Constants.PENDING_ALERT_CHECKER_INTERVAL) {
+                    dispatcher.checkUnassignedAlerts(shard, false); // Safety net for anything an event missed
+                    lastFullPass = System.currentTimeMillis();
+                }
             }catch (InterruptedException e){
-                System.out.println("Thread interrupted."); // Handle thread interruption
+                if (running) {
+                    System.out.println("Thread interrupted."); // Handle thread interruption
+                }
             }
         }
     }
@@ -27,5 +41,6 @@ public class AlertLoopThread extends Thread{
     // Method to stop the thread execution
     public void stopThread(){
         running = false;
+        interrupt(); // Wake the thread if it is waiting for events
     }
 }
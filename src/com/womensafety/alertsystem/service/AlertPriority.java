@@ -0,0 +1,33 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.model.Alert;
+import com.womensafety.alertsystem.util.Constants;
+import java.time.ZoneId;
+import java.util.Comparator;
+
+// Dispatch ordering for alerts: severity, time waited and failed attempts, with aging
+// An alert's priority is its waiting time plus a bounded boost for severity and failed attempts. Because every queued
+// alert ages at the same rate, ordering by priority is the same as ordering by (alert time - boost), a key that never
+// changes while the alert is queued, so a plain binary heap gives O(log n) enqueue and dequeue
+// The boost is capped, so an alert raised more than the maximum boost after another one can never overtake it:
+// every alert reaches the head of its queue after a bounded wait and starvation is impossible
+public class AlertPriority {
+    // Orders alerts from most to least urgent; ties go to the lower alert ID
+    public static final Comparator<Alert> ORDER = Comparator
+            .comparingLong(AlertPriority::dispatchKey)
+            .thenComparingInt(Alert::getAlertId);
+
+    // Computes the static dispatch key of an alert; smaller keys are dispatched first
+    // Returns: alert time in epoch milliseconds minus the severity and retry boost
+    public static long dispatchKey(Alert alert) {
+        long raisedAt = alert.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        return raisedAt - boost(alert);
+    }
+
+    // Computes the head start an alert gets over an alert raised at the same moment, in milliseconds
+    public static long boost(Alert alert) {
+        int severity = Math.max(Constants.SEVERITY_LOW, Math.min(Constants.SEVERITY_CRITICAL, alert.getSeverity()));
+        int retries = Math.min(alert.getFailedAttempts(), Constants.PRIORITY_MAX_RETRY_BOOST);
+        return severity * Constants.PRIORITY_SEVERITY_WEIGHT + retries * Constants.PRIORITY_RETRY_WEIGHT;
+    }
+}
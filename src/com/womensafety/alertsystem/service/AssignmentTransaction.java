@@ -0,0 +1,174 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.util.Constants;
+import java.sql.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+// Assignment commit unit used by the Dispatcher for every alert state transition
+// Collects the dispatch, alert, history and responder statements of one transition; the GroupCommitWriter
+// commits them in one JDBC transaction together with the units of other threads, so a transition never costs more
+// than one commit, and a failure leaves no partial state behind
+// Every statement must match at least one row: a transition whose alert or responder row is missing fails as a whole
+// instead of being reported as committed. Completing a dispatch is the exception: alerts assigned before dispatch
+// rows were written have none, and they must still be resolvable and reassignable
+public class AssignmentTransaction {
+    // Kinds of statement a transition can contain
+    // Each is a single-row statement; the writer batches rows of the same kind and the driver rewrites batched inserts
+    // into multi-row inserts (rewriteBatchedStatements)
+    // Statements marked optional may match no row without failing the transaction
+    enum Operation {
+        INSERT_DISPATCH("INSERT INTO dispatches (Alert_id, Responder_id, Distance_km) VALUES (?, ?, ?)"
+                + " ON DUPLICATE KEY UPDATE Distance_km = VALUES(Distance_km), Completion_time = NULL"),
+        COMPLETE_DISPATCH("UPDATE dispatches SET Completion_time = CURRENT_TIMESTAMP WHERE Alert_id = ? AND Responder_id = ?", true),
+        INSERT_ALERT("INSERT INTO alert_details (Alert_id, User_id, Responder_id, Status, Severity, Alert_time, X_coordinate,"
+                + " Y_coordinate) VALUES (?, ?, ?, ?, ?, ?, ?, ?)"),
+        UPDATE_ALERT("UPDATE alert_details SET Status = ?, Responder_id = ? WHERE Alert_id = ?"),
+        UPDATE_ALERT_STATUS("UPDATE alert_details SET Status = ? WHERE Alert_id = ?"),
+        INSERT_HISTORY("INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id, Changed_at)"
+                + " VALUES (?, ?, ?, ?, ?)"),
+        UPDATE_RESPONDER("UPDATE responder_details SET Availability = ? WHERE Responder_id = ?");
+
+        final String sql; // Statement for one row or update
+        final boolean optional; // Whether matching no row is allowed
+
+        Operation(String sql) {
+            this(sql, false);
+        }
+
+        Operation(String sql, boolean optional) {
+            this.sql = sql;
+            this.optional = optional;
+        }
+    }
+
+    final List<Operation> operations = new ArrayList<>(); // Queued operations, in order
+    final List<Object[]> parameters = new ArrayList<>(); // Bind values of each queued operation
+
+    // Creates the unit for assigning a responder to an alert
+    // Returns: transaction with dispatch insert, alert update, history record and responder update
+    public static AssignmentTransaction assign(int alertId, int responderId, String previousStatus, double distanceKm) {
+        return new AssignmentTransaction()
+                .insertDispatch(alertId, responderId, distanceKm)
+                .updateAlert(alertId, Constants.STATUS_ASSIGNED, responderId)
+                .recordHistory(alertId, previousStatus, Constants.STATUS_ASSIGNED, responderId)
+                .setResponderAvailability(responderId, false);
+    }
+
+    // Creates the unit for moving an alert from one responder to another
+    // Returns: transaction that closes the old dispatch, frees the old responder and assigns the new one
+    public static AssignmentTransaction reassign(int alertId, int oldResponderId, int newResponderId, String previousStatus, double distanceKm) {
+        AssignmentTransaction tx = new AssignmentTransaction();
+        if (oldResponderId > 0) {
+            tx.completeDispatch(alertId, oldResponderId)
+              .setResponderAvailability(oldResponderId, true);
+        }
+        return tx.insertDispatch(alertId, newResponderId, distanceKm)
+                .updateAlert(alertId, Constants.STATUS_ASSIGNED, newResponderId)
+                .recordHistory(alertId, previousStatus, Constants.STATUS_ASSIGNED, newResponderId)
+                .setResponderAvailability(newResponderId, false);
+    }
+
+    // Creates the unit for resolving an alert and freeing its responder
+    // Returns: transaction with dispatch completion, alert update, history record and responder update
+    public static AssignmentTransaction resolve(int alertId, int responderId, String previousStatus) {
+        return new AssignmentTransaction()
+                .completeDispatch(alertId, responderId)
+                .updateAlertStatus(alertId, Constants.STATUS_RESOLVED)
+                .recordHistory(alertId, previousStatus, Constants.STATUS_RESOLVED, responderId)
+                .setResponderAvailability(responderId, true);
+    }
+
+    // Creates the unit for parking an alert in WAITING status when no responder is available
+    // Returns: transaction with alert update and history record
+    public static AssignmentTransaction markWaiting(int alertId, String previousStatus) {
+        return new AssignmentTransaction()
+                .updateAlertStatus(alertId, Constants.STATUS_WAITING)
+                .recordHistory(alertId, previousStatus, Constants.STATUS_WAITING, null);
+    }
+
+    // Queues a new dispatch record
+    public AssignmentTransaction insertDispatch(int alertId, int responderId, double distanceKm) {
+        return add(Operation.INSERT_DISPATCH, alertId, responderId, distanceKm);
+    }
+    // Queues completion of an existing dispatch record
+    public AssignmentTransaction completeDispatch(int alertId, int responderId) {
+        return add(Operation.COMPLETE_DISPATCH, alertId, responderId);
+    }
+    // Queues a new alert record
+    public AssignmentTransaction insertAlert(int alertId, int userId, Integer responderId, String status, int severity,
+                                             Timestamp raisedAt, double x, double y) {
+        return add(Operation.INSERT_ALERT, alertId, userId, responderId, status, severity, raisedAt, x, y);
+    }
+    // Queues an alert status and responder update
+    public AssignmentTransaction updateAlert(int alertId, String status, Integer responderId) {
+        return add(Operation.UPDATE_ALERT, status, responderId, alertId);
+    }
+    // Queues an alert status update that leaves the responder unchanged
+    public AssignmentTransaction updateAlertStatus(int alertId, String status) {
+        return add(Operation.UPDATE_ALERT_STATUS, status, alertId);
+    }
+    // Queues a status history record, stamped now so rows merged into one insert keep distinct keys
+    public AssignmentTransaction recordHistory(int alertId, String previousStatus, String currentStatus, Integer responderId) {
+        return add(Operation.INSERT_HISTORY, alertId, previousStatus, currentStatus, responderId, Timestamp.from(Instant.now()));
+    }
+    // Queues a responder availability update
+    public AssignmentTransaction setResponderAvailability(int responderId, boolean available) {
+        return add(Operation.UPDATE_RESPONDER, available, responderId);
+    }
+
+    // Adds an operation to the unit
+    private AssignmentTransaction add(Operation operation, Object... params) {
+        operations.add(operation);
+        parameters.add(params);
+        return this;
+    }
+
+    // Gets the number of queued operations
+    public int size() {
+        return operations.size();
+    }
+
+    // Hands the unit to the group-commit writer without waiting for it
+    // Returns: future completed with the update count of each operation once the unit is durable
+    public CompletableFuture<int[]> submit() {
+        return GroupCommitWriter.getInstance().submit(this);
+    }
+
+    // Commits every queued operation atomically and waits until it is durable
+    // Returns: update count of each queued operation, in the order they were added; only optional operations may be 0
+    // Throws: SQLException if any operation fails or a required one matches no row; nothing is committed in that case
+    public int[] commit() throws SQLException {
+        try {
+            return submit().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for commit", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof SQLException)
+                throw (SQLException) cause;
+            throw new SQLException(cause.getMessage(), cause);
+        }
+    }
+
+    // Binds one parameter, mapping null to SQL NULL
+    static void bind(PreparedStatement pst, int index, Object value) throws SQLException {
+        if (value == null) {
+            pst.setNull(index, Types.INTEGER); // Only responder IDs are ever null
+        } else if (value instanceof Integer) {
+            pst.setInt(index, (Integer) value);
+        } else if (value instanceof Double) {
+            pst.setDouble(index, (Double) value);
+        } else if (value instanceof Boolean) {
+            pst.setBoolean(index, (Boolean) value);
+        } else if (value instanceof Timestamp) {
+            pst.setTimestamp(index, (Timestamp) value);
+        } else {
+            pst.setString(index, value.toString());
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.model.Alert;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.util.*;
+
+// Min-cost assignment of waiting alerts to available responders
+// Each alert is only connected to its k nearest responders, so the problem stays a sparse bipartite graph of
+// alerts * k edges; it is solved with the Hungarian method in its shortest-augmenting-path form: alerts are added one
+// at a time in the given order and each one takes the cheapest alternating path to a free responder, found with
+// Dijkstra on reduced costs. Every step keeps the matching minimal in total distance for the alerts matched so far,
+// and an alert that is matched is never unmatched by a later one, so callers pass alerts most urgent first
+// Edge costs are equirectangular kilometres around each user, so no trig runs per alert-responder pair
+// Candidates come from a k-d tree bulk-loaded over the responders once per batch, so finding them costs about
+// log(responders) per alert instead of a scan of every responder
+public class BatchAssigner {
+    // Matches alerts to responders, minimising the total distance between each user and their responder
+    // Parameters: alerts - alerts to assign, most urgent first
+    //             responders - available responders to choose from
+    //             candidates - number of nearest responders each alert may be matched to
+    // Returns: responder for each alert by position, or null where no candidate was left for that alert
+    public static Responder[] assign(List<Alert> alerts, List<Responder> responders, int candidates) {
+        int n = alerts.size();
+        int m = responders.size();
+        Responder[] result = new Responder[n];
+        if (n == 0 || m == 0)
+            return result;
+
+        ResponderKdTree tree = NearestResponderFinder.buildIndex(responders);
+        Map<Responder, Integer> indexOf = new IdentityHashMap<>(2 * m); // Position of each responder in the list
+        for (int r = 0; r < m; r++) {
+            indexOf.put(responders.get(r), r);
+        }
+        int[][] edgeTo = new int[n][]; // Candidate responder indices of each alert
+        double[][] edgeCost = new double[n][]; // Distance to each candidate
+        for (int a = 0; a < n; a++) {
+            nearestCandidates(alerts.get(a), tree, indexOf, Math.min(candidates, m), edgeTo, edgeCost, a);
+        }
+
+        // Nodes 0..n-1 are alerts, n..n+m-1 are responders
+        double[] potential = new double[n + m]; // Keeps every reduced edge cost non-negative
+        int[] matchOfAlert = new int[n]; // Responder index matched to each alert, or -1
+        int[] matchOfResponder = new int[m]; // Alert index matched to each responder, or -1
+        double[] matchCost = new double[m]; // Distance of each responder's current match
+        Arrays.fill(matchOfAlert, -1);
+        Arrays.fill(matchOfResponder, -1);
+
+        double[] dist = new double[n + m];
+        int[] parent = new int[n + m]; // Previous node on the shortest path
+        boolean[] settled = new boolean[n + m];
+        List<Integer> touched = new ArrayList<>(); // Nodes reached by this search, reset afterwards
+        Arrays.fill(dist, Double.MAX_VALUE);
+
+        for (int source = 0; source < n; source++) {
+            PriorityQueue<double[]> heap = new PriorityQueue<>(Comparator.comparingDouble(e -> e[0]));
+            dist[source] = 0;
+            touched.add(source);
+            heap.add(new double[] {0, source});
+            int freeResponder = -1;
+            double pathLength = 0;
+
+            while (!heap.isEmpty()) {
+                double[] entry = heap.poll();
+                int node = (int) entry[1];
+                if (settled[node] || entry[0] > dist[node])
+                    continue; // Stale heap entry
+                settled[node] = true;
+
+                if (node < n) {
+                    // Alert: try each of its candidate responders
+                    for (int e = 0; e < edgeTo[node].length; e++) {
+                        int r = n + edgeTo[node][e];
+                        double reduced = Math.max(0, edgeCost[node][e] + potential[node] - potential[r]);
+                        relax(node, r, dist[node] + reduced, dist, parent, settled, touched, heap);
+                    }
+                } else {
+                    int r = node - n;
+                    int owner = matchOfResponder[r];
+                    if (owner == -1) {
+                        freeResponder = r; // Cheapest augmenting path found
+                        pathLength = dist[node];
+                        break;
+                    }
+                    // Matched responder: the path continues by taking it away from its current alert
+                    double reduced = Math.max(0, -matchCost[r] + potential[node] - potential[owner]);
+                    relax(node, owner, dist[node] + reduced, dist, parent, settled, touched, heap);
+                }
+            }
+
+            if (freeResponder != -1) {
+                // Shift potentials so the reduced costs stay non-negative once the path is flipped; nodes this
+                // search did not settle are at least pathLength away and keep their potential
+                for (int node : touched) {
+                    if (settled[node])
+                        potential[node] += dist[node] - pathLength;
+                }
+                // Flip the path: every responder on it moves to the alert before it
+                int r = freeResponder;
+                while (true) {
+                    int a = parent[n + r];
+                    int previous = matchOfAlert[a];
+                    matchOfAlert[a] = r;
+                    matchOfResponder[r] = a;
+                    matchCost[r] = costOf(edgeTo[a], edgeCost[a], r);
+                    if (a == source)
+                        break;
+                    r = previous;
+                }
+            }
+
+            for (int node : touched) {
+                dist[node] = Double.MAX_VALUE;
+                settled[node] = false;
+            }
+            touched.clear();
+        }
+
+        for (int a = 0; a < n; a++) {
+            if (matchOfAlert[a] != -1) {
+                result[a] = responders.get(matchOfAlert[a]);
+            }
+        }
+        return result;
+    }
+
+    // Lowers a node's tentative distance if the new path is shorter
+    private static void relax(int from, int to, double candidate, double[] dist, int[] parent, boolean[] settled,
+                              List<Integer> touched, PriorityQueue<double[]> heap) {
+        if (settled[to] || candidate >= dist[to])
+            return;
+        if (dist[to] == Double.MAX_VALUE)
+            touched.add(to);
+        dist[to] = candidate;
+        parent[to] = from;
+        heap.add(new double[] {candidate, to});
+    }
+
+    // Finds the k responders nearest to an alert's user in the batch's k-d tree
+    // Responders that became unavailable since the list was taken are skipped by the tree and get no edge
+    private static void nearestCandidates(Alert alert, ResponderKdTree tree, Map<Responder, Integer> indexOf, int k,
+                                          int[][] edgeTo, double[][] edgeCost, int a) {
+        User user = alert.getUser();
+        double scale = GeoDistance.longitudeScale(user.getY());
+        List<Responder> nearest = NearestResponderFinder.findNearestResponders(user, tree, k, -1); // Nearest first
+        edgeTo[a] = new int[nearest.size()];
+        edgeCost[a] = new double[nearest.size()];
+        for (int e = 0; e < nearest.size(); e++) {
+            Responder responder = nearest.get(e);
+            edgeTo[a][e] = indexOf.get(responder);
+            edgeCost[a][e] = GeoDistance.equirectangularKm(user.getX(), user.getY(), responder.getX(), responder.getY(), scale);
+        }
+    }
+
+    // Gets the distance of a candidate edge
+    private static double costOf(int[] to, double[] cost, int responder) {
+        for (int e = 0; e < to.length; e++) {
+            if (to[e] == responder)
+                return cost[e];
+        }
+        throw new IllegalStateException("Responder " + responder + " is not a candidate");
+    }
+
+    // Sums the distance between each alert's user and its assigned responder
+    // Returns: total distance of every assigned pair
+    public static double totalDistance(List<Alert> alerts, Responder[] assigned) {
+        double total = 0;
+        for (int a = 0; a < assigned.length; a++) {
+            if (assigned[a] != null) {
+                total += NearestResponderFinder.calculateDistance(alerts.get(a).getUser().getX(),
+                        alerts.get(a).getUser().getY(), assigned[a].getX(), assigned[a].getY());
+            }
+        }
+        return total;
+    }
+}
@@ -1,5 +1,6 @@
 package com.womensafety.alertsystem.service;
 
+import com.womensafety.alertsystem.database.ConnectionPool;
 import com.womensafety.alertsystem.model.Alert;
 import com.womensafety.alertsystem.model.User;
 import com.womensafety.alertsystem.model.Responder;
@@ -7,16 +8,27 @@ import com.womensafety.alertsystem.manager.LocationManager;
 import com.womensafety.alertsystem.manager.UserManager;
 import com.womensafety.alertsystem.manager.ResponderManager;
 import com.womensafety.alertsystem.util.EscalationLogger;
+import com.womensafety.alertsystem.util.LogContext;
+import com.womensafety.alertsystem.util.Logger;
 import com.womensafety.alertsystem.util.SystemLogger;
 import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.ZoneRegistry;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.time.format.DateTimeFormatter;
 
 // Dispatcher service handles alert processing, responder assignment, and database operations
-// Manages alert queue and coordinates between users and responders
+// Routes every alert to the ZoneShard of its user's zone; each shard has its own queue and AlertLoopThread worker,
+// so zones dispatch in parallel and share no locks
+// A shard queue is shared by the console thread and the shard worker: a thread owns an alert only while it has
+// removed it from the queue, so an alert is never dispatched twice, and background scans iterate a snapshot
+// Shard queues are ordered by AlertPriority, so severe and repeatedly failed alerts are dispatched first while aging
+// keeps every other alert moving
 public class Dispatcher{
-    private Queue<Alert> alertQueue; // Queue for pending alerts
+    private static final Logger log = SystemLogger.getLogger(Dispatcher.class); // Dispatch logging, gated by the service package threshold
+    private final Map<String, ZoneShard> shards = new ConcurrentHashMap<>(); // Lower-case zone to its shard
+    private volatile boolean workersStarted = false; // Shards created after startWorkers get a worker right away
     private LocationManager locationManager; // Manager for location-based operations
     private EscalationLogger escalationLogger; // Logger for escalation events
     private UserManager userManager; // Manager for user operations
@@ -24,23 +36,90 @@ public class Dispatcher{
 
     // Constructor initializes dispatcher with required managers
     public Dispatcher(LocationManager locationManager, UserManager userManager, ResponderManager responderManager){
-        this.alertQueue = new LinkedList<>();
+        for (String zone : ZoneRegistry.getInstance().getZoneNames()) {
+            shardFor(zone); // Configured zones get a shard up front; others are created on first use
+        }
         this.locationManager = locationManager;
         this.escalationLogger = new EscalationLogger();
         this.userManager = userManager;
         this.responderManager = responderManager;
         loadPendingAlertsFromDatabase(); // Load existing pending alerts on initialization
+        locationManager.addAvailabilityListener(this::onResponderAvailable); // Wake waiting alerts as soon as a responder frees up
+    }
+
+    // Records that a responder in the zone became available
+    // Called from whichever thread freed the responder; the work itself is done by the zone's worker
+    private void onResponderAvailable(String zone) {
+        if (zone != null) {
+            shardFor(zone).signal();
+        }
+    }
+
+    // Gets the shard of a zone, creating it on first use
+    private ZoneShard shardFor(String zone) {
+        String key = zone == null ? "" : zone.trim().toLowerCase();
+        ZoneShard shard = shards.get(key);
+        if (shard == null) {
+            ZoneShard created = new ZoneShard(key);
+            shard = shards.putIfAbsent(key, created);
+            if (shard == null) {
+                shard = created;
+                if (workersStarted) {
+                    shard.startWorker(this);
+                }
+            }
+        }
+        return shard;
+    }
+
+    // Gets the queue an alert belongs to
+    private Queue<Alert> queueFor(Alert alert) {
+        return shardFor(alert.getUser().getZone()).getQueue();
+    }
+
+    // Gets every queued alert across all shards, most urgent first
+    private List<Alert> snapshotPendingAlerts() {
+        List<Alert> pending = new ArrayList<>();
+        for (ZoneShard shard : shards.values()) {
+            pending.addAll(shard.getQueue());
+        }
+        pending.sort(AlertPriority.ORDER);
+        return pending;
+    }
+
+    // Starts one background worker per zone shard
+    public void startWorkers() {
+        workersStarted = true;
+        for (ZoneShard shard : shards.values()) {
+            shard.startWorker(this);
+        }
+        log.info("Dispatch workers started for zones: {}", shards.keySet());
+    }
+
+    // Stops every zone worker
+    public void shutdown() {
+        workersStarted = false;
+        for (ZoneShard shard : shards.values()) {
+            shard.stopWorker();
+        }
     }
 
     // Loads pending alerts (ACTIVE and WAITING status) from database into memory queue
     // Query: Retrieves alert details with user and responder information for pending alerts
     private void loadPendingAlertsFromDatabase() {
+        List<Alert> pending = queryPendingAlerts();
+        for (Alert alert : pending) {
+            queueFor(alert).offer(alert);
+        }
+        log.info("Loaded {} pending alerts from database.", pending.size());
+    }
+
+    // Reads pending alerts (ACTIVE and WAITING status) from the database
+    // Returns: pending alerts, oldest first
+    private List<Alert> queryPendingAlerts() {
+        List<Alert> pending = new ArrayList<>();
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             // Query: Join alert_details with user_details and responder_details to get complete alert information
             String query = "SELECT a.*, u.Name as user_name, u.Phone_no as user_phone, u.Email as user_email, " +
@@ -72,6 +151,7 @@ public class Dispatcher{
                 );
                 user.setX(rs.getDouble("user_x"));
                 user.setY(rs.getDouble("user_y"));
+                user = userManager.internUser(user); // Same instance as the logged-in session, if any
                 
                 Responder responder = null;
                 if (rs.getInt("Responder_id") != 0) {
@@ -86,6 +166,7 @@ public class Dispatcher{
                     );
                     responder.setX(rs.getDouble("resp_x"));
                     responder.setY(rs.getDouble("resp_y"));
+                    responder = responderManager.internResponder(responder); // Same instance as the availability index
                 }
                 
                 Alert alert = new Alert(
@@ -95,46 +176,80 @@ public class Dispatcher{
                     rs.getString("Status"),
                     responder
                 );
+                alert.setSeverity(rs.getInt("Severity")); // Before it is queued, since severity orders the queue
                 
-                alertQueue.add(alert);
+                pending.add(alert);
             }
             
             rs.close();
             pst.close();
             con.close();
             
-            SystemLogger.info("Loaded " + alertQueue.size() + " pending alerts from database.");
-            
         } catch (Exception e) {
-            SystemLogger.error("Error loading pending alerts from database: " + e.getMessage());
+            log.error("Error loading pending alerts from database: {}", e.getMessage());
         }
+        return pending;
     }
 
     // Adds a new alert to the system and database
     public void addAlert(Alert alert){
         if (alert.saveToDatabase()) {
-            alertQueue.add(alert);
-            SystemLogger.info("New alert added by " + alert.getUser().getName() + " at " + alert.getTimestamp().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+            queueFor(alert).offer(alert); // Route to the shard of the user's zone
+            LogContext.forAlert(alert);
+            log.info(() -> "New alert added by " + alert.getUser().getName() + " at " + alert.getTimestamp().format(DateTimeFormatter.ofPattern("HH:mm:ss")));
+            LogContext.clear();
         } else {
-            SystemLogger.error("Failed to save alert to database. Alert not added to queue.");
+            log.error("Failed to save alert to database. Alert not added to queue.");
         }
     }
 
-    // Processes the next alert in the queue, attempting to assign a responder
+    // Processes the most urgent queued alert across all zones, attempting to assign a responder
     public void processNextAlert(){
-        if(alertQueue.isEmpty()){
-            SystemLogger.info("[INFO] No pending alerts to process.");
+        ZoneShard mostUrgent = null;
+        Alert mostUrgentAlert = null;
+        for (ZoneShard shard : shards.values()) {
+            Alert head = shard.getQueue().peek();
+            if (head != null && (mostUrgentAlert == null || AlertPriority.ORDER.compare(head, mostUrgentAlert) < 0)) {
+                mostUrgent = shard;
+                mostUrgentAlert = head;
+            }
+        }
+        if (mostUrgent == null) {
+            log.info("[INFO] No pending alerts to process.");
             return;
         }
+        processNextAlert(mostUrgent);
+    }
 
-        Alert alert=alertQueue.peek();
+    // Processes the next alert queued for a zone, attempting to assign a responder
+    public void processNextAlert(String zone){
+        processNextAlert(shardFor(zone));
+    }
+
+    // Processes the next alert of a shard, attempting to assign a responder
+    private void processNextAlert(ZoneShard shard){
+        Alert alert=shard.getQueue().poll(); // Taking the alert off the queue makes this thread its only owner
+        if(alert == null){
+            log.info("[INFO] No pending alerts to process.");
+            return;
+        }
+        LogContext.forAlert(alert); // Records logged while handling the alert carry its IDs
+        try {
+            dispatchAlert(alert);
+        } finally {
+            LogContext.clear();
+        }
+    }
+
+    // Tries to assign a responder to an alert this thread owns, requeueing the alert if none can be claimed
+    private void dispatchAlert(Alert alert){
         String userZone=alert.getUser().getZone();
-        Responder responder = findAvailableResponderFromDatabase(userZone);
+        Responder responder = claimNearestResponder(alert, -1); // Index pick confirmed by a database claim
 
         if(responder != null){
-            alertQueue.poll();
+            LogContext.setResponder(responder.getId());
+            String previousStatus = alert.getStatus();
             alert.setResponder(responder);
-            responder.setAvailable(false);
             alert.setStatus(Constants.STATUS_ASSIGNED);
 
             double distanceKm = NearestResponderFinder.calculateDistance(
@@ -143,163 +258,55 @@ public class Dispatcher{
             );
 
             try {
-                String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-                String dbuser = "root";
-                String dbpass = "";
-                
-                Connection conn = DriverManager.getConnection(dburl, dbuser, dbpass);
-                
-                // Query: Create dispatch record tracking responder assignment and distance
-                String dispatchSQL = "INSERT INTO dispatches (Alert_id, Responder_id, Distance_km) VALUES (?, ?, ?)";
-                try (PreparedStatement pstmt = conn.prepareStatement(dispatchSQL)) {
-                    pstmt.setInt(1, alert.getAlertId());
-                    pstmt.setInt(2, responder.getId());
-                    pstmt.setDouble(3, distanceKm);
-                    pstmt.executeUpdate();
-                    SystemLogger.info("Dispatch record created for Alert ID: " + alert.getAlertId());
-                }
-
-                // Query: Update alert status to ASSIGNED and set responder ID
-                String updateAlertSQL = "UPDATE alert_details SET Status = ?, Responder_id = ? WHERE Alert_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(updateAlertSQL)) {
-                    pstmt.setString(1, Constants.STATUS_ASSIGNED);
-                    pstmt.setInt(2, responder.getId());
-                    pstmt.setInt(3, alert.getAlertId());
-                    pstmt.executeUpdate();
-                    SystemLogger.info("Alert status updated to ASSIGNED for Alert ID: " + alert.getAlertId());
-                }
-
-                // Query: Record status change history for audit trail
-                String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement pstmt = conn.prepareStatement(historySQL)) {
-                    pstmt.setInt(1, alert.getAlertId());
-                    pstmt.setString(2, Constants.STATUS_ACTIVE);
-                    pstmt.setString(3, Constants.STATUS_ASSIGNED);
-                    pstmt.setInt(4, responder.getId());
-                    pstmt.executeUpdate();
-                    SystemLogger.info("Status history recorded: Active -> Assigned for Alert ID: " + alert.getAlertId());
-                }
-                
-                // Query: Update responder availability to false (busy)
-                String updateResponderSQL = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(updateResponderSQL)) {
-                    pstmt.setBoolean(1, false);
-                    pstmt.setInt(2, responder.getId());
-                    pstmt.executeUpdate();
-                    SystemLogger.info("Responder availability updated to false for Responder ID: " + responder.getId());
-                }
-                
-                conn.close();
-                
+                // Dispatch record, alert update, status history and responder availability in one transaction
+                AssignmentTransaction.assign(alert.getAlertId(), responder.getId(), previousStatus, distanceKm).commit();
+                log.info("Assignment committed for Alert ID: {} ({} -> Assigned)", alert.getAlertId(), previousStatus);
             } catch (Exception e) {
-                SystemLogger.error("Database error during alert processing: " + e.getMessage());
+                log.error("Database error during alert processing: {}", e.getMessage());
                 alert.setResponder(null);
-                responder.setAvailable(true);
-                alert.setStatus(Constants.STATUS_ACTIVE);
-                alertQueue.offer(alert);
+                locationManager.releaseClaim(responder);
+                alert.setStatus(previousStatus);
+                alert.recordFailedAttempt();
+                requeue(alert);
                 return;
             }
 
             try{
                 responder.notifyUserAssigned(alert.getUser());
             }catch(Exception e){
-                SystemLogger.error("Error in notifications: "+e.getMessage());
+                log.error("Error in notifications: {}", e.getMessage());
             }
-            SystemLogger.success("Alert assigned to " +responder.getName()+ " for user " + alert.getUser().getName());
+            log.success("Alert assigned to {} for user {}", responder.getName(), alert.getUser().getName());
 
         }else{
-            alert.setStatus(Constants.STATUS_WAITING);
-        
-            try {
-                String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-                String dbuser = "root";
-                String dbpass = "";
-                
-                Connection conn = DriverManager.getConnection(dburl, dbuser, dbpass);
-                
-                // Query: Update alert status to WAITING when no responder available
-                String updateAlertSQL = "UPDATE alert_details SET Status = ? WHERE Alert_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(updateAlertSQL)) {
-                    pstmt.setString(1, Constants.STATUS_WAITING);
-                    pstmt.setInt(2, alert.getAlertId());
-                    pstmt.executeUpdate();
-                }
-                
-                // Query: Record status change to WAITING in history
-                String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, NULL)";
-                try (PreparedStatement pstmt = conn.prepareStatement(historySQL)) {
-                    pstmt.setInt(1, alert.getAlertId());
-                    pstmt.setString(2, Constants.STATUS_ACTIVE);
-                    pstmt.setString(3, Constants.STATUS_WAITING);
-                    pstmt.executeUpdate();
-                }
-                
-                conn.close();
-                
-            } catch (Exception e) {
-                SystemLogger.error("Database error while updating waiting status: " + e.getMessage());
-            }
-            SystemLogger.warning("No available responder in "+userZone+" for user "+alert.getUser().getName());
+            updateWaitingStatusInDatabase(alert);
+            alert.recordFailedAttempt();
+            requeue(alert); // Its boost grows, so it moves ahead of alerts of the same age
+            log.warning("No available responder in {} for user {}", userZone, alert.getUser().getName());
         }
     }
 
-    // Finds an available responder in the specified zone from database
-    // Query: Selects random available responder in the specified zone
-    private Responder findAvailableResponderFromDatabase(String zone) {
-        try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Query: Find available responder in specified zone, ordered randomly for load balancing
-            String query = "SELECT * FROM responder_details WHERE Zone = ? AND Availability = true ORDER BY RAND() LIMIT 1";
-            PreparedStatement pst = con.prepareStatement(query);
-            pst.setString(1, zone);
-            ResultSet rs = pst.executeQuery();
-            
-            if (rs.next()) {
-                try {
-                    Responder responder = new Responder(
-                        rs.getInt("Responder_id"),
-                        rs.getString("Name"),
-                        rs.getString("Phone_no"),
-                        rs.getString("Email"),
-                        rs.getString("Zone"),
-                        rs.getBoolean("Availability"),
-                        rs.getString("Password")
-                    );
-                    responder.setX(rs.getDouble("X_coordinate"));
-                    responder.setY(rs.getDouble("Y_coordinate"));
-                    rs.close();
-                    pst.close();
-                    con.close();
-                    return responder;
-                } catch (IllegalArgumentException e) {
-                    SystemLogger.error("Skipping invalid responder ID " + rs.getInt("Responder_id") + ": " + e.getMessage());
-                    rs.close();
-                    pst.close();
-                    con.close();
-                    return null;
-                }
-            }
-            
-            rs.close();
-            pst.close();
-            con.close();
-        } catch (Exception e) {
-            SystemLogger.error("Error finding available responder from database: "+ e.getMessage());
+    // Puts an alert this thread owns back in the queue at the position its priority gives it
+    // Priority fields may only change while the alert is out of the queue, so callers update them before this call
+    // Skipped if the alert was resolved meanwhile or a reload already queued a copy of it
+    private void requeue(Alert alert) {
+        if (Constants.STATUS_RESOLVED.equals(alert.getStatus()))
+            return;
+        Queue<Alert> alertQueue = queueFor(alert);
+        for (Alert queued : alertQueue) {
+            if (queued.getAlertId() == alert.getAlertId())
+                return;
         }
-        
-        return null;
+        alertQueue.offer(alert);
     }
 
     // Displays all pending alerts with detailed information
     public void showPendingAlerts(){
         loadPendingAlertsForDisplay();
+        List<Alert> alertQueue = snapshotPendingAlerts();
         
         if(alertQueue.isEmpty()){
-            SystemLogger.info("No pending alerts.");
+            log.info("No pending alerts.");
             return;
         }
 
@@ -329,9 +336,26 @@ public class Dispatcher{
     }
 
     // Reloads pending alerts from database for display purposes
+    // Merges instead of clearing so alerts currently owned by another thread are not duplicated or lost
     private void loadPendingAlertsForDisplay() {
-        alertQueue.clear();
-        loadPendingAlertsFromDatabase();
+        List<Alert> pending = queryPendingAlerts();
+        Set<Integer> pendingIds = new HashSet<>();
+        for (Alert alert : pending) {
+            pendingIds.add(alert.getAlertId());
+        }
+        for (ZoneShard shard : shards.values()) {
+            shard.getQueue().removeIf(a -> !pendingIds.contains(a.getAlertId())); // Drop alerts resolved elsewhere
+        }
+
+        Set<Integer> queuedIds = new HashSet<>();
+        for (Alert alert : snapshotPendingAlerts()) {
+            queuedIds.add(alert.getAlertId());
+        }
+        for (Alert alert : pending) {
+            if (!queuedIds.contains(alert.getAlertId())) {
+                queueFor(alert).offer(alert);
+            }
+        }
     }
 
     // Returns status string with appropriate color formatting
@@ -350,213 +374,197 @@ public class Dispatcher{
         }
     }
 
-    // Processes all pending alerts in the queue
+    // Processes all pending alerts in every zone
     public void processAllPendingAlerts() {
-        if(alertQueue.isEmpty()){
-            SystemLogger.info("No pending alerts to process.");
+        if(snapshotPendingAlerts().isEmpty()){
+            log.info("No pending alerts to process.");
             return;
         }
+        for (ZoneShard shard : shards.values()) {
+            processAllPendingAlerts(shard);
+        }
+    }
 
+    // Processes all pending alerts queued for one zone
+    // The whole queue is taken at once; with batch assignment enabled the alerts are first matched to the zone's
+    // available responders by minimum total distance, and only alerts the plan left out fall back to any free responder
+    private void processAllPendingAlerts(ZoneShard shard) {
+        Queue<Alert> alertQueue = shard.getQueue();
         int originalSize = alertQueue.size();
-        int processed = 0;
+        List<Alert> batch = new ArrayList<>(); // Owned by this thread until requeued, most urgent first
+        while (batch.size() < originalSize) {
+            Alert alert = alertQueue.poll();
+            if (alert == null)
+                break; // Another thread drained the queue
+            batch.add(alert);
+        }
+
+        Responder[] planned = planBatchAssignment(shard.getZone(), batch);
         int assigned = 0;
         int waiting = 0;
+        List<Alert> retry = new ArrayList<>(); // Requeued after the pass so the same alert is not polled again
+
+        // Planned pairs first, so the fallback claims below only take responders the plan left over
+        for (int i = 0; i < batch.size(); i++) {
+            if (planned[i] == null)
+                continue;
+            LogContext.forAlert(batch.get(i));
+            if (!locationManager.claimResponder(planned[i])) {
+                planned[i] = null; // Taken meanwhile: fall back to any free responder
+                continue;
+            }
+            if (assignClaimed(batch.get(i), planned[i])) {
+                assigned++;
+            } else {
+                retry.add(batch.get(i));
+            }
+        }
 
-        while (!alertQueue.isEmpty() && processed < originalSize) {
-            Alert alert = alertQueue.peek();
+        for (int i = 0; i < batch.size(); i++) {
+            if (planned[i] != null)
+                continue;
+            Alert alert = batch.get(i);
+            LogContext.forAlert(alert);
             String userZone = alert.getUser().getZone();
-            Responder responder = locationManager.findRandomAvailableResponderInZone(userZone);
+            Responder responder = claimNearestResponder(alert, -1);
 
             if(responder != null){
-                alertQueue.poll();
-                alert.setResponder(responder);
-                responder.setAvailable(false);
-                alert.setStatus(Constants.STATUS_ASSIGNED);
-
-                // Update database for this assignment
-                updateAssignmentInDatabase(alert, responder);
-                
-                responder.notifyUserAssigned(alert.getUser());
-                SystemLogger.success("Alert assigned to "+responder.getName()+" for user "+ alert.getUser().getName());
-                assigned++;
+                if (assignClaimed(alert, responder)) {
+                    assigned++;
+                } else {
+                    retry.add(alert);
+                }
             } else {
-                Alert unassignedAlert = alertQueue.poll();
-                unassignedAlert.setStatus(Constants.STATUS_WAITING);
-                alertQueue.offer(unassignedAlert);
+                // Update database for waiting status, then keep the alert for the next pass
+                updateWaitingStatusInDatabase(alert);
+                alert.recordFailedAttempt();
+                retry.add(alert);
 
-                // Update database for waiting status
-                updateWaitingStatusInDatabase(unassignedAlert);
-                
-                SystemLogger.warning("No available responder in "+userZone+" zone for user "+unassignedAlert.getUser().getName());
-                escalationLogger.logToFile(unassignedAlert, "No available responder in zone "+userZone);
+                log.warning("No available responder in {} zone for user {}", userZone, alert.getUser().getName());
+                escalationLogger.logToFile(alert, "No available responder in zone "+userZone);
                 waiting++;
             }
-            processed++;
+        }
+        LogContext.clear(); // The summary below covers the whole batch
+        for (Alert alert : retry) {
+            requeue(alert);
         }
 
         if (assigned > 0) {
-            SystemLogger.info(assigned + " alert(s) successfully assigned to responders.");
+            log.info("{} alert(s) successfully assigned to responders.", assigned);
         }
         if (waiting > 0) {
-            SystemLogger.info(waiting + " alert(s) remain in queue waiting for responders.");
+            log.info("{} alert(s) remain in queue waiting for responders.", waiting);
+        }
+    }
+
+    // Matches a batch of alerts to the available responders of their zone by minimum total distance
+    // Returns: planned responder for each alert by position; null entries are left to the one-at-a-time fallback
+    private Responder[] planBatchAssignment(String zone, List<Alert> batch) {
+        if (!Constants.BATCH_ASSIGNMENT_ENABLED || batch.size() < 2)
+            return new Responder[batch.size()]; // Nothing to optimise for a single alert
+        List<Responder> available = locationManager.getAvailableResponders(zone);
+        if (available.isEmpty())
+            return new Responder[batch.size()];
+
+        long start = System.nanoTime();
+        Responder[] planned = BatchAssigner.assign(batch, available, Constants.BATCH_ASSIGNMENT_CANDIDATES);
+        long elapsedMicros = (System.nanoTime() - start) / 1000;
+        if (log.isEnabled(SystemLogger.LogLevel.INFO)) { // Skip summing the plan's distance when nobody reads it
+            log.info("Batch assignment in {}: {} alert(s), {} responder(s), total distance {.4}, solved in {} us",
+                    zone, batch.size(), available.size(), BatchAssigner.totalDistance(batch, planned), elapsedMicros);
+        }
+        return planned;
+    }
+
+    // Commits the assignment of a claimed responder and notifies the user
+    // Returns: true if assigned, false if the commit failed and the alert should be retried
+    private boolean assignClaimed(Alert alert, Responder responder) {
+        LogContext.setResponder(responder.getId());
+        if (!updateAssignmentInDatabase(alert, responder)) {
+            alert.recordFailedAttempt();
+            return false;
         }
+        responder.notifyUserAssigned(alert.getUser());
+        log.success("Alert assigned to {} for user {}", responder.getName(), alert.getUser().getName());
+        return true;
     }
 
-    // Updates database records for alert assignment
-    // Queries: Update alert status, record history, and update responder availability
-    private void updateAssignmentInDatabase(Alert alert, Responder responder) {
+    // Updates database records for alert assignment and applies the assignment in memory
+    // The responder must already be claimed; the claim is released if the transaction fails
+    // Queries: Dispatch record, alert status, history and responder availability in one transaction
+    // Returns: true if the assignment was committed, false if it was rolled back
+    private boolean updateAssignmentInDatabase(Alert alert, Responder responder) {
+        String previousStatus = alert.getStatus();
+        double distanceKm = NearestResponderFinder.calculateDistance(
+            alert.getUser().getX(), alert.getUser().getY(),
+            responder.getX(), responder.getY()
+        );
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Query: Update alert status and assign responder
-            String updateAlertSQL = "UPDATE alert_details SET Status = ?, Responder_id = ? WHERE Alert_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateAlertSQL)) {
-                pst.setString(1, Constants.STATUS_ASSIGNED);
-                pst.setInt(2, responder.getId());
-                pst.setInt(3, alert.getAlertId());
-                pst.executeUpdate();
-            }
-            
-            // Query: Log status change history
-            String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pst = con.prepareStatement(historySQL)) {
-                pst.setInt(1, alert.getAlertId());
-                pst.setString(2, Constants.STATUS_ACTIVE);
-                pst.setString(3, Constants.STATUS_ASSIGNED);
-                pst.setInt(4, responder.getId());
-                pst.executeUpdate();
-            }
-            
-            // Query: Update responder availability to false
-            String updateResponderSQL = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateResponderSQL)) {
-                pst.setBoolean(1, false);
-                pst.setInt(2, responder.getId());
-                pst.executeUpdate();
-            }
-            
-            con.close();
-            
+            AssignmentTransaction.assign(alert.getAlertId(), responder.getId(), previousStatus, distanceKm).commit();
         } catch (Exception e) {
-            SystemLogger.error("Database error during assignment update: " + e.getMessage());
+            log.error("Database error during assignment update: {}", e.getMessage());
+            locationManager.releaseClaim(responder);
+            return false;
         }
+        alert.setResponder(responder);
+        alert.setStatus(Constants.STATUS_ASSIGNED);
+        return true;
     }
 
     // Updates database for alerts that need to wait for responders
-    // Queries: Update alert status and record waiting status history
+    // Queries: Update alert status and record waiting status history in one transaction
     private void updateWaitingStatusInDatabase(Alert alert) {
+        String previousStatus = alert.getStatus();
+        alert.setStatus(Constants.STATUS_WAITING);
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Query: Update alert status to WAITING
-            String updateAlertSQL = "UPDATE alert_details SET Status = ? WHERE Alert_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateAlertSQL)) {
-                pst.setString(1, Constants.STATUS_WAITING);
-                pst.setInt(2, alert.getAlertId());
-                pst.executeUpdate();
-            }
-            
-            // Query: Record status change to WAITING in history
-            String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, NULL)";
-            try (PreparedStatement pst = con.prepareStatement(historySQL)) {
-                pst.setInt(1, alert.getAlertId());
-                pst.setString(2, Constants.STATUS_ACTIVE);
-                pst.setString(3, Constants.STATUS_WAITING);
-                pst.executeUpdate();
-            }
-            
-            con.close();
-            
+            AssignmentTransaction.markWaiting(alert.getAlertId(), previousStatus).commit();
         } catch (Exception e) {
-            SystemLogger.error("Database error during waiting status update: " + e.getMessage());
+            log.error("Database error during waiting status update: {}", e.getMessage());
         }
     }
 
     // Completes an alert by marking it as resolved and freeing up the responder
     // Queries: Update dispatch completion, alert status, history, and responder availability
     public void completeAlert(Alert alert){
+        LogContext.forAlert(alert);
+        try {
+            resolveAlert(alert);
+        } finally {
+            LogContext.clear();
+        }
+    }
+
+    // Resolves an alert in the database and frees its responder
+    private void resolveAlert(Alert alert){
         Responder responder = alert.getResponder();
         if(responder != null){
             try {
-                String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-                String dbuser = "root";
-                String dbpass = "";
-                
-                Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-                
-                // Query: Record dispatch completion time
-                String updateDispatchSQL = "UPDATE dispatches SET Completion_time = CURRENT_TIMESTAMP WHERE Alert_id = ? AND Responder_id = ?";
-                try (PreparedStatement pst = con.prepareStatement(updateDispatchSQL)) {
-                    pst.setInt(1, alert.getAlertId());
-                    pst.setInt(2, responder.getId());
-                    pst.executeUpdate();
-                    SystemLogger.info("Dispatch completed for Alert ID: " + alert.getAlertId());
-                }
-                
-                // Query: Update alert status to RESOLVED
-                String updateAlertSQL = "UPDATE alert_details SET Status = ? WHERE Alert_id = ?";
-                try (PreparedStatement pst = con.prepareStatement(updateAlertSQL)) {
-                    pst.setString(1, Constants.STATUS_RESOLVED);
-                    pst.setInt(2, alert.getAlertId());
-                    pst.executeUpdate();
-                }
-                
-                // Query: Record status change to RESOLVED in history
-                String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement pst = con.prepareStatement(historySQL)) {
-                    pst.setInt(1, alert.getAlertId());
-                    pst.setString(2, Constants.STATUS_ASSIGNED);
-                    pst.setString(3, Constants.STATUS_RESOLVED);
-                    pst.setInt(4, responder.getId());
-                    pst.executeUpdate();
-                }
-
-                // Query: Update responder availability to true (available)
-                String updateResponderSQL = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-                try (PreparedStatement pst = con.prepareStatement(updateResponderSQL)) {
-                    pst.setBoolean(1, true);
-                    pst.setInt(2, responder.getId());
-                    pst.executeUpdate();
-                }
-                
-                con.close();
-                
+                // Dispatch completion, alert status, history and responder availability in one transaction
+                AssignmentTransaction.resolve(alert.getAlertId(), responder.getId(), alert.getStatus()).commit();
+                log.info("Dispatch completed for Alert ID: {}", alert.getAlertId());
             } catch (Exception e) {
-                SystemLogger.error("Database error during alert completion: " + e.getMessage());
+                log.error("Database error during alert completion: {}", e.getMessage());
+                return;
             }
-            
-            updateResponderAvailabilityInDatabase(responder.getId(), true);
-            responder.setAvailable(true);
-            
-            alert.setStatus(Constants.STATUS_RESOLVED);
-            SystemLogger.success("Alert ID " + alert.getAlertId() + " resolved by " + responder.getName());
 
-            alertQueue.removeIf(a -> a.getAlertId() == alert.getAlertId());
+            alert.setStatus(Constants.STATUS_RESOLVED);
+            queueFor(alert).removeIf(a -> a.getAlertId() == alert.getAlertId());
+            log.success("Alert ID {} resolved by {}", alert.getAlertId(), responder.getName());
 
-            if(!alertQueue.isEmpty()){
-                SystemLogger.info("Checking if pending alerts can now be processed...");
-                processAllPendingAlerts();
-            }
+            // Freeing the responder raises an availability event; the zone's worker dispatches its waiting alerts
+            locationManager.setAvailability(responder, true);
         } else {
-            SystemLogger.warning("No responder assigned to this alert.");
+            log.warning("No responder assigned to this alert.");
         }
     }
 
     // Marks an alert as complete with validation checks
     // Queries: Verify assignment, update status, record completion, and free responder
     public boolean markAlertComplete(int alertId, int responderId) {
+        LogContext.forAlert(alertId, responderId);
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
+            Connection con = ConnectionPool.getConnection();
             
             // Query: Verify alert is assigned to this responder and in ASSIGNED status
             String verifySQL = "SELECT Status FROM alert_details WHERE Alert_id = ? AND Responder_id = ?";
@@ -566,252 +574,162 @@ public class Dispatcher{
                 ResultSet rs = pst.executeQuery();
                 
                 if (!rs.next()) {
-                    SystemLogger.error("Alert not found or not assigned to this responder");
+                    log.error("Alert not found or not assigned to this responder");
                     con.close();
                     return false;
                 }
                 
                 String currentStatus = rs.getString("Status");
                 if (!Constants.STATUS_ASSIGNED.equals(currentStatus)) {
-                    SystemLogger.error("Alert is not in ASSIGNED status");
+                    log.error("Alert is not in ASSIGNED status");
                     con.close();
                     return false;
                 }
             }
             
-            // Query: Update alert status to RESOLVED
-            String updateAlertSQL = "UPDATE alert_details SET Status = ? WHERE Alert_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateAlertSQL)) {
-                pst.setString(1, Constants.STATUS_RESOLVED);
-                pst.setInt(2, alertId);
-                pst.executeUpdate();
-            }
-            
-            // Query: Record dispatch completion time
-            String updateDispatchSQL = "UPDATE dispatches SET Completion_time = CURRENT_TIMESTAMP WHERE Alert_id = ? AND Responder_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateDispatchSQL)) {
-                pst.setInt(1, alertId);
-                pst.setInt(2, responderId);
-                pst.executeUpdate();
-            }
-            
-            // Query: Record status change to RESOLVED in history
-            String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, ?)";
-            try (PreparedStatement pst = con.prepareStatement(historySQL)) {
-                pst.setInt(1, alertId);
-                pst.setString(2, Constants.STATUS_ASSIGNED);
-                pst.setString(3, Constants.STATUS_RESOLVED);
-                pst.setInt(4, responderId);
-                pst.executeUpdate();
-            }
-            
-            // Query: Update responder availability to true
-            String updateResponderSQL = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-            try (PreparedStatement pst = con.prepareStatement(updateResponderSQL)) {
-                pst.setBoolean(1, true);
-                pst.setInt(2, responderId);
-                pst.executeUpdate();
-            }
-            
             con.close();
+
+            // Queries: Update status, record completion and history, and free responder in one transaction
+            AssignmentTransaction.resolve(alertId, responderId, Constants.STATUS_ASSIGNED).commit();
+            locationManager.setAvailability(responderId, true); // Raises an availability event for the responder's zone
             
-            SystemLogger.success("Alert ID " + alertId + " marked as complete by Responder ID " + responderId);
+            log.success("Alert ID {} marked as complete by Responder ID {}", alertId, responderId);
             return true;
             
         } catch (Exception e) {
-            SystemLogger.error("Database error during alert completion: " + e.getMessage());
+            log.error("Database error during alert completion: {}", e.getMessage());
             return false;
+        } finally {
+            LogContext.clear();
         }
     }
 
-    // Updates responder availability in database
-    // Query: Update availability status for a specific responder
-    private void updateResponderAvailabilityInDatabase(int responderId, boolean available) {
+    // Reassigns a different responder to an alert
+    // Queries: Complete old dispatch, create new dispatch, update records
+    public boolean reassignResponder(Alert alert){
+        LogContext.forAlert(alert);
         try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Query: Update responder availability status
-            String updateQuery = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-            PreparedStatement pst = con.prepareStatement(updateQuery);
-            
-            pst.setBoolean(1, available);
-            pst.setInt(2, responderId);
-            
-            pst.executeUpdate();
-            
-            pst.close();
-            con.close();
-            
-        } catch (Exception e) {
-            SystemLogger.error("Error updating responder availability: " + e.getMessage());
+            return reassign(alert);
+        } finally {
+            LogContext.clear();
         }
     }
 
-    // Reassigns a different responder to an alert
-    // Queries: Complete old dispatch, create new dispatch, update records
-    public boolean reassignResponder(Alert alert){
+    // Claims a different responder for an alert and moves the assignment to it in one transaction
+    // Returns: true if reassigned, false if no other responder could be claimed or the transaction failed
+    private boolean reassign(Alert alert){
         String zone = alert.getUser().getZone();
         Responder current = alert.getResponder();
 
-        Responder newResponder = findAlternateResponderFromDatabase(zone, current != null ? current.getId() : -1);
+        int excludeId = current != null ? current.getId() : -1;
+        Responder newResponder = claimNearestResponder(alert, excludeId);
         
         if (newResponder != null) {
-            try {
-                String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-                String dbuser = "root";
-                String dbpass = "";
-                
-                Connection conn = DriverManager.getConnection(dburl, dbuser, dbpass);
-                
-                if(current != null){
-                    // Query: Mark old dispatch as completed
-                    String updateOldDispatchSQL = "UPDATE dispatches SET Completion_time = CURRENT_TIMESTAMP WHERE Alert_id = ? AND Responder_id = ?";
-                    try (PreparedStatement pstmt = conn.prepareStatement(updateOldDispatchSQL)) {
-                        pstmt.setInt(1, alert.getAlertId());
-                        pstmt.setInt(2, current.getId());
-                        pstmt.executeUpdate();
-                    }
-                    
-                    // Query: Free up old responder
-                    String updateOldResponderSQL = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-                    try (PreparedStatement pstmt = conn.prepareStatement(updateOldResponderSQL)) {
-                        pstmt.setBoolean(1, true);
-                        pstmt.setInt(2, current.getId());
-                        pstmt.executeUpdate();
-                    }
-                    
-                    current.setAvailable(true);
-                    updateResponderAvailabilityInDatabase(current.getId(), true);
-                }
-
-                double distanceKm = NearestResponderFinder.calculateDistance(
-                    alert.getUser().getX(), alert.getUser().getY(),
-                    newResponder.getX(), newResponder.getY()
-                );
-                
-                // Query: Create new dispatch record for reassignment
-                String dispatchSQL = "INSERT INTO dispatches (Alert_id, Responder_id, Distance_km) VALUES (?, ?, ?)";
-                try (PreparedStatement pstmt = conn.prepareStatement(dispatchSQL)) {
-                    pstmt.setInt(1, alert.getAlertId());
-                    pstmt.setInt(2, newResponder.getId());
-                    pstmt.setDouble(3, distanceKm);
-                    pstmt.executeUpdate();
-                }
-
-                // Query: Update alert with new responder
-                String updateAlertSQL = "UPDATE alert_details SET Responder_id = ?, Status = ? WHERE Alert_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(updateAlertSQL)) {
-                    pstmt.setInt(1, newResponder.getId());
-                    pstmt.setString(2, Constants.STATUS_ASSIGNED);
-                    pstmt.setInt(3, alert.getAlertId());
-                    pstmt.executeUpdate();
-                }
+            LogContext.setResponder(newResponder.getId());
+            double distanceKm = NearestResponderFinder.calculateDistance(
+                alert.getUser().getX(), alert.getUser().getY(),
+                newResponder.getX(), newResponder.getY()
+            );
 
-                // Query: Record reassignment in history
-                String historySQL = "INSERT INTO alert_status_history (Alert_id, Previous_status, Current_status, Responder_id) VALUES (?, ?, ?, ?)";
-                try (PreparedStatement pstmt = conn.prepareStatement(historySQL)) {
-                    pstmt.setInt(1, alert.getAlertId());
-                    pstmt.setString(2, Constants.STATUS_ASSIGNED);
-                    pstmt.setString(3, Constants.STATUS_ASSIGNED);
-                    pstmt.setInt(4, newResponder.getId());
-                    pstmt.executeUpdate();
-                }
-                
-                // Query: Mark new responder as unavailable
-                String updateNewResponderSQL = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
-                try (PreparedStatement pstmt = conn.prepareStatement(updateNewResponderSQL)) {
-                    pstmt.setBoolean(1, false);
-                    pstmt.setInt(2, newResponder.getId());
-                    pstmt.executeUpdate();
-                }
-                
-                conn.close();
-                
+            try {
+                // Close old dispatch, free old responder, create new dispatch, update alert and history in one transaction
+                AssignmentTransaction.reassign(alert.getAlertId(), current != null ? current.getId() : -1,
+                    newResponder.getId(), alert.getStatus(), distanceKm).commit();
             } catch (Exception e) {
-                SystemLogger.error("Database error during responder reassignment: " + e.getMessage());
+                log.error("Database error during responder reassignment: {}", e.getMessage());
+                locationManager.releaseClaim(newResponder);
                 return false;
             }
+
+            if (current != null) {
+                locationManager.setAvailability(current, true);
+            }
             
             alert.setResponder(newResponder);
-            newResponder.setAvailable(false);
             alert.setStatus(Constants.STATUS_ASSIGNED);
 
             newResponder.notifyUserAssigned(alert.getUser());
-            SystemLogger.success("Responder reassigned to "+newResponder.getName()+" for Alert ID "+alert.getAlertId());
+            log.success("Responder reassigned to {} for Alert ID {}", newResponder.getName(), alert.getAlertId());
             return true;
         }
         
-        SystemLogger.warning("No alternate responder available for Alert ID " + alert.getAlertId());
+        log.warning("No alternate responder available for Alert ID {}", alert.getAlertId());
         escalationLogger.logToFile(alert, "No alternate responder available in zone "+zone);
         return false;
     }
 
-    // Finds an alternate responder excluding the current one
-    // Query: Find available responder in zone excluding specified responder ID
-    private Responder findAlternateResponderFromDatabase(String zone, int excludeResponderId) {
-        try {
-            String dburl = "jdbc:mysql://localhost:3306/WomenSafetyDB";
-            String dbuser = "root";
-            String dbpass = "";
-            
-            Connection con = DriverManager.getConnection(dburl, dbuser, dbpass);
-            
-            // Query: Find available responder in zone excluding current responder
-            String query = "SELECT * FROM responder_details WHERE Zone = ? AND Availability = true AND Responder_id != ? ORDER BY RAND() LIMIT 1";
-            PreparedStatement pst = con.prepareStatement(query);
-            pst.setString(1, zone);
-            pst.setInt(2, excludeResponderId);
-            
-            ResultSet rs = pst.executeQuery();
-            
-            if (rs.next()) {
-                Responder responder = new Responder(
-                    rs.getInt("Responder_id"),
-                    rs.getString("Name"),
-                    rs.getString("Phone_no"),
-                    rs.getString("Email"),
-                    rs.getString("Zone"),
-                    rs.getBoolean("Availability"),
-                    rs.getString("Password")
-                );
-                responder.setX(rs.getDouble("X_coordinate"));
-                responder.setY(rs.getDouble("Y_coordinate"));
-                
-                rs.close();
-                pst.close();
-                con.close();
-                
-                return responder;
+    // Claims the fastest available responder for an alert among the nearest ones in the zone's availability index
+    // The k nearest by straight line are ranked by road ETA and tried in that order, so a candidate taken by someone
+    // else meanwhile falls through to the next fastest
+    // Returns: claimed responder, or any claimable responder in the zone or nearby if none of the candidates could be claimed
+    private Responder claimNearestResponder(Alert alert, int excludeResponderId) {
+        String zone = alert.getUser().getZone();
+        List<Responder> candidates = NearestResponderFinder.rankByEta(alert.getUser(),
+            locationManager.findNearestAvailableResponders(
+                alert.getUser().getX(), alert.getUser().getY(), zone, Constants.DISPATCH_CANDIDATES, excludeResponderId));
+        for (Responder candidate : candidates) {
+            if (locationManager.claimResponder(candidate)) {
+                return candidate;
             }
-            
-            rs.close();
-            pst.close();
-            con.close();
-            
-        } catch (Exception e) {
-            SystemLogger.error("Error finding alternate responder from database: " + e.getMessage());
         }
-        
-        return null;
+        Responder responder = locationManager.claimAvailableResponder(zone, excludeResponderId);
+        return responder != null ? responder : claimAcrossZones(alert, excludeResponderId);
     }
 
+    // Claims the nearest free responder in any zone around the user, within the configured distance and ETA limits
+    // Runs entirely on the in-memory availability index; only the claim itself touches the database
+    // Returns: claimed responder or null if the fallback is disabled or nobody is close enough
+    private Responder claimAcrossZones(Alert alert, int excludeResponderId) {
+        if (!Constants.CROSS_ZONE_FALLBACK_ENABLED)
+            return null;
+        double maxDistanceKm = Math.min(Constants.CROSS_ZONE_MAX_DISTANCE_KM,
+            Constants.CROSS_ZONE_MAX_ETA_MINUTES * Constants.RESPONDER_AVERAGE_SPEED_KMH / 60.0);
+        Responder responder = locationManager.claimNearestAcrossZones(
+            alert.getUser().getX(), alert.getUser().getY(), maxDistanceKm, excludeResponderId);
+        if (responder != null) {
+            log.info("No free responder in {} zone; borrowed {} from {} zone for Alert ID {}",
+                alert.getUser().getZone(), responder.getName(), responder.getZone(), alert.getAlertId());
+        }
+        return responder;
+    }
+
+    // Retries every waiting alert in every zone
+    // Low-frequency safety net; availability events normally dispatch waiting alerts first
     public void checkUnassignedAlerts(){
+        for (ZoneShard shard : shards.values()) {
+            checkUnassignedAlerts(shard, false);
+        }
+    }
+
+    // Retries the waiting alerts of one zone from a snapshot of its queue
+    // Parameters: onlyWhileAvailable - stop as soon as the zone has no free responder (event-driven passes)
+    public void checkUnassignedAlerts(ZoneShard shard, boolean onlyWhileAvailable){
         if(Constants.ENABLE_BACKGROUND_LOGGING) {
-            System.out.println("\n[Background] Checking for unassigned alerts...");
+            System.out.println("\n[Background] Checking for unassigned alerts in " + shard.getZone() + "...");
         }
 
         boolean foundUnassigned = false;
-        for(Alert alert : alertQueue) {
-            if(alert.getStatus().equals(Constants.STATUS_WAITING)) {
-                foundUnassigned = true;
-                if(Constants.ENABLE_BACKGROUND_LOGGING) {
-                    System.out.println("[Background] Attempting to reassign Alert ID " + alert.getAlertId());
-                }
-                reassignResponder(alert);
+        Queue<Alert> alertQueue = shard.getQueue();
+        List<Alert> snapshot = new ArrayList<>(alertQueue); // Stable view; the live queue keeps changing underneath
+        snapshot.sort(AlertPriority.ORDER); // Queue iteration order is arbitrary; retry the most urgent alerts first
+        for(Alert alert : snapshot) {
+            if(!alert.getStatus().equals(Constants.STATUS_WAITING) && !alert.getStatus().equals(Constants.STATUS_ACTIVE)) {
+                continue;
+            }
+            if(onlyWhileAvailable && locationManager.getAvailableCount(shard.getZone()) == 0) {
+                break; // Event-driven pass: nothing left to assign in this zone
+            }
+            // Only the thread that removes the alert may dispatch it; skip alerts another thread already took
+            if(!alertQueue.remove(alert)) {
+                continue;
+            }
+            foundUnassigned = true;
+            if(Constants.ENABLE_BACKGROUND_LOGGING) {
+                System.out.println("[Background] Attempting to reassign Alert ID " + alert.getAlertId());
+            }
+            if(!reassignResponder(alert)) {
+                alert.recordFailedAttempt();
+                requeue(alert); // Still waiting: keep it for the next pass
             }
         }
 
@@ -819,4 +737,4 @@ public class Dispatcher{
             System.out.println("[Background] No unassigned alerts found.");
         }
     }
-}
\ No newline at end of file
+}
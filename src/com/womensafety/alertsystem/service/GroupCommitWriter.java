@@ -0,0 +1,372 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.database.ConnectionPool;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Background group-commit writer for alert transitions
+// Collects AssignmentTransaction units from every thread and flushes them every few milliseconds (or as soon as
+// enough rows are queued) as one JDBC transaction: dispatch and history rows from all units are batched into
+// multi-row inserts, so a burst of transitions costs a few round trips and one commit per batch instead of per row
+// Each caller gets a future that completes once its unit is committed; if a batch fails, its units are retried
+// one by one so only the unit that actually failed sees the error
+public class GroupCommitWriter {
+    private static GroupCommitWriter instance; // Lazily created application-wide writer
+
+    private final int maxDelayMillis;
+    private final int maxRows;
+    private final BlockingQueue<Pending> queue; // Units waiting to be flushed, in submission order
+    private final Thread flusher; // Background thread that builds and commits batches
+
+    // Writer metrics
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong unitCount = new AtomicLong();
+    private final AtomicLong rowCount = new AtomicLong();
+    private final AtomicLong maxBatchRows = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private final AtomicLong maxFlushNanos = new AtomicLong();
+    private final AtomicLong totalLatencyNanos = new AtomicLong();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private final AtomicLong failedUnitCount = new AtomicLong();
+
+    private volatile boolean shutdown = false;
+
+    // Constructor creates a writer and starts its flusher thread
+    public GroupCommitWriter(int maxDelayMillis, int maxRows, int queueCapacity) {
+        if (maxRows <= 0 || queueCapacity <= 0)
+            throw new IllegalArgumentException("Batch size and queue capacity must be positive");
+        this.maxDelayMillis = Math.max(0, maxDelayMillis);
+        this.maxRows = maxRows;
+        this.queue = new LinkedBlockingQueue<>(queueCapacity);
+
+        this.flusher = new Thread(this::run, "group-commit-writer");
+        this.flusher.setDaemon(true); // Main flushes explicitly through shutdown()
+        this.flusher.start();
+    }
+
+    // Gets the application-wide writer, creating it from Constants on first use
+    public static synchronized GroupCommitWriter getInstance() {
+        if (instance == null) {
+            instance = new GroupCommitWriter(Constants.GROUP_COMMIT_MAX_DELAY, Constants.GROUP_COMMIT_MAX_ROWS,
+                    Constants.GROUP_COMMIT_QUEUE_CAPACITY);
+        }
+        return instance;
+    }
+
+    // Queues a unit for the next batch, blocking while the queue is full
+    // Returns: future completed with the update count of each operation once the unit is committed
+    public CompletableFuture<int[]> submit(AssignmentTransaction tx) {
+        Pending pending = new Pending(tx);
+        if (tx.size() == 0) {
+            pending.future.complete(new int[0]);
+            return pending.future;
+        }
+        if (shutdown) {
+            // Flusher is gone: commit on the caller's thread so late writes are not lost
+            flush(Collections.singletonList(pending));
+            return pending.future;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.future.completeExceptionally(new SQLException("Interrupted while queueing commit", e));
+        }
+        return pending.future;
+    }
+
+    // Flusher loop: waits for the first unit, gathers more until the delay or row limit is reached, then commits
+    private void run() {
+        List<Pending> batch = new ArrayList<>();
+        while (!shutdown || !queue.isEmpty()) {
+            try {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null)
+                    continue;
+                batch.add(first);
+                int rows = first.tx.size();
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (rows < maxRows) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null)
+                        break;
+                    batch.add(next);
+                    rows += next.tx.size();
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                // Woken by shutdown(): keep draining until the queue is empty
+            } catch (RuntimeException e) {
+                SystemLogger.error("Group commit writer failed: " + e.getMessage());
+                for (Pending pending : batch) {
+                    pending.future.completeExceptionally(e);
+                }
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Commits a batch, falling back to one transaction per unit if the merged transaction fails
+    private void flush(List<Pending> batch) {
+        long start = System.nanoTime();
+        try {
+            int[][] counts = execute(batch);
+            long end = System.nanoTime();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).complete(counts[i], end);
+            }
+        } catch (SQLException e) {
+            failedBatchCount.incrementAndGet();
+            if (batch.size() == 1) {
+                failedUnitCount.incrementAndGet();
+                batch.get(0).future.completeExceptionally(e);
+            } else {
+                SystemLogger.warning("Group commit of " + batch.size() + " transactions failed, retrying individually: "
+                        + e.getMessage());
+                for (Pending pending : batch) {
+                    try {
+                        pending.complete(execute(Collections.singletonList(pending))[0], System.nanoTime());
+                    } catch (SQLException unitError) {
+                        failedUnitCount.incrementAndGet();
+                        pending.future.completeExceptionally(unitError);
+                    }
+                }
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        int rows = 0;
+        for (Pending pending : batch) {
+            rows += pending.tx.size();
+        }
+        batchCount.incrementAndGet();
+        unitCount.addAndGet(batch.size());
+        rowCount.addAndGet(rows);
+        maxBatchRows.accumulateAndGet(rows, Math::max);
+        totalFlushNanos.addAndGet(elapsed);
+        maxFlushNanos.accumulateAndGet(elapsed, Math::max);
+    }
+
+    // Runs the units of a batch as one transaction on a pooled connection
+    // Each step is sent as one JDBC batch; with rewriteBatchedStatements the driver turns batched inserts into
+    // multi-row inserts, so the whole transaction still takes only a few round trips
+    // Returns: update counts per unit, one entry per queued operation; rows of a rewritten insert report 1
+    // Throws: SQLException if any statement fails or a required one matches no row; the whole batch is rolled back then
+    private int[][] execute(List<Pending> batch) throws SQLException {
+        List<Step> steps = plan(batch);
+        int[][] counts = new int[batch.size()][];
+        for (int i = 0; i < batch.size(); i++) {
+            counts[i] = new int[batch.get(i).tx.size()];
+        }
+
+        try (Connection con = ConnectionPool.getConnection()) {
+            con.setAutoCommit(false); // The pool rolls back and restores auto-commit if this connection is returned mid-transaction
+            try {
+                for (Step step : steps) {
+                    try (PreparedStatement pst = con.prepareStatement(step.operation.sql)) {
+                        for (Object[] row : step.rows) {
+                            for (int i = 0; i < row.length; i++) {
+                                AssignmentTransaction.bind(pst, i + 1, row[i]);
+                            }
+                            pst.addBatch();
+                        }
+                        int[] results = pst.executeBatch();
+                        for (int i = 0; i < results.length; i++) {
+                            int[] target = step.targets.get(i);
+                            counts[target[0]][target[1]] = checkCount(step, i, results[i]);
+                        }
+                    }
+                }
+                con.commit();
+            } catch (SQLException e) {
+                try {
+                    con.rollback();
+                } catch (SQLException ignored) {
+                    // Connection is broken; the server discards the open transaction when it closes
+                }
+                throw e;
+            }
+        }
+        return counts;
+    }
+
+    // Checks the update count of one row of a step
+    // Returns: the count, with rows the driver merged into a multi-row insert reported as 1
+    // Connector/J reports matched rather than changed rows by default, so an update that leaves a value as it was still
+    // counts 1; zero means the alert, dispatch or responder row does not exist, which only optional operations allow
+    // Throws: SQLException if the row failed or a required one matched nothing, so a transition never counts as
+    // committed without effect
+    private static int checkCount(Step step, int row, int count) throws SQLException {
+        if (count == Statement.SUCCESS_NO_INFO)
+            return 1;
+        if (count == 0 && step.operation.optional)
+            return 0; // No dispatch row to complete
+        if (count <= 0) {
+            throw new SQLException(step.operation + " matched no row for " + Arrays.toString(step.rows.get(row)));
+        }
+        return count;
+    }
+
+    // Orders the operations of a batch into statements
+    // Dispatch rows go first as one batched insert, updates follow in submission order (consecutive updates of the
+    // same kind share one batch) and history rows are appended last as one batched insert; history is insert-only so
+    // its position never matters
+    // If a dispatch row is both completed and inserted in the same batch, dispatch inserts keep their original
+    // position so the completion and the re-insert are applied in the order they were submitted
+    private List<Step> plan(List<Pending> batch) {
+        boolean mergeDispatches = !hasDispatchConflict(batch);
+        Step dispatches = new Step(AssignmentTransaction.Operation.INSERT_DISPATCH);
+        Step history = new Step(AssignmentTransaction.Operation.INSERT_HISTORY);
+        List<Step> ordered = new ArrayList<>();
+
+        for (int unit = 0; unit < batch.size(); unit++) {
+            AssignmentTransaction tx = batch.get(unit).tx;
+            for (int op = 0; op < tx.size(); op++) {
+                AssignmentTransaction.Operation operation = tx.operations.get(op);
+                Object[] params = tx.parameters.get(op);
+                if (operation == AssignmentTransaction.Operation.INSERT_HISTORY) {
+                    history.add(unit, op, params);
+                } else if (operation == AssignmentTransaction.Operation.INSERT_DISPATCH && mergeDispatches) {
+                    dispatches.add(unit, op, params);
+                } else if (!ordered.isEmpty() && ordered.get(ordered.size() - 1).operation == operation) {
+                    ordered.get(ordered.size() - 1).add(unit, op, params); // Same statement as the previous one
+                } else {
+                    ordered.add(new Step(operation).add(unit, op, params));
+                }
+            }
+        }
+
+        List<Step> steps = new ArrayList<>();
+        if (!dispatches.rows.isEmpty())
+            steps.add(dispatches);
+        steps.addAll(ordered);
+        if (!history.rows.isEmpty())
+            steps.add(history);
+        return steps;
+    }
+
+    // Checks whether any dispatch row is both inserted and completed within the batch
+    private boolean hasDispatchConflict(List<Pending> batch) {
+        Set<String> inserted = new HashSet<>();
+        Set<String> completed = new HashSet<>();
+        for (Pending pending : batch) {
+            AssignmentTransaction tx = pending.tx;
+            for (int op = 0; op < tx.size(); op++) {
+                Object[] params = tx.parameters.get(op);
+                switch (tx.operations.get(op)) {
+                    case INSERT_DISPATCH -> inserted.add(params[0] + ":" + params[1]);
+                    case COMPLETE_DISPATCH -> completed.add(params[0] + ":" + params[1]);
+                    default -> { }
+                }
+            }
+        }
+        inserted.retainAll(completed);
+        return !inserted.isEmpty();
+    }
+
+    // Stops accepting queued work and waits for every pending unit to be committed
+    public void shutdown() {
+        shutdown = true;
+        flusher.interrupt();
+        try {
+            flusher.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Units queued while the flag was being raised are committed here
+        List<Pending> leftover = new ArrayList<>();
+        queue.drainTo(leftover);
+        if (!leftover.isEmpty())
+            flush(leftover);
+        SystemLogger.info("Group commit writer shut down. " + getStatistics());
+    }
+
+    // Gets the number of units waiting to be flushed
+    public int getQueueDepth() {
+        return queue.size();
+    }
+    // Gets the total number of batches flushed
+    public long getBatchCount() {
+        return batchCount.get();
+    }
+    // Gets the average number of rows written per batch
+    public double getAverageBatchSize() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0.0 : rowCount.get() / (double) batches;
+    }
+    // Gets the largest number of rows written in one batch
+    public long getMaxBatchSize() {
+        return maxBatchRows.get();
+    }
+    // Gets the average time spent committing one batch, in milliseconds
+    public double getAverageFlushMillis() {
+        long batches = batchCount.get();
+        return batches == 0 ? 0.0 : totalFlushNanos.get() / (double) batches / 1_000_000.0;
+    }
+    // Gets the longest time spent committing one batch, in milliseconds
+    public double getMaxFlushMillis() {
+        return maxFlushNanos.get() / 1_000_000.0;
+    }
+    // Gets the average time from submit until a unit was committed, in milliseconds
+    public double getAverageCommitLatencyMillis() {
+        long units = unitCount.get() - failedUnitCount.get();
+        return units <= 0 ? 0.0 : totalLatencyNanos.get() / (double) units / 1_000_000.0;
+    }
+    // Gets the longest time from submit until a unit was committed, in milliseconds
+    public double getMaxCommitLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    // Returns a one-line summary of writer metrics
+    public String getStatistics() {
+        return String.format("GroupCommit[queued=%d, batches=%d, units=%d, rows=%d, avgBatch=%.1f, maxBatch=%d, "
+                        + "avgFlush=%.3fms, maxFlush=%.3fms, avgLatency=%.3fms, maxLatency=%.3fms, "
+                        + "failedBatches=%d, failedUnits=%d]",
+                getQueueDepth(), getBatchCount(), unitCount.get(), rowCount.get(), getAverageBatchSize(),
+                getMaxBatchSize(), getAverageFlushMillis(), getMaxFlushMillis(), getAverageCommitLatencyMillis(),
+                getMaxCommitLatencyMillis(), failedBatchCount.get(), failedUnitCount.get());
+    }
+
+    // A submitted unit and the future its caller waits on
+    private class Pending {
+        final AssignmentTransaction tx;
+        final CompletableFuture<int[]> future = new CompletableFuture<>();
+        final long submittedAt = System.nanoTime();
+
+        Pending(AssignmentTransaction tx) {
+            this.tx = tx;
+        }
+
+        // Records the commit latency and releases the caller
+        void complete(int[] counts, long committedAt) {
+            long latency = committedAt - submittedAt;
+            totalLatencyNanos.addAndGet(latency);
+            maxLatencyNanos.accumulateAndGet(latency, Math::max);
+            future.complete(counts);
+        }
+    }
+
+    // One JDBC batch of a transaction: rows of one statement gathered from one or more units
+    private static class Step {
+        final AssignmentTransaction.Operation operation;
+        final List<Object[]> rows = new ArrayList<>(); // Bind values, one entry per row or update
+        final List<int[]> targets = new ArrayList<>(); // Unit and operation index each row came from
+
+        Step(AssignmentTransaction.Operation operation) {
+            this.operation = operation;
+        }
+
+        Step add(int unit, int op, Object[] params) {
+            rows.add(params);
+            targets.add(new int[]{unit, op});
+            return this;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.DatagramChannel;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Entry point for responder GPS positions streamed by the device gateway
+// Listens for UDP datagrams and hands every position to the LocationIngestor, which coalesces them per responder
+// Each datagram holds one or more 20-byte records in network byte order:
+//   int responderId, double x (longitude), double y (latitude)
+// A datagram whose length is not a whole number of records is dropped entirely
+// The listener binds to LOCATION_GATEWAY_HOST, loopback by default, so only a gateway on the same host can report
+public class LocationGateway {
+    public static final int RECORD_BYTES = 4 + 8 + 8; // Size of one position record
+
+    private final LocationIngestor ingestor;
+    private final String host;
+    private final int port;
+    private DatagramChannel channel; // Open while the listener runs
+    private Thread receiver; // Background thread reading datagrams
+
+    // Gateway metrics
+    private final AtomicLong datagramCount = new AtomicLong();
+    private final AtomicLong malformedCount = new AtomicLong();
+    private final AtomicLong positionCount = new AtomicLong();
+
+    // Constructor creates a gateway for the given ingestor; port 0 picks a free port
+    public LocationGateway(LocationIngestor ingestor, String host, int port) {
+        this.ingestor = ingestor;
+        this.host = host;
+        this.port = port;
+    }
+
+    // Constructor creates a gateway configured from Constants
+    public LocationGateway(LocationIngestor ingestor) {
+        this(ingestor, Constants.LOCATION_GATEWAY_HOST, Constants.LOCATION_GATEWAY_PORT);
+    }
+
+    // Binds the socket and starts the receiver thread
+    // Returns: false if the socket could not be bound; positions are then only updated from the console
+    public synchronized boolean start() {
+        if (channel != null)
+            return true;
+        try {
+            channel = DatagramChannel.open();
+            channel.bind(new InetSocketAddress(host, port));
+        } catch (IOException e) {
+            SystemLogger.error("Location gateway could not listen on " + host + ":" + port + ": " + e.getMessage());
+            closeQuietly();
+            return false;
+        }
+        DatagramChannel listening = channel;
+        receiver = new Thread(() -> run(listening), "location-gateway");
+        receiver.setDaemon(true);
+        receiver.start();
+        SystemLogger.info("Location gateway listening on " + host + ":" + getPort());
+        return true;
+    }
+
+    // Receiver loop: decodes each datagram into reused arrays and submits it as one batch
+    private void run(DatagramChannel listening) {
+        ByteBuffer buffer = ByteBuffer.allocate(Constants.LOCATION_GATEWAY_MAX_DATAGRAM + 1); // One spare byte detects oversized datagrams
+        int capacity = Constants.LOCATION_GATEWAY_MAX_DATAGRAM / RECORD_BYTES;
+        int[] ids = new int[capacity];
+        double[] xs = new double[capacity];
+        double[] ys = new double[capacity];
+        while (true) {
+            try {
+                buffer.clear();
+                listening.receive(buffer);
+                buffer.flip();
+                datagramCount.incrementAndGet();
+                int count = decode(buffer, ids, xs, ys);
+                if (count < 0) {
+                    malformedCount.incrementAndGet();
+                    continue;
+                }
+                positionCount.addAndGet(count);
+                ingestor.submit(ids, xs, ys, count);
+            } catch (ClosedChannelException e) {
+                return; // Closed by shutdown()
+            } catch (IOException | RuntimeException e) {
+                SystemLogger.error("Location gateway receive failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Decodes the records of one datagram
+    // Returns: number of records decoded, or -1 if the datagram is empty, too large or has a partial record
+    static int decode(ByteBuffer datagram, int[] ids, double[] xs, double[] ys) {
+        int length = datagram.remaining();
+        if (length == 0 || length % RECORD_BYTES != 0 || length / RECORD_BYTES > ids.length)
+            return -1;
+        int count = length / RECORD_BYTES;
+        for (int i = 0; i < count; i++) {
+            ids[i] = datagram.getInt();
+            xs[i] = datagram.getDouble();
+            ys[i] = datagram.getDouble();
+        }
+        return count;
+    }
+
+    // Gets the bound port, or the configured port if the gateway is not listening
+    public synchronized int getPort() {
+        try {
+            if (channel != null && channel.getLocalAddress() != null)
+                return ((InetSocketAddress) channel.getLocalAddress()).getPort();
+        } catch (IOException e) {
+            // Fall through to the configured port
+        }
+        return port;
+    }
+
+    // Stops listening; positions already submitted are applied by the ingestor's own shutdown
+    public void shutdown() {
+        Thread thread;
+        synchronized (this) {
+            thread = receiver;
+            closeQuietly();
+        }
+        if (thread != null) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        SystemLogger.info("Location gateway shut down. " + getStatistics());
+    }
+
+    private void closeQuietly() {
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                SystemLogger.warning("Error closing location gateway: " + e.getMessage());
+            }
+        }
+        channel = null;
+        receiver = null;
+    }
+
+    // Returns a one-line summary of gateway metrics
+    public String getStatistics() {
+        return String.format("LocationGateway[datagrams=%d, malformed=%d, positions=%d]",
+                datagramCount.get(), malformedCount.get(), positionCount.get());
+    }
+}
@@ -0,0 +1,227 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.database.ConnectionPool;
+import com.womensafety.alertsystem.manager.LocationManager;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Background pipeline for streamed responder GPS positions, fed by the LocationGateway
+// Producers only record the latest position per responder, so a responder reporting many times between two applies
+// costs one index update; pending work is bounded by the number of responders rather than the update rate
+// Every few milliseconds the applier thread moves all changed responders in the spatial index in one batch, taking
+// each zone's lock once per chunk of responders, so dispatch reads in that zone wait for at most one short chunk
+// Responders are moved in place in their zone's position store and grid; k-d trees are only marked stale, never
+// rebuilt or discarded on this thread
+// Positions are written back to responder_details at a much lower rate, and only the latest one per responder
+public class LocationIngestor {
+    private final LocationManager locationManager;
+    private final int applyIntervalMillis;
+    private final int persistIntervalMillis;
+    private final Map<Integer, double[]> latest = new ConcurrentHashMap<>(); // Responder ID to its newest unapplied {x, y}
+    private final Map<Integer, double[]> unsaved = new ConcurrentHashMap<>(); // Responder ID to its newest applied but unsaved {x, y}
+    private final Thread applier; // Background thread that applies and persists positions
+
+    // Ingestion metrics
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong appliedCount = new AtomicLong();
+    private final AtomicLong applyCount = new AtomicLong();
+    private final AtomicLong maxApplyNanos = new AtomicLong();
+    private final AtomicLong persistedCount = new AtomicLong();
+    private final AtomicLong failedPersistCount = new AtomicLong();
+
+    private volatile boolean shutdown = false;
+
+    // Constructor creates an ingestor that feeds the given location manager and starts its applier thread
+    public LocationIngestor(LocationManager locationManager, int applyIntervalMillis, int persistIntervalMillis) {
+        this.locationManager = locationManager;
+        this.applyIntervalMillis = Math.max(1, applyIntervalMillis);
+        this.persistIntervalMillis = Math.max(this.applyIntervalMillis, persistIntervalMillis);
+
+        this.applier = new Thread(this::run, "location-ingestor");
+        this.applier.setDaemon(true); // Main flushes explicitly through shutdown()
+        this.applier.start();
+    }
+
+    // Constructor creates an ingestor configured from Constants
+    public LocationIngestor(LocationManager locationManager) {
+        this(locationManager, Constants.LOCATION_APPLY_INTERVAL, Constants.LOCATION_PERSIST_INTERVAL);
+    }
+
+    // Records a responder's reported position; never blocks on the index or the database
+    // Returns: false if the position is outside India or not a number and was dropped
+    public boolean submit(int responderId, double x, double y) {
+        receivedCount.incrementAndGet();
+        if (!(y >= Constants.INDIA_MIN_LAT && y <= Constants.INDIA_MAX_LAT
+                && x >= Constants.INDIA_MIN_LNG && x <= Constants.INDIA_MAX_LNG)) { // Also rejects NaN
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+        latest.put(responderId, new double[] {x, y}); // Replaces any position not applied yet
+        return true;
+    }
+
+    // Records a batch of reported positions, as received from one device gateway message
+    // Returns: number of positions accepted
+    public int submit(int[] responderIds, double[] xs, double[] ys, int count) {
+        int accepted = 0;
+        for (int i = 0; i < count; i++) {
+            if (submit(responderIds[i], xs[i], ys[i]))
+                accepted++;
+        }
+        return accepted;
+    }
+
+    // Applier loop: applies pending positions every interval and persists them when the persist interval has passed
+    private void run() {
+        long nextPersist = System.currentTimeMillis() + persistIntervalMillis;
+        while (!shutdown) {
+            try {
+                Thread.sleep(applyIntervalMillis);
+            } catch (InterruptedException e) {
+                break; // Woken by shutdown(), which applies and persists what is left
+            }
+            try {
+                apply();
+                if (System.currentTimeMillis() >= nextPersist) {
+                    persist();
+                    nextPersist = System.currentTimeMillis() + persistIntervalMillis;
+                }
+            } catch (RuntimeException e) {
+                SystemLogger.error("Location ingestor failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Moves every responder with a pending position in the spatial index
+    // An entry is only removed if no newer position replaced it meanwhile, so concurrent submits are never lost
+    private void apply() {
+        if (latest.isEmpty())
+            return;
+        long start = System.nanoTime();
+        int[] ids = new int[latest.size() + 16]; // Grown below if producers add entries during the drain
+        double[] xs = new double[ids.length];
+        double[] ys = new double[ids.length];
+        int count = 0;
+        for (Map.Entry<Integer, double[]> entry : latest.entrySet()) {
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, count * 2);
+                xs = Arrays.copyOf(xs, count * 2);
+                ys = Arrays.copyOf(ys, count * 2);
+            }
+            double[] position = entry.getValue();
+            ids[count] = entry.getKey();
+            xs[count] = position[0];
+            ys[count] = position[1];
+            count++;
+            unsaved.put(entry.getKey(), position);
+            latest.remove(entry.getKey(), position);
+        }
+
+        appliedCount.addAndGet(locationManager.updateResponderCoordinates(ids, xs, ys, count));
+        applyCount.incrementAndGet();
+        maxApplyNanos.accumulateAndGet(System.nanoTime() - start, Math::max);
+    }
+
+    // Writes the latest applied position of every moved responder to the database
+    // Query: One UPDATE per chunk that sets each responder's coordinates through CASE expressions
+    private void persist() {
+        if (unsaved.isEmpty())
+            return;
+        List<Map.Entry<Integer, double[]>> pending = new ArrayList<>(unsaved.entrySet());
+        for (int from = 0; from < pending.size(); from += Constants.LOCATION_PERSIST_BATCH) {
+            List<Map.Entry<Integer, double[]>> chunk =
+                pending.subList(from, Math.min(pending.size(), from + Constants.LOCATION_PERSIST_BATCH));
+            try {
+                persistChunk(chunk);
+                for (Map.Entry<Integer, double[]> entry : chunk) {
+                    unsaved.remove(entry.getKey(), entry.getValue()); // Kept if a newer position arrived meanwhile
+                }
+                persistedCount.addAndGet(chunk.size());
+            } catch (SQLException e) {
+                // Positions stay unsaved and are retried on the next persist interval
+                failedPersistCount.incrementAndGet();
+                SystemLogger.error("Error saving " + chunk.size() + " responder position(s): " + e.getMessage());
+                return;
+            }
+        }
+    }
+
+    // Saves one chunk of positions in a single statement
+    private void persistChunk(List<Map.Entry<Integer, double[]>> chunk) throws SQLException {
+        StringBuilder xCase = new StringBuilder();
+        StringBuilder yCase = new StringBuilder();
+        StringBuilder in = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            xCase.append(" WHEN ? THEN ?");
+            yCase.append(" WHEN ? THEN ?");
+            in.append(i == 0 ? "?" : ", ?");
+        }
+        String sql = "UPDATE responder_details SET X_coordinate = CASE Responder_id" + xCase + " ELSE X_coordinate END, "
+            + "Y_coordinate = CASE Responder_id" + yCase + " ELSE Y_coordinate END WHERE Responder_id IN (" + in + ")";
+
+        try (Connection con = ConnectionPool.getConnection();
+             PreparedStatement pst = con.prepareStatement(sql)) {
+            int n = chunk.size();
+            for (int i = 0; i < n; i++) {
+                int id = chunk.get(i).getKey();
+                double[] position = chunk.get(i).getValue();
+                pst.setInt(2 * i + 1, id);
+                pst.setDouble(2 * i + 2, position[0]);
+                pst.setInt(2 * n + 2 * i + 1, id);
+                pst.setDouble(2 * n + 2 * i + 2, position[1]);
+                pst.setInt(4 * n + i + 1, id);
+            }
+            pst.executeUpdate();
+        }
+    }
+
+    // Stops the applier, then applies and saves every position still pending
+    public void shutdown() {
+        shutdown = true;
+        applier.interrupt();
+        try {
+            applier.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        apply();
+        persist();
+        SystemLogger.info("Location ingestor shut down. " + getStatistics());
+    }
+
+    // Gets the number of responders with a position waiting to be applied
+    public int getPendingCount() {
+        return latest.size();
+    }
+    // Gets the number of responders with an applied position waiting to be saved
+    public int getUnsavedCount() {
+        return unsaved.size();
+    }
+    // Gets the number of positions received, including rejected ones
+    public long getReceivedCount() {
+        return receivedCount.get();
+    }
+    // Gets the number of responder moves applied to the spatial index
+    public long getAppliedCount() {
+        return appliedCount.get();
+    }
+    // Gets the longest time spent applying one batch, in milliseconds
+    public double getMaxApplyMillis() {
+        return maxApplyNanos.get() / 1_000_000.0;
+    }
+
+    // Returns a one-line summary of ingestion metrics
+    public String getStatistics() {
+        long accepted = receivedCount.get() - rejectedCount.get();
+        return String.format("LocationIngest[received=%d, rejected=%d, applied=%d, coalesced=%d, pending=%d, unsaved=%d, "
+                        + "applies=%d, maxApply=%.3fms, persisted=%d, failedPersists=%d]",
+                receivedCount.get(), rejectedCount.get(), appliedCount.get(),
+                Math.max(0, accepted - appliedCount.get() - getPendingCount()), getPendingCount(), getUnsavedCount(),
+                applyCount.get(), getMaxApplyMillis(), persistedCount.get(), failedPersistCount.get());
+    }
+}
@@ -2,6 +2,7 @@ package com.womensafety.alertsystem.service;
 
 import com.womensafety.alertsystem.model.User;
 import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.GeoDistance;
 import java.util.*;
 
 // Class for finding the nearest available responder to a user
@@ -10,11 +11,12 @@ public class NearestResponderFinder{
     public static Responder findNearestResponder(User user,List<Responder> responders){
         Responder nearestResponder = null;
         double minDistance = Double.MAX_VALUE;
+        double scale = GeoDistance.longitudeScale(user.getY()); // Computed once for the whole scan
 
         for(Responder r : responders){ // Iterate through all responders
             if(!r.isAvailable()) // Skip if responder is not available
                 continue;
-            double distance=calculateDistance(user.getX(), user.getY(), r.getX(), r.getY()); // Calculate distance to responder
+            double distance=GeoDistance.squaredDegrees(user.getX(), user.getY(), r.getX(), r.getY(), scale); // Squared distance ranks the same without the square root
 
             if(distance<minDistance){ // Check if this responder is closer
                 minDistance=distance; // Update minimum distance
@@ -24,8 +26,58 @@ public class NearestResponderFinder{
         return nearestResponder; // Return the nearest available responder
     }
 
-    // Calculates the Euclidean distance between two points
+    // Bulk-loads a k-d tree over the given responders for repeated nearest, k-nearest and radius queries
+    public static ResponderKdTree buildIndex(List<Responder> responders){
+        return new ResponderKdTree(responders);
+    }
+
+    // Finds the nearest available responder to a user using a prebuilt index
+    public static Responder findNearestResponder(User user, ResponderKdTree index){
+        return index.nearest(user.getX(), user.getY(), -1);
+    }
+
+    // Finds the k nearest available responders to a user using a prebuilt index
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: up to k responders, nearest first
+    public static List<Responder> findNearestResponders(User user, ResponderKdTree index, int k, int excludeResponderId){
+        return index.nearest(user.getX(), user.getY(), k, excludeResponderId);
+    }
+
+    // Finds every available responder within a radius of a user using a prebuilt index
+    // Parameters: radiusKm - search radius in kilometres
+    // Returns: responders within the radius, nearest first
+    public static List<Responder> findRespondersWithin(User user, ResponderKdTree index, double radiusKm){
+        return index.withinRadius(user.getX(), user.getY(), radiusKm);
+    }
+
+    // Orders responders by their estimated travel time to a user over the road network
+    // Returns: new list, fastest first; responders that cannot reach the user within the routing limit come last
+    public static List<Responder> rankByEta(User user, List<Responder> responders){
+        int k = responders.size();
+        if (k <= 1)
+            return new ArrayList<>(responders);
+        double[] xs = new double[k];
+        double[] ys = new double[k];
+        for (int i = 0; i < k; i++) {
+            xs[i] = responders.get(i).getX();
+            ys[i] = responders.get(i).getY();
+        }
+        double[] eta = RoadRouter.getInstance().etaSeconds(user.getX(), user.getY(), xs, ys); // One search for all candidates
+        Integer[] order = new Integer[k];
+        for (int i = 0; i < k; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble(i -> eta[i])); // Stable, so equal ETAs keep the distance order
+        List<Responder> ranked = new ArrayList<>(k);
+        for (int i : order) {
+            ranked.add(responders.get(i));
+        }
+        return ranked;
+    }
+
+    // Calculates the great-circle distance between two points given as longitude (x) and latitude (y) in degrees
+    // Returns: distance in kilometres
     public static double calculateDistance(double x1, double y1, double x2, double y2){
-        return Math.sqrt(Math.pow(x2- x1,2) + Math.pow(y2-y1,2)); // Euclidean distance formula
+        return GeoDistance.haversineKm(x1, y1, x2, y2);
     }
 }
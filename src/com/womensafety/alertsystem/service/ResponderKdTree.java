@@ -0,0 +1,222 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.util.*;
+
+// Static k-d tree over responder positions, bulk-loaded once and then only queried
+// The tree is implicit: positions are stored in primitive arrays ordered so that the middle of every range is the
+// median of that range on the split axis, which alternates between x and y by depth; no node objects are allocated
+// Availability is not part of the tree: every query skips unavailable responders as it meets them, so availability
+// changes never force a rebuild. Moving, adding or removing responders needs a new tree
+// Coordinates are longitude (x) and latitude (y); distances are ranked with GeoDistance.squaredDegrees around the
+// query point, and a longitude difference is scaled the same way before it is used to prune a half
+public class ResponderKdTree {
+    private final double[] xs;
+    private final double[] ys;
+    private final Responder[] items;
+
+    // Constructor bulk-loads the tree from a snapshot of the given responders in O(n log n)
+    public ResponderKdTree(List<Responder> responders) {
+        int n = responders.size();
+        xs = new double[n];
+        ys = new double[n];
+        items = new Responder[n];
+        for (int i = 0; i < n; i++) {
+            Responder r = responders.get(i);
+            items[i] = r;
+            xs[i] = r.getX();
+            ys[i] = r.getY();
+        }
+        build(0, n, 0);
+    }
+
+    // Gets the number of responders in the tree, available or not
+    public int size() {
+        return items.length;
+    }
+
+    // Finds the nearest available responder to a point
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: nearest available responder or null if there is none
+    public Responder nearest(double x, double y, int excludeResponderId) {
+        List<Responder> found = nearest(x, y, 1, excludeResponderId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    // Finds the k nearest available responders to a point
+    // Parameters: excludeResponderId - responder that must not be returned, or -1 for none
+    // Returns: up to k responders, nearest first
+    public List<Responder> nearest(double x, double y, int k, int excludeResponderId) {
+        if (k <= 0 || items.length == 0)
+            return new ArrayList<>();
+        Candidates best = new Candidates(Math.min(k, items.length));
+        searchNearest(0, items.length, 0, x, y, GeoDistance.longitudeScale(y), excludeResponderId, best);
+        return best.toList(items);
+    }
+
+    // Finds every available responder within a radius of a point, using the equirectangular approximation
+    // Parameters: radiusKm - search radius in kilometres
+    // Returns: responders within the radius, nearest first
+    public List<Responder> withinRadius(double x, double y, double radiusKm) {
+        List<double[]> hits = new ArrayList<>(); // Squared distance and position in the arrays
+        double radius = radiusKm / GeoDistance.KM_PER_DEGREE;
+        searchRadius(0, items.length, 0, x, y, GeoDistance.longitudeScale(y), radius * radius, hits);
+        hits.sort(Comparator.comparingDouble(h -> h[0]));
+        List<Responder> result = new ArrayList<>(hits.size());
+        for (double[] hit : hits) {
+            result.add(items[(int) hit[1]]);
+        }
+        return result;
+    }
+
+    // Orders [lo, hi) so its middle element is the median on this depth's axis, then does the same for both halves
+    private void build(int lo, int hi, int depth) {
+        if (hi - lo <= 1)
+            return;
+        int mid = (lo + hi) >>> 1;
+        select(lo, hi - 1, mid, depth % 2 == 0 ? xs : ys);
+        build(lo, mid, depth + 1);
+        build(mid + 1, hi, depth + 1);
+    }
+
+    // Quickselect: moves the k-th smallest value of [lo, hi] on the given axis to position k
+    private void select(int lo, int hi, int k, double[] axis) {
+        while (lo < hi) {
+            double pivot = axis[(lo + hi) >>> 1];
+            int i = lo;
+            int j = hi;
+            while (i <= j) {
+                while (axis[i] < pivot) i++;
+                while (axis[j] > pivot) j--;
+                if (i <= j) {
+                    swap(i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) {
+                hi = j;
+            } else if (k >= i) {
+                lo = i;
+            } else {
+                return; // k lies between the partitions, where every value equals the pivot
+            }
+        }
+    }
+
+    // Swaps two entries in all three arrays
+    private void swap(int i, int j) {
+        double tx = xs[i]; xs[i] = xs[j]; xs[j] = tx;
+        double ty = ys[i]; ys[i] = ys[j]; ys[j] = ty;
+        Responder tr = items[i]; items[i] = items[j]; items[j] = tr;
+    }
+
+    // Visits the half containing the point first and the other half only if it can still hold a closer responder
+    private void searchNearest(int lo, int hi, int depth, double x, double y, double scale, int excludeResponderId,
+                               Candidates best) {
+        if (lo >= hi)
+            return;
+        int mid = (lo + hi) >>> 1;
+        Responder r = items[mid];
+        if (r.isAvailable() && r.getId() != excludeResponderId) {
+            best.offer(GeoDistance.squaredDegrees(x, y, xs[mid], ys[mid], scale), mid);
+        }
+        double diff = depth % 2 == 0 ? (x - xs[mid]) * scale : y - ys[mid];
+        boolean leftFirst = diff < 0;
+        if (leftFirst) {
+            searchNearest(lo, mid, depth + 1, x, y, scale, excludeResponderId, best);
+        } else {
+            searchNearest(mid + 1, hi, depth + 1, x, y, scale, excludeResponderId, best);
+        }
+        if (diff * diff < best.bound()) {
+            if (leftFirst) {
+                searchNearest(mid + 1, hi, depth + 1, x, y, scale, excludeResponderId, best);
+            } else {
+                searchNearest(lo, mid, depth + 1, x, y, scale, excludeResponderId, best);
+            }
+        }
+    }
+
+    // Collects available responders within the squared radius, skipping halves entirely outside it
+    private void searchRadius(int lo, int hi, int depth, double x, double y, double scale, double radiusSquared,
+                              List<double[]> hits) {
+        if (lo >= hi)
+            return;
+        int mid = (lo + hi) >>> 1;
+        double dx = (x - xs[mid]) * scale;
+        double dy = y - ys[mid];
+        double dist = dx * dx + dy * dy;
+        if (dist <= radiusSquared && items[mid].isAvailable()) {
+            hits.add(new double[] {dist, mid});
+        }
+        double diff = depth % 2 == 0 ? dx : dy;
+        if (diff <= 0 || diff * diff <= radiusSquared) {
+            searchRadius(lo, mid, depth + 1, x, y, scale, radiusSquared, hits); // Lower half lies at or before the split
+        }
+        if (diff >= 0 || diff * diff <= radiusSquared) {
+            searchRadius(mid + 1, hi, depth + 1, x, y, scale, radiusSquared, hits);
+        }
+    }
+
+    // Bounded max-heap of the k closest positions seen so far, kept in primitive arrays
+    private static class Candidates {
+        final double[] dist;
+        final int[] index;
+        int size = 0;
+
+        Candidates(int k) {
+            dist = new double[k];
+            index = new int[k];
+        }
+
+        // Squared distance a position must beat to enter the heap
+        double bound() {
+            return size < dist.length ? Double.MAX_VALUE : dist[0];
+        }
+
+        void offer(double d, int i) {
+            if (size < dist.length) {
+                int c = size++;
+                while (c > 0 && dist[(c - 1) / 2] < d) { // Sift up
+                    int p = (c - 1) / 2;
+                    dist[c] = dist[p];
+                    index[c] = index[p];
+                    c = p;
+                }
+                dist[c] = d;
+                index[c] = i;
+            } else if (d < dist[0]) {
+                int c = 0;
+                while (true) { // Sift the new value down from the root
+                    int child = 2 * c + 1;
+                    if (child >= size)
+                        break;
+                    if (child + 1 < size && dist[child + 1] > dist[child])
+                        child++;
+                    if (dist[child] <= d)
+                        break;
+                    dist[c] = dist[child];
+                    index[c] = index[child];
+                    c = child;
+                }
+                dist[c] = d;
+                index[c] = i;
+            }
+        }
+
+        // Gets the collected responders, nearest first
+        List<Responder> toList(Responder[] items) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.comparingDouble(i -> dist[i]));
+            List<Responder> result = new ArrayList<>(size);
+            for (int i : order) {
+                result.add(items[index[i]]);
+            }
+            return result;
+        }
+    }
+}
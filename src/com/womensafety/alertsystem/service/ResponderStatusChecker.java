@@ -18,6 +18,7 @@ public class ResponderStatusChecker implements Runnable{
     public void run(){
         while(!Thread.currentThread().isInterrupted()){ // Continue running until interrupted
             try{
+                locationManager.syncAvailabilityFromDatabase(); // Pick up claims made by other dispatcher instances
                 checkResponderStatuses(); // Check responder statuses
                 Thread.sleep(Constants.RESPONDER_STATUS_CHECKER_INTERVAL); // Sleep for configured interval
             }catch (InterruptedException e) {
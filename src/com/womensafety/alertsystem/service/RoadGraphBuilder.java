@@ -0,0 +1,256 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.GeoDistance;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.*;
+import java.util.*;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+// Offline preprocessing step that turns an OpenStreetMap extract into the graph file read by RoadRouter
+// Reads an .osm XML extract (as exported by openstreetmap.org or converted from .pbf with osmium) in one streaming
+// pass, keeps the ways a responder can drive on and writes every road segment as a directed edge timed at the way's
+// maxspeed tag, or at a typical urban speed for its highway type when it has none. One-way streets, roundabouts and
+// motorways only get edges in their direction of travel. Nodes no kept way uses are left out of the graph
+// Usage: java -cp out com.womensafety.alertsystem.service.RoadGraphBuilder city.osm [db/roads.graph]
+// Node coordinates of the whole extract are held in memory, so use a city or state extract rather than all of India
+public class RoadGraphBuilder {
+    // Speed in km/h of each drivable highway type, used when a way has no usable maxspeed tag
+    private static final Map<String, Double> HIGHWAY_SPEEDS = Map.ofEntries(
+        Map.entry("motorway", 80.0), Map.entry("motorway_link", 50.0),
+        Map.entry("trunk", 60.0), Map.entry("trunk_link", 40.0),
+        Map.entry("primary", 45.0), Map.entry("primary_link", 35.0),
+        Map.entry("secondary", 40.0), Map.entry("secondary_link", 30.0),
+        Map.entry("tertiary", 30.0), Map.entry("tertiary_link", 25.0),
+        Map.entry("unclassified", 25.0), Map.entry("residential", 20.0),
+        Map.entry("living_street", 10.0), Map.entry("service", 15.0));
+
+    // Every node of the extract, sorted by OSM ID before the first way is read
+    private long[] nodeIds = new long[1 << 16];
+    private float[] nodeLons = new float[nodeIds.length];
+    private float[] nodeLats = new float[nodeIds.length];
+    private int nodeCount = 0;
+    private boolean nodesSorted = false;
+
+    // Directed edges between positions in the node arrays
+    private int[] edgeFrom = new int[1 << 16];
+    private int[] edgeTo = new int[edgeFrom.length];
+    private int[] edgeMillis = new int[edgeFrom.length];
+    private int edgeCount = 0;
+    private int wayCount = 0;
+
+    // Builds a graph file from the extract given on the command line
+    public static void main(String[] args) {
+        if (args.length < 1 || args.length > 2) {
+            System.out.println("Usage: java com.womensafety.alertsystem.service.RoadGraphBuilder <extract.osm> [output, default "
+                + Constants.ROAD_GRAPH_FILE + "]");
+            System.exit(2);
+        }
+        Path output = Paths.get(args.length == 2 ? args[1] : Constants.ROAD_GRAPH_FILE);
+        try {
+            int[] counts = build(Paths.get(args[0]), output);
+            SystemLogger.success("Road graph written to " + output + " with " + counts[0] + " nodes and " + counts[1] + " edges.");
+        } catch (IOException | XMLStreamException e) {
+            SystemLogger.error("Could not build road graph from " + args[0] + ": " + e);
+            SystemLogger.shutdown();
+            System.exit(1);
+        }
+        SystemLogger.shutdown();
+    }
+
+    // Reads an OSM XML extract and writes its drivable road network as a RoadRouter graph file
+    // Returns: {nodes, edges} written
+    public static int[] build(Path osm, Path output) throws IOException, XMLStreamException {
+        RoadGraphBuilder builder = new RoadGraphBuilder();
+        try (InputStream in = Files.newInputStream(osm)) {
+            builder.read(in);
+        }
+        return builder.write(output);
+    }
+
+    // Streams the extract, collecting node coordinates and the edges of drivable ways
+    private void read(InputStream in) throws XMLStreamException {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false); // Extracts never need a DTD, and none is fetched
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        XMLStreamReader xml = factory.createXMLStreamReader(in);
+        List<Long> wayNodes = new ArrayList<>();
+        Map<String, String> wayTags = new HashMap<>();
+        boolean inWay = false;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                switch (xml.getLocalName()) {
+                    case "node":
+                        addNode(Long.parseLong(xml.getAttributeValue(null, "id")),
+                            Float.parseFloat(xml.getAttributeValue(null, "lon")),
+                            Float.parseFloat(xml.getAttributeValue(null, "lat")));
+                        break;
+                    case "way":
+                        inWay = true;
+                        wayNodes.clear();
+                        wayTags.clear();
+                        break;
+                    case "nd":
+                        if (inWay) wayNodes.add(Long.parseLong(xml.getAttributeValue(null, "ref")));
+                        break;
+                    case "tag":
+                        if (inWay) wayTags.put(xml.getAttributeValue(null, "k"), xml.getAttributeValue(null, "v"));
+                        break;
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && xml.getLocalName().equals("way")) {
+                inWay = false;
+                addWay(wayNodes, wayTags);
+            }
+        }
+        xml.close();
+    }
+
+    private void addNode(long id, float lon, float lat) {
+        if (nodeCount == nodeIds.length) {
+            nodeIds = Arrays.copyOf(nodeIds, nodeCount * 2);
+            nodeLons = Arrays.copyOf(nodeLons, nodeCount * 2);
+            nodeLats = Arrays.copyOf(nodeLats, nodeCount * 2);
+        }
+        nodeIds[nodeCount] = id;
+        nodeLons[nodeCount] = lon;
+        nodeLats[nodeCount] = lat;
+        nodeCount++;
+        nodesSorted = false;
+    }
+
+    // Adds the edges of one way if a responder can drive on it
+    // Segments whose nodes are missing from the extract, as at its clipped border, are skipped
+    private void addWay(List<Long> refs, Map<String, String> tags) {
+        Double speed = HIGHWAY_SPEEDS.get(tags.getOrDefault("highway", ""));
+        if (speed == null || refs.size() < 2 || "yes".equals(tags.get("area"))
+                || isNo(tags.get("access")) || isNo(tags.get("motor_vehicle")))
+            return;
+        double tagged = parseMaxSpeed(tags.get("maxspeed"));
+        if (tagged > 0) {
+            speed = tagged;
+        }
+        String oneway = tags.getOrDefault("oneway", "");
+        boolean forward = !oneway.equals("-1");
+        boolean backward = !(oneway.equals("yes") || oneway.equals("true") || oneway.equals("1") || oneway.equals("-1")
+            || (oneway.isEmpty() && ("roundabout".equals(tags.get("junction")) || "motorway".equals(tags.get("highway")))));
+
+        sortNodes();
+        for (int i = 1; i < refs.size(); i++) {
+            int a = findNode(refs.get(i - 1));
+            int b = findNode(refs.get(i));
+            if (a < 0 || b < 0 || a == b)
+                continue;
+            double km = GeoDistance.haversineKm(nodeLons[a], nodeLats[a], nodeLons[b], nodeLats[b]);
+            int millis = (int) Math.max(1, Math.round(km / speed * 3_600_000.0));
+            if (forward) addEdge(a, b, millis);
+            if (backward) addEdge(b, a, millis);
+        }
+        wayCount++;
+    }
+
+    private static boolean isNo(String value) {
+        return "no".equals(value) || "private".equals(value);
+    }
+
+    // Parses a maxspeed tag such as "50", "50 km/h" or "30 mph"
+    // Returns: speed in km/h, or 0 if the tag is missing or not a number ("IN:urban", "signals")
+    static double parseMaxSpeed(String value) {
+        if (value == null)
+            return 0;
+        int end = 0;
+        while (end < value.length() && (Character.isDigit(value.charAt(end)) || value.charAt(end) == '.')) {
+            end++;
+        }
+        if (end == 0)
+            return 0;
+        try {
+            double speed = Double.parseDouble(value.substring(0, end));
+            return value.contains("mph") ? speed * 1.609344 : speed;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private void addEdge(int from, int to, int millis) {
+        if (edgeCount == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, edgeCount * 2);
+            edgeTo = Arrays.copyOf(edgeTo, edgeCount * 2);
+            edgeMillis = Arrays.copyOf(edgeMillis, edgeCount * 2);
+        }
+        edgeFrom[edgeCount] = from;
+        edgeTo[edgeCount] = to;
+        edgeMillis[edgeCount] = millis;
+        edgeCount++;
+    }
+
+    // Sorts the nodes by ID for binary search; extracts are normally sorted already, so this is usually one pass
+    private void sortNodes() {
+        if (nodesSorted)
+            return;
+        boolean sorted = true;
+        for (int i = 1; i < nodeCount && sorted; i++) {
+            sorted = nodeIds[i - 1] < nodeIds[i];
+        }
+        if (!sorted) {
+            Integer[] order = new Integer[nodeCount];
+            for (int i = 0; i < nodeCount; i++) order[i] = i;
+            Arrays.sort(order, Comparator.comparingLong(i -> nodeIds[i]));
+            long[] ids = new long[nodeCount];
+            float[] lons = new float[nodeCount], lats = new float[nodeCount];
+            for (int i = 0; i < nodeCount; i++) {
+                ids[i] = nodeIds[order[i]];
+                lons[i] = nodeLons[order[i]];
+                lats[i] = nodeLats[order[i]];
+            }
+            nodeIds = ids;
+            nodeLons = lons;
+            nodeLats = lats;
+        }
+        nodesSorted = true;
+    }
+
+    // Returns: position of a node in the node arrays, or -1 if the extract does not contain it
+    private int findNode(long id) {
+        int position = Arrays.binarySearch(nodeIds, 0, nodeCount, id);
+        return position >= 0 ? position : -1;
+    }
+
+    // Renumbers the nodes used by some edge from 0 and writes the graph
+    // Returns: {nodes, edges} written
+    private int[] write(Path output) throws IOException {
+        int[] index = new int[nodeCount];
+        Arrays.fill(index, -1);
+        int used = 0;
+        for (int e = 0; e < edgeCount; e++) {
+            if (index[edgeFrom[e]] < 0) index[edgeFrom[e]] = used++;
+            if (index[edgeTo[e]] < 0) index[edgeTo[e]] = used++;
+        }
+        if (used == 0)
+            throw new IOException("the extract has no drivable roads");
+        float[] lon = new float[used], lat = new float[used];
+        for (int v = 0; v < nodeCount; v++) {
+            if (index[v] >= 0) {
+                lon[index[v]] = nodeLons[v];
+                lat[index[v]] = nodeLats[v];
+            }
+        }
+        int[] from = new int[edgeCount], to = new int[edgeCount];
+        for (int e = 0; e < edgeCount; e++) {
+            from[e] = index[edgeFrom[e]];
+            to[e] = index[edgeTo[e]];
+        }
+        Path parent = output.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        RoadRouter.write(output, lon, lat, from, to, Arrays.copyOf(edgeMillis, edgeCount));
+        SystemLogger.info("Road graph built from " + wayCount + " ways.");
+        return new int[] {used, edgeCount};
+    }
+}
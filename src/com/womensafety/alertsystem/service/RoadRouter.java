@@ -0,0 +1,418 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.GeoDistance;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.io.*;
+import java.nio.*;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+
+// Travel-time engine over a road graph preprocessed offline from OpenStreetMap
+// The graph file is memory-mapped and read in place through primitive buffer views, so startup does not parse or copy
+// it and only the pages a query touches are ever loaded. Edges are stored by target node (incoming edges), because
+// every query runs from the destination backwards: one search from the user reaches all candidate responders
+// A query is an A* search towards the nearest unsettled candidate, stopping once every candidate is settled or the
+// time limit is passed; its lower bound is the straight-line distance at the fastest speed found in the graph.
+// When a candidate settles the bound rises, so the queued priorities are recomputed to keep the search exact
+// Without a graph file every ETA is the straight-line distance at Constants.RESPONDER_AVERAGE_SPEED_KMH
+//
+// File layout, big-endian, written by write():
+//   int magic, int nodeCount n, int edgeCount m, float maxSpeedKmh
+//   float longitude[n], float latitude[n]
+//   int firstIn[n + 1]              incoming edges of node v are firstIn[v] .. firstIn[v + 1] - 1
+//   int source[m], int timeMillis[m]
+public class RoadRouter {
+    private static final int MAGIC = 0x52474831; // "RGH1"
+    private static RoadRouter instance;
+
+    private final int nodeCount;
+    private final double maxSpeedKmh;
+    private final FloatBuffer lons;
+    private final FloatBuffer lats;
+    private final IntBuffer firstIn;
+    private final IntBuffer sources;
+    private final IntBuffer times;
+    private final long[] nodesByCell; // Snap grid: packed cell << 32 | node, sorted
+    private final ThreadLocal<SearchState> state;
+
+    // Gets the shared router, loading the graph on first use
+    public static synchronized RoadRouter getInstance() {
+        if (instance == null) {
+            instance = new RoadRouter(Paths.get(Constants.ROAD_GRAPH_FILE));
+        }
+        return instance;
+    }
+
+    // Constructor maps the given graph file, or falls back to straight-line estimates if it is missing or invalid
+    public RoadRouter(Path file) {
+        int n = 0;
+        double speed = Constants.RESPONDER_AVERAGE_SPEED_KMH;
+        FloatBuffer lonView = null, latView = null;
+        IntBuffer firstView = null, sourceView = null, timeView = null;
+        if (Files.isReadable(file)) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()); // Stays valid after close
+                if (map.getInt(0) != MAGIC)
+                    throw new IOException("not a road graph file");
+                n = map.getInt(4);
+                int m = map.getInt(8);
+                speed = map.getFloat(12);
+                long expected = 16L + 8L * n + 4L * (n + 1) + 8L * m;
+                if (n <= 0 || m < 0 || speed <= 0 || channel.size() != expected)
+                    throw new IOException("corrupt header or truncated file");
+                int offset = 16;
+                lonView = view(map, offset, n).asFloatBuffer();
+                latView = view(map, offset += 4 * n, n).asFloatBuffer();
+                firstView = view(map, offset += 4 * n, n + 1).asIntBuffer();
+                sourceView = view(map, offset += 4 * (n + 1), m).asIntBuffer();
+                timeView = view(map, offset + 4 * m, m).asIntBuffer();
+            } catch (IOException | RuntimeException e) {
+                SystemLogger.error("Could not load road graph from " + file + ": " + e.getMessage());
+                n = 0;
+                speed = Constants.RESPONDER_AVERAGE_SPEED_KMH;
+            }
+        }
+        this.nodeCount = n;
+        this.maxSpeedKmh = speed;
+        this.lons = lonView;
+        this.lats = latView;
+        this.firstIn = firstView;
+        this.sources = sourceView;
+        this.times = timeView;
+        this.nodesByCell = n > 0 ? buildSnapGrid() : new long[0];
+        this.state = ThreadLocal.withInitial(() -> new SearchState(nodeCount));
+        if (n > 0) {
+            SystemLogger.info("Road graph loaded with " + n + " nodes and " + sources.limit() + " edges.");
+        } else {
+            SystemLogger.info("No road graph loaded; ETAs use straight-line distance.");
+        }
+    }
+
+    // Checks whether ETAs come from the road graph rather than straight-line estimates
+    public boolean hasGraph() {
+        return nodeCount > 0;
+    }
+
+    // Estimates the travel time from each origin to one destination
+    // Parameters: x, y - destination; fromX, fromY - origins, longitude and latitude in degrees
+    // Returns: ETA per origin in seconds, or Double.POSITIVE_INFINITY if it cannot reach the destination in time
+    public double[] etaSeconds(double x, double y, double[] fromX, double[] fromY) {
+        int k = fromX.length;
+        double[] eta = new double[k];
+        int destination = hasGraph() ? snap(x, y) : -1;
+        if (destination < 0) {
+            for (int i = 0; i < k; i++) {
+                eta[i] = straightLineSeconds(x, y, fromX[i], fromY[i]);
+            }
+            return eta;
+        }
+
+        int[] origins = new int[k];
+        for (int i = 0; i < k; i++) {
+            origins[i] = snap(fromX[i], fromY[i]);
+        }
+        int[] roadMillis = search(destination, origins);
+        double destinationLeg = straightLineSeconds(x, y, lons.get(destination), lats.get(destination));
+        for (int i = 0; i < k; i++) {
+            if (origins[i] < 0) {
+                eta[i] = straightLineSeconds(x, y, fromX[i], fromY[i]); // Off the mapped network
+            } else if (roadMillis[i] == Integer.MAX_VALUE) {
+                eta[i] = Double.POSITIVE_INFINITY;
+            } else {
+                eta[i] = roadMillis[i] / 1000.0 + destinationLeg
+                    + straightLineSeconds(fromX[i], fromY[i], lons.get(origins[i]), lats.get(origins[i]));
+            }
+        }
+        return eta;
+    }
+
+    // Backward A* from the destination until every origin node is settled or the time limit is passed
+    // Returns: road travel time per origin in milliseconds, Integer.MAX_VALUE if not reached
+    private int[] search(int destination, int[] origins) {
+        int k = origins.length;
+        int[] result = new int[k];
+        Arrays.fill(result, Integer.MAX_VALUE);
+        double[] targetX = new double[k];
+        double[] targetY = new double[k];
+        boolean[] settled = new boolean[k];
+        int remaining = 0;
+        for (int i = 0; i < k; i++) {
+            if (origins[i] < 0) {
+                settled[i] = true; // Not on the network: nothing to search for
+                continue;
+            }
+            targetX[i] = lons.get(origins[i]);
+            targetY[i] = lats.get(origins[i]);
+            remaining++;
+        }
+        if (remaining == 0)
+            return result;
+
+        double scale = GeoDistance.longitudeScale(lats.get(destination));
+        // Milliseconds per degree of straight-line distance at the fastest speed, with a margin for the approximation
+        double millisPerDegree = GeoDistance.KM_PER_DEGREE / maxSpeedKmh * 3_600_000.0 * 0.95;
+        long limit = Constants.ROUTE_MAX_ETA_MINUTES * 60_000L;
+
+        SearchState s = state.get();
+        s.reset();
+        s.relax(destination, 0, heuristic(destination, targetX, targetY, settled, scale, millisPerDegree));
+        while (s.heapSize > 0) {
+            int node = (int) s.pop();
+            if (!s.close(node))
+                continue; // Older entry of a node already settled at a shorter time
+            int dist = s.distance(node);
+            if (dist > limit)
+                break;
+            boolean reached = false;
+            for (int i = 0; i < k; i++) {
+                if (!settled[i] && origins[i] == node) {
+                    settled[i] = true;
+                    result[i] = dist;
+                    remaining--;
+                    reached = true;
+                }
+            }
+            if (remaining == 0)
+                break;
+            if (reached) {
+                for (int i = 0; i < s.heapSize; i++) { // Lower bounds now aim at the remaining origins
+                    int queued = (int) s.heap[i];
+                    s.heap[i] = ((long) (s.distance(queued)
+                        + heuristic(queued, targetX, targetY, settled, scale, millisPerDegree)) << 32) | queued;
+                }
+                s.heapify();
+            }
+            for (int e = firstIn.get(node), end = firstIn.get(node + 1); e < end; e++) {
+                int next = sources.get(e);
+                int candidate = dist + times.get(e);
+                if (candidate < s.distance(next) && !s.isClosed(next)) {
+                    s.relax(next, candidate, candidate + heuristic(next, targetX, targetY, settled, scale, millisPerDegree));
+                }
+            }
+        }
+        return result;
+    }
+
+    // Lower bound on the remaining time from a node to the nearest unsettled origin, in milliseconds
+    private int heuristic(int node, double[] targetX, double[] targetY, boolean[] settled, double scale,
+                          double millisPerDegree) {
+        double x = lons.get(node);
+        double y = lats.get(node);
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < targetX.length; i++) {
+            if (!settled[i]) {
+                best = Math.min(best, GeoDistance.squaredDegrees(x, y, targetX[i], targetY[i], scale));
+            }
+        }
+        return best == Double.MAX_VALUE ? 0 : (int) (Math.sqrt(best) * millisPerDegree);
+    }
+
+    // Finds the graph node closest to a point, searching the snap grid ring by ring
+    // Returns: node index, or -1 if no node lies within Constants.ROAD_SNAP_MAX_KM
+    private int snap(double x, double y) {
+        double cellSize = Constants.ROAD_SNAP_CELL_SIZE;
+        int cx = (int) Math.floor(x / cellSize);
+        int cy = (int) Math.floor(y / cellSize);
+        double scale = GeoDistance.longitudeScale(y);
+        double maxDegrees = Constants.ROAD_SNAP_MAX_KM / GeoDistance.KM_PER_DEGREE;
+        int maxRing = (int) Math.ceil(maxDegrees / (cellSize * scale)) + 1;
+
+        int best = -1;
+        double bestDistance = maxDegrees * maxDegrees;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (best >= 0 && (ring - 1) * cellSize * scale > Math.sqrt(bestDistance))
+                break; // No node in this ring can be closer
+            for (int dx = -ring; dx <= ring; dx++) {
+                boolean edgeColumn = dx == -ring || dx == ring;
+                for (int dy = -ring; dy <= ring; dy += edgeColumn ? 1 : 2 * ring) {
+                    long cell = packCell(cx + dx, cy + dy);
+                    for (int i = firstInCell(cell); i < nodesByCell.length && (nodesByCell[i] >>> 32) == cell; i++) {
+                        int node = (int) nodesByCell[i];
+                        double d = GeoDistance.squaredDegrees(x, y, lons.get(node), lats.get(node), scale);
+                        if (d < bestDistance) {
+                            bestDistance = d;
+                            best = node;
+                        }
+                    }
+                    if (ring == 0)
+                        break;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Sorts every node by its snap grid cell so a cell's nodes form one run of the array
+    private long[] buildSnapGrid() {
+        long[] grid = new long[nodeCount];
+        double cellSize = Constants.ROAD_SNAP_CELL_SIZE;
+        for (int v = 0; v < nodeCount; v++) {
+            long cell = packCell((int) Math.floor(lons.get(v) / cellSize), (int) Math.floor(lats.get(v) / cellSize));
+            grid[v] = (cell << 32) | v;
+        }
+        Arrays.sort(grid);
+        return grid;
+    }
+
+    // Gets the index of the first snap grid entry of a cell, or where it would be
+    private int firstInCell(long cell) {
+        int lo = 0, hi = nodesByCell.length;
+        long key = cell << 32;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (nodesByCell[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    // Packs two cell indices into the non-negative 32-bit cell key used by the snap grid
+    private static long packCell(int cx, int cy) {
+        return ((long) (cx & 0xffff) << 16) | (cy & 0xffff);
+    }
+
+    // Straight-line travel time at the average responder speed
+    private static double straightLineSeconds(double x1, double y1, double x2, double y2) {
+        return GeoDistance.haversineKm(x1, y1, x2, y2) / Constants.RESPONDER_AVERAGE_SPEED_KMH * 3600.0;
+    }
+
+    // Gets a read-only view of count 4-byte values starting at a byte offset
+    private static ByteBuffer view(ByteBuffer map, int offset, int count) {
+        ByteBuffer slice = map.duplicate();
+        slice.position(offset).limit(offset + 4 * count);
+        return slice.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
+    // Writes a graph file for the router, used by the offline preprocessing step
+    // Parameters: from, to, timeMillis - directed road segments between node indices and their travel times
+    public static void write(Path file, float[] lon, float[] lat, int[] from, int[] to, int[] timeMillis) throws IOException {
+        int n = lon.length;
+        int m = from.length;
+        int[] first = new int[n + 1];
+        for (int e = 0; e < m; e++) {
+            first[to[e] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            first[v + 1] += first[v];
+        }
+        int[] source = new int[m];
+        int[] time = new int[m];
+        int[] fill = Arrays.copyOf(first, n);
+        double maxSpeed = 1.0;
+        for (int e = 0; e < m; e++) {
+            int slot = fill[to[e]]++;
+            source[slot] = from[e];
+            time[slot] = Math.max(1, timeMillis[e]);
+            double km = GeoDistance.haversineKm(lon[from[e]], lat[from[e]], lon[to[e]], lat[to[e]]);
+            maxSpeed = Math.max(maxSpeed, km / (time[slot] / 3_600_000.0));
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(n);
+            out.writeInt(m);
+            out.writeFloat((float) maxSpeed * 1.01f); // Rounded up so the stored bound stays admissible
+            for (float value : lon) out.writeFloat(value);
+            for (float value : lat) out.writeFloat(value);
+            for (int value : first) out.writeInt(value);
+            for (int value : source) out.writeInt(value);
+            for (int value : time) out.writeInt(value);
+        }
+    }
+
+    // Per-thread search arrays, reused across queries; a node's entries are only valid if its stamp is current
+    private static class SearchState {
+        final int[] dist;
+        final int[] stamp;
+        final boolean[] closed;
+        long[] heap = new long[64]; // Min-heap of packed priority << 32 | node
+        int heapSize = 0;
+        int current = 0;
+
+        SearchState(int nodes) {
+            dist = new int[nodes];
+            stamp = new int[nodes];
+            closed = new boolean[nodes];
+        }
+
+        void reset() {
+            heapSize = 0;
+            if (++current == Integer.MAX_VALUE) { // Wrapped: clear the stamps once
+                Arrays.fill(stamp, 0);
+                current = 1;
+            }
+        }
+
+        int distance(int node) {
+            return stamp[node] == current ? dist[node] : Integer.MAX_VALUE;
+        }
+
+        boolean isClosed(int node) {
+            return stamp[node] == current && closed[node];
+        }
+
+        // Marks a node settled; returns false if it already was
+        boolean close(int node) {
+            if (closed[node])
+                return false;
+            closed[node] = true;
+            return true;
+        }
+
+        void relax(int node, int distance, int priority) {
+            if (stamp[node] != current) {
+                stamp[node] = current;
+                closed[node] = false;
+            }
+            dist[node] = distance;
+            push(((long) priority << 32) | node);
+        }
+
+        void push(long entry) {
+            if (heapSize == heap.length) {
+                heap = Arrays.copyOf(heap, heapSize * 2);
+            }
+            int c = heapSize++;
+            while (c > 0 && heap[(c - 1) / 2] > entry) {
+                heap[c] = heap[(c - 1) / 2];
+                c = (c - 1) / 2;
+            }
+            heap[c] = entry;
+        }
+
+        long pop() {
+            long top = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(0);
+            return top;
+        }
+
+        // Restores heap order after the priorities were changed in place
+        void heapify() {
+            for (int i = heapSize / 2 - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+
+        void siftDown(int c) {
+            long entry = heap[c];
+            while (true) {
+                int child = 2 * c + 1;
+                if (child >= heapSize)
+                    break;
+                if (child + 1 < heapSize && heap[child + 1] < heap[child])
+                    child++;
+                if (heap[child] >= entry)
+                    break;
+                heap[c] = heap[child];
+                c = child;
+            }
+            heap[c] = entry;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.model.Alert;
+import java.util.Queue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Dispatch state of one zone
+// Each zone has its own alert queue, wake-up signal and AlertLoopThread worker, so zones dispatch in parallel and
+// never contend with each other; the Dispatcher routes every alert and availability event to its zone's shard
+public class ZoneShard {
+    private final String zone; // Lower-case zone key
+    private final Queue<Alert> queue = new PriorityBlockingQueue<>(16, AlertPriority.ORDER); // Pending alerts of this zone, most urgent first
+    private final Semaphore signal = new Semaphore(0); // Released when a responder in this zone becomes available
+    private AlertLoopThread worker; // Background worker, null until started
+
+    // Constructor creates an empty shard for the given zone key
+    public ZoneShard(String zone) {
+        this.zone = zone;
+    }
+
+    // Gets the lower-case zone key of this shard
+    public String getZone() {
+        return zone;
+    }
+
+    // Gets the alert queue of this shard
+    public Queue<Alert> getQueue() {
+        return queue;
+    }
+
+    // Wakes the worker; repeated signals before it runs collapse into one pass
+    public void signal() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+
+    // Waits for a signal or the timeout
+    // Returns: true if signalled, false if the timeout passed first
+    public boolean awaitSignal(long timeoutMillis) throws InterruptedException {
+        boolean signalled = signal.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        signal.drainPermits(); // Signals that arrived meanwhile are covered by this pass
+        return signalled;
+    }
+
+    // Starts the background worker for this shard if it is not running yet
+    synchronized void startWorker(Dispatcher dispatcher) {
+        if (worker == null) {
+            worker = new AlertLoopThread(dispatcher, this);
+            worker.setName("dispatch-" + zone);
+            worker.setDaemon(true); // Dispatcher.shutdown stops it explicitly
+            worker.start();
+        }
+    }
+
+    // Stops the background worker and waits briefly for it to finish its current pass
+    synchronized void stopWorker() {
+        if (worker != null) {
+            worker.stopThread();
+            try {
+                worker.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+    }
+}
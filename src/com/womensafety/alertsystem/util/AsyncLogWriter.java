@@ -0,0 +1,434 @@
+package com.womensafety.alertsystem.util;
+
+import com.womensafety.alertsystem.util.SystemLogger.LogLevel;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Asynchronous writer for an append-only log file
+// Producers claim a slot in a preallocated ring with one compare-and-set, fill it in and publish it; they never format,
+// lock or touch the file. A single consumer thread drains published slots in order, formats them, echoes them to the
+// console if asked and writes them to one FileChannel that stays open for the writer's lifetime, in batches bounded by
+// size and age. When the ring is full a producer either waits for space or drops the record, depending on the full
+// policy; warnings and errors always wait
+// An idle consumer parks until a producer publishes, a flush or close is requested, or pending text or an interval
+// fsync falls due; producers only pay for an unpark when it is actually parked
+// Records are written as text lines or as JSON lines carrying the caller's LogContext fields, into a RollingLogFile
+// that starts a new, later compressed, segment by size and by time
+public class AsyncLogWriter {
+    // When written log data is forced to disk
+    public enum FsyncPolicy {
+        NEVER, // Left to the operating system
+        INTERVAL, // At most once per fsync interval, and on close
+        EVERY_FLUSH // After every batch written to the file
+    }
+
+    // Layout of the records written to the file; the console echo is always text
+    public enum RecordFormat {
+        TEXT, // [timestamp] LEVEL: message
+        JSON // One object per line with timestamp, level, alertId, userId, responderId, zone and message fields
+    }
+
+    // What a producer does when the ring is full
+    public enum FullPolicy {
+        DROP, // INFO and SUCCESS records are counted and discarded
+        BLOCK // The producer waits until the consumer frees a slot
+    }
+
+    private static final long WAIT_NANOS = 100_000; // Park time of a producer waiting for space or a flush
+
+    private final Path path;
+    private final boolean consoleEcho;
+    private final RecordFormat recordFormat;
+    private final FullPolicy fullPolicy;
+    private final FsyncPolicy fsyncPolicy;
+    private final int flushIntervalMillis;
+    private final int flushChars;
+    private final int fsyncIntervalMillis;
+
+    private final Slot[] slots; // Preallocated ring; slot of a sequence is sequence & mask
+    private final int mask;
+    private final AtomicLongArray published; // Sequence last published in each slot
+    private final AtomicLong claimed = new AtomicLong(); // Next sequence handed to a producer
+    private volatile long consumed = 0; // Next sequence the consumer reads; every slot before it is free
+    private volatile long written = 0; // Every sequence before this has been written to the file
+    private volatile boolean flushRequested = false;
+    private volatile boolean closed = false;
+    private volatile boolean sleeping = false; // Consumer is parked, or about to, and must be unparked on publish
+    private final Thread consumer;
+
+    // Consumer state, only touched by the consumer thread (or by close() once it has stopped)
+    private RollingLogFile file; // Null if the log file could not be opened
+    private final StringBuilder pending = new StringBuilder(); // Formatted lines not written yet
+    private final StringBuilder echo = new StringBuilder(); // Console lines of the current drain
+    private long pendingSince = 0; // Time the oldest pending line was formatted
+    private long lastSync = System.currentTimeMillis();
+    private boolean unsynced = false;
+    private final LogFormat timestamps = new LogFormat(); // Formats record timestamps without allocating
+    private long reportedDrops = 0;
+
+    // Writer metrics
+    private final AtomicLong droppedCount = new AtomicLong();
+    private long batchCount = 0;
+    private long fsyncCount = 0;
+
+    // Constructor opens the log file for appending and starts the consumer thread
+    // Parameters: consoleEcho - whether records are also printed to the console
+    //             capacity - ring slots, rounded up to a power of two
+    //             rollMaxBytes, rollIntervalMinutes, rollMaxSegments - segment limits, see RollingLogFile
+    public AsyncLogWriter(String fileName, boolean consoleEcho, RecordFormat recordFormat, int capacity, FullPolicy fullPolicy,
+                          int flushIntervalMillis, int flushChars, FsyncPolicy fsyncPolicy, int fsyncIntervalMillis,
+                          long rollMaxBytes, int rollIntervalMinutes, int rollMaxSegments) {
+        this.path = Paths.get(fileName);
+        this.consoleEcho = consoleEcho;
+        this.recordFormat = recordFormat;
+        this.fullPolicy = fullPolicy;
+        this.fsyncPolicy = fsyncPolicy;
+        this.flushIntervalMillis = Math.max(0, flushIntervalMillis);
+        this.flushChars = Math.max(1, flushChars);
+        this.fsyncIntervalMillis = Math.max(0, fsyncIntervalMillis);
+
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.slots = new Slot[size];
+        for (int i = 0; i < size; i++) {
+            slots[i] = new Slot();
+        }
+        this.mask = size - 1;
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            published.set(i, -1); // No sequence published yet
+        }
+
+        try {
+            file = new RollingLogFile(path, rollMaxBytes, rollIntervalMinutes, rollMaxSegments);
+        } catch (IOException e) {
+            System.err.println("Failed to open log file " + fileName + ": " + e.getMessage());
+        }
+
+        this.consumer = new Thread(this::run, "log-writer");
+        this.consumer.setDaemon(true); // Drained by close(), from shutdown or the shutdown hook
+        this.consumer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::close, "log-writer-close"));
+    }
+
+    // Constructor creates a writer configured from Constants
+    public AsyncLogWriter(String fileName, boolean consoleEcho) {
+        this(fileName, consoleEcho, Constants.LOG_RECORD_FORMAT, Constants.LOG_RING_CAPACITY, Constants.LOG_FULL_POLICY,
+            Constants.LOG_FLUSH_INTERVAL, Constants.LOG_FLUSH_CHARS, Constants.LOG_FSYNC_POLICY, Constants.LOG_FSYNC_INTERVAL,
+            Constants.LOG_ROLL_MAX_BYTES, Constants.LOG_ROLL_INTERVAL_MINUTES, Constants.LOG_ROLL_MAX_SEGMENTS);
+    }
+
+    // Queues a record carrying the LogContext fields of the calling thread
+    public void append(LogLevel level, String message) {
+        LogContext context = LogContext.current();
+        append(level, message, context.alertId, context.userId, context.responderId, context.zone);
+    }
+
+    // Queues a record with explicit structured fields; zero IDs and a null zone mean unknown
+    // Cost on the caller is one compare-and-set and a few field writes; nothing is formatted here
+    public void append(LogLevel level, String message, int alertId, int userId, int responderId, String zone) {
+        long millis = System.currentTimeMillis();
+        long sequence;
+        while (true) {
+            if (closed) { // Checked before claiming so late records after close() skip the ring
+                appendDirectly(level, millis, message);
+                return;
+            }
+            sequence = claimed.get();
+            if (sequence - consumed >= slots.length) { // Ring is full
+                if (fullPolicy == FullPolicy.DROP && (level == LogLevel.INFO || level == LogLevel.SUCCESS)) {
+                    droppedCount.incrementAndGet();
+                    return;
+                }
+                LockSupport.parkNanos(WAIT_NANOS);
+                continue;
+            }
+            if (claimed.compareAndSet(sequence, sequence + 1))
+                break;
+        }
+        int index = (int) (sequence & mask);
+        Slot slot = slots[index];
+        if (closed) {
+            // close() may already have finished its final drain without seeing this claim; the slot is published
+            // empty so a drain still in progress skips it, and the record is written here instead
+            slot.level = null;
+            published.set(index, sequence);
+            appendDirectly(level, millis, message);
+            return;
+        }
+        slot.level = level;
+        slot.millis = millis;
+        slot.message = message;
+        slot.alertId = alertId;
+        slot.userId = userId;
+        slot.responderId = responderId;
+        slot.zone = zone;
+        published.set(index, sequence); // Volatile, so the sleeping check below cannot be reordered before it
+        if (sleeping) {
+            LockSupport.unpark(consumer);
+        }
+    }
+
+    // Waits until every record appended so far has been echoed and written to the file
+    // Gives up after a second so a stuck disk cannot hang the caller
+    public void flush() {
+        long target = claimed.get();
+        if (closed || written >= target)
+            return;
+        flushRequested = true;
+        LockSupport.unpark(consumer);
+        long deadline = System.nanoTime() + 1_000_000_000L;
+        while (written < target && consumer.isAlive() && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+    }
+
+    // Stops the consumer after it has drained the ring, then syncs and closes the file
+    // Every sequence claimed before the close flag was seen is drained; records appended after this are written
+    // synchronously
+    public synchronized void close() {
+        if (closed)
+            return;
+        closed = true;
+        LockSupport.unpark(consumer);
+        try {
+            consumer.join(5000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!consumer.isAlive()) {
+            long deadline = System.nanoTime() + 1_000_000_000L;
+            drain(); // Records published between the consumer's last drain and the close flag
+            while (consumed < claimed.get() && System.nanoTime() < deadline) {
+                LockSupport.parkNanos(WAIT_NANOS); // A producer claimed a slot before seeing the flag and is filling it
+                drain();
+            }
+            writePending();
+            if (file != null) {
+                try {
+                    file.close(fsyncPolicy != FsyncPolicy.NEVER);
+                } catch (IOException e) {
+                    System.err.println("Failed to close log file " + path + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    // Consumer loop: drains published records, writes batches when they are due and syncs per the fsync policy
+    private void run() {
+        while (true) {
+            boolean closing = closed;
+            int drained = drain();
+            long now = System.currentTimeMillis();
+            if (pending.length() > 0 && (closing || flushRequested || pending.length() >= flushChars
+                    || now - pendingSince >= flushIntervalMillis)) {
+                writePending();
+            } else if (pending.length() == 0) {
+                written = consumed;
+            }
+            if (flushRequested && written >= claimed.get()) {
+                flushRequested = false;
+            }
+            if (unsynced && fsyncPolicy == FsyncPolicy.INTERVAL && now - lastSync >= fsyncIntervalMillis) {
+                sync(now);
+            }
+            if (closing && consumed == claimed.get())
+                return; // close() syncs and closes the file
+            if (drained == 0) {
+                idle(now);
+            }
+        }
+    }
+
+    // Parks the consumer until a producer publishes the next record, a flush or close is requested, or the pending
+    // batch or an interval fsync falls due
+    private void idle(long now) {
+        long dueMillis = Long.MAX_VALUE;
+        if (pending.length() > 0) {
+            dueMillis = pendingSince + flushIntervalMillis;
+        }
+        if (unsynced && fsyncPolicy == FsyncPolicy.INTERVAL) {
+            dueMillis = Math.min(dueMillis, lastSync + fsyncIntervalMillis);
+        }
+        sleeping = true; // Published before the re-check below, so a producer publishing meanwhile unparks us
+        if (published.get((int) (consumed & mask)) != consumed && !closed && !flushRequested) {
+            if (dueMillis == Long.MAX_VALUE) {
+                LockSupport.park(this);
+            } else if (dueMillis > now) {
+                LockSupport.parkNanos(this, (dueMillis - now) * 1_000_000L);
+            }
+        }
+        sleeping = false;
+    }
+
+    // Formats published records in sequence order, freeing each slot as soon as it has been read
+    // Stops at the first slot whose producer has claimed but not yet published it, or once a full batch is pending,
+    // so a batch, and the overshoot of a log segment past its size limit, stays near the flush size
+    // Returns: number of records drained
+    private int drain() {
+        long next = consumed;
+        int count = 0;
+        while (count < slots.length && pending.length() < flushChars) {
+            int index = (int) (next & mask);
+            if (published.get(index) != next)
+                break;
+            Slot slot = slots[index];
+            LogLevel level = slot.level;
+            long millis = slot.millis;
+            String message = slot.message;
+            int alertId = slot.alertId, userId = slot.userId, responderId = slot.responderId;
+            String zone = slot.zone;
+            slot.message = null; // Do not keep the message reachable until the slot is reused
+            slot.zone = null;
+            consumed = ++next;
+            if (level == null)
+                continue; // Claimed after close(); its producer wrote the record directly
+            format(level, millis, message, alertId, userId, responderId, zone);
+            count++;
+        }
+        long dropped = droppedCount.get();
+        if (dropped > reportedDrops) {
+            format(LogLevel.WARNING, System.currentTimeMillis(),
+                (dropped - reportedDrops) + " log record(s) dropped because the log buffer was full", 0, 0, 0, null);
+            reportedDrops = dropped;
+        }
+        if (echo.length() > 0) {
+            System.out.print(echo); // One console write per drain
+            echo.setLength(0);
+        }
+        return count;
+    }
+
+    // Appends one record to the pending file text and, if enabled, to the console echo
+    private void format(LogLevel level, long millis, String message, int alertId, int userId, int responderId, String zone) {
+        if (pending.length() == 0) {
+            pendingSince = System.currentTimeMillis();
+        }
+        if (recordFormat == RecordFormat.JSON) {
+            pending.append("{\"ts\":\"");
+            timestamps.appendIsoTimestamp(pending, millis);
+            pending.append("\",\"level\":\"").append(level).append('"');
+            appendIdField("alertId", alertId);
+            appendIdField("userId", userId);
+            appendIdField("responderId", responderId);
+            pending.append(",\"zone\":");
+            LogFormat.appendJsonString(pending, zone);
+            pending.append(",\"msg\":");
+            LogFormat.appendJsonString(pending, message);
+            pending.append('}').append(System.lineSeparator());
+        }
+        if (recordFormat == RecordFormat.TEXT || consoleEcho) {
+            int start = pending.length();
+            pending.append('[');
+            timestamps.appendTimestamp(pending, millis);
+            pending.append("] ").append(level).append(": ").append(message);
+            if (consoleEcho) {
+                echo.append(consoleColor(level)).append(pending, start, pending.length()).append("\u001b[0m").append(System.lineSeparator());
+            }
+            if (recordFormat == RecordFormat.TEXT) {
+                pending.append(System.lineSeparator());
+            } else {
+                pending.setLength(start); // Text was only built for the console
+            }
+        }
+    }
+
+    // Appends one ID field of a JSON record, null when unknown
+    private void appendIdField(String name, int id) {
+        pending.append(",\"").append(name).append("\":");
+        if (id > 0) {
+            pending.append(id);
+        } else {
+            pending.append("null");
+        }
+    }
+
+    // Writes all pending text to the file in one batch
+    private void writePending() {
+        long upTo = consumed;
+        if (pending.length() > 0 && file != null) {
+            try {
+                ByteBuffer bytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(pending));
+                file.write(bytes, System.currentTimeMillis()); // May start a new segment first
+                batchCount++;
+                unsynced = true;
+                if (fsyncPolicy == FsyncPolicy.EVERY_FLUSH) {
+                    sync(System.currentTimeMillis());
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to write to log file: " + e.getMessage());
+            }
+        }
+        pending.setLength(0);
+        written = upTo;
+    }
+
+    // Forces written data to disk
+    private void sync(long now) {
+        lastSync = now;
+        unsynced = false;
+        if (file == null)
+            return;
+        try {
+            file.force();
+            fsyncCount++;
+        } catch (IOException e) {
+            System.err.println("Failed to sync log file: " + e.getMessage());
+        }
+    }
+
+    // Writes one record on the caller's thread as a text line, used once the writer is closed
+    private synchronized void appendDirectly(LogLevel level, long millis, String message) {
+        StringBuilder line = new StringBuilder("[");
+        new LogFormat().appendTimestamp(line, millis);
+        String entry = line.append("] ").append(level).append(": ").append(message).toString();
+        if (consoleEcho) {
+            System.out.println(consoleColor(level) + entry + "\u001b[0m");
+        }
+        try {
+            Files.writeString(path, entry + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Failed to write to log file: " + e.getMessage());
+        }
+    }
+
+    // Gets the ANSI color and tag printed before a record on the console
+    private static String consoleColor(LogLevel level) {
+        return switch (level) {
+            case INFO -> "\u001B[37m" + "[INFO] ";
+            case SUCCESS -> "\u001B[32m" + "[SUCCESS] ";
+            case WARNING -> "\u001B[33m" + "[WARNING] ";
+            case ERROR -> "\u001B[31m" + "[ERROR] ";
+        };
+    }
+
+    // Gets the number of records dropped because the ring was full
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    // Returns a one-line summary of writer metrics
+    public String getStatistics() {
+        long logged = claimed.get();
+        return String.format("LogWriter[file=%s, logged=%d, dropped=%d, unwritten=%d, batches=%d, fsyncs=%d, rolls=%d]",
+                path, logged, droppedCount.get(), Math.max(0, logged - written), batchCount, fsyncCount,
+                file == null ? 0 : file.getRollCount());
+    }
+
+    // One preallocated ring entry
+    private static class Slot {
+        LogLevel level;
+        long millis;
+        String message;
+        int alertId;
+        int userId;
+        int responderId;
+        String zone;
+    }
+}
@@ -5,7 +5,7 @@ public class Constants {
     // Validation pattern constants
     public static final String EMAIL_PATTERN = "^[A-Za-z0-9+_.-]+@gmail\\.com$"; // Regex pattern for Gmail validation
     public static final String PHONE_PATTERN = "^(7|8|9)\\d{9}$"; // Regex pattern for Indian phone numbers (10 digits starting with 7,8,9)
-    public static final String ZONE_PATTERN = "(?i)^(North|South|East|West)$"; // Regex pattern for zone validation (case insensitive)
+    public static final String[] ZONES = {"North", "South", "East", "West"}; // Built-in zones, used when no zone file is present
 
     // Alert status constants
     public static final String STATUS_ACTIVE = "Active";
@@ -13,12 +13,113 @@ public class Constants {
     public static final String STATUS_WAITING = "WAITING";
     public static final String STATUS_RESOLVED = "Resolved";
 
+    // Alert severity constants
+    public static final int SEVERITY_LOW = 0;
+    public static final int SEVERITY_NORMAL = 1;
+    public static final int SEVERITY_HIGH = 2;
+    public static final int SEVERITY_CRITICAL = 3;
+
+    // Dispatch priority constants; every alert also gains one millisecond of priority per millisecond it waits
+    public static final long PRIORITY_SEVERITY_WEIGHT = 120000; // Each severity level is worth 2 minutes of waiting
+    public static final long PRIORITY_RETRY_WEIGHT = 30000; // Each failed dispatch attempt is worth 30 seconds of waiting
+    public static final int PRIORITY_MAX_RETRY_BOOST = 10; // Failed attempts counted at most, so retries cannot outrank severity forever
+
     // Timing and configuration constants
     public static final int RESPONDER_STATUS_CHECKER_INTERVAL = 60000; // 60 seconds interval for responder status checking
-    public static final int PENDING_ALERT_CHECKER_INTERVAL= 45000; // 45 seconds interval for pending alert checking
+    public static final int PENDING_ALERT_CHECKER_INTERVAL= 300000; // 5 minutes between safety-net passes; availability events dispatch waiting alerts immediately
     public static boolean ENABLE_BACKGROUND_LOGGING = false; // Flag to enable/disable background logging
 
+    // Database connection constants
+    public static final String DB_URL = "jdbc:mysql://localhost:3306/WomenSafetyDB?rewriteBatchedStatements=true"; // Batched inserts are sent as multi-row inserts
+    public static final String DB_USER = "root";
+    public static final String DB_PASSWORD = "";
+
+    // Connection pool configuration constants
+    public static final int DB_POOL_MAX_SIZE = 10; // Maximum number of open connections
+    public static final int DB_POOL_MIN_IDLE = 2; // Connections kept warm even when the system is quiet
+    public static final int DB_POOL_BORROW_TIMEOUT = 5000; // 5 seconds max wait for a free connection
+    public static final int DB_POOL_VALIDATION_TIMEOUT = 2; // 2 seconds timeout for Connection.isValid on borrow
+    public static final int DB_POOL_VALIDATION_BYPASS = 500; // Skip validation for connections returned within 500 ms
+    public static final int DB_POOL_IDLE_TIMEOUT = 300000; // 5 minutes before an idle connection is evicted
+    public static final int DB_POOL_LEAK_DETECTION_THRESHOLD = 30000; // 30 seconds before a borrowed connection is reported as leaked; 0 turns leak reports off
+    public static final int DB_POOL_BORROW_SITE_SAMPLE = 16; // One borrow in this many records its caller for leak reports; 1 records every borrow
+    public static final int DB_POOL_ABANDONED_TIMEOUT = 300000; // 5 minutes before a leaked connection is reclaimed
+    public static final int DB_POOL_HOUSEKEEPING_INTERVAL = 30000; // 30 seconds between eviction and leak checks
+
+    // Zone registry configuration constants
+    public static final String ZONE_FILE = "db/zones.wkt"; // Zone polygons, one "Name;WKT" per line, relative to the working directory
+    public static final double DEFAULT_ZONE_HALF_SIZE = 2.0; // Half side in degrees of the built-in zone boxes
+
+    // Spatial index configuration constants
+    public static final double SPATIAL_GRID_CELL_SIZE = 0.05; // Grid cell side in degrees, about 5.5 km
+    public static final int SPATIAL_GRID_LINEAR_SCAN_MAX = 64; // Zones with at most this many available responders are scanned directly
+
+    // Location ingestion configuration constants
+    public static final int LOCATION_APPLY_INTERVAL = 50; // 50 ms between batches of position updates applied to the spatial index
+    public static final int LOCATION_APPLY_LOCK_BATCH = 256; // Responders moved per zone lock acquisition
+    public static final int LOCATION_PERSIST_INTERVAL = 10000; // 10 seconds between saves of the latest positions
+    public static final int LOCATION_PERSIST_BATCH = 500; // Responders saved per UPDATE statement
+    public static final String LOCATION_GATEWAY_HOST = "127.0.0.1"; // Address the device gateway listener binds to; loopback keeps it off public networks
+    public static final int LOCATION_GATEWAY_PORT = 9740; // UDP port receiving position datagrams from the device gateway
+    public static final int LOCATION_GATEWAY_MAX_DATAGRAM = 1400; // Largest position datagram accepted, in bytes (70 positions)
+
+    // Responder selection configuration constants
+    public static final int DISPATCH_CANDIDATES = 5; // Nearest available responders ranked by ETA and tried in order before falling back to any free one
+
+    // Road routing configuration constants
+    public static final String ROAD_GRAPH_FILE = "db/roads.graph"; // Preprocessed road graph; straight-line ETAs are used without it
+    public static final double ROAD_SNAP_CELL_SIZE = 0.01; // Snap grid cell side in degrees, about 1.1 km
+    public static final double ROAD_SNAP_MAX_KM = 2.0; // Points farther than this from every road node are routed in a straight line
+    public static final int ROUTE_MAX_ETA_MINUTES = 60; // Road searches stop beyond this travel time
+
+    // Cross-zone fallback configuration constants
+    public static final boolean CROSS_ZONE_FALLBACK_ENABLED = true; // Look across zone borders when the home zone has no free responder
+    public static final double CROSS_ZONE_INITIAL_RADIUS_KM = 1.0; // First search radius; doubled each round
+    public static final double CROSS_ZONE_MAX_DISTANCE_KM = 15.0; // Farthest responder considered across zones
+    public static final int CROSS_ZONE_MAX_ETA_MINUTES = 20; // Farthest travel time considered across zones
+    public static final double RESPONDER_AVERAGE_SPEED_KMH = 30.0; // Assumed travel speed for ETA limits
+
+    // Batch assignment configuration constants
+    public static final boolean BATCH_ASSIGNMENT_ENABLED = true; // Match pending alerts to responders by minimum total distance instead of one at a time
+    public static final int BATCH_ASSIGNMENT_CANDIDATES = 8; // Nearest responders each alert may be matched to
+
+    // Group commit writer configuration constants
+    public static final int GROUP_COMMIT_MAX_DELAY = 2; // 2 ms max wait for more rows before a batch is flushed
+    public static final int GROUP_COMMIT_MAX_ROWS = 256; // Flush immediately once this many rows are queued
+    public static final int GROUP_COMMIT_QUEUE_CAPACITY = 8192; // Pending transactions before submitters are blocked
+
+    // Logging configuration constants
+    public static final SystemLogger.LogLevel LOG_LEVEL = SystemLogger.LogLevel.INFO; // Default threshold; records below it are discarded before they are formatted
+    public static final String LOG_PACKAGE_LEVELS = ""; // Per-package thresholds as "package=LEVEL,...", e.g. "com.womensafety.alertsystem.service=WARNING"
+    public static final int LOG_RING_CAPACITY = 8192; // Log records buffered between callers and the log writer thread, rounded up to a power of two
+    public static final AsyncLogWriter.FullPolicy LOG_FULL_POLICY = AsyncLogWriter.FullPolicy.DROP; // INFO and SUCCESS records are dropped while the buffer is full; warnings and errors always wait
+    public static final int LOG_FLUSH_INTERVAL = 200; // Maximum milliseconds a formatted record waits before it is written to the log file
+    public static final int LOG_FLUSH_CHARS = 64 * 1024; // Pending characters that trigger a write before the flush interval ends
+    public static final AsyncLogWriter.FsyncPolicy LOG_FSYNC_POLICY = AsyncLogWriter.FsyncPolicy.INTERVAL; // When written log data is forced to disk
+    public static final int LOG_FSYNC_INTERVAL = 1000; // Minimum milliseconds between two forced syncs under the INTERVAL policy
+    public static final AsyncLogWriter.RecordFormat LOG_RECORD_FORMAT = AsyncLogWriter.RecordFormat.TEXT; // TEXT lines, or JSON lines with timestamp, level, alertId, userId, responderId and zone fields
+    public static final long LOG_ROLL_MAX_BYTES = 50L * 1024 * 1024; // Log file size that starts a new segment; 0 disables size-based rolling
+    public static final int LOG_ROLL_INTERVAL_MINUTES = 1440; // Length of a time-based segment, aligned to local midnight; 0 disables time-based rolling
+    public static final int LOG_ROLL_MAX_SEGMENTS = 30; // Gzip-compressed segments kept per log file; older ones are deleted
+
+    // Escalation journal configuration constants
+    public static final String ESCALATION_JOURNAL_DIR = "escalations"; // Directory of the memory-mapped escalation journal segments
+    public static final int ESCALATION_SEGMENT_RECORDS = 65536; // Escalations per journal segment file, 8 MB of 128-byte records
+    public static final int ESCALATION_INDEX_BLOCK = 256; // Escalations per sparse index entry; queries read at most two partial blocks per range
+
+    // Warm start configuration constants
+    public static final int WARM_START_PARTITIONS = 4; // ID ranges read in parallel at startup, each on its own pooled connection
+    public static final int WARM_START_CHUNK_SIZE = 1000; // Responders handed to the zone index per lock acquisition
+
+    // Entity cache configuration constants
+    public static final int USER_CACHE_CAPACITY = 10000; // Users held in memory; evicted ones that are still in use stay shared
+    public static final int RESPONDER_CACHE_CAPACITY = 5000; // Responders held in memory by the entity cache
+
+    // ID allocator configuration constants
+    public static final int ID_BLOCK_SIZE = 50; // IDs reserved per database trip; unused ones are skipped on restart
+
     // Geographic boundary constants for India
+    public static final double EARTH_RADIUS_KM = 6371.0; // Mean Earth radius used by GeoDistance
     public static final double INDIA_MIN_LAT = 8.4;
     public static final double INDIA_MAX_LAT = 37.6;
     public static final double INDIA_MIN_LNG = 68.7;
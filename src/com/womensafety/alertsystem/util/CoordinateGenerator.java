@@ -30,44 +30,15 @@ public class CoordinateGenerator{
         };
     }
 
-    // Generates coordinates based on a specified zone within India
-    // Parameters: zone - the zone name (North, South, East, West)
-    // Returns: double array containing [latitude, longitude] within the specified zone
+    // Generates coordinates inside a zone's polygon from the ZoneRegistry
+    // Parameters: zone - the zone name, ignoring case
+    // Returns: double array containing [latitude, longitude] within the specified zone, or anywhere in India for an unknown zone
     public static double[] generateZoneBasedCoordinates(String zone){
-        double baseLat,baseLng;
-        double offset =2.0; // Offset for random variation around the base coordinates
-
-        // Set base coordinates based on the specified zone
-        switch (zone.toLowerCase()) {
-            case "north": // Northern zone
-                baseLat = 28.0;
-                baseLng = 77.0;
-                break;
-            case "south": // Southern zone
-                baseLat = 12.0;
-                baseLng = 78.0;
-                break;
-            case "east": // Eastern zone
-                baseLat = 22.0;
-                baseLng = 88.0;
-                break;
-            case "west": // Western zone
-                baseLat = 19.0;
-                baseLng = 73.0;
-                break;
-            default: // Invalid zone - fall back to random coordinates
-                return generateRandomCoordinates();
+        double[] coords = ZoneRegistry.getInstance().randomPointIn(zone);
+        if (coords == null) {
+            return generateRandomCoordinates(); // Invalid zone - fall back to random coordinates
         }
-
-        // Generate random coordinates within the specified zone with variation
-        double lat = baseLat + (random.nextDouble() - 0.5) * 2 * offset;
-        double lng = baseLng + (random.nextDouble() - 0.5) * 2 * offset;
-
-        // Ensure coordinates stay within India's boundaries
-        lat = Math.max(INDIA_MIN_LAT, Math.min(INDIA_MAX_LAT, lat));
-        lng = Math.max(INDIA_MIN_LNG, Math.min(INDIA_MAX_LNG, lng));
-
-        return new double[] {lat, lng};
+        return coords;
     }
 
     // Main method for testing coordinate generation functionality
@@ -0,0 +1,583 @@
+package com.womensafety.alertsystem.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Append-only journal of escalation events in fixed-width binary records, queryable without scanning it
+// The journal is a directory of segment files, each memory-mapped whole: a header, a sparse index with one entry per
+// block of records, then the records themselves. Records are appended in time order, so the position of a moment is
+// found by binary search over the index entries of a segment and then over the records of one block
+// Each index entry also holds the block's alert ID range and a counter per zone, so a zone count over a time range
+// only reads the records of the blocks at its two edges, and an alert lookup only reads blocks whose ID range holds it
+// Zone names are stored as small IDs; the dictionary is the zones.txt file of the journal directory, one name per line
+// with the line number as the ID
+// A segment cut short by a crash is grown back to its full size and keeps the records it still holds; a file without
+// a valid header is renamed to .bad and skipped, so one damaged file never disables the journal
+// Appends are serialized; queries run concurrently with them and see every record appended before they started
+public class EscalationJournal {
+    private static EscalationJournal instance;
+
+    // Segment file layout
+    private static final int MAGIC = 0x454A4E31; // "EJN1"
+    private static final int HEADER_SIZE = 64; // Magic, record capacity, block size, record count
+    private static final int HEADER_CAPACITY = 4, HEADER_BLOCK = 8, HEADER_COUNT = 12;
+    private static final int ZONE_COUNTERS = 26; // Counter slots per index entry; the last one is shared by later zones
+    private static final int OVERFLOW_SLOT = ZONE_COUNTERS - 1;
+    private static final int INDEX_ENTRY_SIZE = 24 + 4 * ZONE_COUNTERS; // First time, last time, alert ID range, counters
+    private static final int ENTRY_FIRST_TIME = 0, ENTRY_LAST_TIME = 8, ENTRY_MIN_ALERT = 16, ENTRY_MAX_ALERT = 20, ENTRY_COUNTERS = 24;
+
+    // Record layout, 128 bytes
+    private static final int RECORD_SIZE = 128;
+    private static final int RECORD_TIME = 0, RECORD_ALERT = 8, RECORD_USER = 12, RECORD_RESPONDER = 16, RECORD_ZONE = 20;
+    private static final int RECORD_NAME = 22, NAME_BYTES = 32; // Length byte, then the UTF-8 user name
+    private static final int RECORD_REASON = 55, REASON_BYTES = 72; // Length byte, then the UTF-8 reason
+
+    private static final String UNKNOWN_ZONE = "Unknown"; // Dictionary name of events without a zone
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)\\.ejr");
+
+    private final Path directory;
+    private final int segmentRecords; // Capacity of new segments
+    private final int blockRecords; // Records per index entry of new segments
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final List<String> zoneNames = new CopyOnWriteArrayList<>(); // Zone ID to name
+    private final Map<String, Integer> zoneIds = new HashMap<>(); // Lower-case name to zone ID, guarded by the journal
+    private final List<AtomicLong> zoneTotals = new CopyOnWriteArrayList<>(); // Zone ID to its number of records
+    private volatile long size = 0; // Records visible to queries
+    private long lastTimestamp = Long.MIN_VALUE;
+    private int lastSegmentNumber = 0; // Highest segment file number in the directory, including skipped files
+    private boolean available = true; // False if the journal could not be opened
+    private boolean closed = false;
+
+    // Gets the shared journal, opening it on first use
+    public static synchronized EscalationJournal getInstance() {
+        if (instance == null) {
+            instance = new EscalationJournal(Paths.get(Constants.ESCALATION_JOURNAL_DIR),
+                Constants.ESCALATION_SEGMENT_RECORDS, Constants.ESCALATION_INDEX_BLOCK);
+        }
+        return instance;
+    }
+
+    // Constructor opens the journal in a directory, creating it if needed
+    // Parameters: segmentRecords - record capacity of new segment files
+    //             blockRecords - records per sparse index entry of new segment files
+    public EscalationJournal(Path directory, int segmentRecords, int blockRecords) {
+        this.directory = directory;
+        this.blockRecords = Math.max(1, blockRecords);
+        this.segmentRecords = Math.max(this.blockRecords, segmentRecords / this.blockRecords * this.blockRecords);
+        try {
+            open();
+        } catch (IOException | RuntimeException e) {
+            available = false;
+            SystemLogger.error("Escalation journal unavailable: " + e.getMessage());
+        }
+    }
+
+    // Appends one escalation event
+    // A timestamp earlier than the previous record's is raised to it, so records stay in time order
+    public synchronized void append(long timestamp, int alertId, int userId, int responderId, String zone,
+                                    String userName, String reason) {
+        if (!available || closed)
+            return;
+        try {
+            Segment segment = writableSegment();
+            int zoneId = zoneId(zone);
+            timestamp = Math.max(timestamp, lastTimestamp);
+            int index = segment.count;
+            ByteBuffer buffer = segment.buffer;
+            int at = segment.recordOffset(index);
+            buffer.putLong(at + RECORD_TIME, timestamp);
+            buffer.putInt(at + RECORD_ALERT, alertId);
+            buffer.putInt(at + RECORD_USER, userId);
+            buffer.putInt(at + RECORD_RESPONDER, responderId);
+            buffer.putShort(at + RECORD_ZONE, (short) zoneId);
+            putText(buffer, at + RECORD_NAME, userName, NAME_BYTES);
+            putText(buffer, at + RECORD_REASON, reason, REASON_BYTES);
+
+            // Index entry before the count, so a record is never visible without being counted
+            int entry = segment.entryOffset(index / segment.blockRecords);
+            if (index % segment.blockRecords == 0) {
+                buffer.putLong(entry + ENTRY_FIRST_TIME, timestamp);
+                buffer.putInt(entry + ENTRY_MIN_ALERT, alertId);
+                buffer.putInt(entry + ENTRY_MAX_ALERT, alertId);
+                for (int slot = 0; slot < ZONE_COUNTERS; slot++) {
+                    buffer.putInt(entry + ENTRY_COUNTERS + 4 * slot, 0);
+                }
+            } else {
+                buffer.putInt(entry + ENTRY_MIN_ALERT, Math.min(alertId, buffer.getInt(entry + ENTRY_MIN_ALERT)));
+                buffer.putInt(entry + ENTRY_MAX_ALERT, Math.max(alertId, buffer.getInt(entry + ENTRY_MAX_ALERT)));
+            }
+            buffer.putLong(entry + ENTRY_LAST_TIME, timestamp);
+            int counter = entry + ENTRY_COUNTERS + 4 * slotOf(zoneId);
+            buffer.putInt(counter, buffer.getInt(counter) + 1);
+
+            segment.count = index + 1;
+            buffer.putInt(HEADER_COUNT, segment.count);
+            lastTimestamp = timestamp;
+            zoneTotals.get(zoneId).incrementAndGet();
+            size = size + 1; // Publishes the record to queries
+        } catch (IOException | RuntimeException e) {
+            SystemLogger.error("Error writing escalation to journal: " + e.getMessage());
+        }
+    }
+
+    // Counts escalations in a time range
+    // Parameters: fromMillis - inclusive start; toMillis - exclusive end
+    public long count(long fromMillis, long toMillis) {
+        long visible = size;
+        return Math.max(0, position(toMillis, visible) - position(fromMillis, visible));
+    }
+
+    // Counts escalations of one zone in a time range
+    // Whole blocks inside the range are counted from their index entries; only the edge blocks are read
+    public long count(String zone, long fromMillis, long toMillis) {
+        int zoneId = knownZoneId(zone);
+        if (zoneId < 0)
+            return 0;
+        long visible = size;
+        long[] total = new long[1];
+        visitRange(position(fromMillis, visible), position(toMillis, visible), zoneId, (segment, from, to, whole) -> {
+            if (whole && slotOf(zoneId) != OVERFLOW_SLOT) {
+                total[0] += segment.counter(from / segment.blockRecords, zoneId);
+            } else {
+                for (int i = from; i < to; i++) {
+                    if (segment.zone(i) == zoneId) total[0]++;
+                }
+            }
+        });
+        return total[0];
+    }
+
+    // Counts escalations per zone in a time range
+    // Returns: zone name to count, for zones with at least one escalation in the range
+    public Map<String, Long> countByZone(long fromMillis, long toMillis) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String zone : zoneNames) {
+            long count = count(zone, fromMillis, toMillis);
+            if (count > 0) {
+                counts.put(zone, count);
+            }
+        }
+        return counts;
+    }
+
+    // Finds escalations in a time range, oldest first
+    // Parameters: zone - zone to match, or null for every zone
+    //             limit - maximum number of records returned
+    public List<Entry> find(long fromMillis, long toMillis, String zone, int limit) {
+        List<Entry> found = new ArrayList<>();
+        int zoneId = zone == null ? -1 : knownZoneId(zone);
+        if (zone != null && zoneId < 0)
+            return found;
+        long visible = size;
+        visitRange(position(fromMillis, visible), position(toMillis, visible), zoneId, (segment, from, to, whole) -> {
+            for (int i = from; i < to && found.size() < limit; i++) {
+                if (zoneId < 0 || segment.zone(i) == zoneId) {
+                    found.add(read(segment, i));
+                }
+            }
+        });
+        return found;
+    }
+
+    // Finds every escalation of an alert, oldest first
+    // Only blocks whose alert ID range contains the ID are read; alerts escalate soon after they are raised, so the
+    // ranges of older blocks rarely do
+    public List<Entry> findByAlert(int alertId) {
+        List<Entry> found = new ArrayList<>();
+        long visible = size;
+        for (Segment segment : segments) {
+            int n = segment.visible(visible);
+            for (int block = 0; block * segment.blockRecords < n; block++) {
+                int entry = segment.entryOffset(block);
+                if (alertId < segment.buffer.getInt(entry + ENTRY_MIN_ALERT) || alertId > segment.buffer.getInt(entry + ENTRY_MAX_ALERT))
+                    continue;
+                for (int i = block * segment.blockRecords; i < Math.min(n, (block + 1) * segment.blockRecords); i++) {
+                    if (segment.buffer.getInt(segment.recordOffset(i) + RECORD_ALERT) == alertId) {
+                        found.add(read(segment, i));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    // Gets the number of escalations recorded per zone since the journal was created
+    public Map<String, Long> getZoneTotals() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        for (int zoneId = 0; zoneId < zoneNames.size(); zoneId++) {
+            totals.put(zoneNames.get(zoneId), zoneTotals.get(zoneId).get());
+        }
+        return totals;
+    }
+
+    // Gets the number of escalations in the journal
+    public long size() {
+        return size;
+    }
+
+    // Forces every segment to disk and closes the journal; later appends are ignored
+    public synchronized void close() {
+        if (closed)
+            return;
+        closed = true;
+        for (Segment segment : segments) {
+            try {
+                segment.buffer.force();
+                segment.channel.close();
+            } catch (IOException e) {
+                SystemLogger.error("Error closing escalation journal segment: " + e.getMessage());
+            }
+        }
+    }
+
+    // Opens the existing segments and the zone dictionary, and rebuilds the per-zone totals from the index
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        Path dictionary = directory.resolve("zones.txt");
+        if (Files.exists(dictionary)) {
+            for (String name : Files.readAllLines(dictionary, StandardCharsets.UTF_8)) {
+                registerZone(name.isEmpty() ? UNKNOWN_ZONE : name); // Every line keeps its ID, even one left empty
+            }
+        }
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, "segment-*.ejr")) {
+            entries.forEach(files::add);
+        }
+        Collections.sort(files); // Zero-padded numbers sort in append order
+        long base = 0;
+        for (Path file : files) {
+            Matcher name = SEGMENT_NAME.matcher(file.getFileName().toString());
+            if (!name.matches())
+                continue; // Not a file this journal wrote
+            lastSegmentNumber = Math.max(lastSegmentNumber, Integer.parseInt(name.group(1)));
+            Segment segment = Segment.open(file, base);
+            if (segment == null) {
+                Path bad = file.resolveSibling(file.getFileName() + ".bad");
+                Files.move(file, bad, StandardCopyOption.REPLACE_EXISTING);
+                SystemLogger.warning("Skipping damaged escalation journal segment, kept as " + bad);
+                continue;
+            }
+            segments.add(segment);
+            base += segment.count;
+        }
+
+        if (!segments.isEmpty()) {
+            Segment last = segments.get(segments.size() - 1);
+            if (last.count > 0) {
+                last.rebuildEntry((last.count - 1) / last.blockRecords); // An interrupted append may have left it off by one
+                lastTimestamp = last.timestamp(last.count - 1);
+            }
+        }
+        for (Segment segment : segments) {
+            for (int block = 0; block * segment.blockRecords < segment.count; block++) {
+                for (int zoneId = 0; zoneId < Math.min(OVERFLOW_SLOT, zoneNames.size()); zoneId++) {
+                    zoneTotals.get(zoneId).addAndGet(segment.counter(block, zoneId));
+                }
+                if (segment.counter(block, OVERFLOW_SLOT) > 0) { // Zones sharing the last slot are counted from their records
+                    for (int i = block * segment.blockRecords; i < Math.min(segment.count, (block + 1) * segment.blockRecords); i++) {
+                        int zoneId = segment.zone(i);
+                        if (zoneId >= OVERFLOW_SLOT && zoneId < zoneTotals.size()) {
+                            zoneTotals.get(zoneId).incrementAndGet();
+                        }
+                    }
+                }
+            }
+        }
+        size = base;
+    }
+
+    // Gets the segment to append to, starting a new one when the last is full
+    private Segment writableSegment() throws IOException {
+        Segment last = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (last != null && last.count < last.capacity)
+            return last;
+        Path file = directory.resolve(String.format("segment-%06d.ejr", ++lastSegmentNumber));
+        Segment segment = Segment.create(file, last == null ? 0 : last.base + last.count, segmentRecords, blockRecords);
+        segments.add(segment);
+        return segment;
+    }
+
+    // Gets the ID of a zone, adding it to the dictionary if it is new
+    // A missing zone is stored as UNKNOWN_ZONE; line breaks are replaced so a name always takes one dictionary line
+    private int zoneId(String zone) throws IOException {
+        String name = zone == null || zone.isBlank() ? UNKNOWN_ZONE : zone.replaceAll("[\\r\\n]", " ");
+        Integer id = zoneIds.get(name.toLowerCase());
+        if (id != null)
+            return id;
+        Files.writeString(directory.resolve("zones.txt"), name + "\n", StandardCharsets.UTF_8,
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        return registerZone(name);
+    }
+
+    // Adds a zone to the in-memory dictionary
+    private int registerZone(String name) {
+        int id = zoneNames.size();
+        zoneIds.putIfAbsent(name.toLowerCase(), id); // A name listed twice keeps its first ID
+        zoneNames.add(name);
+        zoneTotals.add(new AtomicLong());
+        return id;
+    }
+
+    // Gets the ID of a zone already in the dictionary
+    // Returns: zone ID, or -1 if the zone never escalated
+    private synchronized int knownZoneId(String zone) {
+        Integer id = zoneIds.get(zone.toLowerCase());
+        return id == null ? -1 : id;
+    }
+
+    // Gets the index counter slot of a zone
+    private static int slotOf(int zoneId) {
+        return Math.min(zoneId, OVERFLOW_SLOT);
+    }
+
+    // Finds the global position of the first visible record at or after a moment
+    // Returns: position, or the number of visible records if every record is earlier
+    private long position(long millis, long visible) {
+        for (Segment segment : segments) {
+            int n = segment.visible(visible);
+            if (n == 0)
+                break;
+            if (segment.timestamp(n - 1) < millis)
+                continue; // Whole segment is earlier
+            int blocks = (n + segment.blockRecords - 1) / segment.blockRecords;
+            int low = 0, high = blocks; // First block that starts at or after the moment
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (segment.buffer.getLong(segment.entryOffset(mid) + ENTRY_FIRST_TIME) >= millis) high = mid; else low = mid + 1;
+            }
+            if (low == 0)
+                return segment.base;
+            int from = (low - 1) * segment.blockRecords; // The record is in the block before it, or starts that block
+            int to = Math.min(n, low * segment.blockRecords);
+            while (from < to) {
+                int mid = (from + to) >>> 1;
+                if (segment.timestamp(mid) >= millis) to = mid; else from = mid + 1;
+            }
+            return segment.base + from;
+        }
+        return visible;
+    }
+
+    // Calls a visitor for every block part between two global positions
+    // Blocks whose index counter shows no record of the zone are skipped
+    // Parameters: zoneId - zone to skip by, or -1 to visit every block
+    private void visitRange(long start, long end, int zoneId, BlockVisitor visitor) {
+        for (Segment segment : segments) {
+            long segmentEnd = segment.base + segment.count;
+            if (segmentEnd <= start)
+                continue;
+            if (segment.base >= end)
+                break;
+            int from = (int) (Math.max(start, segment.base) - segment.base);
+            int to = (int) (Math.min(end, segmentEnd) - segment.base);
+            for (int block = from / segment.blockRecords; block * segment.blockRecords < to; block++) {
+                int blockStart = block * segment.blockRecords;
+                int blockEnd = blockStart + segment.blockRecords;
+                if (zoneId >= 0 && segment.counter(block, slotOf(zoneId)) == 0)
+                    continue;
+                int a = Math.max(from, blockStart), b = Math.min(to, blockEnd);
+                visitor.visit(segment, a, b, a == blockStart && b == blockEnd);
+            }
+        }
+    }
+
+    // Reads one record of a segment
+    private Entry read(Segment segment, int index) {
+        ByteBuffer buffer = segment.buffer;
+        int at = segment.recordOffset(index);
+        int zoneId = buffer.getShort(at + RECORD_ZONE);
+        return new Entry(buffer.getLong(at + RECORD_TIME), buffer.getInt(at + RECORD_ALERT), buffer.getInt(at + RECORD_USER),
+            buffer.getInt(at + RECORD_RESPONDER), zoneId < zoneNames.size() ? zoneNames.get(zoneId) : "?",
+            getText(buffer, at + RECORD_NAME), getText(buffer, at + RECORD_REASON));
+    }
+
+    // Writes text as a length byte and UTF-8 bytes, cut at a character boundary to fit
+    private static void putText(ByteBuffer buffer, int at, String text, int maxBytes) {
+        byte[] bytes = (text == null ? "" : text).getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, maxBytes);
+        while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--; // Do not split a multi-byte character
+        }
+        buffer.put(at, (byte) length);
+        buffer.put(at + 1, bytes, 0, length);
+    }
+
+    // Reads text written by putText
+    private static String getText(ByteBuffer buffer, int at) {
+        byte[] bytes = new byte[buffer.get(at) & 0xFF];
+        buffer.get(at + 1, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Receives the part of one block that lies in a queried range
+    private interface BlockVisitor {
+        void visit(Segment segment, int from, int to, boolean wholeBlock);
+    }
+
+    // One memory-mapped segment file
+    private static class Segment {
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final long base; // Global position of the first record
+        final int capacity;
+        final int blockRecords;
+        final int recordsOffset;
+        volatile int count;
+
+        private Segment(FileChannel channel, MappedByteBuffer buffer, long base) {
+            this.channel = channel;
+            this.buffer = buffer;
+            this.base = base;
+            this.capacity = buffer.getInt(HEADER_CAPACITY);
+            this.blockRecords = buffer.getInt(HEADER_BLOCK);
+            this.recordsOffset = HEADER_SIZE + ((capacity + blockRecords - 1) / blockRecords) * INDEX_ENTRY_SIZE;
+            this.count = buffer.getInt(HEADER_COUNT);
+        }
+
+        // Creates and maps an empty segment file
+        static Segment create(Path file, long base, int capacity, int blockRecords) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length(capacity, blockRecords));
+            buffer.putInt(HEADER_CAPACITY, capacity);
+            buffer.putInt(HEADER_BLOCK, blockRecords);
+            buffer.putInt(HEADER_COUNT, 0);
+            buffer.putInt(0, MAGIC); // Written last: a segment without it is rejected on open
+            return new Segment(channel, buffer, base);
+        }
+
+        // Maps an existing segment file, repairing one that a crash left shorter than its header says
+        // Mapping the full length grows a short file back; the record count is cut to the records the file still
+        // held, and the index entries of those records are rebuilt
+        // Returns: the segment, or null if the file has no valid header
+        static Segment open(Path file, long base) throws IOException {
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (size >= HEADER_SIZE) {
+                channel.read(header, 0);
+            }
+            int capacity = header.getInt(HEADER_CAPACITY), blockRecords = header.getInt(HEADER_BLOCK);
+            if (size < HEADER_SIZE || header.getInt(0) != MAGIC || capacity <= 0 || blockRecords <= 0
+                    || blockRecords > capacity || length(capacity, blockRecords) > Integer.MAX_VALUE) {
+                channel.close();
+                return null;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, length(capacity, blockRecords));
+            Segment segment = new Segment(channel, buffer, base);
+            int held = (int) Math.max(0, Math.min(capacity, (size - segment.recordsOffset) / RECORD_SIZE));
+            int count = Math.max(0, Math.min(segment.count, held));
+            if (count != segment.count) {
+                SystemLogger.warning("Repaired escalation journal segment " + file + ": kept " + count + " of "
+                    + segment.count + " records");
+                segment.count = count;
+                buffer.putInt(HEADER_COUNT, count);
+                for (int block = 0; block * blockRecords < count; block++) {
+                    segment.rebuildEntry(block);
+                }
+            }
+            return segment;
+        }
+
+        // Gets the file length of a segment
+        static long length(int capacity, int blockRecords) {
+            return HEADER_SIZE + (long) ((capacity + blockRecords - 1) / blockRecords) * INDEX_ENTRY_SIZE + (long) capacity * RECORD_SIZE;
+        }
+
+        // Gets how many of this segment's records are among the first visible records of the journal
+        int visible(long visible) {
+            return (int) Math.max(0, Math.min(count, visible - base));
+        }
+
+        int recordOffset(int index) {
+            return recordsOffset + index * RECORD_SIZE;
+        }
+
+        int entryOffset(int block) {
+            return HEADER_SIZE + block * INDEX_ENTRY_SIZE;
+        }
+
+        long timestamp(int index) {
+            return buffer.getLong(recordOffset(index) + RECORD_TIME);
+        }
+
+        int zone(int index) {
+            return buffer.getShort(recordOffset(index) + RECORD_ZONE);
+        }
+
+        int counter(int block, int slot) {
+            return buffer.getInt(entryOffset(block) + ENTRY_COUNTERS + 4 * slotOf(slot));
+        }
+
+        // Recomputes one index entry from its records
+        void rebuildEntry(int block) {
+            int entry = entryOffset(block);
+            int from = block * blockRecords, to = Math.min(count, from + blockRecords);
+            int minAlert = Integer.MAX_VALUE, maxAlert = Integer.MIN_VALUE;
+            int[] counters = new int[ZONE_COUNTERS];
+            for (int i = from; i < to; i++) {
+                int alertId = buffer.getInt(recordOffset(i) + RECORD_ALERT);
+                minAlert = Math.min(minAlert, alertId);
+                maxAlert = Math.max(maxAlert, alertId);
+                counters[slotOf(zone(i))]++;
+            }
+            buffer.putLong(entry + ENTRY_FIRST_TIME, timestamp(from));
+            buffer.putLong(entry + ENTRY_LAST_TIME, timestamp(to - 1));
+            buffer.putInt(entry + ENTRY_MIN_ALERT, minAlert);
+            buffer.putInt(entry + ENTRY_MAX_ALERT, maxAlert);
+            for (int slot = 0; slot < ZONE_COUNTERS; slot++) {
+                buffer.putInt(entry + ENTRY_COUNTERS + 4 * slot, counters[slot]);
+            }
+        }
+    }
+
+    // One escalation event read back from the journal
+    public static class Entry {
+        private final long timestamp;
+        private final int alertId;
+        private final int userId;
+        private final int responderId;
+        private final String zone;
+        private final String userName;
+        private final String reason;
+
+        private Entry(long timestamp, int alertId, int userId, int responderId, String zone, String userName, String reason) {
+            this.timestamp = timestamp;
+            this.alertId = alertId;
+            this.userId = userId;
+            this.responderId = responderId;
+            this.zone = zone;
+            this.userName = userName;
+            this.reason = reason;
+        }
+
+        public long getTimestamp() { return timestamp; }
+        public int getAlertId() { return alertId; }
+        public int getUserId() { return userId; }
+        public int getResponderId() { return responderId; }
+        public String getZone() { return zone; }
+        public String getUserName() { return userName; }
+        public String getReason() { return reason; }
+
+        // Formats the event like the escalation text log
+        @Override
+        public String toString() {
+            String time = LocalDateTime.ofInstant(Instant.ofEpochMilli(timestamp), ZoneId.systemDefault())
+                .format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss"));
+            return "[" + time + "] ALERT ID: " + alertId + " | USER: " + userName + " | ZONE: " + zone + " | REASON: " + reason;
+        }
+    }
+}
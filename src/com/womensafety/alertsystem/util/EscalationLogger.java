@@ -1,29 +1,32 @@
 package com.womensafety.alertsystem.util;
 
 import com.womensafety.alertsystem.model.Alert;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import com.womensafety.alertsystem.util.SystemLogger.LogLevel;
 
 // Escalation logger class for logging alert escalation events to a file
+// Events are appended to the EscalationJournal, the binary log that counts and lookups query, and go through an
+// AsyncLogWriter shared by every instance as a human-readable mirror that rolls and compresses like the system log
 public class EscalationLogger {
-    String FILE_NAME="escalation_log.txt"; // Log file name for escalation events
+    private static final String FILE_NAME = "escalation_log.txt"; // Log file name for escalation events
+    private static final AsyncLogWriter writer = new AsyncLogWriter(FILE_NAME, false); // File only, no console echo
 
     // Logs an alert escalation event to the log file
     // Parameters: alert - the alert object containing alert details
     //             reason - the reason for escalation
     public void logToFile(Alert alert, String reason){
-        try (FileWriter fw=new FileWriter(FILE_NAME, true)){
-            DateTimeFormatter formatter= DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss");
-            String timestamp=LocalDateTime.now().format(formatter);
-            // Create log entry with timestamp, alert details, and escalation reason
-            String logEntry =  "[" + timestamp + "] ALERT ID: " + alert.getAlertId()+" | USER: "+alert.getUser().getName()+
-                    " | ZONE: "+alert.getUser().getZone()+" | REASON: "+reason+"\n";
+        // Create log entry with alert details and escalation reason; the writer adds the timestamp
+        String logEntry = "ALERT ID: " + alert.getAlertId() + " | USER: " + alert.getUser().getName() +
+                " | ZONE: " + alert.getUser().getZone() + " | REASON: " + reason;
+        int responderId = alert.getResponder() == null ? 0 : alert.getResponder().getId();
+        EscalationJournal.getInstance().append(System.currentTimeMillis(), alert.getAlertId(), alert.getUser().getId(),
+                responderId, alert.getUser().getZone(), alert.getUser().getName(), reason);
+        writer.append(LogLevel.WARNING, logEntry, alert.getAlertId(), alert.getUser().getId(), responderId,
+                alert.getUser().getZone());
+    }
 
-            fw.write(logEntry); // Write log entry to file
-        } catch (IOException e){
-            System.out.println("Error writing to log file: " + e.getMessage());
-        }
+    // Writes out queued escalation events, closes the log file and forces the journal to disk
+    public static void shutdown() {
+        writer.close();
+        EscalationJournal.getInstance().close();
     }
 }
@@ -0,0 +1,42 @@
+package com.womensafety.alertsystem.util;
+
+// Distance engine for geographic coordinates; x is longitude and y is latitude, both in degrees
+// haversineKm gives the great-circle distance and is used wherever a distance is stored or reported
+// Ranking uses the equirectangular approximation instead: a degree of longitude is scaled by cos(latitude), which is
+// computed once per query point, and candidates are compared by squared distance so no sqrt or trig runs per candidate
+public class GeoDistance {
+    public static final double KM_PER_DEGREE = Constants.EARTH_RADIUS_KM * Math.PI / 180; // Length of one degree of latitude
+
+    // Calculates the great-circle distance between two points with the haversine formula
+    // Returns: distance in kilometres
+    public static double haversineKm(double x1, double y1, double x2, double y2) {
+        double lat1 = Math.toRadians(y1);
+        double lat2 = Math.toRadians(y2);
+        double sinLat = Math.sin((lat2 - lat1) / 2);
+        double sinLng = Math.sin(Math.toRadians(x2 - x1) / 2);
+        double a = sinLat * sinLat + Math.cos(lat1) * Math.cos(lat2) * sinLng * sinLng;
+        return 2 * Constants.EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Gets the factor that converts degrees of longitude to degrees of latitude at a latitude
+    // Computed once per query point and passed to squaredDegrees and equirectangularKm
+    public static double longitudeScale(double latitude) {
+        return Math.cos(Math.toRadians(latitude));
+    }
+
+    // Calculates the squared equirectangular distance between two points, in squared degrees of latitude
+    // Ranks candidates around a query point the same way as the true distance for the distances dispatch works with
+    // Parameters: longitudeScale - longitudeScale of the query point's latitude
+    public static double squaredDegrees(double x1, double y1, double x2, double y2, double longitudeScale) {
+        double dx = (x2 - x1) * longitudeScale;
+        double dy = y2 - y1;
+        return dx * dx + dy * dy;
+    }
+
+    // Calculates the equirectangular approximation of the distance between two points
+    // Parameters: longitudeScale - longitudeScale of the query point's latitude
+    // Returns: distance in kilometres
+    public static double equirectangularKm(double x1, double y1, double x2, double y2, double longitudeScale) {
+        return Math.sqrt(squaredDegrees(x1, y1, x2, y2, longitudeScale)) * KM_PER_DEGREE;
+    }
+}
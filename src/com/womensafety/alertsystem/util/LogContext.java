@@ -0,0 +1,52 @@
+package com.womensafety.alertsystem.util;
+
+import com.womensafety.alertsystem.model.Alert;
+
+// Structured fields of the alert the current thread is working on
+// Dispatcher sets them while it handles one alert and clears them afterwards; every record logged in between carries
+// them, and the JSON record format writes them as fields of their own. Zero IDs and a null zone mean unknown
+public class LogContext {
+    private static final ThreadLocal<LogContext> CURRENT = ThreadLocal.withInitial(LogContext::new);
+
+    int alertId;
+    int userId;
+    int responderId;
+    String zone;
+
+    // Sets the fields of an alert for the current thread, including its responder if it has one
+    public static void forAlert(Alert alert) {
+        LogContext context = CURRENT.get();
+        context.alertId = alert.getAlertId();
+        context.userId = alert.getUser() == null ? 0 : alert.getUser().getId();
+        context.zone = alert.getUser() == null ? null : alert.getUser().getZone();
+        context.responderId = alert.getResponder() == null ? 0 : alert.getResponder().getId();
+    }
+
+    // Sets the fields for an alert known only by its ID and responder
+    public static void forAlert(int alertId, int responderId) {
+        LogContext context = CURRENT.get();
+        context.alertId = alertId;
+        context.userId = 0;
+        context.zone = null;
+        context.responderId = responderId;
+    }
+
+    // Sets the responder of the current alert, once one has been claimed
+    public static void setResponder(int responderId) {
+        CURRENT.get().responderId = responderId;
+    }
+
+    // Clears the fields of the current thread
+    public static void clear() {
+        LogContext context = CURRENT.get();
+        context.alertId = 0;
+        context.userId = 0;
+        context.responderId = 0;
+        context.zone = null;
+    }
+
+    // Gets the fields of the current thread; callers copy them and must not keep the object
+    static LogContext current() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,188 @@
+package com.womensafety.alertsystem.util;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+
+// Garbage-free text formatting for log records
+// Placeholders are {} for any value and {.N} for a number with N decimals; numbers and timestamps are written
+// digit by digit into the caller's StringBuilder, so formatting allocates nothing beyond growing that builder
+// Instances cache the current local hour for timestamps and are not thread-safe; use one per thread
+public class LogFormat {
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+    private static final long[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000, 100_000, 1_000_000, 10_000_000, 100_000_000};
+
+    private final ZoneId zone;
+    private long hourStart = Long.MAX_VALUE; // Epoch millis of the start of the cached local hour
+    private final char[] hourText = new char[14]; // "yyyy-MM-dd HH:" of the cached local hour
+    private String offsetText = ""; // UTC offset of the cached local hour, as "Z" or "+05:30"
+
+    // Constructor creates a formatter for timestamps in the system time zone
+    public LogFormat() {
+        this.zone = ZoneId.systemDefault();
+    }
+
+    // Appends a timestamp as yyyy-MM-dd HH:mm:ss in local time
+    // Only the first record of each local hour goes through java.time; the rest is arithmetic on the cached hour
+    public void appendTimestamp(StringBuilder sb, long millis) {
+        if (millis < hourStart || millis >= hourStart + 3_600_000L) {
+            ZonedDateTime hour = Instant.ofEpochMilli(millis).atZone(zone).truncatedTo(ChronoUnit.HOURS);
+            hourStart = hour.toInstant().toEpochMilli();
+            writeDigits(hourText, 0, hour.getYear(), 4);
+            hourText[4] = '-';
+            writeDigits(hourText, 5, hour.getMonthValue(), 2);
+            hourText[7] = '-';
+            writeDigits(hourText, 8, hour.getDayOfMonth(), 2);
+            hourText[10] = ' ';
+            writeDigits(hourText, 11, hour.getHour(), 2);
+            hourText[13] = ':';
+            offsetText = hour.getOffset().getId();
+        }
+        int secondOfHour = (int) ((millis - hourStart) / 1000);
+        sb.append(hourText);
+        appendPadded(sb, secondOfHour / 60, 2);
+        sb.append(':');
+        appendPadded(sb, secondOfHour % 60, 2);
+    }
+
+    // Appends a timestamp as ISO-8601 local time with milliseconds and UTC offset, as in 2024-05-01T14:03:07.250+05:30
+    public void appendIsoTimestamp(StringBuilder sb, long millis) {
+        int start = sb.length();
+        appendTimestamp(sb, millis);
+        sb.setCharAt(start + 10, 'T');
+        sb.append('.');
+        appendPadded(sb, Math.floorMod(millis, 1000L), 3);
+        sb.append(offsetText);
+    }
+
+    // Appends text as a quoted JSON string, escaping quotes, backslashes and control characters
+    public static void appendJsonString(StringBuilder sb, CharSequence text) {
+        if (text == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append("\\u00").append(HEX_DIGITS[c >> 4]).append(HEX_DIGITS[c & 15]);
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+
+    // Appends a pattern with its {} and {.N} placeholders replaced by the arguments in order
+    // Placeholders without an argument are kept as they are; arguments without a placeholder are ignored
+    public static void appendPattern(StringBuilder sb, String pattern, Object[] args, int count) {
+        int arg = 0;
+        int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '{' && arg < count) {
+                int close = placeholderEnd(pattern, i);
+                if (close > 0) {
+                    int decimals = close == i + 1 ? -1 : pattern.charAt(i + 2) - '0';
+                    appendValue(sb, args[arg++], decimals);
+                    i = close;
+                    continue;
+                }
+            }
+            sb.append(c);
+        }
+    }
+
+    // Appends one argument; integers and decimals are written without boxing or temporary strings
+    // Parameters: decimals - digits after the point for numbers, or -1 to print the value as it is
+    public static void appendValue(StringBuilder sb, Object value, int decimals) {
+        if (value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte) {
+            long number = ((Number) value).longValue();
+            if (decimals > 0) {
+                appendDecimal(sb, number, decimals);
+            } else {
+                sb.append(number);
+            }
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            if (decimals >= 0) {
+                appendDecimal(sb, number, decimals);
+            } else {
+                sb.append(number);
+            }
+        } else if (value instanceof CharSequence) {
+            sb.append((CharSequence) value);
+        } else {
+            sb.append(value); // String.valueOf, "null" for null
+        }
+    }
+
+    // Appends a number rounded half up to a fixed number of decimals
+    // Values too large for the fixed-point path fall back to StringBuilder's own formatting
+    public static void appendDecimal(StringBuilder sb, double value, int decimals) {
+        decimals = Math.max(0, Math.min(decimals, POWERS_OF_TEN.length - 1));
+        if (Double.isNaN(value) || Double.isInfinite(value) || Math.abs(value) >= 1e15 / POWERS_OF_TEN[decimals]) {
+            sb.append(value);
+            return;
+        }
+        long scaled = Math.round(Math.abs(value) * POWERS_OF_TEN[decimals]);
+        if (value < 0 && scaled != 0) {
+            sb.append('-');
+        }
+        appendFixed(sb, scaled, decimals);
+    }
+
+    // Appends a whole number with a fixed number of zero decimals
+    private static void appendDecimal(StringBuilder sb, long value, int decimals) {
+        sb.append(value).append('.');
+        for (int i = 0; i < Math.min(decimals, POWERS_OF_TEN.length - 1); i++) {
+            sb.append('0');
+        }
+    }
+
+    // Appends a non-negative fixed-point value whose last digits are decimals
+    private static void appendFixed(StringBuilder sb, long scaled, int decimals) {
+        sb.append(scaled / POWERS_OF_TEN[decimals]);
+        if (decimals > 0) {
+            sb.append('.');
+            appendPadded(sb, scaled % POWERS_OF_TEN[decimals], decimals);
+        }
+    }
+
+    // Appends a non-negative number left-padded with zeros to a width
+    private static void appendPadded(StringBuilder sb, long value, int width) {
+        for (int digits = width - 1; digits > 0 && value < POWERS_OF_TEN[digits]; digits--) {
+            sb.append('0');
+        }
+        sb.append(value);
+    }
+
+    // Writes a non-negative number as a fixed number of digits
+    private static void writeDigits(char[] target, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    // Finds the closing brace of a {} or {.N} placeholder starting at an opening brace
+    // Returns: index of the closing brace, or -1 if the brace does not start a placeholder
+    private static int placeholderEnd(String pattern, int open) {
+        if (open + 1 < pattern.length() && pattern.charAt(open + 1) == '}')
+            return open + 1;
+        if (open + 3 < pattern.length() && pattern.charAt(open + 1) == '.'
+                && Character.isDigit(pattern.charAt(open + 2)) && pattern.charAt(open + 3) == '}')
+            return open + 3;
+        return -1;
+    }
+}
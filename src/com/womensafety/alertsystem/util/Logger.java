@@ -0,0 +1,140 @@
+package com.womensafety.alertsystem.util;
+
+import com.womensafety.alertsystem.util.SystemLogger.LogLevel;
+import java.util.function.Supplier;
+
+// Level-gated logging handle for one class, obtained from SystemLogger.getLogger
+// Records below the threshold of the class's package are discarded before anything is formatted. Messages can be
+// given as a plain string, as a Supplier that is only called for emitted records, or as a pattern with {} and {.N}
+// placeholders whose arguments are only formatted, with LogFormat, for emitted records
+// Primitive arguments are still boxed at the call site; wrap hot calls with isEnabled when that matters
+public class Logger {
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final String name;
+    private volatile int threshold; // Lowest severity that is emitted
+
+    // Constructor creates a logger; SystemLogger creates one per name and keeps its threshold current
+    Logger(String name, LogLevel threshold) {
+        this.name = name;
+        setThreshold(threshold);
+    }
+
+    // Sets the lowest level this logger emits
+    void setThreshold(LogLevel level) {
+        this.threshold = level.getSeverity();
+    }
+
+    // Gets the class or package name this logger was created for
+    public String getName() {
+        return name;
+    }
+
+    // Checks whether records of a level would be emitted
+    public boolean isEnabled(LogLevel level) {
+        return level.getSeverity() >= threshold;
+    }
+
+    // Logs a message with a specific log level
+    public void log(LogLevel level, String message) {
+        if (isEnabled(level)) {
+            SystemLogger.emit(level, message);
+        }
+    }
+
+    // Logs a message built by a supplier, which is only called if the level is enabled
+    public void log(LogLevel level, Supplier<String> message) {
+        if (isEnabled(level)) {
+            SystemLogger.emit(level, message.get());
+        }
+    }
+
+    // Logs a pattern with one placeholder argument
+    public void log(LogLevel level, String pattern, Object a) {
+        if (isEnabled(level)) {
+            Scratch scratch = SCRATCH.get();
+            scratch.args[0] = a;
+            emit(level, pattern, scratch, 1);
+        }
+    }
+
+    // Logs a pattern with two placeholder arguments
+    public void log(LogLevel level, String pattern, Object a, Object b) {
+        if (isEnabled(level)) {
+            Scratch scratch = SCRATCH.get();
+            scratch.args[0] = a;
+            scratch.args[1] = b;
+            emit(level, pattern, scratch, 2);
+        }
+    }
+
+    // Logs a pattern with three placeholder arguments
+    public void log(LogLevel level, String pattern, Object a, Object b, Object c) {
+        if (isEnabled(level)) {
+            Scratch scratch = SCRATCH.get();
+            scratch.args[0] = a;
+            scratch.args[1] = b;
+            scratch.args[2] = c;
+            emit(level, pattern, scratch, 3);
+        }
+    }
+
+    // Logs a pattern with any number of placeholder arguments
+    public void log(LogLevel level, String pattern, Object... args) {
+        if (isEnabled(level)) {
+            StringBuilder sb = SCRATCH.get().text;
+            sb.setLength(0);
+            LogFormat.appendPattern(sb, pattern, args, args.length);
+            SystemLogger.emit(level, sb.toString());
+        }
+    }
+
+    // Convenience methods for info messages
+    public void info(String message) { log(LogLevel.INFO, message); }
+    public void info(Supplier<String> message) { log(LogLevel.INFO, message); }
+    public void info(String pattern, Object a) { log(LogLevel.INFO, pattern, a); }
+    public void info(String pattern, Object a, Object b) { log(LogLevel.INFO, pattern, a, b); }
+    public void info(String pattern, Object a, Object b, Object c) { log(LogLevel.INFO, pattern, a, b, c); }
+    public void info(String pattern, Object... args) { log(LogLevel.INFO, pattern, args); }
+
+    // Convenience methods for warning messages
+    public void warning(String message) { log(LogLevel.WARNING, message); }
+    public void warning(Supplier<String> message) { log(LogLevel.WARNING, message); }
+    public void warning(String pattern, Object a) { log(LogLevel.WARNING, pattern, a); }
+    public void warning(String pattern, Object a, Object b) { log(LogLevel.WARNING, pattern, a, b); }
+    public void warning(String pattern, Object a, Object b, Object c) { log(LogLevel.WARNING, pattern, a, b, c); }
+    public void warning(String pattern, Object... args) { log(LogLevel.WARNING, pattern, args); }
+
+    // Convenience methods for error messages
+    public void error(String message) { log(LogLevel.ERROR, message); }
+    public void error(Supplier<String> message) { log(LogLevel.ERROR, message); }
+    public void error(String pattern, Object a) { log(LogLevel.ERROR, pattern, a); }
+    public void error(String pattern, Object a, Object b) { log(LogLevel.ERROR, pattern, a, b); }
+    public void error(String pattern, Object a, Object b, Object c) { log(LogLevel.ERROR, pattern, a, b, c); }
+    public void error(String pattern, Object... args) { log(LogLevel.ERROR, pattern, args); }
+
+    // Convenience methods for success messages
+    public void success(String message) { log(LogLevel.SUCCESS, message); }
+    public void success(Supplier<String> message) { log(LogLevel.SUCCESS, message); }
+    public void success(String pattern, Object a) { log(LogLevel.SUCCESS, pattern, a); }
+    public void success(String pattern, Object a, Object b) { log(LogLevel.SUCCESS, pattern, a, b); }
+    public void success(String pattern, Object a, Object b, Object c) { log(LogLevel.SUCCESS, pattern, a, b, c); }
+    public void success(String pattern, Object... args) { log(LogLevel.SUCCESS, pattern, args); }
+
+    // Formats a pattern from the scratch arguments and emits it, clearing the arguments afterwards
+    private static void emit(LogLevel level, String pattern, Scratch scratch, int count) {
+        StringBuilder sb = scratch.text;
+        sb.setLength(0);
+        LogFormat.appendPattern(sb, pattern, scratch.args, count);
+        for (int i = 0; i < count; i++) {
+            scratch.args[i] = null; // Do not keep arguments reachable from the thread
+        }
+        SystemLogger.emit(level, sb.toString());
+    }
+
+    // Per-thread buffers reused by every logger on that thread
+    private static class Scratch {
+        final StringBuilder text = new StringBuilder(256);
+        final Object[] args = new Object[3];
+    }
+}
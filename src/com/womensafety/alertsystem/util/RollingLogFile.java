@@ -0,0 +1,213 @@
+package com.womensafety.alertsystem.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+// Log file that starts a new segment when it grows too large or its time period ends
+// A full segment is closed and renamed to name-yyyyMMdd-HHmmss.ext, which only touches file metadata, and a fresh file
+// is opened under the original name; gzip compression of the renamed segment and deletion of the oldest compressed
+// segments run on a separate background thread, so the writing thread never waits for them
+// Segments left uncompressed by an earlier run are compressed when the file is opened
+// Not thread-safe: used by the single consumer thread of an AsyncLogWriter
+public class RollingLogFile {
+    private static final DateTimeFormatter SEGMENT_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final Path path;
+    private final Path directory;
+    private final String baseName; // File name without extension
+    private final String extension; // Extension including the dot, or ""
+    private final Pattern rolledName; // Names of renamed segments, with or without .gz; groups are roll time and sequence
+    private final long maxBytes;
+    private final long intervalMillis;
+    private final int maxSegments;
+    private final ZoneId zone = ZoneId.systemDefault();
+    private final ExecutorService compressor;
+
+    private FileChannel channel;
+    private long size; // Bytes in the current segment
+    private long nextRollMillis; // End of the current time period
+    private String lastStamp = ""; // Roll time of the last segment and its sequence within that second; a sequence
+    private int lastSequence = 0;  // never goes back, so a name freed by pruning is not reused out of order
+    private volatile long rollCount = 0;
+
+    // Constructor opens the file for appending and queues compression of segments an earlier run left uncompressed
+    // Parameters: maxBytes - segment size that starts a new segment, or 0 for no limit
+    //             intervalMinutes - length of a time period, aligned to local midnight; 0 disables time-based rolling
+    //             maxSegments - compressed segments kept; older ones are deleted
+    public RollingLogFile(Path path, long maxBytes, int intervalMinutes, int maxSegments) throws IOException {
+        this.path = path.toAbsolutePath();
+        this.directory = this.path.getParent();
+        String fileName = this.path.getFileName().toString();
+        int dot = fileName.lastIndexOf('.');
+        this.baseName = dot > 0 ? fileName.substring(0, dot) : fileName;
+        this.extension = dot > 0 ? fileName.substring(dot) : "";
+        this.rolledName = Pattern.compile(Pattern.quote(baseName) + "-(\\d{8}-\\d{6})(?:-(\\d+))?" + Pattern.quote(extension) + "(?:\\.gz)?");
+        this.maxBytes = maxBytes;
+        this.intervalMillis = intervalMinutes * 60_000L;
+        this.maxSegments = Math.max(1, maxSegments);
+        this.compressor = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "log-compressor");
+            thread.setDaemon(true); // Unfinished segments are compressed on the next start
+            return thread;
+        });
+
+        open();
+        if (size > 0) { // An existing file belongs to the period it was last written in
+            nextRollMillis = periodEnd(Files.getLastModifiedTime(this.path).toMillis());
+        }
+        for (Path leftover : rolledSegments(false)) {
+            compressor.submit(() -> compress(leftover));
+        }
+    }
+
+    // Appends bytes, first starting a new segment if they would overflow this one or its period has ended
+    public void write(ByteBuffer bytes, long now) throws IOException {
+        if (size > 0 && ((maxBytes > 0 && size + bytes.remaining() > maxBytes) || (intervalMillis > 0 && now >= nextRollMillis))) {
+            roll(now);
+        }
+        if (size == 0) {
+            nextRollMillis = periodEnd(now);
+        }
+        while (bytes.hasRemaining()) {
+            size += channel.write(bytes);
+        }
+    }
+
+    // Forces written data to disk
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    // Closes the file and waits briefly for queued compression to finish
+    public void close(boolean sync) throws IOException {
+        try {
+            if (sync) {
+                channel.force(false);
+            }
+            channel.close();
+        } finally {
+            compressor.shutdown();
+            try {
+                compressor.awaitTermination(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    // Gets the number of segments started since the file was opened
+    public long getRollCount() {
+        return rollCount;
+    }
+
+    // Renames the current segment, opens a fresh file and queues the renamed segment for compression
+    private void roll(long now) throws IOException {
+        channel.close();
+        String stamp = SEGMENT_FORMAT.format(LocalDateTime.ofInstant(Instant.ofEpochMilli(now), zone));
+        int sequence = stamp.equals(lastStamp) ? lastSequence + 1 : 0;
+        Path rolled = segmentPath(stamp, sequence);
+        while (Files.exists(rolled) || Files.exists(gzipOf(rolled))) { // Left by an earlier run in the same second
+            rolled = segmentPath(stamp, ++sequence);
+        }
+        try {
+            Files.move(path, rolled, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            open(); // Keep appending to the old segment rather than losing records
+            throw e;
+        }
+        open();
+        lastStamp = stamp;
+        lastSequence = sequence;
+        rollCount++;
+        Path segment = rolled;
+        compressor.submit(() -> compress(segment));
+    }
+
+    // Opens the log file for appending
+    private void open() throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        size = channel.size();
+    }
+
+    // Gzips a renamed segment, deletes the original and prunes the oldest compressed segments
+    // Runs on the compressor thread; a failure leaves the uncompressed segment for the next start
+    private void compress(Path segment) {
+        Path target = gzipOf(segment);
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            System.err.println("Failed to compress log segment " + segment + ": " + e.getMessage());
+            return;
+        }
+        try {
+            Files.delete(segment);
+            List<Path> compressed = rolledSegments(true);
+            for (int i = 0; i < compressed.size() - maxSegments; i++) {
+                Files.deleteIfExists(compressed.get(i)); // Names sort by roll time, oldest first
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to clean up log segments: " + e.getMessage());
+        }
+    }
+
+    // Lists renamed segments of this file, oldest first
+    // Parameters: compressed - true for .gz segments, false for segments still waiting for compression
+    private List<Path> rolledSegments(boolean compressed) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory, baseName + "-*")) {
+            for (Path entry : entries) {
+                String name = entry.getFileName().toString();
+                if (rolledName.matcher(name).matches() && name.endsWith(".gz") == compressed) {
+                    segments.add(entry);
+                }
+            }
+        }
+        segments.sort(Comparator.comparing((Path segment) -> rollKey(segment, 1)) // Roll time, then sequence within that second
+            .thenComparingInt(segment -> Integer.parseInt(rollKey(segment, 2))));
+        return segments;
+    }
+
+    // Gets the roll time or the sequence number of a renamed segment; a segment without a sequence number is the first
+    private String rollKey(Path segment, int group) {
+        Matcher matcher = rolledName.matcher(segment.getFileName().toString());
+        matcher.matches();
+        String value = matcher.group(group);
+        return value == null ? "0" : value;
+    }
+
+    // Gets the name of a renamed segment; the first segment of a second has no sequence number
+    private Path segmentPath(String stamp, int sequence) {
+        return directory.resolve(baseName + "-" + stamp + (sequence == 0 ? "" : "-" + sequence) + extension);
+    }
+
+    // Gets the compressed name of a segment
+    private static Path gzipOf(Path segment) {
+        return segment.resolveSibling(segment.getFileName() + ".gz");
+    }
+
+    // Gets the end of the time period that contains a moment; periods are aligned to local midnight
+    private long periodEnd(long millis) {
+        if (intervalMillis <= 0)
+            return Long.MAX_VALUE;
+        long offset = zone.getRules().getOffset(Instant.ofEpochMilli(millis)).getTotalSeconds() * 1000L;
+        return Math.floorDiv(millis + offset, intervalMillis) * intervalMillis + intervalMillis - offset;
+    }
+}
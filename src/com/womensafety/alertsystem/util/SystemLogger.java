@@ -1,52 +1,82 @@
 package com.womensafety.alertsystem.util;
 
-import java.io.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 // System logger class for logging messages to console and file
+// Records are handed to an AsyncLogWriter, whose background thread formats them, echoes them to the console and
+// appends them to the log file in batches, so logging never waits for the console or the disk
+// Classes on hot paths log through their own Logger from getLogger, which is gated by a per-package threshold and
+// defers message formatting; the static methods here are gated by the default threshold
 public class SystemLogger {
     private static final String LOG_FILE = "system_log.txt"; // Log file name for system logs
-    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
-    // Enum for log levels
+    // Enum for log levels; SUCCESS reports a completed action and ranks with INFO
     public enum LogLevel {
-        INFO, WARNING, ERROR, SUCCESS
+        INFO(1), WARNING(2), ERROR(3), SUCCESS(1);
+
+        private final int severity;
+
+        LogLevel(int severity) {
+            this.severity = severity;
+        }
+
+        // Gets the rank compared against logger thresholds
+        public int getSeverity() {
+            return severity;
+        }
+    }
+
+    private static final AsyncLogWriter writer = new AsyncLogWriter(LOG_FILE, true); // Echoes to the console too
+    private static final Map<String, LogLevel> thresholds = parseThresholds(); // Package or class prefix to its threshold; "" is the default
+    private static final Map<String, Logger> loggers = new ConcurrentHashMap<>(); // Name to its logger
+    private static final Logger root = getLogger(""); // Gates the static methods
+
+    // Gets the logger of a class, gated by the threshold of the closest configured package
+    public static Logger getLogger(Class<?> type) {
+        return getLogger(type.getName());
+    }
+
+    // Gets the logger for a class or package name
+    public static synchronized Logger getLogger(String name) {
+        return loggers.computeIfAbsent(name, n -> new Logger(n, resolveThreshold(n)));
+    }
+
+    // Sets the threshold of a package or class and of everything below it, updating existing loggers
+    // Parameters: prefix - package or class name, or "" for the default threshold
+    public static synchronized void setLevel(String prefix, LogLevel level) {
+        thresholds.put(prefix, level);
+        for (Logger logger : loggers.values()) {
+            logger.setThreshold(resolveThreshold(logger.getName()));
+        }
     }
 
     // Logs a message with a specific log level
     // Parameters: level - the log level (INFO, WARNING, ERROR, SUCCESS)
     //             message - the message to log
     public static void log(LogLevel level, String message) {
-        String timestamp = LocalDateTime.now().format(TIMESTAMP_FORMAT);
-        String logEntry = String.format("[%s] %s: %s", timestamp, level, message);
+        root.log(level, message); // Dropped here if below the default threshold
+    }
 
-        printToConsole(level, logEntry); // Print log entry to console
-        writeToFile(logEntry); // Write log entry to file
+    // Hands an enabled record to the log writer; loggers call this after their own threshold check
+    static void emit(LogLevel level, String message) {
+        writer.append(level, message); // Formatted and written by the log writer thread
     }
 
-    // Prints a log message to the console with color based on log level
-    // Parameters: level - the log level
-    //             message - the message to print
-    private static void printToConsole(LogLevel level, String message) {
-        String color = switch (level) {     // ANSI color codes for different log levels
-            case INFO -> "\u001B[37m"+"[INFO] ";
-            case SUCCESS -> "\u001B[32m"+"[SUCCESS] ";
-            case WARNING -> "\u001B[33m"+"[WARNING] ";
-            case ERROR -> "\u001B[31m"+"[ERROR] ";
-        };
-        System.out.println(color + message + "\u001b[0m");
+    // Waits until every message logged so far has been printed and written
+    // The menus call this before printing, so messages from the last action appear above them
+    public static void flush() {
+        writer.flush();
     }
 
-    // Writes a log entry to the log file
-    // Parameters: logEntry - the log entry to write
-    private static void writeToFile(String logEntry) {
-        try (FileWriter fw = new FileWriter(LOG_FILE, true);
-             PrintWriter pw = new PrintWriter(fw)) {
-            pw.println(logEntry);
-        } catch (IOException e) {
-            System.err.println("Failed to write to log file: " + e.getMessage());
-        }
+    // Writes out every queued message and closes the log file; later messages are written synchronously
+    public static void shutdown() {
+        writer.close();
+    }
+
+    // Returns a one-line summary of log writer metrics
+    public static String getStatistics() {
+        return writer.getStatistics();
     }
 
     // Convenience method for logging info messages
@@ -65,4 +95,36 @@ public class SystemLogger {
     public static void success(String message) {
         log(LogLevel.SUCCESS, message); // Log success message
     }
-}
\ No newline at end of file
+
+    // Finds the threshold of the longest configured prefix that covers a name
+    private static LogLevel resolveThreshold(String name) {
+        LogLevel level = thresholds.getOrDefault("", Constants.LOG_LEVEL);
+        int matched = 0;
+        for (Map.Entry<String, LogLevel> entry : thresholds.entrySet()) {
+            String prefix = entry.getKey();
+            if (prefix.length() > matched && (name.equals(prefix) || name.startsWith(prefix + "."))) {
+                level = entry.getValue();
+                matched = prefix.length();
+            }
+        }
+        return level;
+    }
+
+    // Reads the default threshold and the per-package thresholds from Constants
+    // Malformed entries are reported on stderr and skipped, since the logger cannot log yet
+    private static Map<String, LogLevel> parseThresholds() {
+        Map<String, LogLevel> parsed = new ConcurrentHashMap<>();
+        parsed.put("", Constants.LOG_LEVEL);
+        for (String entry : Constants.LOG_PACKAGE_LEVELS.split(",")) {
+            if (entry.isBlank())
+                continue;
+            int separator = entry.indexOf('=');
+            try {
+                parsed.put(entry.substring(0, separator).trim(), LogLevel.valueOf(entry.substring(separator + 1).trim()));
+            } catch (RuntimeException e) {
+                System.err.println("Ignoring invalid log level setting: " + entry.trim());
+            }
+        }
+        return parsed;
+    }
+}
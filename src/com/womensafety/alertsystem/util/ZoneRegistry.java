@@ -0,0 +1,240 @@
+package com.womensafety.alertsystem.util;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Registry of dispatch zones defined by polygons
+// Zones are read from Constants.ZONE_FILE, one per line as "Name;WKT" where WKT is a POLYGON or MULTIPOLYGON in
+// longitude/latitude order; a zone may span several lines. Without the file the built-in zones are used
+// A coordinate is resolved with a uniform grid prefilter: every cell lists the zones whose bounding box overlaps it,
+// so a lookup only runs point-in-polygon tests against the few zones near the point, whatever the number of zones
+public class ZoneRegistry {
+    private static final Pattern RING = Pattern.compile("\\(([^()]+)\\)"); // Innermost parentheses hold one ring
+    private static ZoneRegistry instance;
+
+    private final List<Zone> zones = new ArrayList<>(); // In file order; earlier zones win where polygons overlap
+    private final Map<String, Zone> byName = new HashMap<>(); // Lower-case name to zone
+    private final Map<Long, int[]> cells = new HashMap<>(); // Packed grid cell to indices of zones overlapping it
+    private double cellSize = 1.0;
+
+    // Gets the shared registry, loading it on first use
+    public static synchronized ZoneRegistry getInstance() {
+        if (instance == null) {
+            instance = new ZoneRegistry(Paths.get(Constants.ZONE_FILE));
+        }
+        return instance;
+    }
+
+    // Constructor loads zones from the given file, falling back to the built-in zones
+    public ZoneRegistry(Path file) {
+        if (Files.isReadable(file)) {
+            try {
+                load(Files.readAllLines(file, StandardCharsets.UTF_8));
+            } catch (IOException | IllegalArgumentException e) {
+                SystemLogger.error("Could not load zones from " + file + ": " + e.getMessage());
+                zones.clear();
+                byName.clear();
+            }
+        }
+        if (zones.isEmpty()) {
+            loadDefaults();
+        }
+        buildGrid();
+        SystemLogger.info("Zone registry loaded " + zones.size() + " zone(s).");
+    }
+
+    // Resolves a coordinate to the zone containing it
+    // Returns: zone name, or null if no zone contains the point
+    public String resolve(double x, double y) {
+        int[] candidates = cells.get(pack(cellIndex(x), cellIndex(y)));
+        if (candidates == null)
+            return null;
+        for (int index : candidates) {
+            Zone zone = zones.get(index);
+            if (zone.contains(x, y))
+                return zone.name;
+        }
+        return null;
+    }
+
+    // Resolves a coordinate to its zone, keeping the given zone when no polygon contains the point
+    // Returns: canonical zone name
+    public String resolveZone(double x, double y, String fallback) {
+        String resolved = resolve(x, y);
+        return resolved != null ? resolved : canonicalName(fallback);
+    }
+
+    // Checks whether a zone name is registered, ignoring case
+    public boolean isKnownZone(String name) {
+        return name != null && byName.containsKey(name.trim().toLowerCase());
+    }
+
+    // Gets the registered spelling of a zone name
+    // Returns: registered name, or the given name unchanged if it is not registered
+    public String canonicalName(String name) {
+        Zone zone = name == null ? null : byName.get(name.trim().toLowerCase());
+        return zone != null ? zone.name : name;
+    }
+
+    // Gets every registered zone name in file order
+    public List<String> getZoneNames() {
+        List<String> names = new ArrayList<>();
+        for (Zone zone : zones) {
+            names.add(zone.name);
+        }
+        return names;
+    }
+
+    // Picks a random point inside a zone
+    // Returns: [latitude, longitude], or null if the zone is not registered
+    public double[] randomPointIn(String name) {
+        Zone zone = name == null ? null : byName.get(name.trim().toLowerCase());
+        if (zone == null)
+            return null;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int attempt = 0; attempt < 100; attempt++) { // Rejection sampling inside the bounding box
+            double x = zone.minX + (zone.maxX - zone.minX) * random.nextDouble();
+            double y = zone.minY + (zone.maxY - zone.minY) * random.nextDouble();
+            if (zone.contains(x, y))
+                return new double[] {y, x};
+        }
+        return new double[] {zone.ringY[0][0], zone.ringX[0][0]}; // Very thin polygon: use its first vertex
+    }
+
+    // Parses "Name;WKT" lines; blank lines and lines starting with # are skipped
+    private void load(List<String> lines) {
+        for (String line : lines) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#"))
+                continue;
+            int separator = line.indexOf(';');
+            if (separator <= 0)
+                throw new IllegalArgumentException("Expected Name;WKT but got: " + line);
+            String name = line.substring(0, separator).trim();
+            String wkt = line.substring(separator + 1).trim();
+            String type = wkt.toUpperCase();
+            if (!type.startsWith("POLYGON") && !type.startsWith("MULTIPOLYGON"))
+                throw new IllegalArgumentException("Zone " + name + " is not a POLYGON or MULTIPOLYGON");
+
+            Zone zone = byName.get(name.toLowerCase());
+            if (zone == null) {
+                zone = new Zone(name);
+                byName.put(name.toLowerCase(), zone);
+                zones.add(zone);
+            }
+            Matcher rings = RING.matcher(wkt);
+            while (rings.find()) {
+                zone.addRing(rings.group(1));
+            }
+        }
+    }
+
+    // Registers the built-in zones as boxes around their centres
+    private void loadDefaults() {
+        double[][] centres = {{28.0, 77.0}, {12.0, 78.0}, {22.0, 88.0}, {19.0, 73.0}}; // Latitude, longitude
+        for (int i = 0; i < Constants.ZONES.length; i++) {
+            double lat = centres[i][0];
+            double lng = centres[i][1];
+            double d = Constants.DEFAULT_ZONE_HALF_SIZE;
+            Zone zone = new Zone(Constants.ZONES[i]);
+            zone.addRing((lng - d) + " " + (lat - d) + ", " + (lng + d) + " " + (lat - d) + ", "
+                    + (lng + d) + " " + (lat + d) + ", " + (lng - d) + " " + (lat + d));
+            byName.put(zone.name.toLowerCase(), zone);
+            zones.add(zone);
+        }
+    }
+
+    // Files every zone under the grid cells its bounding box overlaps
+    // The cell size follows the average zone size, so each cell only lists a handful of zones
+    private void buildGrid() {
+        double total = 0;
+        for (Zone zone : zones) {
+            total += Math.max(zone.maxX - zone.minX, zone.maxY - zone.minY);
+        }
+        cellSize = Math.max(1e-4, total / zones.size());
+
+        Map<Long, List<Integer>> lists = new HashMap<>();
+        for (int i = 0; i < zones.size(); i++) {
+            Zone zone = zones.get(i);
+            for (int cx = cellIndex(zone.minX); cx <= cellIndex(zone.maxX); cx++) {
+                for (int cy = cellIndex(zone.minY); cy <= cellIndex(zone.maxY); cy++) {
+                    lists.computeIfAbsent(pack(cx, cy), c -> new ArrayList<>()).add(i);
+                }
+            }
+        }
+        for (Map.Entry<Long, List<Integer>> entry : lists.entrySet()) {
+            cells.put(entry.getKey(), entry.getValue().stream().mapToInt(Integer::intValue).toArray());
+        }
+    }
+
+    // Gets the grid cell index of one coordinate
+    private int cellIndex(double value) {
+        return (int) Math.floor(value / cellSize);
+    }
+
+    // Packs two cell indices into one map key
+    private static long pack(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+
+    // One zone: all rings of its polygons plus their bounding box
+    // Holes and separate parts need no bookkeeping: a point is inside when it crosses an odd number of ring edges
+    private static class Zone {
+        final String name;
+        double[][] ringX = new double[0][];
+        double[][] ringY = new double[0][];
+        double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+
+        Zone(String name) {
+            this.name = name;
+        }
+
+        // Adds a ring given as "x y, x y, ..."
+        void addRing(String coordinates) {
+            String[] points = coordinates.split(",");
+            if (points.length < 3)
+                throw new IllegalArgumentException("Zone " + name + " has a ring with fewer than 3 points");
+            double[] xs = new double[points.length];
+            double[] ys = new double[points.length];
+            for (int i = 0; i < points.length; i++) {
+                String[] parts = points[i].trim().split("\\s+");
+                if (parts.length < 2)
+                    throw new IllegalArgumentException("Zone " + name + " has an invalid point: " + points[i].trim());
+                xs[i] = Double.parseDouble(parts[0]);
+                ys[i] = Double.parseDouble(parts[1]);
+                minX = Math.min(minX, xs[i]);
+                maxX = Math.max(maxX, xs[i]);
+                minY = Math.min(minY, ys[i]);
+                maxY = Math.max(maxY, ys[i]);
+            }
+            ringX = Arrays.copyOf(ringX, ringX.length + 1);
+            ringY = Arrays.copyOf(ringY, ringY.length + 1);
+            ringX[ringX.length - 1] = xs;
+            ringY[ringY.length - 1] = ys;
+        }
+
+        // Even-odd ray casting over every ring
+        boolean contains(double x, double y) {
+            if (x < minX || x > maxX || y < minY || y > maxY)
+                return false;
+            boolean inside = false;
+            for (int r = 0; r < ringX.length; r++) {
+                double[] xs = ringX[r];
+                double[] ys = ringY[r];
+                for (int i = 0, j = xs.length - 1; i < xs.length; j = i++) {
+                    if ((ys[i] > y) != (ys[j] > y)
+                            && x < (xs[j] - xs[i]) * (y - ys[i]) / (ys[j] - ys[i]) + xs[i]) {
+                        inside = !inside;
+                    }
+                }
+            }
+            return inside;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.womensafety.alertsystem;
+
+import com.womensafety.alertsystem.database.*;
+import com.womensafety.alertsystem.manager.*;
+import com.womensafety.alertsystem.service.*;
+import com.womensafety.alertsystem.util.*;
+
+// Runs every test and benchmark program under src/test; run from the project root so db/zones.wkt is found
+public class RunAllTests {
+    public static void main(String[] args) throws Exception {
+        AlertPriorityBenchmark.run();
+        BatchAssignerBenchmark.run();
+        ResponderKdTreeBenchmark.run();
+        LocationIngestorBenchmark.run();
+        RoadRouterTest.run();
+        ConnectionPoolTest.run();
+        IdAllocatorTest.run();
+        AssignmentTransactionTest.run();
+        DispatcherQueueTest.run();
+        ResponderClaimTest.run();
+        PositionStoreBenchmark.run();
+        AsyncLogWriterTest.run();
+        GeoDistanceBenchmark.run();
+        LoggerAllocationBenchmark.run();
+        TestSupport.finish();
+    }
+}
@@ -0,0 +1,46 @@
+package com.womensafety.alertsystem;
+
+import java.util.Arrays;
+
+// Minimal check and report helpers for the test and benchmark programs under src/test
+// The project has no build tool or test framework, so every test is a plain class with a run() method; RunAllTests
+// runs them all and exits with a non-zero status if any check failed
+public class TestSupport {
+    private static int checks = 0;
+    private static int failures = 0;
+
+    // Records one check and prints its outcome
+    public static void check(boolean condition, String description) {
+        checks++;
+        if (!condition) {
+            failures++;
+        }
+        System.out.println((condition ? "  PASS " : "  FAIL ") + description);
+    }
+
+    // Prints a measured value that is reported but not checked
+    public static void report(String name, String value) {
+        System.out.println("  " + name + ": " + value);
+    }
+
+    // Prints the heading of a test class
+    public static void begin(String name) {
+        System.out.println("\n== " + name);
+    }
+
+    // Gets a percentile of some values, which are sorted in place
+    // Parameters: percentile - between 0 and 100
+    public static long percentile(long[] values, double percentile) {
+        if (values.length == 0)
+            return 0;
+        Arrays.sort(values);
+        int index = (int) Math.ceil(percentile / 100.0 * values.length) - 1;
+        return values[Math.max(0, Math.min(values.length - 1, index))];
+    }
+
+    // Prints the totals and exits with status 1 if any check failed
+    public static void finish() {
+        System.out.println("\n" + (checks - failures) + " of " + checks + " checks passed.");
+        System.exit(failures == 0 ? 0 : 1);
+    }
+}
@@ -0,0 +1,175 @@
+package com.womensafety.alertsystem.database;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.util.Constants;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Checks ConnectionPool borrowing, returning and waiting against FakeDatabase
+// Each check builds its own small pool and counts the physical connections FakeDatabase has open, so the
+// application-wide pool other tests use does not disturb the counts. The checks are that returned connections are
+// reused instead of reopened, that many threads never open more than the pool size, that a caller waits for a
+// returned connection and times out when none is returned, that a connection returned mid-transaction is rolled
+// back, and that a returned proxy can no longer be used. Leak reports and reclaiming are not covered: they need a
+// connection held for DB_POOL_LEAK_DETECTION_THRESHOLD and DB_POOL_ABANDONED_TIMEOUT
+public class ConnectionPoolTest {
+    private static final int POOL_SIZE = 3;
+    private static final int THREADS = 8;
+    private static final int BORROWS = 500; // Per thread
+    private static final long RETURN_DELAY_MILLIS = 200;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("ConnectionPoolTest");
+        FakeDatabase database = FakeDatabase.getInstance();
+        checkReuse(database);
+        checkConcurrentBorrows(database);
+        checkWaitAndTimeout(database);
+        checkReturnedState(database);
+    }
+
+    // Borrows and returns one connection at a time and checks the pre-opened connection is the only one used
+    private static void checkReuse(FakeDatabase database) throws SQLException {
+        int before = database.getOpenConnections();
+        ConnectionPool pool = pool(1);
+        TestSupport.check(database.getOpenConnections() - before == 1 && pool.getIdleCount() == 1,
+                "the pool pre-opens its minimum idle connection");
+        for (int i = 0; i < 100; i++) {
+            try (Connection connection = pool.borrow()) {
+                connection.prepareStatement("SELECT 1").close();
+            }
+        }
+        TestSupport.check(database.getOpenConnections() - before == 1, "100 borrows in turn reuse one physical connection");
+        TestSupport.check(pool.getActiveCount() == 0 && pool.getBorrowCount() == 100, "every borrow was returned and counted");
+        pool.shutdown();
+        TestSupport.check(database.getOpenConnections() == before, "shutdown closes the idle connections");
+        TestSupport.check(failsWith(pool::borrow, "shut down"), "borrowing from a shut-down pool fails");
+    }
+
+    // Has many threads borrow from a small pool at once and checks it never opens more than its size
+    private static void checkConcurrentBorrows(FakeDatabase database) throws Exception {
+        int before = database.getOpenConnections();
+        ConnectionPool pool = pool(0);
+        AtomicInteger mostOpen = new AtomicInteger();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            threads.add(new Thread(() -> {
+                try {
+                    for (int i = 0; i < BORROWS; i++) {
+                        try (Connection connection = pool.borrow()) {
+                            mostOpen.accumulateAndGet(database.getOpenConnections() - before, Math::max);
+                            connection.prepareStatement("SELECT 1");
+                            Thread.yield();
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            }, "test-borrower-" + t));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        TestSupport.report(THREADS + " threads x " + BORROWS + " borrows", pool.getStatistics());
+        TestSupport.check(failures.isEmpty(), "no borrow fails (" + (failures.isEmpty() ? "none" : failures.peek()) + ")");
+        TestSupport.check(mostOpen.get() <= POOL_SIZE, "at most " + POOL_SIZE + " physical connections are open ("
+                + mostOpen.get() + ")");
+        TestSupport.check(pool.getActiveCount() == 0 && pool.getBorrowCount() == (long) THREADS * BORROWS,
+                "every connection is returned");
+        pool.shutdown();
+    }
+
+    // Exhausts the pool, then checks a waiting caller gets a connection as soon as one is returned and times out
+    // when none is
+    private static void checkWaitAndTimeout(FakeDatabase database) throws Exception {
+        ConnectionPool pool = pool(0);
+        List<Connection> held = new ArrayList<>();
+        for (int i = 0; i < POOL_SIZE; i++) {
+            held.add(pool.borrow());
+        }
+        Thread returner = new Thread(() -> {
+            try {
+                Thread.sleep(RETURN_DELAY_MILLIS);
+                held.get(0).close();
+            } catch (InterruptedException | SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }, "test-returner");
+        long start = System.nanoTime();
+        returner.start();
+        Connection waited = pool.borrow();
+        long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+        returner.join();
+        TestSupport.report("wait for a returned connection", waitedMillis + " ms");
+        TestSupport.check(waitedMillis >= RETURN_DELAY_MILLIS - 20 && waitedMillis < Constants.DB_POOL_BORROW_TIMEOUT,
+                "a caller waits for the next returned connection");
+        held.set(0, waited);
+
+        start = System.nanoTime();
+        boolean timedOut = failsWith(pool::borrow, "Timed out");
+        long timeoutMillis = (System.nanoTime() - start) / 1_000_000;
+        TestSupport.report("borrow from an exhausted pool", timeoutMillis + " ms, " + pool.getStatistics());
+        TestSupport.check(timedOut && timeoutMillis >= Constants.DB_POOL_BORROW_TIMEOUT - 50,
+                "a borrow fails after DB_POOL_BORROW_TIMEOUT when no connection is returned");
+        TestSupport.check(pool.getStatistics().contains("timeouts=1"), "the timeout is counted");
+        for (Connection connection : held) {
+            connection.close();
+        }
+        TestSupport.check(pool.getActiveCount() == 0 && pool.getIdleCount() == POOL_SIZE,
+                "a failed borrow does not use up a slot");
+        pool.shutdown();
+    }
+
+    // Returns connections in states a careless caller could leave them in and checks the next borrower is unaffected
+    private static void checkReturnedState(FakeDatabase database) throws SQLException {
+        ConnectionPool pool = pool(1);
+        long rollbacksBefore = database.getRollbacks();
+        Connection connection = pool.borrow();
+        connection.setAutoCommit(false);
+        PreparedStatement statement = connection.prepareStatement("SELECT 1");
+        connection.close();
+        TestSupport.check(database.getRollbacks() - rollbacksBefore == 1, "a connection returned mid-transaction is rolled back");
+        TestSupport.check(statement.isClosed(), "statements left open are closed when the connection is returned");
+        TestSupport.check(connection.isClosed(), "a returned proxy reports itself closed");
+        TestSupport.check(failsWith(() -> connection.prepareStatement("SELECT 1"), "already been returned"),
+                "a returned proxy cannot be used");
+        connection.close(); // A second close must not return the connection twice
+        TestSupport.check(pool.getIdleCount() == 1, "closing a proxy twice returns it once");
+
+        try (Connection next = pool.borrow()) {
+            TestSupport.check(next.getAutoCommit(), "the next borrower gets the connection back in auto-commit mode");
+        }
+        pool.shutdown();
+    }
+
+    private static ConnectionPool pool(int minIdle) {
+        return new ConnectionPool(Constants.DB_URL, Constants.DB_USER, Constants.DB_PASSWORD, POOL_SIZE, minIdle);
+    }
+
+    // A call expected to throw
+    private interface SqlCall {
+        Object call() throws SQLException;
+    }
+
+    // Returns: true if the call throws an SQLException whose message contains the expected text
+    private static boolean failsWith(SqlCall call, String expected) {
+        try {
+            call.call();
+            return false;
+        } catch (SQLException e) {
+            return e.getMessage().contains(expected);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+package com.womensafety.alertsystem.database;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+// In-memory stand-in for the MySQL database, registered with DriverManager for jdbc:mysql URLs
+// The tests run without MySQL or its driver, so tests that go through ConnectionPool install this driver instead.
+// It models only what dispatching touches: the Availability column of responder_details, the Status column of
+// alert_details, the dispatch rows inserted, ID block reservations and the pending alert query, which finds nothing.
+// Any other statement fails with an SQLException naming it. As MySQL does, it refuses SQL holding several statements
+// unless the URL sets allowMultiQueries=true
+// Each statement is applied atomically, as MySQL's row lock would be, so two callers can never both change the same
+// row. Statements take effect as they run: a rollback is counted but undoes nothing
+public class FakeDatabase implements Driver {
+    private static FakeDatabase instance; // Registered with DriverManager on first use
+
+    private static final String CLAIM = "UPDATE responder_details SET Availability = false WHERE Responder_id = ? AND Availability = true";
+    private static final String RELEASE = "UPDATE responder_details SET Availability = true WHERE Responder_id = ?";
+    private static final String SET_AVAILABILITY = "UPDATE responder_details SET Availability = ? WHERE Responder_id = ?";
+    private static final String UPDATE_ALERT = "UPDATE alert_details SET Status = ?, Responder_id = ? WHERE Alert_id = ?";
+    private static final String UPDATE_ALERT_STATUS = "UPDATE alert_details SET Status = ? WHERE Alert_id = ?";
+    private static final String COMPLETE_DISPATCH = "UPDATE dispatches SET Completion_time = CURRENT_TIMESTAMP WHERE Alert_id = ? AND Responder_id = ?";
+    private static final String RESERVE_IDS = "UPDATE id_sequences SET Next_id = LAST_INSERT_ID(Next_id + ?) WHERE Name = ?";
+    private static final String LAST_INSERT_ID = "SELECT LAST_INSERT_ID() AS high";
+
+    private final Map<Integer, Boolean> availability = new ConcurrentHashMap<>(); // Responder ID to its Availability column
+    private final Map<Integer, String> alertStatus = new ConcurrentHashMap<>(); // Alert ID to its Status column
+    private final Queue<int[]> dispatches = new ConcurrentLinkedQueue<>(); // {alert ID, responder ID} of every dispatch row inserted
+    private final Map<String, Integer> sequences = new ConcurrentHashMap<>(); // Table to the next ID after its reserved blocks
+    private final AtomicInteger openConnections = new AtomicInteger(); // Physical connections not yet closed
+    private final AtomicLong lostClaims = new AtomicLong(); // Claims that changed no row because the responder was busy
+    private final AtomicLong rollbacks = new AtomicLong();
+
+    // Gets the fake database, registering it as the driver for jdbc:mysql URLs on first use
+    public static synchronized FakeDatabase getInstance() {
+        if (instance == null) {
+            instance = new FakeDatabase();
+            try {
+                DriverManager.registerDriver(instance);
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not register the fake database driver", e);
+            }
+        }
+        return instance;
+    }
+
+    // Sets a responder's row, adding it if it does not exist
+    public void setAvailable(int responderId, boolean available) {
+        availability.put(responderId, available);
+    }
+
+    // Returns: the responder's Availability column, or false if it has no row
+    public boolean isAvailable(int responderId) {
+        return availability.getOrDefault(responderId, false);
+    }
+
+    // Returns: the alert's Status column, or null if it has no row
+    public String getAlertStatus(int alertId) {
+        return alertStatus.get(alertId);
+    }
+
+    // Gets a copy of every dispatch row inserted so far
+    // Returns: {alert ID, responder ID} pairs in insertion order
+    public List<int[]> getDispatches() {
+        return new ArrayList<>(dispatches);
+    }
+
+    // Gets the number of physical connections opened and not yet closed
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    // Gets the number of claim updates that found the responder already busy
+    public long getLostClaims() {
+        return lostClaims.get();
+    }
+
+    // Gets the number of rollbacks issued on any connection
+    public long getRollbacks() {
+        return rollbacks.get();
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url))
+            return null;
+        openConnections.incrementAndGet();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new FakeConnection(url.contains("allowMultiQueries=true")));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith("jdbc:mysql:");
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    // Runs one update statement
+    // Parameters: connection - connection the statement runs on
+    //             p - bound values by parameter index
+    // Returns: number of rows matched
+    private int update(FakeConnection connection, String sql, Map<Integer, Object> p) throws SQLException {
+        if (sql.startsWith("INSERT INTO dispatches ")) {
+            dispatches.add(new int[] {(Integer) p.get(1), (Integer) p.get(2)});
+            return 1;
+        }
+        if (sql.startsWith("INSERT INTO alert_details ")) {
+            alertStatus.put((Integer) p.get(1), (String) p.get(4));
+            return 1;
+        }
+        if (sql.startsWith("INSERT INTO alert_status_history "))
+            return 1;
+        if (sql.startsWith("INSERT IGNORE INTO id_sequences ")) // IdAllocator's seed; the fake tables start empty
+            return sequences.putIfAbsent((String) p.get(1), 1) == null ? 1 : 0;
+        switch (sql) {
+            case CLAIM:
+                if (availability.replace((Integer) p.get(1), true, false))
+                    return 1;
+                lostClaims.incrementAndGet();
+                return 0;
+            case RELEASE:
+                return availability.replace((Integer) p.get(1), true) != null ? 1 : 0;
+            case SET_AVAILABILITY:
+                return availability.replace((Integer) p.get(2), (Boolean) p.get(1)) != null ? 1 : 0;
+            case UPDATE_ALERT:
+                return alertStatus.replace((Integer) p.get(3), (String) p.get(1)) != null ? 1 : 0;
+            case UPDATE_ALERT_STATUS:
+                return alertStatus.replace((Integer) p.get(2), (String) p.get(1)) != null ? 1 : 0;
+            case COMPLETE_DISPATCH:
+                for (int[] row : dispatches) {
+                    if (row[0] == (Integer) p.get(1) && row[1] == (Integer) p.get(2))
+                        return 1;
+                }
+                return 0; // No dispatch row, as for alerts assigned before dispatch rows were written
+            case RESERVE_IDS:
+                Integer high = sequences.computeIfPresent((String) p.get(2), (name, next) -> next + (Integer) p.get(1));
+                if (high == null)
+                    return 0;
+                connection.lastInsertId = high;
+                return 1;
+            default:
+                throw new SQLException("FakeDatabase does not understand: " + sql);
+        }
+    }
+
+    // Runs one query
+    // Returns: result rows, each a map from column label to value
+    private List<Map<String, Object>> query(FakeConnection connection, String sql) throws SQLException {
+        if (sql.startsWith("SELECT a.*, u.Name as user_name"))
+            return List.of(); // Pending alerts at startup: none
+        if (sql.equals(LAST_INSERT_ID))
+            return List.of(Map.of("high", connection.lastInsertId));
+        throw new SQLException("FakeDatabase does not understand: " + sql);
+    }
+
+    // Handles the Connection methods the pool and its callers use
+    private class FakeConnection implements InvocationHandler {
+        private final boolean multiQueries; // Whether the URL allows several statements in one call
+        private boolean closed = false;
+        private boolean autoCommit = true;
+        private volatile int lastInsertId = 0; // Value of LAST_INSERT_ID() on this connection
+
+        FakeConnection(boolean multiQueries) {
+            this.multiQueries = multiQueries;
+        }
+
+        @Override
+        public synchronized Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        openConnections.decrementAndGet();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "isValid":
+                    return !closed;
+                case "getAutoCommit":
+                    return autoCommit;
+                case "setAutoCommit":
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                case "commit":
+                    return null;
+                case "rollback":
+                    rollbacks.incrementAndGet();
+                    return null;
+                case "prepareStatement":
+                    String sql = (String) args[0];
+                    if (!multiQueries && sql.strip().replaceAll(";$", "").contains(";"))
+                        throw new SQLSyntaxErrorException("Several statements in one call need allowMultiQueries=true: " + sql);
+                    return Proxy.newProxyInstance(PreparedStatement.class.getClassLoader(),
+                            new Class<?>[]{PreparedStatement.class}, new FakeStatement(this, sql));
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "FakeConnection";
+                default:
+                    throw new SQLException("FakeDatabase does not support Connection." + method.getName());
+            }
+        }
+    }
+
+    // Handles the PreparedStatement methods used by the managers, the ID allocator and the group-commit writer
+    private class FakeStatement implements InvocationHandler {
+        private final FakeConnection connection;
+        private final String sql;
+        private Map<Integer, Object> parameters = new HashMap<>(); // Parameter index to bound value
+        private final List<Map<Integer, Object>> batch = new ArrayList<>(); // Parameter sets added with addBatch
+        private boolean closed = false;
+
+        FakeStatement(FakeConnection connection, String sql) {
+            this.connection = connection;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "setInt":
+                case "setString":
+                case "setDouble":
+                case "setBoolean":
+                case "setTimestamp":
+                    parameters.put((Integer) args[0], args[1]);
+                    return null;
+                case "setNull":
+                    parameters.put((Integer) args[0], null);
+                    return null;
+                case "executeUpdate":
+                    return update(connection, sql, parameters);
+                case "addBatch":
+                    batch.add(parameters);
+                    parameters = new HashMap<>();
+                    return null;
+                case "executeBatch":
+                    int[] counts = new int[batch.size()];
+                    for (int i = 0; i < counts.length; i++) {
+                        counts[i] = update(connection, sql, batch.get(i));
+                    }
+                    batch.clear();
+                    return counts;
+                case "executeQuery":
+                    return resultSet(query(connection, sql));
+                case "close":
+                    closed = true;
+                    return null;
+                case "isClosed":
+                    return closed;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "FakeStatement[" + sql + "]";
+                default:
+                    throw new SQLException("FakeDatabase does not support PreparedStatement." + method.getName());
+            }
+        }
+    }
+
+    // Wraps query rows in a forward-only ResultSet
+    private static ResultSet resultSet(List<Map<String, Object>> rows) {
+        return (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                new Class<?>[]{ResultSet.class}, new FakeResultSet(rows));
+    }
+
+    // Handles the ResultSet methods used to read ID reservations and the pending alert query
+    private static class FakeResultSet implements InvocationHandler {
+        private final Iterator<Map<String, Object>> remaining;
+        private Map<String, Object> current; // Row the cursor is on, null before the first and after the last
+
+        FakeResultSet(List<Map<String, Object>> rows) {
+            this.remaining = rows.iterator();
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "next":
+                    current = remaining.hasNext() ? remaining.next() : null;
+                    return current != null;
+                case "getInt":
+                    return ((Number) current.get((String) args[0])).intValue();
+                case "close":
+                    return null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    throw new SQLException("FakeDatabase does not support ResultSet." + method.getName());
+            }
+        }
+    }
+}
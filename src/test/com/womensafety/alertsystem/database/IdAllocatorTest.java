@@ -0,0 +1,82 @@
+package com.womensafety.alertsystem.database;
+
+import com.womensafety.alertsystem.TestSupport;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLSyntaxErrorException;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// Checks IdAllocator block reservations against FakeDatabase
+// Several allocators for one table stand for several dispatcher processes, each drawn from by several threads. The
+// checks are that no ID is handed out twice, that blocks are reserved one after another without overlap, and that
+// the reservation runs on the shared connection URL, which does not allow several statements in one call
+public class IdAllocatorTest {
+    private static final String TABLE = "id_allocator_test"; // Sequence row no application table uses
+    private static final int ALLOCATORS = 3;
+    private static final int THREADS_PER_ALLOCATOR = 3;
+    private static final int IDS_PER_THREAD = 2_000;
+    private static final int BLOCK_SIZE = 50;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("IdAllocatorTest");
+        FakeDatabase.getInstance();
+        checkMultiStatementRefused();
+        checkDisjointIds();
+    }
+
+    // Checks the fake driver refuses what MySQL refuses without allowMultiQueries, so a multi-statement script fails here
+    private static void checkMultiStatementRefused() throws SQLException {
+        boolean refused = false;
+        try (Connection con = ConnectionPool.getConnection()) {
+            con.prepareStatement("UPDATE id_sequences SET Next_id = 1 WHERE Name = ?; SELECT LAST_INSERT_ID()");
+        } catch (SQLSyntaxErrorException e) {
+            refused = true;
+        }
+        TestSupport.check(refused, "several statements in one call are refused on the shared URL");
+    }
+
+    private static void checkDisjointIds() throws Exception {
+        List<IdAllocator> allocators = new ArrayList<>();
+        for (int a = 0; a < ALLOCATORS; a++) {
+            allocators.add(new IdAllocator(TABLE, "Id", BLOCK_SIZE));
+        }
+        Queue<Integer> ids = new ConcurrentLinkedQueue<>();
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (IdAllocator allocator : allocators) {
+            for (int t = 0; t < THREADS_PER_ALLOCATOR; t++) {
+                threads.add(new Thread(() -> {
+                    try {
+                        for (int i = 0; i < IDS_PER_THREAD; i++) {
+                            ids.add(allocator.nextId());
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }, "test-allocator-" + threads.size()));
+            }
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        int total = ALLOCATORS * THREADS_PER_ALLOCATOR * IDS_PER_THREAD;
+        int reservations = allocators.stream().mapToInt(IdAllocator::getReservationCount).sum();
+        Set<Integer> distinct = new HashSet<>(ids);
+        int highest = ids.stream().mapToInt(Integer::intValue).max().orElse(0);
+        TestSupport.report(total + " IDs from " + ALLOCATORS + " allocators", reservations + " blocks reserved, highest ID " + highest);
+        TestSupport.check(failures.isEmpty(), "every reservation succeeds (" + (failures.isEmpty() ? "none" : failures.peek()) + ")");
+        TestSupport.check(ids.size() == total && distinct.size() == total, "no ID is handed out twice");
+        TestSupport.check(Collections.min(distinct) == 1 && highest <= reservations * BLOCK_SIZE,
+                "blocks follow each other from the seeded start without overlap");
+    }
+}
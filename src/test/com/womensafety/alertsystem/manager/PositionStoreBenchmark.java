@@ -0,0 +1,117 @@
+package com.womensafety.alertsystem.manager;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.service.NearestResponderFinder;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.util.*;
+
+// Compares brute-force scans over a PositionStore with the same scans over a List<Responder>
+// Responders are allocated between unrelated objects and the list is shuffled, as a zone list built up over a long
+// run would be, so the list loop follows a pointer to a different part of the heap for every responder. The list
+// side of the nearest scan is NearestResponderFinder.findNearestResponder, the loop dispatch used before the store.
+// The checks are that both sides find the same responders and that the store scans faster at every size
+public class PositionStoreBenchmark {
+    private static final String ZONE = "North";
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+    private static final int QUERIES_PER_SIZE = 20_000_000; // Responders scanned per timed run, spread over queries
+    private static final double RADIUS_KM = 25;
+    private static final int TIMING_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() {
+        TestSupport.begin("PositionStoreBenchmark");
+        Random random = new Random(15);
+        for (int size : SIZES) {
+            List<Object> filler = new ArrayList<>(); // Keeps the objects between responders alive
+            List<Responder> list = new ArrayList<>(size);
+            PositionStore store = new PositionStore();
+            for (int id = 1; id <= size; id++) {
+                Responder responder = new Responder(id, "Responder " + id, "9876543210", "r" + id + "@gmail.com", ZONE, true, "secret1");
+                double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE); // {latitude, longitude}
+                responder.setX(position[1]);
+                responder.setY(position[0]);
+                list.add(responder);
+                store.add(responder);
+                filler.add(new byte[64 + random.nextInt(192)]);
+            }
+            Collections.shuffle(list, random);
+
+            int queries = Math.max(1, QUERIES_PER_SIZE / size);
+            User[] users = new User[queries];
+            for (int q = 0; q < queries; q++) {
+                double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE);
+                users[q] = new User(q + 1, "User " + q, "9876543210", "u" + q + "@gmail.com", "Test", ZONE, "secret1");
+                users[q].setX(position[1]);
+                users[q].setY(position[0]);
+            }
+            compare(size, list, store, users);
+            filler.clear();
+        }
+    }
+
+    private static void compare(int size, List<Responder> list, PositionStore store, User[] users) {
+        int nearestMismatches = 0, radiusMismatches = 0;
+        for (int q = 0; q < Math.min(users.length, 200); q++) {
+            User user = users[q];
+            if (NearestResponderFinder.findNearestResponder(user, list) != store.get(store.nearestSlot(user.getX(), user.getY(), -1)))
+                nearestMismatches++;
+            if (listWithinRadius(list, user).size() != store.withinRadius(user.getX(), user.getY(), RADIUS_KM).size())
+                radiusMismatches++;
+        }
+
+        long listNearest = Long.MAX_VALUE, storeNearest = Long.MAX_VALUE, listRadius = Long.MAX_VALUE, storeRadius = Long.MAX_VALUE;
+        long sink = 0;
+        for (int round = 0; round < TIMING_ROUNDS; round++) { // Best of several rounds, after the JIT has compiled each loop
+            long start = System.nanoTime();
+            for (User user : users) {
+                sink += NearestResponderFinder.findNearestResponder(user, list).getId();
+            }
+            listNearest = Math.min(listNearest, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += store.nearestSlot(user.getX(), user.getY(), -1);
+            }
+            storeNearest = Math.min(storeNearest, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += listWithinRadius(list, user).size();
+            }
+            listRadius = Math.min(listRadius, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += store.withinRadius(user.getX(), user.getY(), RADIUS_KM).size();
+            }
+            storeRadius = Math.min(storeRadius, System.nanoTime() - start);
+        }
+
+        double scanned = (double) users.length * size;
+        TestSupport.report(size + " responders, ns per responder scanned", String.format(
+                "nearest: list %.2f | store %.2f (%.1fx) ; radius: list %.2f | store %.2f (%.1fx) (sink %d)",
+                listNearest / scanned, storeNearest / scanned, (double) listNearest / storeNearest,
+                listRadius / scanned, storeRadius / scanned, (double) listRadius / storeRadius, sink));
+        TestSupport.check(nearestMismatches == 0 && radiusMismatches == 0,
+                size + " responders: the store finds the same responders as the list loop");
+        TestSupport.check(storeNearest < listNearest && storeRadius < listRadius,
+                size + " responders: nearest and radius scans are faster over the store");
+    }
+
+    // The radius scan as it was written over a zone list
+    private static List<Responder> listWithinRadius(List<Responder> list, User user) {
+        double scale = GeoDistance.longitudeScale(user.getY());
+        List<Responder> result = new ArrayList<>();
+        for (Responder responder : list) {
+            if (responder.isAvailable()
+                    && GeoDistance.equirectangularKm(user.getX(), user.getY(), responder.getX(), responder.getY(), scale) <= RADIUS_KM) {
+                result.add(responder);
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,144 @@
+package com.womensafety.alertsystem.manager;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.database.FakeDatabase;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Races dispatcher threads and dispatcher instances for the same responders through the claim protocol
+// Claims run against FakeDatabase, which applies the compare-and-set update atomically as MySQL does. The checks are
+// that no responder is ever handed to two callers, whether the callers share one LocationManager or each have their
+// own as separate dispatcher processes would, that no free responder is left unclaimed, and that when many threads
+// claim one specific responder at once exactly one of them gets it
+public class ResponderClaimTest {
+    private static final String ZONE = "North";
+    private static final int FIRST_ID = 600_001; // Clear of the IDs other tests put in the shared responder cache
+    private static final int RESPONDERS = 400;
+    private static final int THREADS = 8;
+    private static final int RACE_ROUNDS = 200;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("ResponderClaimTest");
+        FakeDatabase database = FakeDatabase.getInstance();
+
+        LocationManager shared = new LocationManager();
+        load(shared, database, FIRST_ID);
+        checkDrain("threads sharing one dispatcher", new LocationManager[] {shared}, FIRST_ID, database);
+
+        // Two managers over the same rows stand for two dispatcher processes: each one's index is stale about the
+        // other's claims, so only the database update keeps them from taking the same responder
+        int secondId = FIRST_ID + RESPONDERS;
+        LocationManager first = new LocationManager();
+        LocationManager second = new LocationManager();
+        load(first, database, secondId);
+        load(second, database, secondId);
+        long lostBefore = database.getLostClaims();
+        checkDrain("two dispatcher instances", new LocationManager[] {first, second}, secondId, database);
+        long lost = database.getLostClaims() - lostBefore;
+        TestSupport.report("claims lost to the other instance", String.valueOf(lost));
+        TestSupport.check(lost > 0, "the instances competed for the same responders in the database");
+
+        checkSingleResponderRace(database);
+    }
+
+    // Adds RESPONDERS available responders from firstId onwards to a manager and to the database
+    private static void load(LocationManager manager, FakeDatabase database, int firstId) {
+        List<Responder> responders = new ArrayList<>();
+        for (int id = firstId; id < firstId + RESPONDERS; id++) {
+            Responder responder = new Responder(id, "Responder " + id, "9876543210", "r" + id + "@gmail.com", ZONE, true, "secret1");
+            double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE); // {latitude, longitude}
+            responder.setX(position[1]);
+            responder.setY(position[0]);
+            responders.add(responder);
+            database.setAvailable(id, true);
+        }
+        manager.addLoadedResponders(responders);
+    }
+
+    // Runs THREADS threads spread over the managers, each claiming responders in the zone until none is left
+    // A claim only returns null once the caller's manager has no free responder left in the zone, so each thread
+    // stops at its first null
+    private static void checkDrain(String name, LocationManager[] managers, int firstId, FakeDatabase database) throws Exception {
+        Queue<Integer> claimed = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[THREADS];
+        for (int t = 0; t < THREADS; t++) {
+            LocationManager manager = managers[t % managers.length];
+            threads[t] = new Thread(() -> {
+                awaitQuietly(start);
+                Responder responder;
+                while ((responder = manager.claimAvailableResponder(ZONE, -1)) != null) {
+                    claimed.add(responder.getId());
+                }
+            }, "claim-" + t);
+            threads[t].start();
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Integer> distinct = new HashSet<>(claimed);
+        int stillFree = 0;
+        for (int id = firstId; id < firstId + RESPONDERS; id++) {
+            if (database.isAvailable(id))
+                stillFree++;
+        }
+        TestSupport.report(name, claimed.size() + " claims by " + THREADS + " threads for " + RESPONDERS + " responders");
+        TestSupport.check(distinct.size() == claimed.size(), name + ": no responder is claimed twice ("
+                + (claimed.size() - distinct.size()) + " double claims)");
+        TestSupport.check(distinct.size() == RESPONDERS && stillFree == 0, name + ": every responder is claimed ("
+                + stillFree + " left free)");
+    }
+
+    // Has every thread claim the same responder at the same moment, many times over
+    private static void checkSingleResponderRace(FakeDatabase database) throws Exception {
+        int id = FIRST_ID + 2 * RESPONDERS;
+        LocationManager manager = new LocationManager();
+        Responder responder = new Responder(id, "Responder " + id, "9876543210", "r" + id + "@gmail.com", ZONE, true, "secret1");
+        manager.addLoadedResponders(List.of(responder));
+        database.setAvailable(id, true);
+        Responder indexed = manager.getAvailableResponders(ZONE).get(0);
+
+        int badRounds = 0;
+        for (int round = 0; round < RACE_ROUNDS; round++) {
+            AtomicInteger winners = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] threads = new Thread[THREADS];
+            for (int t = 0; t < THREADS; t++) {
+                threads[t] = new Thread(() -> {
+                    awaitQuietly(start);
+                    if (manager.claimResponder(indexed))
+                        winners.incrementAndGet();
+                });
+                threads[t].start();
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            if (winners.get() != 1)
+                badRounds++;
+            manager.releaseClaim(indexed);
+        }
+        TestSupport.check(badRounds == 0, "exactly one of " + THREADS + " threads claims a contested responder ("
+                + badRounds + " of " + RACE_ROUNDS + " rounds wrong)");
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.model.Alert;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.util.Constants;
+import java.time.LocalDateTime;
+import java.util.*;
+
+// Compares the priority dispatch queue with the old FIFO queue under overload
+// A simulated zone goes through a one-hour surge at 150% of its responders' capacity, then two hours at 80% while the
+// backlog drains. Both queues see the same arrivals; the report gives p50 and p99 waits per severity. The checks are
+// that critical and high alerts wait less than under FIFO, that no alert is ever overtaken by one raised more than the
+// maximum boost after it (no starvation), and that offer and poll stay logarithmic as the queue grows
+// Boosts are capped at a few minutes by design, so the gain shrinks when an overload lasts for hours
+public class AlertPriorityBenchmark {
+    private static final long SERVICE_MILLIS = 20_000; // One responder frees up every 20 s
+    private static final long SURGE_MILLIS = 3_600_000L; // Length of the surge
+    private static final long END_MILLIS = 3 * 3_600_000L; // No alerts after this
+    private static final double SURGE_LOAD = 1.5, NORMAL_LOAD = 0.8; // Arrival rate relative to the service rate
+    private static final String[] SEVERITY_NAMES = {"low", "normal", "high", "critical"};
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() {
+        TestSupport.begin("AlertPriorityBenchmark");
+        Random random = new Random(42);
+        User user = new User(1, "Bench User", "9876543210", "bench@gmail.com", "Benchmark", "North", "secret1");
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+        List<Long> times = new ArrayList<>();
+        for (long time = 0; ; ) {
+            double load = time < SURGE_MILLIS ? SURGE_LOAD : NORMAL_LOAD;
+            time += (long) (-Math.log(1 - random.nextDouble()) * SERVICE_MILLIS / load); // Poisson arrivals
+            if (time >= END_MILLIS)
+                break;
+            times.add(time);
+        }
+        int count = times.size();
+        Alert[] alerts = new Alert[count];
+        long[] arrival = new long[count];
+        for (int i = 0; i < count; i++) {
+            long time = times.get(i);
+            arrival[i] = time;
+            alerts[i] = new Alert(i + 1, user, start.plusNanos(time * 1_000_000L), Constants.STATUS_ACTIVE, null);
+            double roll = random.nextDouble();
+            alerts[i].setSeverity(roll < 0.05 ? Constants.SEVERITY_CRITICAL : roll < 0.20 ? Constants.SEVERITY_HIGH
+                    : roll < 0.80 ? Constants.SEVERITY_NORMAL : Constants.SEVERITY_LOW);
+        }
+
+        long[] fifoWait = simulate(new ArrayDeque<>(), alerts, arrival, null);
+        int[] order = new int[count];
+        long[] priorityWait = simulate(new ZoneShard("north").getQueue(), alerts, arrival, order);
+
+        for (int severity = Constants.SEVERITY_CRITICAL; severity >= Constants.SEVERITY_LOW; severity--) {
+            TestSupport.report(String.format("%-8s FIFO p50/p99", SEVERITY_NAMES[severity]),
+                    summary(fifoWait, alerts, severity) + " | priority p50/p99: " + summary(priorityWait, alerts, severity));
+        }
+        TestSupport.report("all      FIFO p99", minutes(TestSupport.percentile(fifoWait.clone(), 99))
+                + " | priority p99: " + minutes(TestSupport.percentile(priorityWait.clone(), 99)));
+
+        TestSupport.report("alerts", count + ", of which " + select(fifoWait, alerts, Constants.SEVERITY_CRITICAL).length + " critical");
+        for (int severity : new int[] {Constants.SEVERITY_CRITICAL, Constants.SEVERITY_HIGH}) {
+            TestSupport.check(percentile(priorityWait, alerts, severity, 99) < percentile(fifoWait, alerts, severity, 99),
+                    SEVERITY_NAMES[severity] + " p99 wait is lower than FIFO");
+        }
+
+        long maxBoost = Constants.SEVERITY_CRITICAL * Constants.PRIORITY_SEVERITY_WEIGHT
+                + Constants.PRIORITY_MAX_RETRY_BOOST * Constants.PRIORITY_RETRY_WEIGHT;
+        TestSupport.check(overtakenBeyondBoost(arrival, order, maxBoost) == 0,
+                "no alert is served after one raised more than the maximum boost later");
+
+        checkLogarithmic(user, start);
+    }
+
+    // Serves alerts from a queue, one per service interval, and records each alert's wait
+    // Parameters: order - receives the position each alert was served in, or null
+    // Returns: wait of each alert in milliseconds
+    private static long[] simulate(Queue<Alert> queue, Alert[] alerts, long[] arrival, int[] order) {
+        long[] wait = new long[alerts.length];
+        Map<Alert, Integer> index = new IdentityHashMap<>();
+        long time = 0;
+        int next = 0;
+        for (int served = 0; served < alerts.length; served++) {
+            if (queue.isEmpty() && arrival[next] > time) {
+                time = arrival[next]; // Idle until the next alert
+            }
+            while (next < alerts.length && arrival[next] <= time) {
+                index.put(alerts[next], next);
+                queue.offer(alerts[next++]);
+            }
+            int i = index.get(queue.poll());
+            wait[i] = time - arrival[i];
+            if (order != null) {
+                order[i] = served;
+            }
+            time += SERVICE_MILLIS;
+        }
+        return wait;
+    }
+
+    // Counts alerts served after some alert raised more than maxBoost milliseconds later than them
+    private static int overtakenBeyondBoost(long[] arrival, int[] order, long maxBoost) {
+        int n = arrival.length;
+        int[] laterMinOrder = new int[n + 1]; // Smallest serving position among alerts i..n-1 (arrivals are sorted)
+        laterMinOrder[n] = Integer.MAX_VALUE;
+        for (int i = n - 1; i >= 0; i--) {
+            laterMinOrder[i] = Math.min(order[i], laterMinOrder[i + 1]);
+        }
+        int violations = 0;
+        int j = 0;
+        for (int i = 0; i < n; i++) {
+            while (j < n && arrival[j] <= arrival[i] + maxBoost) {
+                j++;
+            }
+            if (laterMinOrder[j] < order[i]) {
+                violations++;
+            }
+        }
+        return violations;
+    }
+
+    // Times offer and poll on the zone queue at growing sizes
+    private static void checkLogarithmic(User user, LocalDateTime start) {
+        Random random = new Random(7);
+        double[] nanosPerOp = new double[3];
+        int[] sizes = {1_000, 10_000, 100_000};
+        for (int round = 0; round < 2; round++) { // First round warms up the JIT
+            for (int s = 0; s < sizes.length; s++) {
+                Queue<Alert> queue = new ZoneShard("north").getQueue();
+                for (int i = 0; i < sizes[s]; i++) {
+                    queue.offer(randomAlert(random, user, start, i));
+                }
+                Alert[] incoming = new Alert[20_000];
+                for (int i = 0; i < incoming.length; i++) {
+                    incoming[i] = randomAlert(random, user, start, sizes[s] + i);
+                }
+                long begin = System.nanoTime();
+                for (Alert alert : incoming) {
+                    queue.offer(alert);
+                    queue.poll();
+                }
+                nanosPerOp[s] = (System.nanoTime() - begin) / (2.0 * incoming.length);
+            }
+        }
+        TestSupport.report("offer+poll ns/op at 1k/10k/100k queued",
+                String.format("%.0f / %.0f / %.0f", nanosPerOp[0], nanosPerOp[1], nanosPerOp[2]));
+        TestSupport.check(nanosPerOp[2] < nanosPerOp[0] * 10, "100x more queued alerts cost less than 10x per operation");
+    }
+
+    private static Alert randomAlert(Random random, User user, LocalDateTime start, int id) {
+        Alert alert = new Alert(id + 1, user, start.plusSeconds(random.nextInt(86_400)), Constants.STATUS_ACTIVE, null);
+        alert.setSeverity(random.nextInt(4));
+        return alert;
+    }
+
+    private static long percentile(long[] wait, Alert[] alerts, int severity, double percentile) {
+        return TestSupport.percentile(select(wait, alerts, severity), percentile);
+    }
+
+    private static String summary(long[] wait, Alert[] alerts, int severity) {
+        long[] selected = select(wait, alerts, severity);
+        return minutes(TestSupport.percentile(selected, 50)) + " / " + minutes(TestSupport.percentile(selected, 99));
+    }
+
+    private static long[] select(long[] wait, Alert[] alerts, int severity) {
+        return java.util.stream.IntStream.range(0, alerts.length)
+                .filter(i -> alerts[i].getSeverity() == severity).mapToLong(i -> wait[i]).toArray();
+    }
+
+    private static String minutes(long millis) {
+        return String.format("%.1f min", millis / 60_000.0);
+    }
+}
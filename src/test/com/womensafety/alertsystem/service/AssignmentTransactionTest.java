@@ -0,0 +1,74 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.database.FakeDatabase;
+import com.womensafety.alertsystem.util.Constants;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.CompletableFuture;
+
+// Commits alert transitions through the group-commit writer against FakeDatabase
+// Alerts assigned before dispatch rows were written have an alert row but no dispatch row. The checks are that such
+// an alert can still be resolved and reassigned, alone or in a batch with other units, that a normal assignment's
+// dispatch row is completed, and that a transition whose alert row is missing still fails as a whole
+public class AssignmentTransactionTest {
+    private static final int FIRST_ID = 800_001; // Clear of the IDs other tests give alerts and responders
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("AssignmentTransactionTest");
+        FakeDatabase database = FakeDatabase.getInstance();
+        int responder = FIRST_ID, other = FIRST_ID + 1, third = FIRST_ID + 2;
+
+        int resolved = FIRST_ID;
+        insertAssignedWithoutDispatch(database, resolved, responder);
+        int[] counts = AssignmentTransaction.resolve(resolved, responder, Constants.STATUS_ASSIGNED).commit();
+        TestSupport.check(counts[0] == 0 && Constants.STATUS_RESOLVED.equals(database.getAlertStatus(resolved))
+                        && database.isAvailable(responder),
+                "an alert with no dispatch row is resolved and its responder freed");
+
+        int reassigned = FIRST_ID + 1;
+        insertAssignedWithoutDispatch(database, reassigned, responder);
+        database.setAvailable(other, true);
+        AssignmentTransaction.reassign(reassigned, responder, other, Constants.STATUS_ASSIGNED, 1.5).commit();
+        TestSupport.check(hasDispatch(database, reassigned, other) && database.isAvailable(responder) && !database.isAvailable(other),
+                "an alert with no dispatch row is reassigned");
+
+        int assigned = FIRST_ID + 2;
+        new AssignmentTransaction().insertAlert(assigned, 1, null, Constants.STATUS_ACTIVE, Constants.SEVERITY_CRITICAL,
+                new Timestamp(System.currentTimeMillis()), 77.2, 28.6).commit();
+        database.setAvailable(third, true);
+        AssignmentTransaction.assign(assigned, third, Constants.STATUS_ACTIVE, 2.0).commit();
+        int batched = FIRST_ID + 3;
+        insertAssignedWithoutDispatch(database, batched, responder);
+        CompletableFuture<int[]> normal = AssignmentTransaction.resolve(assigned, third, Constants.STATUS_ASSIGNED).submit();
+        CompletableFuture<int[]> old = AssignmentTransaction.resolve(batched, responder, Constants.STATUS_ASSIGNED).submit();
+        TestSupport.check(normal.get()[0] == 1 && old.get()[0] == 0
+                        && Constants.STATUS_RESOLVED.equals(database.getAlertStatus(assigned))
+                        && Constants.STATUS_RESOLVED.equals(database.getAlertStatus(batched)),
+                "alerts with and without a dispatch row are resolved in the same batch");
+
+        boolean failed = false;
+        try {
+            AssignmentTransaction.resolve(FIRST_ID + 99, responder, Constants.STATUS_ASSIGNED).commit();
+        } catch (SQLException e) {
+            failed = true;
+        }
+        TestSupport.check(failed, "resolving an alert with no alert row still fails");
+    }
+
+    // Adds an alert assigned to a busy responder the way the old path left it: alert row, no dispatch row
+    private static void insertAssignedWithoutDispatch(FakeDatabase database, int alertId, int responderId) throws SQLException {
+        new AssignmentTransaction().insertAlert(alertId, 1, responderId, Constants.STATUS_ASSIGNED, Constants.SEVERITY_CRITICAL,
+                new Timestamp(System.currentTimeMillis()), 77.2, 28.6).commit();
+        database.setAvailable(responderId, false);
+    }
+
+    private static boolean hasDispatch(FakeDatabase database, int alertId, int responderId) {
+        return database.getDispatches().stream().anyMatch(row -> row[0] == alertId && row[1] == responderId);
+    }
+}
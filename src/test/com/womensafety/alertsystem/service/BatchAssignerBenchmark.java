@@ -0,0 +1,175 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.model.Alert;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.util.*;
+
+// Compares batch assignment by minimum total distance with the one-at-a-time loops it replaced
+// Alerts and responders are scattered over a zone; each batch is assigned three ways: a random free responder per
+// alert (the old processAllPendingAlerts loop), the nearest free responder per alert in queue order, and
+// BatchAssigner followed by the nearest-free fallback processAllPendingAlerts runs for alerts the plan left out.
+// The report gives total distance and solve time for each. The checks are that the batch plan is optimal on small
+// batches solved by brute force, beats both loops on total distance, and solves thousands of pairs in well under a
+// second
+public class BatchAssignerBenchmark {
+    private static final String ZONE = "North";
+    private static final int[][] SIZES = {{200, 200}, {1000, 1000}, {2000, 2500}}; // {alerts, responders}
+    private static final int BRUTE_FORCE_SIZE = 7; // 7! assignments per trial
+    private static final int BRUTE_FORCE_TRIALS = 20;
+    private static final int WARMUP_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() {
+        TestSupport.begin("BatchAssignerBenchmark");
+        checkOptimal();
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            BatchAssigner.assign(alerts(500), responders(500), Constants.BATCH_ASSIGNMENT_CANDIDATES);
+        }
+        for (int[] size : SIZES) {
+            List<Alert> alerts = alerts(size[0]);
+            List<Responder> responders = responders(size[1]);
+
+            long start = System.nanoTime();
+            Responder[] randomPick = assignRandom(alerts, responders, new Random(size[0]));
+            long randomNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            Responder[] nearest = assignNearest(alerts, responders, new Responder[alerts.size()]);
+            long nearestNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            Responder[] batch = BatchAssigner.assign(alerts, responders, Constants.BATCH_ASSIGNMENT_CANDIDATES);
+            long batchNanos = System.nanoTime() - start;
+            int leftOut = (int) Arrays.stream(batch).filter(Objects::isNull).count();
+            assignNearest(alerts, responders, batch); // Fallback for alerts the plan left out
+
+            double randomKm = BatchAssigner.totalDistance(alerts, randomPick);
+            double nearestKm = BatchAssigner.totalDistance(alerts, nearest);
+            double batchKm = BatchAssigner.totalDistance(alerts, batch);
+            String name = size[0] + " alerts x " + size[1] + " responders";
+            TestSupport.report(name, String.format("random %.0f km in %.2f ms | nearest %.0f km in %.2f ms"
+                            + " | batch %.0f km in %.2f ms (%d left to fallback)", randomKm, randomNanos / 1e6,
+                    nearestKm, nearestNanos / 1e6, batchKm, batchNanos / 1e6, leftOut));
+            TestSupport.check(batchKm < randomKm && batchKm < nearestKm,
+                    name + ": batch total distance is below both one-at-a-time loops");
+            TestSupport.check(batchNanos < 500_000_000L, name + ": batch plan is solved in under 0.5 s");
+        }
+    }
+
+    // Solves small batches with every responder as a candidate and compares them with the best of all permutations
+    private static void checkOptimal() {
+        int worse = 0;
+        for (int trial = 0; trial < BRUTE_FORCE_TRIALS; trial++) {
+            List<Alert> alerts = alerts(BRUTE_FORCE_SIZE);
+            List<Responder> responders = responders(BRUTE_FORCE_SIZE);
+            double[][] cost = new double[BRUTE_FORCE_SIZE][BRUTE_FORCE_SIZE]; // The metric BatchAssigner minimises
+            for (int a = 0; a < BRUTE_FORCE_SIZE; a++) {
+                User user = alerts.get(a).getUser();
+                double scale = GeoDistance.longitudeScale(user.getY());
+                for (int r = 0; r < BRUTE_FORCE_SIZE; r++) {
+                    cost[a][r] = GeoDistance.equirectangularKm(user.getX(), user.getY(),
+                            responders.get(r).getX(), responders.get(r).getY(), scale);
+                }
+            }
+            Responder[] plan = BatchAssigner.assign(alerts, responders, BRUTE_FORCE_SIZE);
+            double planned = 0;
+            for (int a = 0; a < BRUTE_FORCE_SIZE; a++) {
+                planned += cost[a][responders.indexOf(plan[a])];
+            }
+            if (planned > bestPermutation(cost, 0, new boolean[BRUTE_FORCE_SIZE]) + 1e-9)
+                worse++;
+        }
+        TestSupport.check(worse == 0, "batch plan matches the brute-force optimum on " + BRUTE_FORCE_TRIALS
+                + " " + BRUTE_FORCE_SIZE + "x" + BRUTE_FORCE_SIZE + " batches (" + worse + " worse)");
+    }
+
+    // Returns: lowest total cost of assigning alerts from index a onwards to the responders not yet used
+    private static double bestPermutation(double[][] cost, int a, boolean[] used) {
+        if (a == cost.length)
+            return 0;
+        double best = Double.MAX_VALUE;
+        for (int r = 0; r < used.length; r++) {
+            if (!used[r]) {
+                used[r] = true;
+                best = Math.min(best, cost[a][r] + bestPermutation(cost, a + 1, used));
+                used[r] = false;
+            }
+        }
+        return best;
+    }
+
+    // The old loop: each alert in turn takes a random responder that is still free
+    private static Responder[] assignRandom(List<Alert> alerts, List<Responder> responders, Random random) {
+        List<Responder> free = new ArrayList<>(responders);
+        Responder[] result = new Responder[alerts.size()];
+        for (int a = 0; a < result.length && !free.isEmpty(); a++) {
+            int pick = random.nextInt(free.size());
+            result[a] = free.get(pick);
+            free.set(pick, free.get(free.size() - 1));
+            free.remove(free.size() - 1);
+        }
+        return result;
+    }
+
+    // Gives each alert without a responder, in queue order, the nearest responder that is still free
+    // Returns: assigned, with the gaps filled in
+    private static Responder[] assignNearest(List<Alert> alerts, List<Responder> responders, Responder[] assigned) {
+        Set<Responder> taken = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Responder responder : assigned) {
+            if (responder != null)
+                taken.add(responder);
+        }
+        for (int a = 0; a < assigned.length; a++) {
+            if (assigned[a] != null)
+                continue;
+            User user = alerts.get(a).getUser();
+            double scale = GeoDistance.longitudeScale(user.getY());
+            Responder best = null;
+            double bestDistance = Double.MAX_VALUE;
+            for (Responder responder : responders) {
+                double distance = GeoDistance.squaredDegrees(user.getX(), user.getY(), responder.getX(), responder.getY(), scale);
+                if (distance < bestDistance && !taken.contains(responder)) {
+                    best = responder;
+                    bestDistance = distance;
+                }
+            }
+            if (best == null)
+                break; // Every responder is taken
+            assigned[a] = best;
+            taken.add(best);
+        }
+        return assigned;
+    }
+
+    private static List<Alert> alerts(int count) {
+        List<Alert> alerts = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User(i + 1, "User " + i, "9876543210", "u" + i + "@gmail.com", "Test", ZONE, "secret1");
+            double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE); // {latitude, longitude}
+            user.setX(position[1]);
+            user.setY(position[0]);
+            alerts.add(new Alert(user));
+        }
+        return alerts;
+    }
+
+    private static List<Responder> responders(int count) {
+        List<Responder> responders = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Responder responder = new Responder(i + 1, "Responder " + i, "9876543210", "r" + i + "@gmail.com", ZONE, true, "secret1");
+            double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE);
+            responder.setX(position[1]);
+            responder.setY(position[0]);
+            responders.add(responder);
+        }
+        return responders;
+    }
+}
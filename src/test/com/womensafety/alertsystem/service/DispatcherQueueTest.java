@@ -0,0 +1,193 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.database.FakeDatabase;
+import com.womensafety.alertsystem.manager.LocationManager;
+import com.womensafety.alertsystem.manager.ResponderManager;
+import com.womensafety.alertsystem.manager.UserManager;
+import com.womensafety.alertsystem.model.Alert;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import com.womensafety.alertsystem.util.SystemLogger;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Runs every thread that touches a zone's alert queue at once and checks that no alert is lost or dispatched twice
+// Producers raise alerts while console threads call processNextAlert, a scanner thread runs the full
+// checkUnassignedAlerts and processAllPendingAlerts passes, and the zone's AlertLoopThread reacts to responders
+// being freed one by one. Fewer responders than alerts are free at first, so alerts wait, are requeued and are
+// retried by every path. The database is FakeDatabase; the checks read the dispatch rows it recorded
+public class DispatcherQueueTest {
+    private static final String ZONE = "North";
+    private static final int FIRST_ID = 700_001; // Clear of the IDs other tests put in the shared entity caches
+    private static final int ALERTS = 400;
+    private static final int PRODUCERS = 2;
+    private static final int CONSUMERS = 2;
+    private static final int FREE_AT_START = 100; // Responders available when the run starts; the rest are freed during it
+    private static final long DEADLINE_MILLIS = 30_000;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("DispatcherQueueTest");
+        FakeDatabase database = FakeDatabase.getInstance();
+        LocationManager locationManager = new LocationManager();
+        List<Responder> responders = new ArrayList<>();
+        for (int i = 0; i < ALERTS; i++) {
+            int id = FIRST_ID + i;
+            boolean free = i < FREE_AT_START;
+            Responder responder = new Responder(id, "Responder " + id, "9876543210", "r" + id + "@gmail.com", ZONE, free, "secret1");
+            place(responder);
+            responders.add(responder);
+            database.setAvailable(id, free);
+        }
+        locationManager.addLoadedResponders(responders);
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        Thread.UncaughtExceptionHandler previousHandler = Thread.getDefaultUncaughtExceptionHandler();
+        Thread.setDefaultUncaughtExceptionHandler((thread, e) -> failures.add(e)); // Also covers the zone worker
+        PrintStream console = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Assignment notices and per-attempt warnings
+        Queue<Alert> raised = new ConcurrentLinkedQueue<>();
+        long start = System.nanoTime();
+        boolean finished;
+        try {
+            Dispatcher dispatcher = new Dispatcher(locationManager, new UserManager(), new ResponderManager());
+            dispatcher.startWorkers();
+            finished = runThreads(dispatcher, locationManager, database, raised);
+            dispatcher.shutdown();
+            SystemLogger.flush();
+        } finally {
+            System.setOut(console);
+            Thread.setDefaultUncaughtExceptionHandler(previousHandler);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        Map<Integer, Integer> dispatchesPerAlert = new HashMap<>();
+        Map<Integer, Integer> dispatchesPerResponder = new HashMap<>();
+        for (int[] row : database.getDispatches()) {
+            dispatchesPerAlert.merge(row[0], 1, Integer::sum);
+            dispatchesPerResponder.merge(row[1], 1, Integer::sum);
+        }
+        int lost = 0, twice = 0, notAssigned = 0;
+        for (Alert alert : raised) {
+            int count = dispatchesPerAlert.getOrDefault(alert.getAlertId(), 0);
+            if (count == 0)
+                lost++;
+            if (count > 1)
+                twice++;
+            if (!Constants.STATUS_ASSIGNED.equals(alert.getStatus())
+                    || !Constants.STATUS_ASSIGNED.equals(database.getAlertStatus(alert.getAlertId())))
+                notAssigned++;
+        }
+        long busyTwice = dispatchesPerResponder.values().stream().filter(count -> count > 1).count();
+
+        TestSupport.report("alerts raised and dispatched", raised.size() + " raised, " + dispatchesPerAlert.size()
+                + " dispatched in " + String.format("%.2f s", seconds));
+        TestSupport.check(failures.isEmpty(), "no thread fails while sharing the queue ("
+                + (failures.isEmpty() ? "none" : failures.peek()) + ")");
+        TestSupport.check(finished && raised.size() == ALERTS, "every alert is dispatched before the deadline");
+        TestSupport.check(lost == 0, "no alert is lost (" + lost + " never dispatched)");
+        TestSupport.check(twice == 0, "no alert is dispatched twice (" + twice + " alerts)");
+        TestSupport.check(busyTwice == 0, "no responder is given two alerts (" + busyTwice + " responders)");
+        TestSupport.check(notAssigned == 0, "every alert ends assigned in memory and in the database ("
+                + notAssigned + " not)");
+    }
+
+    // Starts producers, console consumers, the scanner and the responder releaser, and stops them once every alert
+    // has a dispatch row
+    // Returns: true if that happened before the deadline
+    private static boolean runThreads(Dispatcher dispatcher, LocationManager locationManager, FakeDatabase database,
+                                      Queue<Alert> raised) throws Exception {
+        List<Thread> threads = new ArrayList<>();
+        AtomicInteger producersLeft = new AtomicInteger(PRODUCERS);
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            threads.add(new Thread(() -> {
+                Random random = new Random(producer);
+                for (int i = 0; i < ALERTS / PRODUCERS; i++) {
+                    User user = new User(FIRST_ID + producer * ALERTS + i, "User " + i, "9876543210",
+                            "u" + i + "@gmail.com", "Test", ZONE, "secret1");
+                    place(user);
+                    Alert alert = new Alert(user);
+                    alert.setSeverity(random.nextInt(Constants.SEVERITY_CRITICAL + 1));
+                    dispatcher.addAlert(alert);
+                    raised.add(alert);
+                }
+                producersLeft.decrementAndGet();
+            }, "test-producer-" + p));
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        for (int c = 0; c < CONSUMERS; c++) {
+            threads.add(new Thread(() -> {
+                while (!stop.get()) {
+                    dispatcher.processNextAlert(ZONE);
+                    pause(1);
+                }
+            }, "test-console-" + c));
+        }
+        threads.add(new Thread(() -> {
+            while (!stop.get()) {
+                dispatcher.checkUnassignedAlerts();
+                dispatcher.processAllPendingAlerts();
+                pause(5);
+            }
+        }, "test-scanner"));
+        threads.add(new Thread(() -> {
+            for (int id = FIRST_ID + FREE_AT_START; id < FIRST_ID + ALERTS && !stop.get(); id++) {
+                database.setAvailable(id, true);
+                locationManager.setAvailability(id, true); // Wakes the zone's worker
+                pause(2);
+            }
+        }, "test-releaser"));
+        for (Thread thread : threads) {
+            thread.start();
+        }
+
+        long deadline = System.currentTimeMillis() + DEADLINE_MILLIS;
+        boolean finished = false;
+        while (!finished && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            finished = producersLeft.get() == 0 && dispatchedAlerts(database) >= ALERTS;
+        }
+        stop.set(true);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return finished;
+    }
+
+    private static long dispatchedAlerts(FakeDatabase database) {
+        return database.getDispatches().stream().mapToInt(row -> row[0]).distinct().count();
+    }
+
+    private static void place(User user) {
+        double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE); // {latitude, longitude}
+        user.setX(position[1]);
+        user.setY(position[0]);
+    }
+
+    private static void place(Responder responder) {
+        double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE);
+        responder.setX(position[1]);
+        responder.setY(position[0]);
+    }
+
+    private static void pause(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
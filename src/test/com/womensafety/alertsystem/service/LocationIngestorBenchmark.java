@@ -0,0 +1,161 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.manager.LocationManager;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+import java.util.*;
+
+// Streams responder positions through the LocationIngestor while dispatch lookups run
+// Producer threads submit random moves for 20k responders as fast as they can for two seconds, and a reader thread
+// keeps asking for the nearest responders. The checks are that submits sustain at least 100k positions per second,
+// that repeated reports from the same responder are coalesced into fewer index moves, and that every responder ends
+// at the last position reported for it. A last check sends datagrams through a LocationGateway on loopback
+// The persist interval is set beyond the run, so no database is needed
+public class LocationIngestorBenchmark {
+    private static final int RESPONDERS = 20_000;
+    private static final int PRODUCERS = 2;
+    private static final long RUN_MILLIS = 2_000;
+    private static final int POSITIONS = 4_096; // Pre-generated positions per zone, so producers measure submit only
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("LocationIngestorBenchmark");
+        String[] zones = Constants.ZONES;
+        double[][][] positions = new double[zones.length][POSITIONS][];
+        for (int z = 0; z < zones.length; z++) {
+            for (int i = 0; i < POSITIONS; i++) {
+                positions[z][i] = CoordinateGenerator.generateZoneBasedCoordinates(zones[z]); // {latitude, longitude}
+            }
+        }
+
+        LocationManager locationManager = new LocationManager();
+        List<Responder> loaded = new ArrayList<>();
+        for (int id = 1; id <= RESPONDERS; id++) {
+            Responder responder = new Responder(id, "Responder " + id, "9876543210", "r" + id + "@gmail.com",
+                    zones[id % zones.length], true, "secret1");
+            double[] position = positions[id % zones.length][id % POSITIONS];
+            responder.setX(position[1]);
+            responder.setY(position[0]);
+            loaded.add(responder);
+        }
+        locationManager.addLoadedResponders(loaded);
+        Responder[] byId = new Responder[RESPONDERS + 1];
+        for (Responder responder : loaded) {
+            byId[responder.getId()] = responder;
+        }
+
+        LocationIngestor ingestor = new LocationIngestor(locationManager, Constants.LOCATION_APPLY_INTERVAL, Integer.MAX_VALUE);
+        double[] lastX = new double[RESPONDERS + 1];
+        double[] lastY = new double[RESPONDERS + 1];
+        long[] submitted = new long[PRODUCERS];
+        Thread[] producers = new Thread[PRODUCERS];
+        long deadline = System.currentTimeMillis() + RUN_MILLIS;
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                Random random = new Random(producer);
+                int[] ids = new int[64];
+                double[] xs = new double[64];
+                double[] ys = new double[64];
+                long count = 0;
+                while (System.currentTimeMillis() < deadline) {
+                    for (int i = 0; i < ids.length; i++) {
+                        // Each producer owns the IDs congruent to its index, so lastX/lastY have a single writer
+                        int id = producer + 1 + PRODUCERS * random.nextInt(RESPONDERS / PRODUCERS);
+                        double[] position = positions[id % zones.length][random.nextInt(POSITIONS)];
+                        ids[i] = id;
+                        xs[i] = position[1];
+                        ys[i] = position[0];
+                        lastX[id] = xs[i];
+                        lastY[id] = ys[i];
+                    }
+                    ingestor.submit(ids, xs, ys, ids.length);
+                    count += ids.length;
+                }
+                submitted[producer] = count;
+            }, "bench-producer-" + p);
+        }
+
+        List<Long> lookupNanos = Collections.synchronizedList(new ArrayList<>());
+        Thread reader = new Thread(() -> {
+            Random random = new Random(99);
+            while (System.currentTimeMillis() < deadline) {
+                int z = random.nextInt(zones.length);
+                double[] position = positions[z][random.nextInt(POSITIONS)];
+                long start = System.nanoTime();
+                locationManager.findNearestAvailableResponders(position[1], position[0], zones[z], Constants.DISPATCH_CANDIDATES, -1);
+                lookupNanos.add(System.nanoTime() - start);
+                Thread.yield();
+            }
+        }, "bench-reader");
+
+        long start = System.nanoTime();
+        for (Thread producer : producers) {
+            producer.start();
+        }
+        reader.start();
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        reader.join();
+        long total = Arrays.stream(submitted).sum();
+        while (ingestor.getPendingCount() > 0) {
+            Thread.sleep(Constants.LOCATION_APPLY_INTERVAL);
+        }
+        Thread.sleep(2L * Constants.LOCATION_APPLY_INTERVAL); // Let an apply that drained the last entries finish
+
+        double perSecond = total / seconds;
+        long applied = ingestor.getAppliedCount();
+        long[] lookups = lookupNanos.stream().mapToLong(Long::longValue).toArray();
+        TestSupport.report("positions submitted", String.format("%d in %.2f s = %.0f/s", total, seconds, perSecond));
+        TestSupport.report("index moves applied", String.format("%d (%.1f reports per move)", applied, (double) total / applied));
+        TestSupport.report("max apply", String.format("%.2f ms", ingestor.getMaxApplyMillis()));
+        TestSupport.report("nearest lookup p50/p99 during ingest", String.format("%.1f / %.1f us",
+                TestSupport.percentile(lookups, 50) / 1000.0, TestSupport.percentile(lookups, 99) / 1000.0));
+        TestSupport.check(perSecond >= 100_000, "ingestor accepts at least 100k positions per second");
+        TestSupport.check(ingestor.getReceivedCount() == total, "every submitted position is counted");
+        TestSupport.check(applied < total, "repeated reports are coalesced into fewer index moves");
+
+        int wrong = 0;
+        for (int id = 1; id <= RESPONDERS; id++) {
+            if (lastX[id] != 0 && (byId[id].getX() != lastX[id] || byId[id].getY() != lastY[id]))
+                wrong++;
+        }
+        TestSupport.check(wrong == 0, "every responder ends at its last reported position (" + wrong + " wrong)");
+
+        checkGateway(ingestor, byId[1], CoordinateGenerator.generateZoneBasedCoordinates(byId[1].getZone()));
+    }
+
+    // Sends one datagram with a valid record and one malformed datagram to a gateway on a free loopback port
+    private static void checkGateway(LocationIngestor ingestor, Responder responder, double[] position) throws Exception {
+        LocationGateway gateway = new LocationGateway(ingestor, "127.0.0.1", 0);
+        TestSupport.check(gateway.start(), "gateway binds to a loopback port");
+        try (DatagramChannel client = DatagramChannel.open()) {
+            InetSocketAddress target = new InetSocketAddress("127.0.0.1", gateway.getPort());
+            ByteBuffer datagram = ByteBuffer.allocate(LocationGateway.RECORD_BYTES);
+            datagram.putInt(responder.getId()).putDouble(position[1]).putDouble(position[0]).flip();
+            client.send(datagram, target);
+            client.send(ByteBuffer.wrap(new byte[LocationGateway.RECORD_BYTES - 1]), target);
+        }
+        long deadline = System.currentTimeMillis() + 2_000;
+        while (System.currentTimeMillis() < deadline
+                && (responder.getX() != position[1] || !gateway.getStatistics().contains("datagrams=2"))) {
+            Thread.sleep(10);
+        }
+        TestSupport.check(responder.getX() == position[1] && responder.getY() == position[0],
+                "a position sent to the gateway reaches the spatial index");
+        gateway.shutdown();
+        TestSupport.report("gateway", gateway.getStatistics());
+        TestSupport.check(gateway.getStatistics().contains("malformed=1"), "a datagram with a partial record is dropped");
+    }
+}
@@ -0,0 +1,169 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.model.Responder;
+import com.womensafety.alertsystem.model.User;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.CoordinateGenerator;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.util.*;
+
+// Compares k-d tree searches through NearestResponderFinder with linear loops over the responder list
+// Responders are scattered over a zone and a fifth of them are busy, so both sides skip unavailable entries. For each
+// size the nearest, k-nearest and radius searches are run for the same query points: the list side is
+// findNearestResponder, a bounded-heap loop as BatchAssigner used for its candidates, and a radius loop; the tree side
+// is one bulk-loaded ResponderKdTree. The report gives the build time and the time per query of each. The checks are
+// that both sides find the same responders and that the tree answers each search faster
+public class ResponderKdTreeBenchmark {
+    private static final String ZONE = "North";
+    private static final int[] SIZES = {1_000, 100_000, 1_000_000};
+    private static final int SCANNED_PER_RUN = 10_000_000; // Responders the linear loops scan per timed run, spread over queries
+    private static final int MIN_QUERIES = 20;
+    private static final int K = Constants.BATCH_ASSIGNMENT_CANDIDATES;
+    private static final double RADIUS_KM = 5;
+    private static final int CHECKED_QUERIES = 50; // Queries whose results are compared, at most
+    private static final int TIMING_ROUNDS = 3;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() {
+        TestSupport.begin("ResponderKdTreeBenchmark");
+        Random random = new Random(13);
+        for (int size : SIZES) {
+            List<Responder> responders = new ArrayList<>(size);
+            for (int id = 1; id <= size; id++) {
+                // Shared strings keep a million responders small; only the ID and position matter here
+                Responder responder = new Responder(id, "Responder", "9876543210", "responder@gmail.com", ZONE, random.nextInt(5) != 0, "secret1");
+                place(responder);
+                responders.add(responder);
+            }
+            User[] users = new User[Math.max(MIN_QUERIES, SCANNED_PER_RUN / size)];
+            for (int q = 0; q < users.length; q++) {
+                users[q] = new User(q + 1, "User", "9876543210", "user@gmail.com", "Test", ZONE, "secret1");
+                place(users[q]);
+            }
+
+            long start = System.nanoTime();
+            ResponderKdTree tree = NearestResponderFinder.buildIndex(responders);
+            long buildNanos = System.nanoTime() - start;
+            checkSameResults(size, responders, tree, users);
+            compare(size, responders, tree, users, buildNanos);
+        }
+    }
+
+    private static void checkSameResults(int size, List<Responder> responders, ResponderKdTree tree, User[] users) {
+        int nearestMismatches = 0, kMismatches = 0, radiusMismatches = 0;
+        for (int q = 0; q < Math.min(CHECKED_QUERIES, users.length); q++) {
+            User user = users[q];
+            if (NearestResponderFinder.findNearestResponder(user, responders) != NearestResponderFinder.findNearestResponder(user, tree))
+                nearestMismatches++;
+            if (!listNearest(responders, user, K).equals(NearestResponderFinder.findNearestResponders(user, tree, K, -1)))
+                kMismatches++;
+            if (!new HashSet<>(listWithin(responders, user)).equals(new HashSet<>(NearestResponderFinder.findRespondersWithin(user, tree, RADIUS_KM))))
+                radiusMismatches++;
+        }
+        TestSupport.check(nearestMismatches == 0 && kMismatches == 0 && radiusMismatches == 0, size
+                + " responders: the tree finds the same nearest, " + K + " nearest and radius responders as the list loops ("
+                + nearestMismatches + ", " + kMismatches + ", " + radiusMismatches + " differ)");
+    }
+
+    private static void compare(int size, List<Responder> responders, ResponderKdTree tree, User[] users, long buildNanos) {
+        long[] list = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE}; // Best time of nearest, k-nearest and radius
+        long[] indexed = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        long sink = 0;
+        for (int round = 0; round < TIMING_ROUNDS; round++) { // Best of several rounds, after the JIT has compiled each loop
+            long start = System.nanoTime();
+            for (User user : users) {
+                sink += NearestResponderFinder.findNearestResponder(user, responders).getId();
+            }
+            list[0] = Math.min(list[0], System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += NearestResponderFinder.findNearestResponder(user, tree).getId();
+            }
+            indexed[0] = Math.min(indexed[0], System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += listNearest(responders, user, K).size();
+            }
+            list[1] = Math.min(list[1], System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += NearestResponderFinder.findNearestResponders(user, tree, K, -1).size();
+            }
+            indexed[1] = Math.min(indexed[1], System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += listWithin(responders, user).size();
+            }
+            list[2] = Math.min(list[2], System.nanoTime() - start);
+            start = System.nanoTime();
+            for (User user : users) {
+                sink += NearestResponderFinder.findRespondersWithin(user, tree, RADIUS_KM).size();
+            }
+            indexed[2] = Math.min(indexed[2], System.nanoTime() - start);
+        }
+
+        double queries = users.length;
+        TestSupport.report(size + " responders, us per query", String.format(
+                "build %.1f ms ; nearest: list %.2f | tree %.2f (%.0fx) ; %d nearest: list %.2f | tree %.2f (%.0fx) ;"
+                        + " radius: list %.2f | tree %.2f (%.0fx) (sink %d)", buildNanos / 1e6,
+                list[0] / queries / 1e3, indexed[0] / queries / 1e3, (double) list[0] / indexed[0], K,
+                list[1] / queries / 1e3, indexed[1] / queries / 1e3, (double) list[1] / indexed[1],
+                list[2] / queries / 1e3, indexed[2] / queries / 1e3, (double) list[2] / indexed[2], sink));
+        TestSupport.check(indexed[0] < list[0] && indexed[1] < list[1] && indexed[2] < list[2],
+                size + " responders: nearest, k-nearest and radius searches are faster over the tree");
+    }
+
+    // The k nearest available responders by a bounded max-heap over the whole list, as BatchAssigner searched before
+    // Returns: up to k responders, nearest first
+    private static List<Responder> listNearest(List<Responder> responders, User user, int k) {
+        double scale = GeoDistance.longitudeScale(user.getY());
+        PriorityQueue<double[]> farthestFirst = new PriorityQueue<>(k + 1, (p, q) -> Double.compare(q[0], p[0]));
+        for (int r = 0; r < responders.size(); r++) {
+            Responder responder = responders.get(r);
+            if (!responder.isAvailable())
+                continue;
+            double distance = GeoDistance.squaredDegrees(user.getX(), user.getY(), responder.getX(), responder.getY(), scale);
+            if (farthestFirst.size() < k) {
+                farthestFirst.add(new double[] {distance, r});
+            } else if (distance < farthestFirst.peek()[0]) {
+                farthestFirst.poll();
+                farthestFirst.add(new double[] {distance, r});
+            }
+        }
+        Responder[] nearest = new Responder[farthestFirst.size()];
+        for (int e = nearest.length - 1; e >= 0; e--) {
+            nearest[e] = responders.get((int) farthestFirst.poll()[1]);
+        }
+        return Arrays.asList(nearest);
+    }
+
+    // Every available responder within RADIUS_KM by a loop over the whole list
+    private static List<Responder> listWithin(List<Responder> responders, User user) {
+        double scale = GeoDistance.longitudeScale(user.getY());
+        List<Responder> result = new ArrayList<>();
+        for (Responder responder : responders) {
+            if (responder.isAvailable()
+                    && GeoDistance.equirectangularKm(user.getX(), user.getY(), responder.getX(), responder.getY(), scale) <= RADIUS_KM) {
+                result.add(responder);
+            }
+        }
+        return result;
+    }
+
+    private static void place(User user) {
+        double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE); // {latitude, longitude}
+        user.setX(position[1]);
+        user.setY(position[0]);
+    }
+
+    private static void place(Responder responder) {
+        double[] position = CoordinateGenerator.generateZoneBasedCoordinates(ZONE);
+        responder.setX(position[1]);
+        responder.setY(position[0]);
+    }
+}
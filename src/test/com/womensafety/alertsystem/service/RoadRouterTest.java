@@ -0,0 +1,95 @@
+package com.womensafety.alertsystem.service;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.util.Constants;
+import com.womensafety.alertsystem.util.GeoDistance;
+import java.nio.file.*;
+
+// Builds a graph from the roads-fixture.osm street grid with RoadGraphBuilder and checks RoadRouter ETAs against
+// routes worked out by hand: the fast primary road is preferred, the one-way street is only used in its direction,
+// the footway and the private street are never used, a disconnected street is unreachable, and a point far from every
+// road falls back to the straight-line estimate
+public class RoadRouterTest {
+    private static final Path FIXTURE = Paths.get("src/test/com/womensafety/alertsystem/service/roads-fixture.osm");
+    private static final double TOLERANCE_SECONDS = 0.5; // Per-edge times are rounded to milliseconds
+
+    // Fixture grid: node (row, column) lies at latitude 28.60 + 0.01 row, longitude 77.20 + 0.01 column
+    private static final double BASE_LAT = 28.60, BASE_LON = 77.20, STEP = 0.01;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("RoadRouterTest");
+        Path graph = Files.createTempFile("roads", ".graph");
+        try {
+            int[] counts = RoadGraphBuilder.build(FIXTURE, graph);
+            TestSupport.report("fixture graph", counts[0] + " nodes, " + counts[1] + " edges");
+            TestSupport.check(counts[0] == 11, "footway-only nodes are left out (11 nodes)");
+            TestSupport.check(counts[1] == 24, "one-way and excluded ways get the right edges (24 edges)");
+
+            RoadRouter router = new RoadRouter(graph);
+            TestSupport.check(router.hasGraph(), "the written graph loads");
+            checkRoutes(router);
+        } finally {
+            Files.deleteIfExists(graph);
+        }
+
+        TestSupport.check(Math.abs(RoadGraphBuilder.parseMaxSpeed("30 mph") - 48.28) < 0.01, "maxspeed in mph is converted");
+        TestSupport.check(RoadGraphBuilder.parseMaxSpeed("IN:urban") == 0, "a non-numeric maxspeed is ignored");
+
+        RoadRouter none = new RoadRouter(Paths.get("no-such.graph"));
+        double[] eta = none.etaSeconds(lon(0), lat(0), new double[] {lon(2)}, new double[] {lat(2)});
+        TestSupport.check(!none.hasGraph() && near(eta[0], straightLine(lon(0), lat(0), lon(2), lat(2))),
+                "without a graph the ETA is the straight-line estimate");
+    }
+
+    private static void checkRoutes(RoadRouter router) {
+        double across = km(0, 0, 0, 1); // One grid step along a row
+        double up = km(0, 0, 1, 0); // One grid step along a column
+
+        // To node (2, 2) from (0, 0): along the primary road, then up the one-way column
+        double forward = seconds(2 * across, 60) + seconds(2 * up, 30);
+        // To node (0, 0) from (2, 2): the one-way column is closed this way, so across, down the middle column, then
+        // the last step on the primary road
+        double backward = seconds(across, 30) + seconds(2 * up, 30) + seconds(across, 60);
+
+        double[] toFar = router.etaSeconds(lon(2), lat(2),
+                new double[] {lon(0), BASE_LON + 0.01, 80.0}, new double[] {lat(0), 28.65, 20.0});
+        double[] toOrigin = router.etaSeconds(lon(0), lat(0), new double[] {lon(2)}, new double[] {lat(2)});
+        TestSupport.report("ETA (0,0) to (2,2) / back", String.format("%.1f s / %.1f s (expected %.1f / %.1f)",
+                toFar[0], toOrigin[0], forward, backward));
+        TestSupport.check(near(toFar[0], forward), "the route takes the primary road and the one-way street");
+        TestSupport.check(near(toOrigin[0], backward), "the one-way street is not driven against its direction");
+        TestSupport.check(Double.isInfinite(toFar[1]), "a responder on a disconnected street cannot arrive");
+        TestSupport.check(near(toFar[2], straightLine(lon(2), lat(2), 80.0, 20.0)),
+                "a responder far from every road falls back to the straight-line estimate");
+    }
+
+    private static double lon(int column) {
+        return (double) (float) (BASE_LON + STEP * column); // The graph stores float coordinates
+    }
+
+    private static double lat(int row) {
+        return (double) (float) (BASE_LAT + STEP * row);
+    }
+
+    private static double km(int row1, int column1, int row2, int column2) {
+        return GeoDistance.haversineKm(lon(column1), lat(row1), lon(column2), lat(row2));
+    }
+
+    // Returns: seconds to drive a distance at a speed
+    private static double seconds(double km, double kmh) {
+        return km / kmh * 3600.0;
+    }
+
+    private static double straightLine(double x1, double y1, double x2, double y2) {
+        return GeoDistance.haversineKm(x1, y1, x2, y2) / Constants.RESPONDER_AVERAGE_SPEED_KMH * 3600.0;
+    }
+
+    private static boolean near(double actual, double expected) {
+        return Math.abs(actual - expected) <= TOLERANCE_SECONDS;
+    }
+}
@@ -0,0 +1,174 @@
+package com.womensafety.alertsystem.util;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.util.SystemLogger.LogLevel;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.*;
+import java.util.*;
+
+// Checks the log writer ring under concurrent producers and around close()
+// Producers on several threads log numbered records into a small blocking ring; every record must reach the file
+// exactly once and each producer's records in the order it logged them. The close race test closes the writer while
+// producers are still logging, many times over, and checks nothing is lost or written twice. The idle test checks
+// that a writer with nothing to do parks without a timeout and burns no CPU
+public class AsyncLogWriterTest {
+    private static final int PRODUCERS = 4;
+    private static final int RECORDS = 50_000; // Per producer
+    private static final int CLOSE_ROUNDS = 200;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() throws Exception {
+        TestSupport.begin("AsyncLogWriterTest");
+        Path directory = Files.createTempDirectory("async-log-writer-test");
+        try {
+            checkConcurrentProducers(directory.resolve("concurrent.log"));
+            checkCloseRace(directory);
+            checkIdle(directory.resolve("idle.log"));
+        } finally {
+            try (var files = Files.walk(directory)) {
+                files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+            }
+        }
+    }
+
+    private static void checkConcurrentProducers(Path path) throws Exception {
+        AsyncLogWriter writer = writer(path, 1024);
+        long start = System.nanoTime();
+        Thread[] producers = startProducers(writer, RECORDS);
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        writer.close();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        TestSupport.report("records logged through a 1024-slot ring", String.format("%d in %.2f s = %.0f/s",
+                PRODUCERS * RECORDS, seconds, PRODUCERS * RECORDS / seconds));
+        int[] problems = verify(path, RECORDS);
+        TestSupport.check(problems[0] == 0, "no record is lost (" + problems[0] + " missing)");
+        TestSupport.check(problems[1] == 0, "no record is written twice (" + problems[1] + " duplicates)");
+        TestSupport.check(problems[2] == 0, "each producer's records keep their order (" + problems[2] + " out of order)");
+    }
+
+    // Closes a writer while producers are still logging; records that race with close() must be written directly
+    private static void checkCloseRace(Path directory) throws Exception {
+        int lost = 0, duplicated = 0;
+        for (int round = 0; round < CLOSE_ROUNDS; round++) {
+            Path path = directory.resolve("close-" + round + ".log");
+            AsyncLogWriter writer = writer(path, 64);
+            Thread[] producers = startProducers(writer, 500);
+            Thread.sleep(1); // Producers are mid-way when close() runs
+            writer.close();
+            for (Thread producer : producers) {
+                producer.join();
+            }
+            int[] problems = verify(path, 500);
+            lost += problems[0];
+            duplicated += problems[1];
+        }
+        TestSupport.report("close() during logging", CLOSE_ROUNDS + " rounds, " + lost + " lost, " + duplicated + " duplicated");
+        TestSupport.check(lost == 0, "no record appended around close() is lost");
+        TestSupport.check(duplicated == 0, "no record appended around close() is written twice");
+    }
+
+    // Lets a writer go idle and measures what its consumer thread does meanwhile
+    private static void checkIdle(Path path) throws Exception {
+        Set<Long> before = writerThreadIds();
+        AsyncLogWriter writer = new AsyncLogWriter(path.toString(), false, AsyncLogWriter.RecordFormat.TEXT, 64,
+                AsyncLogWriter.FullPolicy.BLOCK, 10, 1024, AsyncLogWriter.FsyncPolicy.NEVER, 0, 0, 0, 1);
+        writer.append(LogLevel.INFO, "one record", 0, 0, 0, null);
+        writer.flush();
+        Set<Long> after = writerThreadIds();
+        after.removeAll(before);
+        Thread consumer = null;
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (after.contains(thread.getId()))
+                consumer = thread;
+        }
+        TestSupport.check(consumer != null, "the writer's consumer thread is found");
+        if (consumer == null)
+            return;
+
+        Thread.sleep(100); // Past the flush interval, so nothing is due
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        long cpuBefore = threads.getThreadCpuTime(consumer.getId());
+        Thread.sleep(1000);
+        long cpuNanos = threads.getThreadCpuTime(consumer.getId()) - cpuBefore;
+        Thread.State state = consumer.getState();
+        TestSupport.report("idle consumer", "state " + state + ", " + String.format("%.2f ms", cpuNanos / 1e6) + " CPU in 1 s");
+        TestSupport.check(state == Thread.State.WAITING, "an idle consumer parks without a timeout");
+        TestSupport.check(cpuNanos < 2_000_000, "an idle consumer uses under 2 ms of CPU per second");
+
+        long start = System.nanoTime();
+        writer.append(LogLevel.INFO, "wake up", 0, 0, 0, null);
+        writer.flush();
+        TestSupport.report("append to written after idle", String.format("%.2f ms", (System.nanoTime() - start) / 1e6));
+        TestSupport.check(Files.readString(path).contains("wake up"), "a record appended to an idle writer is written");
+        writer.close();
+    }
+
+    private static AsyncLogWriter writer(Path path, int capacity) {
+        return new AsyncLogWriter(path.toString(), false, AsyncLogWriter.RecordFormat.TEXT, capacity,
+                AsyncLogWriter.FullPolicy.BLOCK, 5, 4096, AsyncLogWriter.FsyncPolicy.NEVER, 0, 0, 0, 1);
+    }
+
+    // Starts producers that each log records "p<producer> <n>" for n = 0 .. count - 1
+    private static Thread[] startProducers(AsyncLogWriter writer, int count) {
+        Thread[] producers = new Thread[PRODUCERS];
+        for (int p = 0; p < PRODUCERS; p++) {
+            int producer = p;
+            producers[p] = new Thread(() -> {
+                for (int n = 0; n < count; n++) {
+                    writer.append(LogLevel.INFO, "p" + producer + " " + n, 0, 0, 0, null);
+                }
+            }, "test-producer-" + p);
+            producers[p].start();
+        }
+        return producers;
+    }
+
+    // Reads a log file written by startProducers
+    // Returns: {missing, duplicated, out of order} record counts
+    private static int[] verify(Path path, int count) throws Exception {
+        boolean[][] seen = new boolean[PRODUCERS][count];
+        int[] last = new int[PRODUCERS];
+        Arrays.fill(last, -1);
+        int duplicated = 0, outOfOrder = 0;
+        for (String line : Files.readAllLines(path)) {
+            int at = line.indexOf(": p");
+            if (at < 0)
+                continue;
+            String[] parts = line.substring(at + 3).split(" ");
+            int producer = Integer.parseInt(parts[0]);
+            int n = Integer.parseInt(parts[1]);
+            if (seen[producer][n]) {
+                duplicated++;
+            }
+            seen[producer][n] = true;
+            if (n < last[producer]) {
+                outOfOrder++;
+            }
+            last[producer] = n;
+        }
+        int missing = 0;
+        for (boolean[] producer : seen) {
+            for (boolean found : producer) {
+                if (!found)
+                    missing++;
+            }
+        }
+        return new int[] {missing, duplicated, outOfOrder};
+    }
+
+    private static Set<Long> writerThreadIds() {
+        Set<Long> ids = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().equals("log-writer"))
+                ids.add(thread.getId());
+        }
+        return ids;
+    }
+}
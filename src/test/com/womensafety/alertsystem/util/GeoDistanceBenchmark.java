@@ -0,0 +1,153 @@
+package com.womensafety.alertsystem.util;
+
+import com.womensafety.alertsystem.TestSupport;
+import java.util.Random;
+
+// Checks the accuracy of the GeoDistance formulas and measures their cost per call
+// Haversine is compared with an independent chord-length formula and with distances known in closed form. The
+// equirectangular approximation and its squared-degree ranking are compared with haversine over dispatch-sized
+// distances at Indian latitudes, next to the flat-degree metric they replaced. The throughput part times each formula
+// over the same point pairs; the check is that ranking by squared degrees is much cheaper than haversine
+public class GeoDistanceBenchmark {
+    private static final int PAIRS = 1 << 20;
+    private static final int RANKING_QUERIES = 10_000;
+    private static final int RANKING_CANDIDATES = 50;
+    private static final double DISPATCH_RADIUS_DEGREES = 0.5; // About 55 km of latitude around each query point
+    private static final int TIMING_ROUNDS = 5;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() {
+        TestSupport.begin("GeoDistanceBenchmark");
+        Random random = new Random(14);
+        checkHaversine(random);
+        checkApproximation(random);
+        checkRanking(random);
+        checkThroughput(random);
+    }
+
+    private static void checkHaversine(Random random) {
+        double quarterMeridian = Math.PI * Constants.EARTH_RADIUS_KM / 2;
+        TestSupport.check(Math.abs(GeoDistance.haversineKm(77, 0, 77, 90) - quarterMeridian) < 1e-6,
+                "equator to pole is a quarter meridian");
+        TestSupport.check(Math.abs(GeoDistance.haversineKm(0, 0, 1, 0) - GeoDistance.KM_PER_DEGREE) < 1e-6,
+                "one degree along the equator is KM_PER_DEGREE");
+        TestSupport.check(Math.abs(GeoDistance.haversineKm(10, 20, 190, -20) - 2 * quarterMeridian) < 1e-6,
+                "antipodal points are half a great circle apart");
+        double delhiMumbai = GeoDistance.haversineKm(77.2090, 28.6139, 72.8777, 19.0760);
+        TestSupport.report("Delhi to Mumbai", String.format("%.1f km", delhiMumbai));
+
+        double worst = 0;
+        for (int i = 0; i < PAIRS / 16; i++) {
+            double x1 = lng(random), y1 = lat(random), x2 = lng(random), y2 = lat(random);
+            worst = Math.max(worst, Math.abs(GeoDistance.haversineKm(x1, y1, x2, y2) - chordKm(x1, y1, x2, y2)));
+        }
+        TestSupport.report("haversine vs chord formula, worst difference", String.format("%.2e km", worst));
+        TestSupport.check(worst < 1e-6, "haversine agrees with the chord formula across India");
+    }
+
+    // Compares the equirectangular approximation and the old flat-degree metric with haversine near a query point
+    private static void checkApproximation(Random random) {
+        double worstEquirectangular = 0, worstFlat = 0;
+        for (int i = 0; i < PAIRS / 16; i++) {
+            double x1 = lng(random), y1 = lat(random);
+            double x2 = x1 + (random.nextDouble() * 2 - 1) * DISPATCH_RADIUS_DEGREES;
+            double y2 = y1 + (random.nextDouble() * 2 - 1) * DISPATCH_RADIUS_DEGREES;
+            double exact = GeoDistance.haversineKm(x1, y1, x2, y2);
+            if (exact < 0.1)
+                continue; // Relative error is meaningless for points on top of each other
+            double scaled = GeoDistance.equirectangularKm(x1, y1, x2, y2, GeoDistance.longitudeScale(y1));
+            double flat = Math.hypot(x2 - x1, y2 - y1) * GeoDistance.KM_PER_DEGREE;
+            worstEquirectangular = Math.max(worstEquirectangular, Math.abs(scaled - exact) / exact);
+            worstFlat = Math.max(worstFlat, Math.abs(flat - exact) / exact);
+        }
+        TestSupport.report("worst relative error within 0.5 degrees", String.format("equirectangular %.3f%% | flat degrees %.1f%%",
+                100 * worstEquirectangular, 100 * worstFlat));
+        TestSupport.check(worstEquirectangular < 0.01, "equirectangular distance is within 1% of haversine at dispatch range");
+    }
+
+    // Counts how often each metric picks the same nearest candidate as haversine
+    private static void checkRanking(Random random) {
+        int scaledAgree = 0, flatAgree = 0;
+        double[] xs = new double[RANKING_CANDIDATES], ys = new double[RANKING_CANDIDATES];
+        for (int q = 0; q < RANKING_QUERIES; q++) {
+            double x = lng(random), y = lat(random);
+            for (int c = 0; c < RANKING_CANDIDATES; c++) {
+                xs[c] = x + (random.nextDouble() * 2 - 1) * DISPATCH_RADIUS_DEGREES;
+                ys[c] = y + (random.nextDouble() * 2 - 1) * DISPATCH_RADIUS_DEGREES;
+            }
+            double scale = GeoDistance.longitudeScale(y);
+            int exact = 0, scaled = 0, flat = 0;
+            for (int c = 1; c < RANKING_CANDIDATES; c++) {
+                if (GeoDistance.haversineKm(x, y, xs[c], ys[c]) < GeoDistance.haversineKm(x, y, xs[exact], ys[exact]))
+                    exact = c;
+                if (GeoDistance.squaredDegrees(x, y, xs[c], ys[c], scale) < GeoDistance.squaredDegrees(x, y, xs[scaled], ys[scaled], scale))
+                    scaled = c;
+                if (GeoDistance.squaredDegrees(x, y, xs[c], ys[c], 1) < GeoDistance.squaredDegrees(x, y, xs[flat], ys[flat], 1))
+                    flat = c;
+            }
+            if (scaled == exact)
+                scaledAgree++;
+            if (flat == exact)
+                flatAgree++;
+        }
+        TestSupport.report("nearest of " + RANKING_CANDIDATES + " matches haversine", String.format(
+                "squared degrees %.2f%% | flat degrees %.2f%%", 100.0 * scaledAgree / RANKING_QUERIES, 100.0 * flatAgree / RANKING_QUERIES));
+        TestSupport.check(scaledAgree >= RANKING_QUERIES * 0.999, "ranking by squared degrees picks the true nearest in 99.9% of queries");
+        TestSupport.check(scaledAgree > flatAgree, "ranking by squared degrees is more often right than flat degrees");
+    }
+
+    private static void checkThroughput(Random random) {
+        double[] x1 = new double[PAIRS], y1 = new double[PAIRS], x2 = new double[PAIRS], y2 = new double[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            x1[i] = lng(random);
+            y1[i] = lat(random);
+            x2[i] = x1[i] + random.nextDouble() - 0.5;
+            y2[i] = y1[i] + random.nextDouble() - 0.5;
+        }
+        double scale = GeoDistance.longitudeScale(23); // One query latitude, as in a nearest scan
+        double sink = 0;
+        long haversine = Long.MAX_VALUE, equirectangular = Long.MAX_VALUE, squared = Long.MAX_VALUE;
+        for (int round = 0; round < TIMING_ROUNDS; round++) { // Best of several rounds, after the JIT has compiled each loop
+            long start = System.nanoTime();
+            for (int i = 0; i < PAIRS; i++) {
+                sink += GeoDistance.haversineKm(x1[i], y1[i], x2[i], y2[i]);
+            }
+            haversine = Math.min(haversine, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (int i = 0; i < PAIRS; i++) {
+                sink += GeoDistance.equirectangularKm(x1[i], y1[i], x2[i], y2[i], scale);
+            }
+            equirectangular = Math.min(equirectangular, System.nanoTime() - start);
+            start = System.nanoTime();
+            for (int i = 0; i < PAIRS; i++) {
+                sink += GeoDistance.squaredDegrees(x1[i], y1[i], x2[i], y2[i], scale);
+            }
+            squared = Math.min(squared, System.nanoTime() - start);
+        }
+        TestSupport.report("ns per call", String.format("haversine %.1f | equirectangular %.1f | squared degrees %.1f (sink %.0f)",
+                (double) haversine / PAIRS, (double) equirectangular / PAIRS, (double) squared / PAIRS, sink));
+        TestSupport.check(squared * 5 < haversine, "ranking by squared degrees is at least 5x cheaper than haversine");
+    }
+
+    // Great-circle distance from the straight-line chord between the two points on the unit sphere
+    private static double chordKm(double x1, double y1, double x2, double y2) {
+        double lat1 = Math.toRadians(y1), lat2 = Math.toRadians(y2);
+        double lng1 = Math.toRadians(x1), lng2 = Math.toRadians(x2);
+        double dx = Math.cos(lat2) * Math.cos(lng2) - Math.cos(lat1) * Math.cos(lng1);
+        double dy = Math.cos(lat2) * Math.sin(lng2) - Math.cos(lat1) * Math.sin(lng1);
+        double dz = Math.sin(lat2) - Math.sin(lat1);
+        return 2 * Constants.EARTH_RADIUS_KM * Math.asin(Math.sqrt(dx * dx + dy * dy + dz * dz) / 2);
+    }
+
+    private static double lng(Random random) {
+        return CoordinateGenerator.INDIA_MIN_LNG + random.nextDouble() * (CoordinateGenerator.INDIA_MAX_LNG - CoordinateGenerator.INDIA_MIN_LNG);
+    }
+
+    private static double lat(Random random) {
+        return CoordinateGenerator.INDIA_MIN_LAT + random.nextDouble() * (CoordinateGenerator.INDIA_MAX_LAT - CoordinateGenerator.INDIA_MIN_LAT);
+    }
+}
@@ -0,0 +1,101 @@
+package com.womensafety.alertsystem.util;
+
+import com.womensafety.alertsystem.TestSupport;
+import com.womensafety.alertsystem.util.SystemLogger.LogLevel;
+import java.lang.management.ManagementFactory;
+
+// Measures the heap allocated by log calls below the logger's threshold
+// A logger is set to ERROR and called with INFO records through each overload: a plain string, a Supplier, one to
+// three placeholder arguments and varargs. Arguments are boxed once before the timed loops, so the count covers what
+// the logger and the call site allocate and not the boxing of primitives. Next to them the same record is built by
+// eager concatenation, as the static SystemLogger calls did before loggers were gated. The checks are that suppressed
+// string, Supplier and fixed-arity calls allocate nothing per call and cost a few nanoseconds. The varargs array and
+// a Supplier that captures locals are created by the caller and are only removed when the JIT's escape analysis
+// succeeds, so those two are reported but not checked
+public class LoggerAllocationBenchmark {
+    private static final String NAME = "com.womensafety.alertsystem.test.QuietLogger"; // Not used by the application
+    private static final int CALLS = 1_000_000;
+    private static final int WARMUP_ROUNDS = 5;
+    private static final int VALUES = 1024; // Boxed arguments cycled through by the loops
+
+    private static final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Integer[] ids;
+    private static Double[] distances;
+
+    public static void main(String[] args) throws Exception {
+        run();
+        TestSupport.finish();
+    }
+
+    public static void run() {
+        TestSupport.begin("LoggerAllocationBenchmark");
+        ids = new Integer[VALUES];
+        distances = new Double[VALUES];
+        for (int i = 0; i < VALUES; i++) {
+            ids[i] = 100_000 + i; // Outside the Integer cache, so each is a distinct object
+            distances[i] = i * 0.37;
+        }
+        SystemLogger.setLevel(NAME, LogLevel.ERROR);
+        Logger log = SystemLogger.getLogger(NAME);
+        TestSupport.check(!log.isEnabled(LogLevel.INFO) && log.isEnabled(LogLevel.ERROR), "the test logger only emits errors");
+
+        Call[] calls = {
+                new Call("plain string", i -> log.info("Alert queue checked")),
+                new Call("Supplier", i -> log.info(() -> "Alert queue checked at " + System.nanoTime())),
+                new Call("one placeholder", i -> log.info("Alert {} assigned", ids[i])),
+                new Call("two placeholders", i -> log.info("Alert {} assigned to {}", ids[i], ids[i ^ 1])),
+                new Call("three placeholders", i -> log.info("Alert {} assigned to {} at {.2} km", ids[i], ids[i ^ 1], distances[i])),
+                new Call("varargs", i -> log.info("Alert {} to {} at {.2} km of {}", ids[i], ids[i ^ 1], distances[i], ids[i ^ 2])),
+                new Call("capturing Supplier", i -> log.info(() -> "Alert " + ids[i] + " assigned")),
+                new Call("eager concatenation", i -> log.info("Alert " + ids[i] + " assigned to " + ids[i ^ 1]
+                        + " at " + distances[i] + " km")),
+        };
+        for (int round = 0; round < WARMUP_ROUNDS; round++) { // Lets the JIT compile each loop before it is measured
+            for (Call call : calls) {
+                call.measure();
+            }
+        }
+        for (Call call : calls) {
+            call.measure();
+            TestSupport.report(call.name, String.format("%.2f bytes and %.1f ns per call", call.bytesPerCall, call.nanosPerCall));
+        }
+
+        for (int c = 0; c < 5; c++) { // Plain string, Supplier and the fixed-arity overloads
+            TestSupport.check(calls[c].bytesPerCall < 1, "suppressed " + calls[c].name + " call allocates nothing");
+            TestSupport.check(calls[c].nanosPerCall < 50, "suppressed " + calls[c].name + " call takes under 50 ns");
+        }
+        TestSupport.check(calls[7].bytesPerCall > 32, "eager concatenation allocates even though the record is dropped");
+    }
+
+    // One overload under test, called with the index of the arguments to pass
+    private interface Body {
+        void call(int i);
+    }
+
+    private static class Call {
+        final String name;
+        final Body body;
+        double bytesPerCall; // From the last measure()
+        double nanosPerCall;
+
+        Call(String name, Body body) {
+            this.name = name;
+            this.body = body;
+        }
+
+        // Runs the call CALLS times and records the heap this thread allocated and the time taken
+        void measure() {
+            long thread = Thread.currentThread().getId();
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < CALLS; i++) {
+                body.call(i & (VALUES - 1));
+            }
+            long nanos = System.nanoTime() - start;
+            bytesPerCall = (double) (threads.getThreadAllocatedBytes(thread) - bytes) / CALLS;
+            nanosPerCall = (double) nanos / CALLS;
+        }
+    }
+}